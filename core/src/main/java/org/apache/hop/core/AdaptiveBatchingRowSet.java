@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.Getter;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * A row set which hands over rows in batches for exactly one producer and one consumer thread. The
+ * lock is only taken once per batch instead of once per row.
+ *
+ * <ul>
+ *   <li>The batch size adapts to the throughput: it grows while the consumer has batches waiting
+ *       and shrinks when the consumer runs dry.
+ *   <li>A consumer which finds no complete batch for a short while takes the partial batch the
+ *       producer is filling. A slow trickle of rows therefore never stalls in a half-filled batch.
+ *   <li>{@link #setDone()} flushes the partial batch.
+ * </ul>
+ *
+ * <p>The number of rows waiting in complete batches never exceeds the maximum size of the row set.
+ */
+public class AdaptiveBatchingRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+
+  /** The count of a batch which can't receive any more rows. */
+  private static final int SEALED = -1;
+
+  /** The smallest batch size we'll use. */
+  public static final int MIN_BATCH_SIZE = 4;
+
+  /** How long a consumer waits for a complete batch before it takes a partial one. */
+  private static final long IDLE_FLUSH_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final class Batch {
+    private final Object[][] rows;
+
+    /** The number of rows handed over, or {@link #SEALED} once taken by the consumer. */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /** The number of rows the producer wrote, only used by the producer. */
+    private int written;
+
+    private Batch(int size) {
+      this.rows = new Object[size][];
+    }
+  }
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+
+  /** The complete batches, guarded by the lock. */
+  private final ArrayDeque<Batch> batches = new ArrayDeque<>();
+
+  /** The number of rows in the complete batches, written under the lock. */
+  private volatile int queuedRows;
+
+  /** The batch the producer is filling right now, the consumer can take it when idle. */
+  private final AtomicReference<Batch> openBatch = new AtomicReference<>();
+
+  @Getter private final int maxSize;
+  @Getter private final int maxBatchSize;
+
+  /** The size of the next batch the producer will start, adapted over time. */
+  @Getter private volatile int batchSize;
+
+  // Consumer side state
+  //
+  private Object[][] outputRows;
+  private int outputSize;
+  private int outputIndex;
+
+  private final int timeoutPut;
+  private final int timeoutGet;
+
+  /**
+   * Create a new batching row set.
+   *
+   * @param maxSize the maximum number of rows in the row set
+   */
+  public AdaptiveBatchingRowSet(int maxSize) {
+    super();
+    this.maxSize = Math.max(1, maxSize);
+    this.maxBatchSize = Math.max(1, Math.max(MIN_BATCH_SIZE, this.maxSize / 4));
+    this.batchSize = Math.min(MIN_BATCH_SIZE, this.maxBatchSize);
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    this.rowMeta = rowMeta;
+    if (rowData == null) {
+      return false;
+    }
+
+    while (true) {
+      Batch batch = openBatch.get();
+      if (batch == null) {
+        batch = startBatch(tu.toNanos(time));
+        if (batch == null) {
+          return false; // no room
+        }
+      }
+
+      int index = batch.written;
+      batch.rows[index] = rowData;
+      if (!batch.count.compareAndSet(index, index + 1)) {
+        // The consumer took this batch while we were filling it, start a new one
+        //
+        openBatch.compareAndSet(batch, null);
+        continue;
+      }
+      batch.written = index + 1;
+
+      if (batch.written == batch.rows.length) {
+        publish(batch, false);
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Start a new batch once there is room for it.
+   *
+   * @param nanos the maximum time to wait for room
+   * @return the new batch or null if there was no room in time
+   */
+  private Batch startBatch(long nanos) {
+    lock.lock();
+    try {
+      // Always allow a batch when the consumer has nothing, even if it's bigger than the room left
+      //
+      while (!batches.isEmpty() && queuedRows + batchSize > maxSize) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      Batch batch = new Batch(batchSize);
+      openBatch.set(batch);
+      return batch;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Hand over the given batch of the producer to the consumer.
+   *
+   * @param batch the batch to publish
+   * @param partial true if the batch is published before it was filled
+   */
+  private void publish(Batch batch, boolean partial) {
+    lock.lock();
+    try {
+      openBatch.compareAndSet(batch, null);
+      int count = batch.count.getAndSet(SEALED);
+      if (count <= 0) {
+        return; // Already taken by the consumer or empty
+      }
+      if (!partial) {
+        // The consumer still has work waiting: bigger batches lower the overhead.
+        //
+        if (!batches.isEmpty() && batchSize < maxBatchSize) {
+          batchSize = Math.min(maxBatchSize, batchSize * 2);
+        }
+      }
+      batch.written = count;
+      batches.addLast(batch);
+      queuedRows += count;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    if (outputIndex < outputSize || nextBatch(0L)) {
+      return nextRow();
+    }
+    return null;
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    if (outputIndex < outputSize || nextBatch(tu.toNanos(timeout))) {
+      return nextRow();
+    }
+    return null;
+  }
+
+  private Object[] nextRow() {
+    Object[] row = outputRows[outputIndex];
+    outputRows[outputIndex++] = null; // prevent any hold-up to GC
+    return row;
+  }
+
+  /**
+   * Get the next batch of rows for the consumer. If there is no complete batch for a little while
+   * we take the batch the producer is filling.
+   *
+   * @param nanos the maximum time to wait
+   * @return true if a batch with rows was found
+   */
+  private boolean nextBatch(long nanos) {
+    long deadline = System.nanoTime() + nanos;
+    lock.lock();
+    try {
+      while (true) {
+        Batch batch = batches.pollFirst();
+        if (batch != null) {
+          queuedRows -= batch.written;
+          notFull.signal();
+          return useBatch(batch, batch.written);
+        }
+
+        // Wait a little while for the producer to complete a batch
+        //
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0 && !isDone()) {
+          notEmpty.awaitNanos(Math.min(remaining, IDLE_FLUSH_NANOS));
+          if (!batches.isEmpty()) {
+            continue;
+          }
+        }
+
+        // Nothing arrived: the producer is idle or slow. Take the rows it already gave us.
+        //
+        Batch open = openBatch.get();
+        if (open != null) {
+          int count = open.count.getAndSet(SEALED);
+          openBatch.compareAndSet(open, null);
+          if (count > 0) {
+            // Rows trickle in: smaller batches keep the latency down.
+            //
+            batchSize = Math.max(Math.min(MIN_BATCH_SIZE, maxBatchSize), batchSize / 2);
+            return useBatch(open, count);
+          }
+        }
+
+        if (deadline - System.nanoTime() <= 0 || isDone()) {
+          return false;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean useBatch(Batch batch, int count) {
+    outputRows = batch.rows;
+    outputSize = count;
+    outputIndex = 0;
+    return count > 0;
+  }
+
+  @Override
+  public void setDone() {
+    Batch batch = openBatch.get();
+    if (batch != null) {
+      publish(batch, true);
+    }
+    super.setDone();
+    lock.lock();
+    try {
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = queuedRows + Math.max(0, outputSize - outputIndex);
+    Batch batch = openBatch.get();
+    if (batch != null) {
+      size += Math.max(0, batch.count.get());
+    }
+    return size;
+  }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      batches.clear();
+      queuedRows = 0;
+      openBatch.set(null);
+      outputRows = null;
+      outputSize = 0;
+      outputIndex = 0;
+      batchSize = Math.min(MIN_BATCH_SIZE, maxBatchSize);
+      done.set(false);
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -497,6 +497,38 @@ public class Const {
           "The maximum age (in minutes) of a log line while being kept internally by Hop. Set to 0 to keep all rows indefinitely (default)")
   public static final String HOP_MAX_LOG_TIMEOUT_IN_MINUTES = "HOP_MAX_LOG_TIMEOUT_IN_MINUTES";
 
+  /** Set this variable to Y to write log files on a separate thread */
+  @Variable(
+      scope = VariableScope.APPLICATION,
+      value = "N",
+      description =
+          "Set this variable to 'Y' to write log files on a separate thread. The threads which log only queue the log lines, the writer thread writes and flushes them in batches. This applies to the log file of hop-run and the log files of pipelines, workflows and actions.")
+  public static final String HOP_LOG_FILE_ASYNC = "HOP_LOG_FILE_ASYNC";
+
+  /** The maximum number of log lines waiting to be written to a log file */
+  @Variable(
+      scope = VariableScope.APPLICATION,
+      value = "10000",
+      description =
+          "The maximum number of log lines waiting to be written to a log file when HOP_LOG_FILE_ASYNC is enabled.")
+  public static final String HOP_LOG_FILE_QUEUE_SIZE = "HOP_LOG_FILE_QUEUE_SIZE";
+
+  /** The maximum time in milliseconds before written log lines are flushed to a log file */
+  @Variable(
+      scope = VariableScope.APPLICATION,
+      value = "1000",
+      description =
+          "The maximum time in milliseconds before the log lines written to a log file are flushed when HOP_LOG_FILE_ASYNC is enabled. The output is also flushed after every 64KB.")
+  public static final String HOP_LOG_FILE_FLUSH_INTERVAL = "HOP_LOG_FILE_FLUSH_INTERVAL";
+
+  /** What to do with a log line when the queue of a log file is full: Block or DropLowSeverity */
+  @Variable(
+      scope = VariableScope.APPLICATION,
+      value = "Block",
+      description =
+          "What to do with a log line when the queue of a log file is full and HOP_LOG_FILE_ASYNC is enabled. 'Block' waits for room, 'DropLowSeverity' drops the lines logged at Detailed, Debug or Rowlevel and reports the number of dropped lines at the end of the log file.")
+  public static final String HOP_LOG_FILE_OVERFLOW_POLICY = "HOP_LOG_FILE_OVERFLOW_POLICY";
+
   /**
    * System wide flag to determine whether standard error will be redirected to Hop logging
    * facilities. Will redirect if the value is equal ignoring case to the string "Y"
@@ -570,6 +602,26 @@ public class Const {
   public static final String HOP_TRANSFORM_PERFORMANCE_SNAPSHOT_LIMIT =
       "HOP_TRANSFORM_PERFORMANCE_SNAPSHOT_LIMIT";
 
+  /**
+   * System wide parameter: the number of worker threads which run the transforms of all pipelines
+   * using the scheduled transform thread type. The default is the number of available processors.
+   */
+  @Variable(
+      description =
+          "The number of worker threads which run the transforms of all pipelines using the scheduled transform thread type. The default is the number of available processors.")
+  public static final String HOP_TRANSFORM_SCHEDULER_THREADS = "HOP_TRANSFORM_SCHEDULER_THREADS";
+
+  /**
+   * System wide parameter: the number of milliseconds between checks of the scheduled transforms
+   * for rows put by other threads or for a stop. The default is 1.
+   */
+  @Variable(
+      value = "1",
+      description =
+          "The number of milliseconds between checks of the scheduled transforms for rows put by other threads or for a stop.")
+  public static final String HOP_TRANSFORM_SCHEDULER_RESCAN_INTERVAL =
+      "HOP_TRANSFORM_SCHEDULER_RESCAN_INTERVAL";
+
   /**
    * When set to Y or true, pipeline transforms track estimated data volume (bytes in) on the input
    * side. The metric is exposed in pipeline metrics and can have a performance impact.
@@ -761,6 +813,48 @@ public class Const {
   public static final String HOP_SPLIT_FIELDS_REMOVE_ENCLOSURE =
       "HOP_SPLIT_FIELDS_REMOVE_ENCLOSURE";
 
+  /** The maximum number of compiled schemas, templates, patterns... shared by transforms */
+  @Variable(
+      value = "1000",
+      description =
+          "The maximum number of compiled artifacts like XML schemas, XSLT templates and regular expressions which transforms share across transform copies and pipelines in the same JVM. The least recently used ones are evicted when it's full.")
+  public static final String HOP_COMPILED_ARTIFACT_CACHE_SIZE = "HOP_COMPILED_ARTIFACT_CACHE_SIZE";
+
+  /** Set this variable to Y to cache the parsed pipeline and workflow files which are loaded */
+  @Variable(
+      value = "N",
+      description =
+          "Set this variable to 'Y' to keep the parsed XML of the pipeline and workflow files which are loaded by actions and transforms like the Pipeline Executor. A file is parsed again when its modification time or size changes. The local run configurations set this variable when the option to cache loaded pipelines and workflows is enabled.")
+  public static final String HOP_CACHE_LOADED_FILES = "HOP_CACHE_LOADED_FILES";
+
+  /** The maximum number of parsed pipeline and workflow files kept in the cache */
+  @Variable(
+      value = "100",
+      description =
+          "The maximum number of parsed pipeline and workflow files kept in the cache when HOP_CACHE_LOADED_FILES is enabled. The least recently used ones are evicted when it's full.")
+  public static final String HOP_LOADED_FILE_CACHE_SIZE = "HOP_LOADED_FILE_CACHE_SIZE";
+
+  /** The maximum size of the lookup cache which is shared by transforms, in MB */
+  @Variable(
+      value = "256",
+      description =
+          "The maximum size in MB of the lookup cache which transforms like Database lookup share across transform copies and pipelines in the same JVM. The least recently used rows are evicted when it's full.")
+  public static final String HOP_SHARED_LOOKUP_CACHE_SIZE_MB = "HOP_SHARED_LOOKUP_CACHE_SIZE_MB";
+
+  /** The maximum number of temporary files the Sort rows transform merges at once */
+  @Variable(
+      value = "128",
+      description =
+          "The maximum number of temporary files the Sort rows transform merges at once. When there are more files they are merged in multiple passes.")
+  public static final String HOP_SORT_ROWS_MERGE_FILES = "HOP_SORT_ROWS_MERGE_FILES";
+
+  /** The number of runs the Sort rows transform sorts in the background */
+  @Variable(
+      value = "2",
+      description =
+          "The number of runs of rows the Sort rows transform sorts and writes to temporary files in the background while it reads more rows. Set to 0 to sort in the transform itself.")
+  public static final String HOP_SORT_ROWS_PARALLEL_RUNS = "HOP_SORT_ROWS_PARALLEL_RUNS";
+
   /** Variable that is responsible for checking empty field names and types. */
   @Variable(
       value = "N",
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+/** The type of row set used to connect transform copies in the local pipeline engine. */
+@SuppressWarnings("java:S115")
+public enum RowSetType {
+  /** A {@link BlockingRowSet}: a lock based queue which is safe for any hop. */
+  Blocking,
+
+  /**
+   * A {@link SpscRowSet}: a lock-free ring buffer. It's used for 1:1 and N:N hops, the other hops
+   * keep using a {@link BlockingRowSet}.
+   */
+  LockFree,
+
+  /**
+   * An {@link AdaptiveBatchingRowSet}: rows are handed over in batches of an adaptive size. Hops
+   * which are re-partitioned (N:M) keep using a {@link BlockingRowSet}.
+   */
+  Batching;
+
+  /**
+   * Find a row set type by name, ignoring case.
+   *
+   * @param name the name to look for
+   * @param defaultType the type to return if the name is empty or unknown
+   * @return the row set type
+   */
+  public static RowSetType lookup(String name, RowSetType defaultType) {
+    for (RowSetType type : values()) {
+      if (type.name().equalsIgnoreCase(name)) {
+        return type;
+      }
+    }
+    return defaultType;
+  }
+}
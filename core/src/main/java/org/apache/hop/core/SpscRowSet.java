@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.Getter;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * A bounded, lock-free row set for exactly one producer thread and one consumer thread. Rows are
+ * kept in a ring buffer. The producer only ever moves the tail and the consumer only ever moves the
+ * head, so no lock is needed to hand over a row.
+ *
+ * <p>When the buffer is full (put) or empty (get) the calling thread backs off according to the
+ * configured {@link WaitStrategy} until the row can be handed over or the timeout expires.
+ *
+ * <p>Virtual threads never spin: they yield their carrier and then park, whatever the strategy.
+ *
+ * <p>This row set must not be shared by several producing or consuming transform copies.
+ */
+public class SpscRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+
+  /** The way a thread waits for room (put) or for a row (get). */
+  @SuppressWarnings("java:S115")
+  public enum WaitStrategy {
+    /** Busy spin: lowest latency, burns a core while waiting. */
+    Spin,
+    /** Spin for a short while, then yield the CPU to other threads. */
+    Yield,
+    /** Spin, yield and then park the thread with an increasing back-off. */
+    Park;
+
+    public static WaitStrategy lookup(String name, WaitStrategy defaultStrategy) {
+      for (WaitStrategy strategy : values()) {
+        if (strategy.name().equalsIgnoreCase(name)) {
+          return strategy;
+        }
+      }
+      return defaultStrategy;
+    }
+  }
+
+  private static final int SPIN_TRIES = 100;
+  private static final int YIELD_TRIES = 100;
+  private static final long MIN_PARK_NANOS = 1_000L;
+  private static final long MAX_PARK_NANOS = 1_000_000L;
+
+  private final Object[][] buffer;
+  private final int mask;
+  @Getter private final int capacity;
+  @Getter private final WaitStrategy waitStrategy;
+
+  /** The next position to read, only moved by the consumer. */
+  private final AtomicLong head = new AtomicLong();
+
+  /** The next position to write, only moved by the producer. */
+  private final AtomicLong tail = new AtomicLong();
+
+  /** The producer's last known value of the head, avoids reading the volatile on every put. */
+  private long cachedHead;
+
+  /** The consumer's last known value of the tail, avoids reading the volatile on every get. */
+  private long cachedTail;
+
+  private final int timeoutPut;
+  private final int timeoutGet;
+
+  /**
+   * Create a new lock-free row set using the {@link WaitStrategy#Yield} strategy.
+   *
+   * @param maxSize the maximum number of rows in the buffer
+   */
+  public SpscRowSet(int maxSize) {
+    this(maxSize, WaitStrategy.Yield);
+  }
+
+  /**
+   * Create a new lock-free row set.
+   *
+   * @param maxSize the maximum number of rows in the buffer
+   * @param waitStrategy the way to wait when the buffer is full or empty
+   */
+  public SpscRowSet(int maxSize, WaitStrategy waitStrategy) {
+    super();
+    this.capacity = Math.max(1, maxSize);
+    this.waitStrategy = waitStrategy == null ? WaitStrategy.Yield : waitStrategy;
+
+    // The ring buffer itself is sized to the next power of 2 so that we can use a mask.
+    //
+    int ringSize = Integer.highestOneBit(capacity);
+    if (ringSize < capacity) {
+      ringSize <<= 1;
+    }
+    this.buffer = new Object[ringSize][];
+    this.mask = ringSize - 1;
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    this.rowMeta = rowMeta;
+    if (rowData == null) {
+      return false;
+    }
+    if (offer(rowData)) {
+      return true;
+    }
+    long deadline = System.nanoTime() + tu.toNanos(time);
+    int attempt = 0;
+    while (!offer(rowData)) {
+      if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+        return false;
+      }
+      idle(attempt++);
+    }
+    return true;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    return poll();
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    Object[] row = poll();
+    if (row != null) {
+      return row;
+    }
+    long deadline = System.nanoTime() + tu.toNanos(timeout);
+    int attempt = 0;
+    while ((row = poll()) == null) {
+      if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+        return null;
+      }
+      idle(attempt++);
+    }
+    return row;
+  }
+
+  /** Producer side: try to add a row without waiting. */
+  private boolean offer(Object[] rowData) {
+    long currentTail = tail.get();
+    if (currentTail - cachedHead >= capacity) {
+      cachedHead = head.get();
+      if (currentTail - cachedHead >= capacity) {
+        return false;
+      }
+    }
+    buffer[(int) (currentTail & mask)] = rowData;
+    // The ordered write makes the row visible to the consumer before the new tail.
+    tail.lazySet(currentTail + 1);
+    return true;
+  }
+
+  /** Consumer side: try to take a row without waiting. */
+  private Object[] poll() {
+    long currentHead = head.get();
+    if (currentHead >= cachedTail) {
+      cachedTail = tail.get();
+      if (currentHead >= cachedTail) {
+        return null;
+      }
+    }
+    int index = (int) (currentHead & mask);
+    Object[] row = buffer[index];
+    buffer[index] = null; // prevent any hold-up to GC
+    head.lazySet(currentHead + 1);
+    return row;
+  }
+
+  private void idle(int attempt) {
+    if (Thread.currentThread().isVirtual()) {
+      // A spinning virtual thread holds on to its carrier and can starve the other side of this
+      // row set when it runs on the same carrier. Yield right away and park when that doesn't help.
+      //
+      if (attempt < YIELD_TRIES) {
+        Thread.yield();
+      } else {
+        int shift = Math.min(attempt - YIELD_TRIES, 10);
+        LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << shift, MAX_PARK_NANOS));
+      }
+      return;
+    }
+    switch (waitStrategy) {
+      case Spin:
+        Thread.onSpinWait();
+        break;
+      case Yield:
+        if (attempt < SPIN_TRIES) {
+          Thread.onSpinWait();
+        } else {
+          Thread.yield();
+        }
+        break;
+      case Park:
+      default:
+        if (attempt < SPIN_TRIES) {
+          Thread.onSpinWait();
+        } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+          Thread.yield();
+        } else {
+          int shift = Math.min(attempt - SPIN_TRIES - YIELD_TRIES, 10);
+          LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << shift, MAX_PARK_NANOS));
+        }
+        break;
+    }
+  }
+
+  @Override
+  public int size() {
+    long currentHead = head.get();
+    long currentTail = tail.get();
+    return (int) Math.max(0, Math.min(capacity, currentTail - currentHead));
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(buffer, null);
+    head.set(0);
+    tail.set(0);
+    cachedHead = 0;
+    cachedTail = 0;
+    done.set(false);
+  }
+}
@@ -0,0 +1,447 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * A hash index from a row of key values to a row of values which keeps its entries in a few large
+ * arrays instead of an object per entry.
+ *
+ * <p>Keys and values are serialized back to back into pages of bytes (the slab). The hash table
+ * itself uses open addressing with linear probing over primitive arrays: for each slot it holds the
+ * hash of the key and the address of the entry in the slab. A key is only compared byte per byte
+ * when the hashes match.
+ *
+ * <p>When the key is a single Integer the key itself is kept in the table and only the values are
+ * serialized into the slab. Lookups then don't need to serialize the key at all.
+ *
+ * <p>Putting a key which is already in the index replaces its values. The old values stay in the
+ * slab until the index is cleared. Like the other indexes in this package this class is not thread
+ * safe.
+ */
+public class CompactRowHashIndex {
+
+  private static final int STANDARD_INDEX_SIZE = 512;
+  private static final float STANDARD_LOAD_FACTOR = 0.7f;
+
+  /** The size of the pages of the slab, larger entries get a page of their own. */
+  private static final int PAGE_SIZE = 1 << 20;
+
+  private final IRowMeta keyRowMeta;
+  private final IRowMeta valueRowMeta;
+  private final boolean usingLongKeys;
+
+  /** The address of the entry in the slab plus one for each slot, 0 for an empty slot */
+  private long[] addresses;
+
+  /** The hash codes of the serialized keys, only used for keys which are not a single Integer */
+  private int[] hashes;
+
+  /** The keys, only used for a single Integer key */
+  private long[] keys;
+
+  private int mask;
+  private int count;
+  private int resizeThresHold;
+
+  /** The address of the entry with a null Integer key plus one, 0 if there is none */
+  private long nullKeyAddress;
+
+  private byte[][] pages;
+  private int nrPages;
+  private int pageOffset;
+  private long slabSize;
+
+  private final SlabOutputStream buffer;
+  private final DataOutputStream bufferOutput;
+
+  /**
+   * Create a new compact hash index.
+   *
+   * @param keyRowMeta the layout of the keys, all using normal storage
+   * @param valueRowMeta the layout of the values
+   * @param size the initial number of slots in the index
+   */
+  public CompactRowHashIndex(IRowMeta keyRowMeta, IRowMeta valueRowMeta, int size) {
+    this.keyRowMeta = keyRowMeta;
+    this.valueRowMeta = valueRowMeta;
+    this.usingLongKeys =
+        keyRowMeta.size() == 1
+            && keyRowMeta.getValueMeta(0).getType() == IValueMeta.TYPE_INTEGER
+            && keyRowMeta.getValueMeta(0).isStorageNormal();
+
+    // Find a suitable capacity being a factor of 2:
+    int factor2Size = 2;
+    while (factor2Size < size) {
+      factor2Size <<= 1; // Multiply by 2
+    }
+    allocateIndex(factor2Size);
+
+    this.pages = new byte[16][];
+    this.buffer = new SlabOutputStream();
+    this.bufferOutput = new DataOutputStream(buffer);
+  }
+
+  /**
+   * Create a new compact hash index.
+   *
+   * @param keyRowMeta the layout of the keys, all using normal storage
+   * @param valueRowMeta the layout of the values
+   */
+  public CompactRowHashIndex(IRowMeta keyRowMeta, IRowMeta valueRowMeta) {
+    this(keyRowMeta, valueRowMeta, STANDARD_INDEX_SIZE);
+  }
+
+  private void allocateIndex(int size) {
+    addresses = new long[size];
+    if (usingLongKeys) {
+      keys = new long[size];
+    } else {
+      hashes = new int[size];
+    }
+    mask = size - 1;
+    resizeThresHold = (int) (size * STANDARD_LOAD_FACTOR);
+  }
+
+  /**
+   * @return true if the keys are kept in the index as primitive long values
+   */
+  public boolean isUsingLongKeys() {
+    return usingLongKeys;
+  }
+
+  /**
+   * @return the number of slots in the index
+   */
+  public int getSize() {
+    return addresses.length;
+  }
+
+  /**
+   * @return the number of keys in the index
+   */
+  public int getCount() {
+    return count;
+  }
+
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  /**
+   * @return the number of bytes allocated by the index and the slab with the keys and values
+   */
+  public long getMemoryUsage() {
+    long bytes = (long) addresses.length * Long.BYTES;
+    if (usingLongKeys) {
+      bytes += (long) keys.length * Long.BYTES;
+    } else {
+      bytes += (long) hashes.length * Integer.BYTES;
+    }
+    return bytes + slabSize + (long) pages.length * Long.BYTES;
+  }
+
+  /**
+   * Store the values of a key. The values of a key which is already in the index are replaced.
+   *
+   * @param keyData the key values
+   * @param valueData the values to store
+   * @throws HopException in case the key or values can't be serialized
+   */
+  public void put(Object[] keyData, Object[] valueData) throws HopException {
+    if (usingLongKeys) {
+      Long key = keyRowMeta.getInteger(keyData, 0);
+      long address = writeValues(valueData);
+      if (key == null) {
+        if (nullKeyAddress == 0) {
+          count++;
+        }
+        nullKeyAddress = address + 1;
+        return;
+      }
+      putLong(key, address);
+    } else {
+      byte[] key = serializeKey(keyData);
+      int keyLength = buffer.size();
+      int hash = hashBytes(key, keyLength);
+      int slot = findSlot(hash, key, keyLength);
+      long address = writeEntry(key, keyLength, valueData);
+      if (addresses[slot] == 0) {
+        hashes[slot] = hash;
+        addresses[slot] = address + 1;
+        grow();
+      } else {
+        addresses[slot] = address + 1;
+      }
+    }
+  }
+
+  /**
+   * Get the values stored for a key.
+   *
+   * @param keyData the key values
+   * @return the stored values or null if the key is not in the index
+   * @throws HopException in case the key or values can't be (de-)serialized
+   */
+  public Object[] get(Object[] keyData) throws HopException {
+    long address;
+    if (usingLongKeys) {
+      Long key = keyRowMeta.getInteger(keyData, 0);
+      if (key == null) {
+        address = nullKeyAddress;
+      } else {
+        address = addresses[findLongSlot(key)];
+      }
+    } else {
+      byte[] key = serializeKey(keyData);
+      int keyLength = buffer.size();
+      address = addresses[findSlot(hashBytes(key, keyLength), key, keyLength)];
+    }
+    if (address == 0) {
+      return null;
+    }
+    return readValues(address - 1);
+  }
+
+  /** Remove all keys and values and release the slab. */
+  public void clear() {
+    allocateIndex(STANDARD_INDEX_SIZE);
+    count = 0;
+    nullKeyAddress = 0;
+    pages = new byte[16][];
+    nrPages = 0;
+    pageOffset = 0;
+    slabSize = 0;
+  }
+
+  private void putLong(long key, long address) {
+    int slot = findLongSlot(key);
+    if (addresses[slot] == 0) {
+      keys[slot] = key;
+      addresses[slot] = address + 1;
+      grow();
+    } else {
+      addresses[slot] = address + 1;
+    }
+  }
+
+  /** Find the slot holding the given long key or else the empty slot where it belongs. */
+  private int findLongSlot(long key) {
+    int slot = mix(Long.hashCode(key)) & mask;
+    while (addresses[slot] != 0 && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** Find the slot holding the given serialized key or else the empty slot where it belongs. */
+  private int findSlot(int hash, byte[] key, int keyLength) {
+    int slot = hash & mask;
+    while (addresses[slot] != 0) {
+      if (hashes[slot] == hash && equalsKey(addresses[slot] - 1, key, keyLength)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void grow() {
+    count++;
+    if (count < resizeThresHold) {
+      return;
+    }
+
+    // Double the size to keep the size of the index a factor of 2 and re-distribute the entries
+    //
+    long[] oldAddresses = addresses;
+    long[] oldKeys = keys;
+    int[] oldHashes = hashes;
+    allocateIndex(oldAddresses.length * 2);
+
+    for (int i = 0; i < oldAddresses.length; i++) {
+      if (oldAddresses[i] == 0) {
+        continue;
+      }
+      int slot;
+      if (usingLongKeys) {
+        slot = mix(Long.hashCode(oldKeys[i])) & mask;
+      } else {
+        slot = oldHashes[i] & mask;
+      }
+      while (addresses[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      addresses[slot] = oldAddresses[i];
+      if (usingLongKeys) {
+        keys[slot] = oldKeys[i];
+      } else {
+        hashes[slot] = oldHashes[i];
+      }
+    }
+  }
+
+  private byte[] serializeKey(Object[] keyData) throws HopException {
+    buffer.reset();
+    keyRowMeta.writeData(bufferOutput, keyData);
+    return buffer.getBuffer();
+  }
+
+  /**
+   * Append an entry to the slab: the length of the key, the key, the length of the values and the
+   * values.
+   *
+   * @return the address of the entry
+   */
+  private long writeEntry(byte[] key, int keyLength, Object[] valueData) throws HopException {
+    // The key is in the buffer we use to serialize the values, keep a copy
+    //
+    byte[] keyCopy = Arrays.copyOf(key, keyLength);
+
+    buffer.reset();
+    valueRowMeta.writeData(bufferOutput, valueData);
+    int valueLength = buffer.size();
+
+    int entryLength = Integer.BYTES + keyLength + Integer.BYTES + valueLength;
+    long address = allocate(entryLength);
+    byte[] page = pages[(int) (address >>> 32)];
+    int offset = (int) address;
+    offset = writeInt(page, offset, keyLength);
+    System.arraycopy(keyCopy, 0, page, offset, keyLength);
+    offset += keyLength;
+    offset = writeInt(page, offset, valueLength);
+    System.arraycopy(buffer.getBuffer(), 0, page, offset, valueLength);
+    return address;
+  }
+
+  /**
+   * Append an entry for a long key to the slab: the length of the values and the values.
+   *
+   * @return the address of the entry
+   */
+  private long writeValues(Object[] valueData) throws HopException {
+    buffer.reset();
+    valueRowMeta.writeData(bufferOutput, valueData);
+    int valueLength = buffer.size();
+
+    long address = allocate(Integer.BYTES + valueLength);
+    byte[] page = pages[(int) (address >>> 32)];
+    int offset = writeInt(page, (int) address, valueLength);
+    System.arraycopy(buffer.getBuffer(), 0, page, offset, valueLength);
+    return address;
+  }
+
+  /**
+   * Reserve room in the slab.
+   *
+   * @param length the number of bytes needed
+   * @return the address: the page number in the upper 32 bits, the offset in the lower 32 bits
+   */
+  private long allocate(int length) {
+    if (nrPages == 0 || pageOffset + length > pages[nrPages - 1].length) {
+      if (nrPages == pages.length) {
+        pages = Arrays.copyOf(pages, pages.length * 2);
+      }
+      byte[] page = new byte[Math.max(PAGE_SIZE, length)];
+      pages[nrPages++] = page;
+      pageOffset = 0;
+      slabSize += page.length;
+    }
+    long address = ((long) (nrPages - 1) << 32) | pageOffset;
+    pageOffset += length;
+    return address;
+  }
+
+  private boolean equalsKey(long address, byte[] key, int keyLength) {
+    byte[] page = pages[(int) (address >>> 32)];
+    int offset = (int) address;
+    if (readInt(page, offset) != keyLength) {
+      return false;
+    }
+    return Arrays.equals(
+        page, offset + Integer.BYTES, offset + Integer.BYTES + keyLength, key, 0, keyLength);
+  }
+
+  private Object[] readValues(long address) throws HopException {
+    byte[] page = pages[(int) (address >>> 32)];
+    int offset = (int) address;
+    if (!usingLongKeys) {
+      offset += Integer.BYTES + readInt(page, offset);
+    }
+    int valueLength = readInt(page, offset);
+    try (DataInputStream inputStream =
+        new DataInputStream(new ByteArrayInputStream(page, offset + Integer.BYTES, valueLength))) {
+      return valueRowMeta.readData(inputStream);
+    } catch (IOException e) {
+      throw new HopException("Error reading values from the hash index", e);
+    }
+  }
+
+  private static int writeInt(byte[] page, int offset, int value) {
+    page[offset] = (byte) (value >>> 24);
+    page[offset + 1] = (byte) (value >>> 16);
+    page[offset + 2] = (byte) (value >>> 8);
+    page[offset + 3] = (byte) value;
+    return offset + Integer.BYTES;
+  }
+
+  private static int readInt(byte[] page, int offset) {
+    return ((page[offset] & 0xFF) << 24)
+        | ((page[offset + 1] & 0xFF) << 16)
+        | ((page[offset + 2] & 0xFF) << 8)
+        | (page[offset + 3] & 0xFF);
+  }
+
+  private static int hashBytes(byte[] key, int length) {
+    int hash = 1;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + key[i];
+    }
+    return mix(hash);
+  }
+
+  /** Spread the bits of a hash code so that similar keys don't end up in the same area. */
+  private static int mix(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  /** Gives access to the bytes written without making a copy. */
+  private static final class SlabOutputStream extends ByteArrayOutputStream {
+    private SlabOutputStream() {
+      super(256);
+    }
+
+    private byte[] getBuffer() {
+      return buf;
+    }
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.logging;
+
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.util.EnvUtil;
+
+/**
+ * Writes logging events to an output stream on a separate thread. The threads doing the logging
+ * only put the events on a bounded queue. The writer thread formats them in batches and flushes the
+ * output once enough was written or once the flush interval passed.
+ *
+ * <p>When the queue is full, the {@link OverflowPolicy} decides whether the logging thread waits or
+ * whether the event is dropped. Dropped events are counted and reported at the end of the output.
+ *
+ * <p>The output stream isn't closed by this writer: {@link #close()} only writes the events which
+ * are still queued and stops the writer thread.
+ */
+public class AsyncLogWriter {
+
+  /** What to do with an event when the queue is full. */
+  @SuppressWarnings("java:S115")
+  public enum OverflowPolicy {
+    /** Wait until the writer thread made room for the event. */
+    Block,
+    /** Drop the events less important than Basic and count them. Wait for the other events. */
+    DropLowSeverity;
+
+    public static OverflowPolicy lookup(String name, OverflowPolicy defaultPolicy) {
+      for (OverflowPolicy policy : values()) {
+        if (policy.name().equalsIgnoreCase(name)) {
+          return policy;
+        }
+      }
+      return defaultPolicy;
+    }
+  }
+
+  public static final int DEFAULT_QUEUE_SIZE = 10000;
+  public static final int DEFAULT_FLUSH_INTERVAL = 1000;
+
+  /** The number of bytes written after which the output is flushed. */
+  private static final int FLUSH_SIZE = 64 * 1024;
+
+  /** The maximum number of events taken from the queue at once. */
+  private static final int MAX_BATCH_SIZE = 1000;
+
+  /** How long to wait for room in the queue before checking if the writer is still running. */
+  private static final long OFFER_TIMEOUT_MILLIS = 100L;
+
+  /** Marks the end of the events in the queue. */
+  private static final HopLoggingEvent END = new HopLoggingEvent();
+
+  @Getter private final String name;
+  private final OutputStream outputStream;
+  private final HopLogLayout layout;
+  private final BlockingQueue<HopLoggingEvent> queue;
+  @Getter private final OverflowPolicy overflowPolicy;
+  private final long flushIntervalNanos;
+  private final AtomicLong droppedEvents = new AtomicLong();
+  private final Thread thread;
+
+  private volatile boolean closed;
+  @Getter private volatile HopException exception;
+
+  /**
+   * Create a new writer and start its thread.
+   *
+   * @param name the name of the output, usually the filename, used in messages
+   * @param outputStream the stream to write to
+   * @param queueSize the maximum number of events waiting to be written
+   * @param flushInterval the maximum time in milliseconds written lines aren't flushed
+   * @param overflowPolicy what to do with an event when the queue is full
+   */
+  public AsyncLogWriter(
+      String name,
+      OutputStream outputStream,
+      int queueSize,
+      long flushInterval,
+      OverflowPolicy overflowPolicy) {
+    this.name = name;
+    this.outputStream = outputStream;
+    this.layout = new HopLogLayout(true);
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+    this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, flushInterval));
+    this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.Block : overflowPolicy;
+
+    thread = new Thread(this::writeEvents, "Hop log writer: " + name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Create a new writer configured with the {@link Const#HOP_LOG_FILE_QUEUE_SIZE}, {@link
+   * Const#HOP_LOG_FILE_FLUSH_INTERVAL} and {@link Const#HOP_LOG_FILE_OVERFLOW_POLICY} variables.
+   *
+   * @param name the name of the output, usually the filename, used in messages
+   * @param outputStream the stream to write to
+   * @return the new writer
+   */
+  public static AsyncLogWriter create(String name, OutputStream outputStream) {
+    return new AsyncLogWriter(
+        name,
+        outputStream,
+        Const.toInt(EnvUtil.getSystemProperty(Const.HOP_LOG_FILE_QUEUE_SIZE), DEFAULT_QUEUE_SIZE),
+        Const.toLong(
+            EnvUtil.getSystemProperty(Const.HOP_LOG_FILE_FLUSH_INTERVAL), DEFAULT_FLUSH_INTERVAL),
+        OverflowPolicy.lookup(
+            EnvUtil.getSystemProperty(Const.HOP_LOG_FILE_OVERFLOW_POLICY), OverflowPolicy.Block));
+  }
+
+  /**
+   * @return true if log files should be written with an asynchronous writer, see {@link
+   *     Const#HOP_LOG_FILE_ASYNC}
+   */
+  public static boolean isEnabled() {
+    return "Y".equalsIgnoreCase(EnvUtil.getSystemProperty(Const.HOP_LOG_FILE_ASYNC, "N"));
+  }
+
+  /**
+   * Queue an event to be written.
+   *
+   * @param event the event to write
+   */
+  public void addEvent(HopLoggingEvent event) {
+    if (closed) {
+      droppedEvents.incrementAndGet();
+      return;
+    }
+    if (queue.offer(event)) {
+      return;
+    }
+    if (overflowPolicy == OverflowPolicy.DropLowSeverity && isLowSeverity(event)) {
+      droppedEvents.incrementAndGet();
+      return;
+    }
+    if (!put(event)) {
+      droppedEvents.incrementAndGet();
+    }
+  }
+
+  private static boolean isLowSeverity(HopLoggingEvent event) {
+    LogLevel level = event.getLevel();
+    if (event.getMessage() instanceof LogMessage message) {
+      level = message.getLevel();
+    }
+    return level != null && level.getLevel() > LogLevel.BASIC.getLevel();
+  }
+
+  /**
+   * Wait for room in the queue, as long as the writer thread is running.
+   *
+   * @return true if the event was queued
+   */
+  private boolean put(HopLoggingEvent event) {
+    try {
+      while (!queue.offer(event, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        if (!thread.isAlive()) {
+          return false;
+        }
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private void writeEvents() {
+    List<HopLoggingEvent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    long lastFlush = System.nanoTime();
+    int unflushed = 0;
+    boolean end = false;
+
+    try {
+      while (!end) {
+        long timeout =
+            unflushed > 0
+                ? Math.max(0L, lastFlush + flushIntervalNanos - System.nanoTime())
+                : flushIntervalNanos;
+        HopLoggingEvent event = queue.poll(timeout, TimeUnit.NANOSECONDS);
+        if (event != null) {
+          batch.add(event);
+          queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+          int index = batch.indexOf(END);
+          if (index >= 0) {
+            // A put() which was waiting for room can still add an event after the end
+            //
+            end = true;
+            batch.remove(index);
+            queue.drainTo(batch);
+            batch.remove(END);
+          }
+          unflushed += write(batch);
+          batch.clear();
+        }
+
+        long now = System.nanoTime();
+        if (unflushed == 0) {
+          lastFlush = now;
+        } else if (end || unflushed >= FLUSH_SIZE || now - lastFlush >= flushIntervalNanos) {
+          flush();
+          unflushed = 0;
+          lastFlush = now;
+        }
+      }
+
+      long dropped = droppedEvents.get();
+      if (dropped > 0 && exception == null) {
+        outputStream.write(
+            (dropped + " log lines were dropped because the log writer couldn't keep up" + Const.CR)
+                .getBytes(Charset.defaultCharset()));
+        flush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      exception = new HopException("Unable to write logging events to '" + name + "'", e);
+    }
+  }
+
+  /**
+   * Format and write a batch of events. After an error the events are skipped.
+   *
+   * @return the number of bytes written
+   */
+  private int write(List<HopLoggingEvent> batch) {
+    if (exception != null || batch.isEmpty()) {
+      return 0;
+    }
+    StringBuilder text = new StringBuilder(batch.size() * 128);
+    for (HopLoggingEvent event : batch) {
+      text.append(layout.format(event)).append(Const.CR);
+    }
+    byte[] bytes = text.toString().getBytes(Charset.defaultCharset());
+    try {
+      outputStream.write(bytes);
+    } catch (Exception e) {
+      exception = new HopException("Unable to write logging events to '" + name + "'", e);
+      return 0;
+    }
+    return bytes.length;
+  }
+
+  private void flush() {
+    if (exception != null) {
+      return;
+    }
+    try {
+      outputStream.flush();
+    } catch (Exception e) {
+      exception = new HopException("Unable to flush logging events to '" + name + "'", e);
+    }
+  }
+
+  /**
+   * Write all the queued events, flush the output and stop the writer thread. Events added after
+   * this are dropped. The output stream is not closed.
+   *
+   * @throws HopException in case the events couldn't be written
+   */
+  public void close() throws HopException {
+    if (!closed) {
+      closed = true;
+      if (put(END)) {
+        try {
+          thread.join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  /**
+   * @return the number of events which were dropped because the queue was full
+   */
+  public long getDroppedEvents() {
+    return droppedEvents.get();
+  }
+}
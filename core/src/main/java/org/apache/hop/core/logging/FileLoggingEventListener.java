@@ -36,6 +36,9 @@ public class FileLoggingEventListener implements IHopLoggingEventListener {
   private OutputStream outputStream;
   private HopLogLayout layout;
 
+  /** Writes the events on a separate thread when asynchronous log files are enabled */
+  private AsyncLogWriter asyncWriter;
+
   private HopException exception;
   private String logChannelId;
 
@@ -74,6 +77,9 @@ public class FileLoggingEventListener implements IHopLoggingEventListener {
       throw new HopException(
           "Unable to create a logging event listener to write to file '" + filename + "'", e);
     }
+    if (AsyncLogWriter.isEnabled()) {
+      asyncWriter = AsyncLogWriter.create(filename, outputStream);
+    }
   }
 
   @Override
@@ -94,7 +100,9 @@ public class FileLoggingEventListener implements IHopLoggingEventListener {
           logToFile = Const.indexOfString(message.getLogChannelId(), logChannelChildren) >= 0;
         }
 
-        if (logToFile) {
+        if (logToFile && asyncWriter != null) {
+          asyncWriter.addEvent(event);
+        } else if (logToFile) {
           String logText = layout.format(event);
           outputStream.write(logText.getBytes());
           outputStream.write(Const.CR.getBytes());
@@ -108,6 +116,18 @@ public class FileLoggingEventListener implements IHopLoggingEventListener {
   }
 
   public void close() throws HopException {
+    try {
+      if (asyncWriter != null) {
+        // Write the events which are still queued
+        //
+        asyncWriter.close();
+      }
+    } finally {
+      closeOutputStream();
+    }
+  }
+
+  private void closeOutputStream() throws HopException {
     try {
       if (outputStream != null) {
         outputStream.close();
@@ -118,6 +138,9 @@ public class FileLoggingEventListener implements IHopLoggingEventListener {
   }
 
   public HopException getException() {
+    if (exception == null && asyncWriter != null) {
+      return asyncWriter.getException();
+    }
     return exception;
   }
 
@@ -30,15 +30,26 @@ public class LogChannelFileWriterBuffer {
 
   private final List<HopLoggingEvent> buffer = Collections.synchronizedList(new LinkedList<>());
 
+  /** When set, the events are handed to this writer instead of being buffered */
+  private volatile AsyncLogWriter asyncWriter;
+
   public LogChannelFileWriterBuffer(String logChannelId) {
     this.logChannelId = logChannelId;
     layout = new HopLogLayout(true);
   }
 
   public void addEvent(HopLoggingEvent event) {
-    synchronized (buffer) {
-      buffer.add(event);
+    AsyncLogWriter writer = asyncWriter;
+    if (writer == null) {
+      synchronized (buffer) {
+        writer = asyncWriter;
+        if (writer == null) {
+          buffer.add(event);
+          return;
+        }
+      }
     }
+    writer.addEvent(event);
   }
 
   public StringBuffer getBuffer() {
@@ -58,4 +69,26 @@ public class LogChannelFileWriterBuffer {
   public String getLogChannelId() {
     return logChannelId;
   }
+
+  public AsyncLogWriter getAsyncWriter() {
+    return asyncWriter;
+  }
+
+  /**
+   * Hand the events to the given writer from now on instead of buffering them. The events which
+   * were buffered so far are passed on first.
+   *
+   * @param asyncWriter the writer to use or null to buffer the events again
+   */
+  public void setAsyncWriter(AsyncLogWriter asyncWriter) {
+    synchronized (buffer) {
+      if (asyncWriter != null) {
+        for (HopLoggingEvent event : buffer) {
+          asyncWriter.addEvent(event);
+        }
+        buffer.clear();
+      }
+      this.asyncWriter = asyncWriter;
+    }
+  }
 }
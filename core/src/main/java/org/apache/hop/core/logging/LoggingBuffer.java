@@ -17,24 +17,45 @@
 
 package org.apache.hop.core.logging;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.Predicate;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.hop.core.Const;
 
-/** This class keeps the last N lines in a buffer */
+/**
+ * This class keeps the last N lines in a buffer.
+ *
+ * <p>The lines are kept in a ring buffer: appending a line and dropping the oldest one are constant
+ * time operations. The lines are also indexed per log channel so that the lines of a pipeline or
+ * workflow can be looked up without going over the lines of all the others.
+ */
 public class LoggingBuffer {
+  /** The initial capacity of the ring when there's no limit on the number of lines. */
+  private static final int UNLIMITED_INITIAL_CAPACITY = 1024;
+
   @Getter @Setter private String name;
 
-  private List<BufferLine> buffer;
+  /** The lines in the buffer, the oldest one at position head. Guarded by the lock. */
+  private BufferLine[] ring;
+
+  private int head;
+  private int count;
+
+  /** The lines in the buffer per log channel ID, oldest first. Guarded by the lock. */
+  private final Map<String, ArrayDeque<BufferLine>> channelLines = new HashMap<>();
+
   private ReadWriteLock lock = new ReentrantReadWriteLock();
 
   private int bufferSize;
@@ -47,14 +68,15 @@ public class LoggingBuffer {
 
   public LoggingBuffer(int bufferSize) {
     this.bufferSize = bufferSize;
-    // The buffer overflow protection allows it to be overflowed for 1 item within a single thread.
-    // Considering a possible high contention, let's set it's max overflow size to be 10%.
-    // Anyway, even an overflow goes higher than 10%, it wouldn't cost us too much.
-    buffer = new ArrayList<>((int) (bufferSize * 1.1));
+    ring = new BufferLine[getRingCapacity(bufferSize)];
     layout = new HopLogLayout(true);
     eventListeners = new CopyOnWriteArrayList<>();
   }
 
+  private static int getRingCapacity(int bufferSize) {
+    return bufferSize > 0 ? bufferSize : UNLIMITED_INITIAL_CAPACITY;
+  }
+
   /**
    * @return the number (sequence, 1..N) of the last log line. If no records are present in the
    *     buffer, 0 is returned.
@@ -62,8 +84,8 @@ public class LoggingBuffer {
   public int getLastBufferLineNr() {
     lock.readLock().lock();
     try {
-      if (!buffer.isEmpty()) {
-        return buffer.get(buffer.size() - 1).getNr();
+      if (count > 0) {
+        return lineAt(count - 1).getNr();
       } else {
         return 0;
       }
@@ -83,24 +105,87 @@ public class LoggingBuffer {
       List<String> channelId, boolean includeGeneral, int from, int to) {
     lock.readLock().lock();
     try {
-      Stream<BufferLine> bufferStream =
-          buffer.stream().filter(line -> line.getNr() > from && line.getNr() <= to);
-      if (channelId != null) {
-        bufferStream =
-            bufferStream.filter(
-                line -> {
-                  String logChannelId = getLogChId(line);
-                  return includeGeneral
-                      ? isGeneral(logChannelId) || channelId.contains(logChannelId)
-                      : channelId.contains(logChannelId);
-                });
+      if (channelId == null) {
+        List<HopLoggingEvent> events = new ArrayList<>();
+        // The line numbers go up in the ring so we can skip to the first line we need
+        //
+        for (int i = firstIndexAfter(from); i < count; i++) {
+          BufferLine line = lineAt(i);
+          if (line.getNr() > to) {
+            break;
+          }
+          events.add(line.getEvent());
+        }
+        return events;
       }
-      return bufferStream.map(BufferLine::getEvent).collect(Collectors.toList());
+
+      // Only look at the lines of the requested channels, using the index
+      //
+      Set<String> channelIds = new LinkedHashSet<>(channelId);
+      if (includeGeneral) {
+        for (String logChannelId : channelLines.keySet()) {
+          if (isGeneral(logChannelId)) {
+            channelIds.add(logChannelId);
+          }
+        }
+      }
+      List<BufferLine> lines = new ArrayList<>();
+      for (String logChannelId : channelIds) {
+        ArrayDeque<BufferLine> deque = channelLines.get(logChannelId);
+        if (deque == null) {
+          continue;
+        }
+        // Walk back from the newest line, the lines asked for are usually the last ones
+        //
+        Iterator<BufferLine> iterator = deque.descendingIterator();
+        while (iterator.hasNext()) {
+          BufferLine line = iterator.next();
+          if (line.getNr() <= from) {
+            break;
+          }
+          if (line.getNr() <= to) {
+            lines.add(line);
+          }
+        }
+      }
+      lines.sort(Comparator.comparingInt(BufferLine::getNr));
+
+      List<HopLoggingEvent> events = new ArrayList<>(lines.size());
+      for (BufferLine line : lines) {
+        events.add(line.getEvent());
+      }
+      return events;
     } finally {
       lock.readLock().unlock();
     }
   }
 
+  /**
+   * @param from the line number to start after
+   * @return the position in the ring of the first line with a number higher than the given one
+   */
+  private int firstIndexAfter(int from) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (lineAt(middle).getNr() <= from) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * @param index the position of the line, 0 being the oldest line in the buffer
+   * @return the line
+   */
+  private BufferLine lineAt(int index) {
+    return ring[(head + index) % ring.length];
+  }
+
   /**
    * @param parentLogChannelId the parent log channel ID to grab
    * @param includeGeneral include general log lines
@@ -154,16 +239,87 @@ public class LoggingBuffer {
     if (event.getMessage() instanceof LogMessage) {
       lock.writeLock().lock();
       try {
-        buffer.add(new BufferLine(event));
-        while (bufferSize > 0 && buffer.size() > bufferSize) {
-          buffer.remove(0);
-        }
+        // The line is numbered under the lock to keep the numbers in the ring in order
+        //
+        addLine(new BufferLine(event));
       } finally {
         lock.writeLock().unlock();
       }
     }
   }
 
+  /** Add a line at the end of the ring, dropping the oldest line if the buffer is full. */
+  private void addLine(BufferLine line) {
+    if (count == ring.length) {
+      if (bufferSize > 0) {
+        removeOldestLine();
+      } else {
+        resizeRing(ring.length * 2);
+      }
+    }
+    ring[(head + count) % ring.length] = line;
+    count++;
+    channelLines.computeIfAbsent(getLogChId(line), id -> new ArrayDeque<>()).addLast(line);
+  }
+
+  private void removeOldestLine() {
+    BufferLine line = ring[head];
+    ring[head] = null;
+    head = (head + 1) % ring.length;
+    count--;
+
+    String logChannelId = getLogChId(line);
+    ArrayDeque<BufferLine> deque = channelLines.get(logChannelId);
+    if (deque != null) {
+      // The oldest line of the buffer is also the oldest line of its channel
+      //
+      if (deque.peekFirst() == line) {
+        deque.pollFirst();
+      } else {
+        deque.remove(line);
+      }
+      if (deque.isEmpty()) {
+        channelLines.remove(logChannelId);
+      }
+    }
+  }
+
+  /** Copy the lines to a new ring with the given capacity, keeping the newest lines. */
+  private void resizeRing(int capacity) {
+    while (count > capacity) {
+      removeOldestLine();
+    }
+    BufferLine[] newRing = new BufferLine[capacity];
+    for (int i = 0; i < count; i++) {
+      newRing[i] = lineAt(i);
+    }
+    ring = newRing;
+    head = 0;
+  }
+
+  /**
+   * Remove all the lines matching the given condition. The remaining lines are compacted in a new
+   * ring and the index is rebuilt.
+   */
+  private void removeLines(Predicate<BufferLine> condition) {
+    BufferLine[] newRing = new BufferLine[ring.length];
+    int newCount = 0;
+    for (int i = 0; i < count; i++) {
+      BufferLine line = lineAt(i);
+      if (!condition.test(line)) {
+        newRing[newCount++] = line;
+      }
+    }
+    ring = newRing;
+    head = 0;
+    count = newCount;
+
+    channelLines.clear();
+    for (int i = 0; i < count; i++) {
+      channelLines.computeIfAbsent(getLogChId(ring[i]), id -> new ArrayDeque<>()).addLast(ring[i]);
+    }
+  }
+
   public boolean requiresLayout() {
     return true;
   }
@@ -171,7 +327,10 @@ public class LoggingBuffer {
   public void clear() {
     lock.writeLock().lock();
     try {
-      buffer.clear();
+      ring = new BufferLine[getRingCapacity(bufferSize)];
+      head = 0;
+      count = 0;
+      channelLines.clear();
     } finally {
       lock.writeLock().unlock();
     }
@@ -189,14 +348,24 @@ public class LoggingBuffer {
    *     means: no limit
    */
   public void setMaxNrLines(int maxNrLines) {
-    this.bufferSize = maxNrLines;
+    lock.writeLock().lock();
+    try {
+      this.bufferSize = maxNrLines;
+      if (maxNrLines > 0) {
+        resizeRing(maxNrLines);
+      } else if (count == ring.length) {
+        resizeRing(ring.length * 2);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
   }
 
   /**
    * @return the nrLines
    */
   public int getNrLines() {
-    return buffer.size();
+    return size();
   }
 
   /**
@@ -207,43 +376,46 @@ public class LoggingBuffer {
   public void removeChannelFromBuffer(String id) {
     lock.writeLock().lock();
     try {
-      buffer.removeIf(line -> id.equals(getLogChId(line)));
+      if (channelLines.containsKey(id)) {
+        removeLines(line -> id.equals(getLogChId(line)));
+      }
     } finally {
       lock.writeLock().unlock();
     }
   }
 
   public int size() {
-    return buffer.size();
+    lock.readLock().lock();
+    try {
+      return count;
+    } finally {
+      lock.readLock().unlock();
+    }
   }
 
   public void removeGeneralMessages() {
     lock.writeLock().lock();
     try {
-      buffer.removeIf(line -> isGeneral(getLogChId(line)));
+      Set<String> generalIds = new LinkedHashSet<>();
+      for (String logChannelId : channelLines.keySet()) {
+        if (isGeneral(logChannelId)) {
+          generalIds.add(logChannelId);
+        }
+      }
+      if (!generalIds.isEmpty()) {
+        removeLines(line -> generalIds.contains(getLogChId(line)));
+      }
     } finally {
       lock.writeLock().unlock();
     }
   }
 
   public void removeBufferLinesBefore(long minTimeBoundary) {
-    // Using HashSet even though BufferLine does not implement hashcode and equals,
-    // we just need to remove the exact objects we have found and put in the set.
-    Set<BufferLine> linesToRemove = new HashSet<>();
     lock.writeLock().lock();
     try {
-      for (BufferLine bufferLine : buffer) {
-        if (bufferLine.getEvent().timeStamp < minTimeBoundary) {
-          linesToRemove.add(bufferLine);
-        } else {
-          break;
-        }
+      while (count > 0 && ring[head].getEvent().timeStamp < minTimeBoundary) {
+        removeOldestLine();
       }
-      // removeAll should run fast against a HashSet,
-      // since ArrayList.batchRemove check for each element of a collection given if it is in the
-      // ArrayList.
-      // Thus, removeAll should run in a linear time.
-      buffer.removeAll(linesToRemove);
     } finally {
       lock.writeLock().unlock();
     }
@@ -263,6 +435,9 @@ public class LoggingBuffer {
   }
 
   private boolean isGeneral(String logChannelId) {
+    if (logChannelId == null) {
+      return false;
+    }
     ILoggingObject loggingObject = loggingRegistry.getLoggingObject(logChannelId);
     return loggingObject != null && LoggingObjectType.GENERAL.equals(loggingObject.getObjectType());
   }
@@ -125,6 +125,16 @@ public class Metrics implements IMetrics {
   public static final Metrics METRIC_TRANSFORM_INIT_STOP =
       new Metrics(MetricsSnapshotType.STOP, "METRIC_TRANSFORM_INIT", "Initialize a transform");
 
+  // Lookup cache
+  //
+  public static final Metrics METRIC_LOOKUP_CACHE_HIT =
+      new Metrics(MetricsSnapshotType.COUNT, "METRIC_LOOKUP_CACHE_HIT", "Lookup cache hits");
+  public static final Metrics METRIC_LOOKUP_CACHE_MISS =
+      new Metrics(MetricsSnapshotType.COUNT, "METRIC_LOOKUP_CACHE_MISS", "Lookup cache misses");
+  public static final Metrics METRIC_LOOKUP_CACHE_EVICTION =
+      new Metrics(
+          MetricsSnapshotType.SUM, "METRIC_LOOKUP_CACHE_EVICTION", "Lookup cache evictions");
+
   // Logging back-end
   //
   public static final Metrics METRIC_CENTRAL_LOG_STORE_TIMEOUT_CLEAN_TIME =
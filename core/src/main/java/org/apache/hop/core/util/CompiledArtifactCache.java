@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import org.apache.commons.vfs2.FileContent;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.hop.core.Const;
+
+/**
+ * A cache for compiled artifacts like XML schemas, XSLT templates, regular expressions and
+ * expressions. It's shared by all transform copies and pipelines running in this JVM so that an
+ * artifact is only compiled once, not once per row, per transform copy or per pipeline run.
+ *
+ * <p>Only immutable, thread-safe artifacts can be cached: {@code javax.xml.validation.Schema},
+ * {@code javax.xml.transform.Templates}, {@code java.util.regex.Pattern} and so on. They're keyed
+ * by the type of artifact and either a hash of their source (see {@link #contentKey(String)}) or
+ * the file they were compiled from and its modification time (see {@link #fileKey(FileObject)}). A
+ * changed file therefore gets compiled again. Artifacts which load classes, like compiled
+ * expressions, also include the class loader they were compiled with in their type (see {@link
+ * #loaderKey(ClassLoader)}).
+ *
+ * <p>The cache holds at most {@link Const#HOP_COMPILED_ARTIFACT_CACHE_SIZE} artifacts, the least
+ * recently used ones are evicted. An artifact is compiled only once, even if several threads ask
+ * for it at the same time. Failures aren't cached.
+ */
+public class CompiledArtifactCache {
+
+  /** Compiles an artifact on a cache miss. */
+  @FunctionalInterface
+  public interface ICompiler<T, E extends Exception> {
+    T compile() throws E;
+  }
+
+  private static CompiledArtifactCache instance;
+
+  /**
+   * The keys handed out to class loaders. The keys don't refer to the class loaders so a discarded
+   * class loader can be garbage collected once its artifacts are evicted.
+   */
+  private static final Map<ClassLoader, String> loaderKeys = new WeakHashMap<>();
+
+  private static long lastLoaderKey;
+
+  /** The maximum number of artifacts in the cache */
+  @Getter private final int maxSize;
+
+  private final Map<String, FutureTask<Object>> artifacts;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Create a new cache. Transforms use the cache from {@link #getInstance()}.
+   *
+   * @param maxSize the maximum number of artifacts in the cache
+   */
+  public CompiledArtifactCache(int maxSize) {
+    this.maxSize = Math.max(1, maxSize);
+    this.artifacts =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, FutureTask<Object>> eldest) {
+            if (size() > CompiledArtifactCache.this.maxSize) {
+              evictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * @return the cache which is shared by all pipelines in this JVM
+   */
+  public static synchronized CompiledArtifactCache getInstance() {
+    if (instance == null) {
+      instance =
+          new CompiledArtifactCache(
+              Const.toInt(EnvUtil.getSystemProperty(Const.HOP_COMPILED_ARTIFACT_CACHE_SIZE), 1000));
+    }
+    return instance;
+  }
+
+  /**
+   * Get a compiled artifact from the cache, compile it when it's not cached.
+   *
+   * @param type the type of artifact, including the options it's compiled with, for example "xsd"
+   * @param key the key of the source of the artifact, see {@link #contentKey(String)} and {@link
+   *     #fileKey(FileObject)}
+   * @param compiler compiles the artifact when it's not in the cache
+   * @return the compiled artifact
+   * @throws E the exception thrown by the compiler, it's not cached
+   */
+  @SuppressWarnings("unchecked")
+  public <T, E extends Exception> T get(String type, String key, ICompiler<T, E> compiler)
+      throws E {
+    String cacheKey = type + Const.CR + key;
+    FutureTask<Object> task;
+    boolean compile = false;
+    synchronized (artifacts) {
+      task = artifacts.get(cacheKey);
+      if (task == null) {
+        task = new FutureTask<>(compiler::compile);
+        artifacts.put(cacheKey, task);
+        compile = true;
+      }
+    }
+    if (compile) {
+      misses.incrementAndGet();
+      task.run();
+    } else {
+      hits.incrementAndGet();
+    }
+
+    try {
+      return (T) task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      synchronized (artifacts) {
+        artifacts.remove(cacheKey, task);
+      }
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw (E) cause;
+    }
+  }
+
+  /**
+   * Calculate the key of an artifact compiled from the given source text.
+   *
+   * @param content the source of the artifact
+   * @return a hash of the source
+   */
+  public static String contentKey(String content) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(Const.NVL(content, "").getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform has SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Calculate the key of an artifact compiled from the given file: its URI, modification time and
+   * size.
+   *
+   * @param file the source file of the artifact
+   * @return the key
+   * @throws FileSystemException if the file can't be accessed
+   */
+  public static String fileKey(FileObject file) throws FileSystemException {
+    FileContent content = file.getContent();
+    return file.getName().getURI() + "@" + content.getLastModifiedTime() + ":" + content.getSize();
+  }
+
+  /**
+   * Get the key of a class loader which artifacts are compiled with. Every class loader gets its
+   * own key which is never handed out again, not even after the class loader is garbage collected.
+   *
+   * @param loader the class loader, null for the bootstrap class loader
+   * @return the key of the class loader
+   */
+  public static String loaderKey(ClassLoader loader) {
+    if (loader == null) {
+      return "bootstrap";
+    }
+    synchronized (loaderKeys) {
+      return loaderKeys.computeIfAbsent(loader, l -> "loader-" + (++lastLoaderKey));
+    }
+  }
+
+  /**
+   * @return the number of artifacts found in the cache
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return the number of artifacts which had to be compiled
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * @return the number of artifacts evicted from the cache because it was full
+   */
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  /**
+   * @return the fraction of the lookups which found the artifact in the cache, between 0 and 1
+   */
+  public double getHitRate() {
+    long nrHits = hits.get();
+    long total = nrHits + misses.get();
+    return total == 0 ? 0.0 : (double) nrHits / total;
+  }
+
+  /**
+   * @return the number of artifacts in the cache
+   */
+  public int getSize() {
+    synchronized (artifacts) {
+      return artifacts.size();
+    }
+  }
+
+  /** Remove all artifacts from the cache and reset the statistics. */
+  public void clear() {
+    synchronized (artifacts) {
+      artifacts.clear();
+    }
+    hits.set(0L);
+    misses.set(0L);
+    evictions.set(0L);
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.xml;
+
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import lombok.Getter;
+import org.apache.commons.vfs2.FileContent;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopXmlException;
+import org.apache.hop.core.util.EnvUtil;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.vfs.HopVfs;
+import org.w3c.dom.Document;
+
+/**
+ * A cache for the parsed XML documents of pipeline and workflow files. Workflows which loop over a
+ * small pipeline, or transforms like the Pipeline Executor, load the same file over and over again.
+ * Reading and parsing the file then easily costs more than the work the pipeline does.
+ *
+ * <p>Documents are keyed by the URI of the file and are only used as long as the modification time
+ * and size of the file stay the same. Every caller gets its own copy of the document which it can
+ * change as it sees fit. The cache holds at most {@link Const#HOP_LOADED_FILE_CACHE_SIZE}
+ * documents, the least recently used ones are evicted.
+ *
+ * <p>The cache is only used when it's enabled with variable {@link Const#HOP_CACHE_LOADED_FILES},
+ * which the local run configurations set when "Cache loaded pipelines and workflows" is enabled.
+ */
+public class XmlDocumentCache {
+
+  private static XmlDocumentCache instance;
+
+  /** The maximum number of documents in the cache */
+  @Getter private final int maxSize;
+
+  private final Map<String, CachedDocument> documents;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /** A parsed document and the state of the file it was parsed from. */
+  private static final class CachedDocument {
+    private final long lastModified;
+    private final long size;
+
+    /** The parsed document, only used to make copies, guarded by itself. */
+    private final Document document;
+
+    private CachedDocument(long lastModified, long size, Document document) {
+      this.lastModified = lastModified;
+      this.size = size;
+      this.document = document;
+    }
+
+    private Document copy() {
+      synchronized (document) {
+        return (Document) document.cloneNode(true);
+      }
+    }
+  }
+
+  /**
+   * Create a new cache. Pipelines and workflows use the cache from {@link #getInstance()}.
+   *
+   * @param maxSize the maximum number of documents in the cache
+   */
+  public XmlDocumentCache(int maxSize) {
+    this.maxSize = Math.max(1, maxSize);
+    this.documents =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, CachedDocument> eldest) {
+            if (size() > XmlDocumentCache.this.maxSize) {
+              evictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * @return the cache which is shared by all pipelines and workflows in this JVM
+   */
+  public static synchronized XmlDocumentCache getInstance() {
+    if (instance == null) {
+      instance =
+          new XmlDocumentCache(
+              Const.toInt(EnvUtil.getSystemProperty(Const.HOP_LOADED_FILE_CACHE_SIZE), 100));
+    }
+    return instance;
+  }
+
+  /**
+   * See if loaded files are to be cached.
+   *
+   * @param variables the variables of the pipeline, workflow, transform or action loading a file
+   * @return true if variable {@link Const#HOP_CACHE_LOADED_FILES} is set to Y
+   */
+  public static boolean isEnabled(IVariables variables) {
+    return variables != null
+        && Const.toBoolean(variables.getVariable(Const.HOP_CACHE_LOADED_FILES));
+  }
+
+  /**
+   * Load the XML document of a file, from the cache if the file didn't change since it was parsed.
+   *
+   * @param file the file to load
+   * @return a copy of the document, the caller can modify it
+   * @throws HopXmlException in case the file can't be read or parsed
+   */
+  public Document loadDocument(FileObject file) throws HopXmlException {
+    String key = file.getName().getURI();
+    long lastModified;
+    long size;
+    try {
+      FileContent content = file.getContent();
+      lastModified = content.getLastModifiedTime();
+      size = content.getSize();
+    } catch (Exception e) {
+      throw new HopXmlException("Unable to read file [" + file + "]", e);
+    }
+
+    CachedDocument cached;
+    synchronized (documents) {
+      cached = documents.get(key);
+    }
+    if (cached != null && cached.lastModified == lastModified && cached.size == size) {
+      hits.incrementAndGet();
+      return cached.copy();
+    }
+
+    misses.incrementAndGet();
+    cached = new CachedDocument(lastModified, size, parse(file));
+    synchronized (documents) {
+      documents.put(key, cached);
+    }
+    return cached.copy();
+  }
+
+  /**
+   * Parse the file into a document with all nodes expanded. A document with deferred nodes changes
+   * while it's read and can't be copied safely.
+   */
+  private static Document parse(FileObject file) throws HopXmlException {
+    try (InputStream inputStream = HopVfs.getInputStream(file)) {
+      DocumentBuilderFactory dbf = XmlParserFactoryProducer.createSecureDocBuilderFactory();
+      dbf.setIgnoringComments(true);
+      dbf.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+      DocumentBuilder db = dbf.newDocumentBuilder();
+      return db.parse(inputStream);
+    } catch (Exception e) {
+      throw new HopXmlException("Error reading information from file [" + file + "]", e);
+    }
+  }
+
+  /**
+   * Remove the document of a file from the cache, for example after the file was saved.
+   *
+   * @param filename the name of the file
+   */
+  public void invalidate(String filename) {
+    if (Utils.isEmpty(filename)) {
+      return;
+    }
+    try {
+      String key = HopVfs.getFileObject(filename).getName().getURI();
+      synchronized (documents) {
+        documents.remove(key);
+      }
+    } catch (Exception e) {
+      // A file we can't resolve can't be in the cache either
+    }
+  }
+
+  /**
+   * @return the number of documents found in the cache
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return the number of documents which had to be parsed
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * @return the number of documents evicted from the cache because it was full
+   */
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  /**
+   * @return the number of documents in the cache
+   */
+  public int getSize() {
+    synchronized (documents) {
+      return documents.size();
+    }
+  }
+
+  /** Remove all documents from the cache and reset the statistics. */
+  public void clear() {
+    synchronized (documents) {
+      documents.clear();
+    }
+    hits.set(0L);
+    misses.set(0L);
+    evictions.set(0L);
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.serializer.xml;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.hop.metadata.util.ReflectionUtil;
+
+/**
+ * Everything {@link XmlMetadataUtil} needs to know about a class to serialize it: the fields and
+ * the getter and setter methods with a {@link HopMetadataProperty} annotation and the method
+ * handles to access them. Scanning a class and its parents for fields, methods and annotations is
+ * expensive and the result never changes, so it's done once per class.
+ */
+final class XmlMetadataClassPlan {
+
+  private static final ClassValue<XmlMetadataClassPlan> PLANS =
+      new ClassValue<>() {
+        @Override
+        protected XmlMetadataClassPlan computeValue(Class<?> type) {
+          return new XmlMetadataClassPlan(type);
+        }
+      };
+
+  /** The annotated fields, in the order in which they are serialized. */
+  private final List<FieldPlan> fields;
+
+  /** The annotated methods starting with "get". */
+  private final List<MethodPlan> getters;
+
+  /** The annotated methods starting with "set". */
+  private final List<MethodPlan> setters;
+
+  private XmlMetadataClassPlan(Class<?> clazz) {
+    List<FieldPlan> fieldPlans = new ArrayList<>();
+    for (Field field :
+        ReflectionUtil.findAllFields(clazz, new MetadataPropertyKeyFunction(), false)) {
+      fieldPlans.add(new FieldPlan(field));
+    }
+    this.fields = Collections.unmodifiableList(fieldPlans);
+    this.getters = findAnnotatedMethods(clazz, "get");
+    this.setters = findAnnotatedMethods(clazz, "set");
+  }
+
+  private static List<MethodPlan> findAnnotatedMethods(Class<?> clazz, String prefix) {
+    List<MethodPlan> methodPlans = new ArrayList<>();
+    for (Method method : ReflectionUtil.findAllMethods(clazz, prefix)) {
+      HopMetadataProperty property = method.getAnnotation(HopMetadataProperty.class);
+      if (property != null) {
+        methodPlans.add(new MethodPlan(method, property));
+      }
+    }
+    return Collections.unmodifiableList(methodPlans);
+  }
+
+  /**
+   * @param clazz the class to serialize
+   * @return the plan for the given class, it's created the first time it's asked for
+   */
+  static XmlMetadataClassPlan of(Class<?> clazz) {
+    return PLANS.get(clazz);
+  }
+
+  /**
+   * @return true if the class has at least one field or getter method to serialize
+   */
+  boolean hasSerializableProperties() {
+    for (FieldPlan field : fields) {
+      if (field.getProperty(Set.of(), Set.of()) != null) {
+        return true;
+      }
+    }
+    return !getters.isEmpty();
+  }
+
+  List<FieldPlan> getFields() {
+    return fields;
+  }
+
+  List<MethodPlan> getGetters() {
+    return getters;
+  }
+
+  List<MethodPlan> getSetters() {
+    return setters;
+  }
+
+  /**
+   * A field with a {@link HopMetadataProperty} annotation. The value is accessed with the getter
+   * and setter of the field, see {@link ReflectionUtil#getFieldValue(Object, String, boolean)}.
+   */
+  static final class FieldPlan {
+    private final String name;
+    private final HopMetadataProperty property;
+    private final boolean transientOrVolatile;
+    private final String tag;
+    private final Class<?> type;
+    private final boolean isBoolean;
+
+    /** The first type argument of a generic field type, or null. */
+    private final Type typeArgument;
+
+    private FieldPlan(Field field) {
+      this.name = field.getName();
+      this.property = field.getAnnotation(HopMetadataProperty.class);
+      this.transientOrVolatile =
+          Modifier.isTransient(field.getModifiers()) || Modifier.isVolatile(field.getModifiers());
+      this.tag = StringUtils.isEmpty(property.key()) ? name : property.key();
+      this.type = field.getType();
+      this.isBoolean = Boolean.class.equals(type) || boolean.class.equals(type);
+      if (field.getGenericType() instanceof ParameterizedType parameterizedType
+          && parameterizedType.getActualTypeArguments().length > 0) {
+        this.typeArgument = parameterizedType.getActualTypeArguments()[0];
+      } else {
+        this.typeArgument = null;
+      }
+    }
+
+    /**
+     * See if this field needs to be considered for serialization.
+     *
+     * @param serializeOnly if not empty, only the fields with these names are serialized
+     * @param childKeysToIgnore the keys of the fields to skip
+     * @return the annotation of the field or null if the field is not serialized
+     */
+    HopMetadataProperty getProperty(Set<String> serializeOnly, Set<String> childKeysToIgnore) {
+      if (!serializeOnly.isEmpty() && !serializeOnly.contains(name)) {
+        // This is not a field we want to consider
+        return null;
+      }
+      // Don't serialize fields flagged as transient or volatile
+      //
+      if (transientOrVolatile || childKeysToIgnore.contains(property.key())) {
+        return null;
+      }
+      return property;
+    }
+
+    /**
+     * @return the class of the items of a list field: the listItemClass of the annotation or else
+     *     the type argument of the field.
+     */
+    Class<?> getGenericClass() {
+      Class<?> genericClass = property.listItemClass();
+      if (genericClass.equals(Object.class) && typeArgument != null) {
+        genericClass = (Class<?>) typeArgument;
+      }
+      return genericClass;
+    }
+
+    Object getValue(Object object) throws HopException {
+      return ReflectionUtil.getFieldValue(object, name, isBoolean);
+    }
+
+    void setValue(Object object, Object value) throws HopException {
+      ReflectionUtil.setFieldValue(object, name, type, value);
+    }
+
+    String getName() {
+      return name;
+    }
+
+    String getTag() {
+      return tag;
+    }
+
+    Class<?> getType() {
+      return type;
+    }
+  }
+
+  /**
+   * A getter or setter method with a {@link HopMetadataProperty} annotation. Methods which can't be
+   * turned into a method handle (not public, wrong number of arguments) are called through
+   * reflection, which reports the problem.
+   */
+  static final class MethodPlan {
+    private final Method method;
+    private final HopMetadataProperty property;
+    private final Class<?>[] parameterTypes;
+    private final MethodHandle handle;
+
+    private MethodPlan(Method method, HopMetadataProperty property) {
+      this.method = method;
+      this.property = property;
+      this.parameterTypes = method.getParameterTypes();
+      this.handle = unreflect(method, parameterTypes.length);
+    }
+
+    private static MethodHandle unreflect(Method method, int nrParameters) {
+      try {
+        if (Modifier.isStatic(method.getModifiers())) {
+          return null;
+        }
+        if (nrParameters == 0) {
+          return ReflectionUtil.unreflectGetter(method);
+        }
+        if (nrParameters == 1) {
+          return ReflectionUtil.unreflectSetter(method);
+        }
+      } catch (IllegalAccessException e) {
+        // Fall back to reflection
+      }
+      return null;
+    }
+
+    /**
+     * Call the getter method.
+     *
+     * @param object the object to call the method on
+     * @return the value returned by the getter
+     * @throws Exception in case the getter failed
+     */
+    Object get(Object object) throws Exception {
+      if (handle == null || parameterTypes.length != 0) {
+        return method.invoke(object);
+      }
+      try {
+        return (Object) handle.invokeExact(object);
+      } catch (Exception | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new InvocationTargetException(e);
+      }
+    }
+
+    /**
+     * Call the setter method.
+     *
+     * @param object the object to call the method on
+     * @param value the value to pass
+     * @throws Exception in case the setter failed
+     */
+    void set(Object object, Object value) throws Exception {
+      if (handle == null || parameterTypes.length != 1) {
+        method.invoke(object, value);
+        return;
+      }
+      try {
+        handle.invokeExact(object, value);
+      } catch (Exception | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new InvocationTargetException(e);
+      }
+    }
+
+    Method getMethod() {
+      return method;
+    }
+
+    HopMetadataProperty getProperty() {
+      return property;
+    }
+
+    /**
+     * @return the types of the parameters of the method, don't modify
+     */
+    Class<?>[] getParameterTypes() {
+      return parameterTypes;
+    }
+  }
+}
@@ -19,8 +19,6 @@ package org.apache.hop.metadata.serializer.xml;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -103,21 +101,7 @@ public class XmlMetadataUtil {
    *     on a field or on a {@code get*()} method, using the same rules as XML serialization.
    */
   public static boolean hasHopMetadataSerializableProperties(Class<?> clazz) {
-    Set<String> serializeOnly = Set.of();
-    Set<String> childKeysToIgnore = Set.of();
-    List<Field> fields =
-        ReflectionUtil.findAllFields(clazz, new MetadataPropertyKeyFunction(), false);
-    for (Field field : fields) {
-      if (getValidFieldAnnotation(field, serializeOnly, childKeysToIgnore) != null) {
-        return true;
-      }
-    }
-    for (Method getter : ReflectionUtil.findAllMethods(clazz, "get")) {
-      if (getter.getAnnotation(HopMetadataProperty.class) != null) {
-        return true;
-      }
-    }
-    return false;
+    return XmlMetadataClassPlan.of(clazz).hasSerializableProperties();
   }
 
   private static boolean isAssignableFromBaseTransformMeta(Class<?> clazz) {
@@ -176,51 +160,37 @@ public class XmlMetadataUtil {
       childKeysToIgnore.addAll(Set.of(parentProperty.childKeysToIgnore()));
     }
 
-    // Pick up all the fields with @HopMetadataProperty annotation, sorted by name.
-    // Serialize them to XML.
+    // The fields with @HopMetadataProperty annotation and the annotated methods are looked up once
+    // per class.
     //
-    List<Field> fields =
-        ReflectionUtil.findAllFields(objectClass, new MetadataPropertyKeyFunction(), false);
-    for (Field field : fields) {
+    XmlMetadataClassPlan plan = XmlMetadataClassPlan.of(objectClass);
+
+    // Serialize the annotated fields to XML.
+    //
+    for (XmlMetadataClassPlan.FieldPlan field : plan.getFields()) {
       // Is this field appropriate to be considered for serialization?
-      // We check it with the method below.
       //
-      HopMetadataProperty property =
-          getValidFieldAnnotation(field, serializeOnly, childKeysToIgnore);
-      if (property != null && !childKeysToIgnore.contains(property.key())) {
-        String groupKey = property.groupKey();
-        String tag = property.key();
-        if (StringUtils.isEmpty(tag)) {
-          tag = field.getName();
-        }
-
-        Class<?> fieldType = field.getType();
-
-        // Is this a boolean?
-        //
-        boolean isBoolean = Boolean.class.equals(fieldType) || boolean.class.equals(fieldType);
-
+      HopMetadataProperty property = field.getProperty(serializeOnly, childKeysToIgnore);
+      if (property != null) {
         // Add the field value to the XML
         //
-        serializeFieldValueToXml(parentObject, field, isBoolean, property, xml, tag, groupKey);
+        serializeFieldValueToXml(
+            parentObject, field, property, xml, field.getTag(), property.groupKey());
       }
     }
 
-    // Also find methods annotated, starting with "get"
+    // Also the annotated methods starting with "get"
     //
-    for (Method getter : ReflectionUtil.findAllMethods(objectClass, "get")) {
-      HopMetadataProperty methodProperty = getter.getAnnotation(HopMetadataProperty.class);
-      if (methodProperty == null) {
-        continue;
-      }
+    for (XmlMetadataClassPlan.MethodPlan getter : plan.getGetters()) {
+      HopMetadataProperty methodProperty = getter.getProperty();
       // What do we get from this method?
       //
       Object object;
       try {
-        object = getter.invoke(parentObject);
+        object = getter.get(parentObject);
       } catch (Exception e) {
         throw new HopException(
-            "Error getting a value from annotated method " + getter.getName(), e);
+            "Error getting a value from annotated method " + getter.getMethod().getName(), e);
       }
       xml.append(
           serializeObjectToXml(
@@ -261,8 +231,7 @@ public class XmlMetadataUtil {
 
   private static void serializeFieldValueToXml(
       Object parentObject,
-      Field field,
-      boolean isBoolean,
+      XmlMetadataClassPlan.FieldPlan field,
       HopMetadataProperty property,
       StringBuilder xml,
       String tag,
@@ -270,7 +239,7 @@ public class XmlMetadataUtil {
       throws HopException {
     // Get the value of the field...
     //
-    Object value = ReflectionUtil.getFieldValue(parentObject, field.getName(), isBoolean);
+    Object value = field.getValue(parentObject);
     if (value != null) {
       // We only serialize non-null values to save space and performance.
       //
@@ -670,32 +639,19 @@ public class XmlMetadataUtil {
       node = XmlHandler.getSubNode(node, wrapper.tag());
     }
 
-    // Pick up all the @HopMetadataProperty annotations.
-    // The fields are sorted by name to get a stable XML output when serialized.
+    // Pick up all the @HopMetadataProperty annotations, looked up once per class.
     //
-    List<Field> fields =
-        ReflectionUtil.findAllFields(object.getClass(), new MetadataPropertyKeyFunction(), false);
-    for (Field field : fields) {
+    for (XmlMetadataClassPlan.FieldPlan field :
+        XmlMetadataClassPlan.of(object.getClass()).getFields()) {
       // Is this field appropriate to be considered for serialization?
-      // We check it with the method below.
       //
-      HopMetadataProperty property =
-          getValidFieldAnnotation(field, serializeOnly, childKeysToIgnore);
+      HopMetadataProperty property = field.getProperty(serializeOnly, childKeysToIgnore);
       if (property != null) {
         Class<?> fieldType = field.getType();
-        Class<?> genericClass = property.listItemClass();
-        if (genericClass.equals(Object.class)
-            && (field.getGenericType() instanceof ParameterizedType parameterizedType)) {
-          if (parameterizedType.getActualTypeArguments().length > 0) {
-            genericClass = (Class<?>) parameterizedType.getActualTypeArguments()[0];
-          }
-        }
+        Class<?> genericClass = field.getGenericClass();
 
         // Get the tag & tagNode
-        String tag = property.key();
-        if (StringUtils.isEmpty(tag)) {
-          tag = field.getName();
-        }
+        String tag = field.getTag();
         Node tagNode;
         if (property.inline()) {
           tagNode = node;
@@ -731,7 +687,7 @@ public class XmlMetadataUtil {
           // Empty strings and such will still go through but not null values for int/long/...
           //
           if (value != null) {
-            ReflectionUtil.setFieldValue(object, field.getName(), fieldType, value);
+            field.setValue(object, value);
           }
         } catch (HopException e) {
           throw new HopXmlException(
@@ -749,11 +705,8 @@ public class XmlMetadataUtil {
     // Also find methods annotated, starting with "get"
     //
     try {
-      for (Method setter : ReflectionUtil.findAllMethods(clazz, "set")) {
-        HopMetadataProperty property = setter.getAnnotation(HopMetadataProperty.class);
-        if (property == null) {
-          continue;
-        }
+      for (XmlMetadataClassPlan.MethodPlan setter : XmlMetadataClassPlan.of(clazz).getSetters()) {
+        HopMetadataProperty property = setter.getProperty();
 
         // Get the tag & tagNode
         String tag = property.key();
@@ -779,7 +732,7 @@ public class XmlMetadataUtil {
         if (parameterTypes.length != 1) {
           throw new HopException(
               "Annotated setter method "
-                  + setter.getName()
+                  + setter.getMethod().getName()
                   + " in class "
                   + clazz.getName()
                   + " needs to have exactly one argument, the de-serialized object.");
@@ -801,7 +754,7 @@ public class XmlMetadataUtil {
 
         // Pass along the inflated data
         //
-        setter.invoke(object, parameterObject);
+        setter.set(object, parameterObject);
       }
 
     } catch (Exception e) {
@@ -869,25 +822,6 @@ public class XmlMetadataUtil {
     return value;
   }
 
-  private static HopMetadataProperty getValidFieldAnnotation(
-      Field field, Set<String> serializeOnly, Set<String> childKeysToIgnore) {
-    if (!serializeOnly.isEmpty() && !serializeOnly.contains(field.getName())) {
-      // This is not a field we want to consider
-      return null;
-    }
-
-    // Don't serialize fields flagged as transient or volatile
-    //
-    if (Modifier.isTransient(field.getModifiers()) || Modifier.isVolatile(field.getModifiers())) {
-      return null;
-    }
-    HopMetadataProperty property = field.getAnnotation(HopMetadataProperty.class);
-    if (property != null && !childKeysToIgnore.contains(property.key())) {
-      return property;
-    }
-    return null;
-  }
-
   private static <T> T createNewObject(Object parentObject, Node node, Class<? extends T> clazz)
       throws HopXmlException {
     T object;
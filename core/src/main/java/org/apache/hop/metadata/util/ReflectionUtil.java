@@ -17,20 +17,51 @@
 
 package org.apache.hop.metadata.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hop.core.exception.HopException;
 
 public class ReflectionUtil {
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  /**
+   * The getter and setter method handles used by {@link #getFieldValue(Object, String, boolean)}
+   * and {@link #setFieldValue(Object, String, Class, Object)}, per class and field name. Looking up
+   * a method by name is a lot more expensive than calling it.
+   */
+  private static final ClassValue<Map<String, MethodHandle>> GETTERS = newAccessorCache();
+
+  private static final ClassValue<Map<String, MethodHandle>> BOOLEAN_GETTERS = newAccessorCache();
+  private static final ClassValue<Map<String, Setter>> SETTERS = newAccessorCache();
+
+  private record Setter(Class<?> fieldType, MethodHandle handle) {}
+
   private ReflectionUtil() {}
 
+  private static <T> ClassValue<Map<String, T>> newAccessorCache() {
+    return new ClassValue<>() {
+      @Override
+      protected Map<String, T> computeValue(Class<?> type) {
+        return new ConcurrentHashMap<>();
+      }
+    };
+  }
+
   /** myAttribute ==> setMyAttribute */
   public static String getSetterMethodName(String name) {
     return "set" + name.substring(0, 1).toUpperCase() + name.substring(1);
@@ -159,16 +190,24 @@ public class ReflectionUtil {
   public static Object getFieldValue(Object object, String fieldName, boolean isBoolean)
       throws HopException {
     Class<?> objectClass = object.getClass();
-    String getterMethodName = ReflectionUtil.getGetterMethodName(fieldName, isBoolean);
+    Map<String, MethodHandle> getters = (isBoolean ? BOOLEAN_GETTERS : GETTERS).get(objectClass);
+    MethodHandle getter = getters.get(fieldName);
     try {
-      Method getterMethod = objectClass.getMethod(getterMethodName);
-      return getterMethod.invoke(object);
-    } catch (Exception e) {
+      if (getter == null) {
+        getter =
+            unreflectGetter(
+                objectClass.getMethod(ReflectionUtil.getGetterMethodName(fieldName, isBoolean)));
+        getters.put(fieldName, getter);
+      }
+      return (Object) getter.invokeExact(object);
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
       throw new HopException(
           "Error getting value for field '"
               + fieldName
               + "' using method '"
-              + getterMethodName
+              + ReflectionUtil.getGetterMethodName(fieldName, isBoolean)
               + "' in class '"
               + objectClass.getName(),
           e);
@@ -178,22 +217,54 @@ public class ReflectionUtil {
   public static void setFieldValue(
       Object object, String fieldName, Class<?> fieldType, Object fieldValue) throws HopException {
     Class<?> objectClass = object.getClass();
-    String setterMethodName = ReflectionUtil.getSetterMethodName(fieldName);
+    Map<String, Setter> setters = SETTERS.get(objectClass);
+    Setter setter = setters.get(fieldName);
     try {
-      Method setterMethod = objectClass.getMethod(setterMethodName, fieldType);
-      setterMethod.invoke(object, fieldValue);
-    } catch (Exception e) {
+      if (setter == null || setter.fieldType() != fieldType) {
+        Method setterMethod =
+            objectClass.getMethod(ReflectionUtil.getSetterMethodName(fieldName), fieldType);
+        setter = new Setter(fieldType, unreflectSetter(setterMethod));
+        setters.put(fieldName, setter);
+      }
+      setter.handle().invokeExact(object, fieldValue);
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
       throw new HopException(
           "Error setting value on field '"
               + fieldName
               + "' using method '"
-              + setterMethodName
+              + ReflectionUtil.getSetterMethodName(fieldName)
               + "' in class '"
               + objectClass.getName(),
           e);
     }
   }
 
+  /**
+   * Convert a getter method to a method handle which takes the object as an {@link Object} and
+   * returns the value as an {@link Object}. Primitive values are boxed.
+   *
+   * @param getter the getter method without arguments
+   * @return the method handle of type {@code (Object)Object}
+   * @throws IllegalAccessException if the method is not accessible
+   */
+  public static MethodHandle unreflectGetter(Method getter) throws IllegalAccessException {
+    return MethodHandles.lookup().unreflect(getter).asType(GETTER_TYPE);
+  }
+
+  /**
+   * Convert a setter method to a method handle which takes the object and the value as an {@link
+   * Object}. Primitive values are unboxed.
+   *
+   * @param setter the setter method with exactly one argument
+   * @return the method handle of type {@code (Object,Object)void}
+   * @throws IllegalAccessException if the method is not accessible
+   */
+  public static MethodHandle unreflectSetter(Method setter) throws IllegalAccessException {
+    return MethodHandles.lookup().unreflect(setter).asType(SETTER_TYPE);
+  }
+
   public static String getObjectName(Object object) throws HopException {
     try {
       return (String) ReflectionUtil.getFieldValue(object, "name", false);
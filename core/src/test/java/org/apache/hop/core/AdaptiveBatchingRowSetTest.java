@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEnvironmentExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/** Test class for the adaptive batching row set. */
+@ExtendWith(RestoreHopEnvironmentExtension.class)
+class AdaptiveBatchingRowSetTest {
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rowMeta;
+  }
+
+  @Test
+  void testBasicCreation() {
+    IRowSet set = new AdaptiveBatchingRowSet(100);
+
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+  }
+
+  /** A partial batch must be handed over when the producer goes idle, it should never stall. */
+  @Test
+  void testPartialBatchIsFlushedWhenIdle() {
+    AdaptiveBatchingRowSet set = new AdaptiveBatchingRowSet(100);
+    IRowMeta rowMeta = createRowMeta();
+
+    assertTrue(set.putRow(rowMeta, new Object[] {1L}));
+    assertEquals(1, set.size());
+
+    Object[] row = set.getRowWait(50, TimeUnit.MILLISECONDS);
+    assertNotNull(row);
+    assertArrayEquals(new Object[] {1L}, row);
+    assertNull(set.getRowImmediate());
+
+    // The producer continues after the consumer took its partial batch
+    //
+    assertTrue(set.putRow(rowMeta, new Object[] {2L}));
+    assertTrue(set.putRow(rowMeta, new Object[] {3L}));
+    assertArrayEquals(new Object[] {2L}, set.getRow());
+    assertArrayEquals(new Object[] {3L}, set.getRow());
+  }
+
+  @Test
+  void testSetDoneFlushes() {
+    AdaptiveBatchingRowSet set = new AdaptiveBatchingRowSet(100);
+    IRowMeta rowMeta = createRowMeta();
+
+    set.putRow(rowMeta, new Object[] {1L});
+    set.putRow(rowMeta, new Object[] {2L});
+    set.setDone();
+
+    assertTrue(set.isDone());
+    assertArrayEquals(new Object[] {1L}, set.getRowImmediate());
+    assertArrayEquals(new Object[] {2L}, set.getRowImmediate());
+    assertNull(set.getRow());
+  }
+
+  @Test
+  void testCapacityIsRespected() {
+    AdaptiveBatchingRowSet set = new AdaptiveBatchingRowSet(8);
+    IRowMeta rowMeta = createRowMeta();
+
+    int accepted = 0;
+    while (set.putRowWait(rowMeta, new Object[] {(long) accepted}, 1, TimeUnit.MILLISECONDS)) {
+      accepted++;
+      assertTrue(accepted < 100, "The row set should be full by now");
+    }
+    assertTrue(accepted >= 8);
+    assertTrue(set.size() <= 8 + set.getMaxBatchSize());
+
+    for (long i = 0; i < accepted; i++) {
+      assertArrayEquals(new Object[] {i}, set.getRowWait(10, TimeUnit.MILLISECONDS));
+    }
+    assertNull(set.getRowImmediate());
+  }
+
+  @Test
+  void testProducerConsumerThreads() throws Exception {
+    final AdaptiveBatchingRowSet set = new AdaptiveBatchingRowSet(1000);
+    final IRowMeta rowMeta = createRowMeta();
+    final int nrRows = 100_000;
+
+    Thread producer =
+        new Thread(
+            () -> {
+              for (long i = 0; i < nrRows; i++) {
+                Object[] row = new Object[] {i};
+                while (!set.putRow(rowMeta, row)) {
+                  // keep trying
+                }
+                // Trickle now and then
+                if (i % 10_000 == 0) {
+                  try {
+                    Thread.sleep(5);
+                  } catch (InterruptedException e) {
+                    return;
+                  }
+                }
+              }
+              set.setDone();
+            });
+    producer.start();
+
+    long expected = 0;
+    Object[] row = set.getRow();
+    while (row != null || !set.isDone()) {
+      if (row != null) {
+        assertEquals(expected++, row[0]);
+      }
+      row = set.getRow();
+    }
+    row = set.getRow();
+    while (row != null) {
+      assertEquals(expected++, row[0]);
+      row = set.getRow();
+    }
+
+    producer.join();
+    assertEquals(nrRows, expected);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEnvironmentExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/** Test class for the lock-free single producer, single consumer row set. */
+@ExtendWith(RestoreHopEnvironmentExtension.class)
+class SpscRowSetTest {
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rowMeta;
+  }
+
+  @Test
+  void testBasicCreation() {
+    IRowSet set = new SpscRowSet(10);
+
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  void testCapacityIsRespected() {
+    SpscRowSet set = new SpscRowSet(3, SpscRowSet.WaitStrategy.Spin);
+    IRowMeta rowMeta = createRowMeta();
+
+    assertTrue(set.putRowWait(rowMeta, new Object[] {1L}, 1, TimeUnit.MILLISECONDS));
+    assertTrue(set.putRowWait(rowMeta, new Object[] {2L}, 1, TimeUnit.MILLISECONDS));
+    assertTrue(set.putRowWait(rowMeta, new Object[] {3L}, 1, TimeUnit.MILLISECONDS));
+    assertFalse(set.putRowWait(rowMeta, new Object[] {4L}, 1, TimeUnit.MILLISECONDS));
+    assertEquals(3, set.size());
+    assertEquals(rowMeta, set.getRowMeta());
+
+    assertArrayEquals(new Object[] {1L}, set.getRowImmediate());
+    assertTrue(set.putRowWait(rowMeta, new Object[] {4L}, 1, TimeUnit.MILLISECONDS));
+    assertArrayEquals(new Object[] {2L}, set.getRowImmediate());
+    assertArrayEquals(new Object[] {3L}, set.getRowImmediate());
+    assertArrayEquals(new Object[] {4L}, set.getRowImmediate());
+    assertNull(set.getRowWait(1, TimeUnit.MILLISECONDS));
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  void testClear() {
+    SpscRowSet set = new SpscRowSet(5);
+    set.putRow(createRowMeta(), new Object[] {1L});
+    set.setDone();
+
+    set.clear();
+
+    assertEquals(0, set.size());
+    assertFalse(set.isDone());
+    assertNull(set.getRowImmediate());
+  }
+
+  @Test
+  void testProducerConsumerThreads() throws Exception {
+    for (SpscRowSet.WaitStrategy strategy : SpscRowSet.WaitStrategy.values()) {
+      final SpscRowSet set = new SpscRowSet(100, strategy);
+      final IRowMeta rowMeta = createRowMeta();
+      final int nrRows = 10_000;
+
+      Thread producer =
+          new Thread(
+              () -> {
+                for (long i = 0; i < nrRows; i++) {
+                  Object[] row = new Object[] {i};
+                  while (!set.putRow(rowMeta, row)) {
+                    // keep trying
+                  }
+                }
+                set.setDone();
+              });
+      producer.start();
+
+      long expected = 0;
+      Object[] row = set.getRow();
+      while (row != null || !set.isDone()) {
+        if (row != null) {
+          assertEquals(expected++, row[0]);
+        }
+        row = set.getRow();
+      }
+      // One last attempt after the done flag, like BaseTransform does.
+      row = set.getRow();
+      while (row != null) {
+        assertEquals(expected++, row[0]);
+        row = set.getRow();
+      }
+
+      producer.join();
+      assertEquals(nrRows, expected, "Rows lost with wait strategy " + strategy);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.jupiter.api.Test;
+
+/** Test class for the compact, slab based row hash index. */
+class CompactRowHashIndexTest {
+
+  private static IRowMeta stringKeyMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("code"));
+    rowMeta.addValueMeta(new ValueMetaInteger("version"));
+    return rowMeta;
+  }
+
+  private static IRowMeta integerKeyMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    return rowMeta;
+  }
+
+  private static IRowMeta valueMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    return rowMeta;
+  }
+
+  @Test
+  void testGetAndPut() throws HopException {
+    CompactRowHashIndex index = new CompactRowHashIndex(stringKeyMeta(), valueMeta());
+    assertFalse(index.isUsingLongKeys());
+    assertTrue(index.isEmpty());
+    assertNull(index.get(new Object[] {"A", 1L}));
+
+    index.put(new Object[] {"A", 1L}, new Object[] {"first", 1.5});
+    index.put(new Object[] {"A", 2L}, new Object[] {"second", null});
+    index.put(new Object[] {null, 1L}, new Object[] {null, 3.0});
+
+    assertEquals(3, index.getCount());
+    assertArrayEquals(new Object[] {"first", 1.5}, index.get(new Object[] {"A", 1L}));
+    assertArrayEquals(new Object[] {"second", null}, index.get(new Object[] {"A", 2L}));
+    assertArrayEquals(new Object[] {null, 3.0}, index.get(new Object[] {null, 1L}));
+    assertNull(index.get(new Object[] {"B", 1L}));
+  }
+
+  @Test
+  void testReplaceValue() throws HopException {
+    CompactRowHashIndex index = new CompactRowHashIndex(stringKeyMeta(), valueMeta());
+    index.put(new Object[] {"A", 1L}, new Object[] {"first", 1.0});
+    index.put(new Object[] {"A", 1L}, new Object[] {"last", 2.0});
+
+    assertEquals(1, index.getCount());
+    assertArrayEquals(new Object[] {"last", 2.0}, index.get(new Object[] {"A", 1L}));
+  }
+
+  @Test
+  void testLongKeys() throws HopException {
+    CompactRowHashIndex index = new CompactRowHashIndex(integerKeyMeta(), valueMeta());
+    assertTrue(index.isUsingLongKeys());
+
+    index.put(new Object[] {0L}, new Object[] {"zero", 0.0});
+    index.put(new Object[] {-5L}, new Object[] {"minus five", -5.0});
+    index.put(new Object[] {null}, new Object[] {"null", null});
+    index.put(new Object[] {null}, new Object[] {"null again", null});
+
+    assertEquals(3, index.getCount());
+    assertArrayEquals(new Object[] {"zero", 0.0}, index.get(new Object[] {0L}));
+    assertArrayEquals(new Object[] {"minus five", -5.0}, index.get(new Object[] {-5L}));
+    assertArrayEquals(new Object[] {"null again", null}, index.get(new Object[] {null}));
+    assertNull(index.get(new Object[] {5L}));
+  }
+
+  @Test
+  void testResize() throws HopException {
+    CompactRowHashIndex longIndex = new CompactRowHashIndex(integerKeyMeta(), valueMeta(), 4);
+    CompactRowHashIndex rowIndex = new CompactRowHashIndex(stringKeyMeta(), valueMeta(), 4);
+    int nrRows = 100_000;
+    for (long i = 0; i < nrRows; i++) {
+      longIndex.put(new Object[] {i * 7}, new Object[] {"value " + i, (double) i});
+      rowIndex.put(new Object[] {"key " + i, i}, new Object[] {"value " + i, (double) i});
+    }
+
+    assertEquals(nrRows, longIndex.getCount());
+    assertEquals(nrRows, rowIndex.getCount());
+    assertTrue(longIndex.getSize() > nrRows);
+    for (long i = 0; i < nrRows; i++) {
+      Object[] expected = new Object[] {"value " + i, (double) i};
+      assertArrayEquals(expected, longIndex.get(new Object[] {i * 7}));
+      assertArrayEquals(expected, rowIndex.get(new Object[] {"key " + i, i}));
+    }
+    assertNull(longIndex.get(new Object[] {1L}));
+    assertNull(rowIndex.get(new Object[] {"key 1", 2L}));
+  }
+
+  @Test
+  void testLargeEntries() throws HopException {
+    CompactRowHashIndex index = new CompactRowHashIndex(stringKeyMeta(), valueMeta());
+    String large = "x".repeat(3 * 1024 * 1024);
+    index.put(new Object[] {"small", 1L}, new Object[] {"small", 1.0});
+    index.put(new Object[] {large, 1L}, new Object[] {large, 2.0});
+    index.put(new Object[] {"after", 1L}, new Object[] {"after", 3.0});
+
+    assertArrayEquals(new Object[] {"small", 1.0}, index.get(new Object[] {"small", 1L}));
+    assertArrayEquals(new Object[] {large, 2.0}, index.get(new Object[] {large, 1L}));
+    assertArrayEquals(new Object[] {"after", 3.0}, index.get(new Object[] {"after", 1L}));
+  }
+
+  @Test
+  void testMemoryUsageAndClear() throws HopException {
+    CompactRowHashIndex index = new CompactRowHashIndex(integerKeyMeta(), valueMeta());
+    long emptyUsage = index.getMemoryUsage();
+    for (long i = 0; i < 1_000; i++) {
+      index.put(new Object[] {i}, new Object[] {"value", 1.0});
+    }
+    assertTrue(index.getMemoryUsage() > emptyUsage);
+
+    index.clear();
+    assertTrue(index.isEmpty());
+    assertEquals(emptyUsage, index.getMemoryUsage());
+    assertNull(index.get(new Object[] {1L}));
+  }
+}
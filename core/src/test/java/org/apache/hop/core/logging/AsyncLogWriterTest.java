@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit test for {@link AsyncLogWriter} */
+class AsyncLogWriterTest {
+
+  @Test
+  void testAllEventsWrittenOnClose() throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    AsyncLogWriter writer =
+        new AsyncLogWriter("test", outputStream, 10, 60_000L, AsyncLogWriter.OverflowPolicy.Block);
+    for (int i = 0; i < 100; i++) {
+      writer.addEvent(createEvent("line " + i, LogLevel.ROWLEVEL));
+    }
+    writer.close();
+
+    String[] lines = outputStream.toString().split("\\R");
+    assertEquals(100, lines.length);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(lines[i].endsWith("line " + i));
+    }
+    assertEquals(0, writer.getDroppedEvents());
+  }
+
+  @Test
+  void testFlushAfterInterval() throws Exception {
+    CountDownLatch flushed = new CountDownLatch(1);
+    ByteArrayOutputStream outputStream =
+        new ByteArrayOutputStream() {
+          @Override
+          public void flush() {
+            flushed.countDown();
+          }
+        };
+    AsyncLogWriter writer =
+        new AsyncLogWriter("test", outputStream, 10, 50L, AsyncLogWriter.OverflowPolicy.Block);
+    writer.addEvent(createEvent("line", LogLevel.BASIC));
+
+    assertTrue(flushed.await(10, TimeUnit.SECONDS));
+    writer.close();
+  }
+
+  @Test
+  void testDropLowSeverityEvents() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger nrWrites = new AtomicInteger();
+    ByteArrayOutputStream outputStream =
+        new ByteArrayOutputStream() {
+          @Override
+          public void write(byte[] bytes) throws IOException {
+            nrWrites.incrementAndGet();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            super.write(bytes);
+          }
+        };
+    AsyncLogWriter writer =
+        new AsyncLogWriter(
+            "test", outputStream, 2, 60_000L, AsyncLogWriter.OverflowPolicy.DropLowSeverity);
+
+    // The first event keeps the writer thread busy, the next ones fill the queue
+    //
+    writer.addEvent(createEvent("first", LogLevel.BASIC));
+    while (nrWrites.get() == 0) {
+      Thread.sleep(10);
+    }
+    writer.addEvent(createEvent("queued 1", LogLevel.BASIC));
+    writer.addEvent(createEvent("queued 2", LogLevel.BASIC));
+    for (int i = 0; i < 10; i++) {
+      writer.addEvent(createEvent("detailed " + i, LogLevel.DETAILED));
+    }
+    assertEquals(10, writer.getDroppedEvents());
+
+    release.countDown();
+    writer.close();
+
+    String output = outputStream.toString();
+    assertTrue(output.contains("queued 2"));
+    assertTrue(output.contains("10 log lines were dropped"));
+  }
+
+  private static HopLoggingEvent createEvent(String message, LogLevel level) {
+    return new HopLoggingEvent(
+        new LogMessage(message, "1", level), System.currentTimeMillis(), level);
+  }
+}
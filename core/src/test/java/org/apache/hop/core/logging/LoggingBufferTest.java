@@ -20,6 +20,7 @@ package org.apache.hop.core.logging;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
@@ -125,4 +126,82 @@ class LoggingBufferTest {
     loggingBuffer.removeChannelFromBuffer(logChannelId);
     assertEquals(10, loggingBuffer.size());
   }
+
+  @Test
+  void testOldestLinesAreDropped() {
+    LoggingBuffer loggingBuffer = new LoggingBuffer(10);
+    for (int i = 0; i < 25; i++) {
+      loggingBuffer.addLogggingEvent(createEvent("line " + i, "1", i));
+    }
+    assertEquals(10, loggingBuffer.size());
+
+    List<HopLoggingEvent> events =
+        loggingBuffer.getLogBufferFromTo(
+            (List<String>) null, true, 0, loggingBuffer.getLastBufferLineNr());
+    assertEquals(10, events.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals("line " + (15 + i), getMessage(events.get(i)));
+    }
+  }
+
+  @Test
+  void testGetLogBufferFromToForChannel() {
+    LoggingBuffer loggingBuffer = new LoggingBuffer(100);
+    for (int i = 0; i < 30; i++) {
+      String logChannelId = i % 3 == 0 ? "1" : "2";
+      loggingBuffer.addLogggingEvent(createEvent("line " + i, logChannelId, i));
+    }
+    int lastNr = loggingBuffer.getLastBufferLineNr();
+
+    List<HopLoggingEvent> events = loggingBuffer.getLogBufferFromTo(List.of("1"), false, 0, lastNr);
+    assertEquals(10, events.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals("line " + (i * 3), getMessage(events.get(i)));
+    }
+
+    // Only the lines after the given line number
+    //
+    events = loggingBuffer.getLogBufferFromTo(List.of("1"), false, lastNr - 6, lastNr);
+    assertEquals(2, events.size());
+    assertEquals("line 24", getMessage(events.get(0)));
+    assertEquals("line 27", getMessage(events.get(1)));
+
+    // Several channels are merged in the order of the lines
+    //
+    events = loggingBuffer.getLogBufferFromTo(List.of("2", "1"), false, lastNr - 3, lastNr);
+    assertEquals(3, events.size());
+    assertEquals("line 27", getMessage(events.get(0)));
+    assertEquals("line 29", getMessage(events.get(2)));
+  }
+
+  @Test
+  void testSetMaxNrLines() {
+    LoggingBuffer loggingBuffer = new LoggingBuffer(0);
+    for (int i = 0; i < 3000; i++) {
+      loggingBuffer.addLogggingEvent(createEvent("line " + i, "1", i));
+    }
+    assertEquals(3000, loggingBuffer.size());
+
+    loggingBuffer.setMaxNrLines(100);
+    assertEquals(100, loggingBuffer.size());
+    List<HopLoggingEvent> events =
+        loggingBuffer.getLogBufferFromTo(
+            List.of("1"), false, 0, loggingBuffer.getLastBufferLineNr());
+    assertEquals(100, events.size());
+    assertEquals("line 2900", getMessage(events.get(0)));
+
+    loggingBuffer.addLogggingEvent(createEvent("line 3000", "1", 3000));
+    assertEquals(100, loggingBuffer.size());
+  }
+
+  private static HopLoggingEvent createEvent(String message, String logChannelId, long timeStamp) {
+    HopLoggingEvent event = new HopLoggingEvent();
+    event.setMessage(new LogMessage(message, logChannelId, LogLevel.BASIC));
+    event.setTimeStamp(timeStamp);
+    return event;
+  }
+
+  private static String getMessage(HopLoggingEvent event) {
+    return ((LogMessage) event.getMessage()).getMessage();
+  }
 }
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.vfs.HopVfs;
+import org.junit.jupiter.api.Test;
+
+class CompiledArtifactCacheTest {
+
+  @Test
+  void testCompiledOnce() {
+    CompiledArtifactCache cache = new CompiledArtifactCache(10);
+    AtomicInteger compilations = new AtomicInteger();
+    String key = CompiledArtifactCache.contentKey("a+b");
+
+    Pattern first =
+        cache.get(
+            "regex",
+            key,
+            () -> {
+              compilations.incrementAndGet();
+              return Pattern.compile("a+b");
+            });
+    Pattern second = cache.get("regex", key, () -> Pattern.compile("a+b"));
+
+    assertSame(first, second);
+    assertEquals(1, compilations.get());
+    assertEquals(1L, cache.getHits());
+    assertEquals(1L, cache.getMisses());
+    assertEquals(0.5, cache.getHitRate(), 0.0001);
+
+    // The same key for another type of artifact is another artifact
+    //
+    cache.get("other", key, () -> Pattern.compile("a+b"));
+    assertEquals(2L, cache.getMisses());
+    assertEquals(2, cache.getSize());
+  }
+
+  @Test
+  void testFailuresAreNotCached() {
+    CompiledArtifactCache cache = new CompiledArtifactCache(10);
+
+    assertThrows(
+        IOException.class,
+        () ->
+            cache.get(
+                "test",
+                "key",
+                () -> {
+                  throw new IOException("compilation failed");
+                }));
+    assertEquals(0, cache.getSize());
+
+    assertEquals("ok", cache.get("test", "key", () -> "ok"));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  void testLeastRecentlyUsedAreEvicted() {
+    CompiledArtifactCache cache = new CompiledArtifactCache(2);
+    cache.get("test", "a", () -> "a");
+    cache.get("test", "b", () -> "b");
+    cache.get("test", "a", () -> "a2");
+    cache.get("test", "c", () -> "c");
+
+    assertEquals(2, cache.getSize());
+    assertEquals(1L, cache.getEvictions());
+    assertEquals("a", cache.get("test", "a", () -> "a3"));
+    assertEquals("b2", cache.get("test", "b", () -> "b2"));
+  }
+
+  @Test
+  void testConcurrentCompilation() throws Exception {
+    CompiledArtifactCache cache = new CompiledArtifactCache(10);
+    AtomicInteger compilations = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Object>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return cache.get(
+                      "test",
+                      "key",
+                      () -> {
+                        compilations.incrementAndGet();
+                        Thread.sleep(50);
+                        return new Object();
+                      });
+                }));
+      }
+      start.countDown();
+      Object artifact = futures.get(0).get(10, TimeUnit.SECONDS);
+      for (Future<Object> future : futures) {
+        assertSame(artifact, future.get(10, TimeUnit.SECONDS));
+      }
+      assertEquals(1, compilations.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testFileKeyChangesWithFile() throws Exception {
+    FileObject file = HopVfs.getFileObject("ram:///compiled-artifact-cache-test.xsd");
+    try {
+      write(file, "<schema/>");
+      String key = CompiledArtifactCache.fileKey(file);
+      assertEquals(key, CompiledArtifactCache.fileKey(file));
+
+      write(file, "<schema></schema>");
+      assertNotEquals(key, CompiledArtifactCache.fileKey(file));
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  void testLoaderKeyIsUniquePerClassLoader() {
+    ClassLoader loader = getClass().getClassLoader();
+    assertEquals(CompiledArtifactCache.loaderKey(loader), CompiledArtifactCache.loaderKey(loader));
+    assertNotEquals(CompiledArtifactCache.loaderKey(null), CompiledArtifactCache.loaderKey(loader));
+
+    Set<String> keys = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      keys.add(CompiledArtifactCache.loaderKey(new URLClassLoader(new URL[0], loader)));
+    }
+    assertEquals(1000, keys.size());
+  }
+
+  private static void write(FileObject file, String content) throws Exception {
+    try (OutputStream outputStream = HopVfs.getOutputStream(file, false)) {
+      outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.core.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopXmlException;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.core.vfs.HopVfs;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+class XmlDocumentCacheTest {
+
+  @Test
+  void testCopyPerLoad() throws Exception {
+    XmlDocumentCache cache = new XmlDocumentCache(10);
+    FileObject file = HopVfs.getFileObject("ram:///xml-document-cache-copy.hpl");
+    try {
+      write(file, "<pipeline><info><name>test</name></info></pipeline>");
+
+      Document first = cache.loadDocument(file);
+      Document second = cache.loadDocument(file);
+      assertNotSame(first, second);
+      assertEquals(1L, cache.getMisses());
+      assertEquals(1L, cache.getHits());
+
+      // Changes to one copy don't show up in the next one
+      //
+      XmlHandler.getSubNodeByNr(first.getDocumentElement(), "info", 0)
+          .appendChild(first.createElement("extra"));
+      Document third = cache.loadDocument(file);
+      assertEquals(
+          0,
+          XmlHandler.countNodes(
+              XmlHandler.getSubNode(third.getDocumentElement(), "info"), "extra"));
+      assertEquals(
+          "test",
+          XmlHandler.getTagValue(
+              XmlHandler.getSubNode(third.getDocumentElement(), "info"), "name"));
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  void testChangedFileIsParsedAgain() throws Exception {
+    XmlDocumentCache cache = new XmlDocumentCache(10);
+    FileObject file = HopVfs.getFileObject("ram:///xml-document-cache-changed.hpl");
+    try {
+      write(file, "<pipeline><name>a</name></pipeline>");
+      Document first = cache.loadDocument(file);
+      assertEquals("a", XmlHandler.getTagValue(first.getDocumentElement(), "name"));
+
+      write(file, "<pipeline><name>changed</name></pipeline>");
+      Document second = cache.loadDocument(file);
+      assertEquals("changed", XmlHandler.getTagValue(second.getDocumentElement(), "name"));
+      assertEquals(2L, cache.getMisses());
+      assertEquals(0L, cache.getHits());
+      assertEquals(1, cache.getSize());
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  void testInvalidate() throws Exception {
+    XmlDocumentCache cache = new XmlDocumentCache(10);
+    FileObject file = HopVfs.getFileObject("ram:///xml-document-cache-invalidate.hwf");
+    try {
+      write(file, "<workflow/>");
+      cache.loadDocument(file);
+      assertEquals(1, cache.getSize());
+
+      cache.invalidate(file.getName().getURI());
+      assertEquals(0, cache.getSize());
+      cache.loadDocument(file);
+      assertEquals(2L, cache.getMisses());
+
+      // Nothing to invalidate
+      //
+      cache.invalidate(null);
+      cache.invalidate("");
+      assertEquals(1, cache.getSize());
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  void testLeastRecentlyUsedIsEvicted() throws Exception {
+    XmlDocumentCache cache = new XmlDocumentCache(2);
+    FileObject a = HopVfs.getFileObject("ram:///xml-document-cache-a.hpl");
+    FileObject b = HopVfs.getFileObject("ram:///xml-document-cache-b.hpl");
+    FileObject c = HopVfs.getFileObject("ram:///xml-document-cache-c.hpl");
+    try {
+      write(a, "<pipeline/>");
+      write(b, "<pipeline/>");
+      write(c, "<pipeline/>");
+
+      cache.loadDocument(a);
+      cache.loadDocument(b);
+      cache.loadDocument(a); // b is now the least recently used
+      cache.loadDocument(c);
+      assertEquals(1L, cache.getEvictions());
+      assertEquals(2, cache.getSize());
+
+      cache.loadDocument(a);
+      assertEquals(2L, cache.getHits());
+      cache.loadDocument(b);
+      assertEquals(4L, cache.getMisses());
+    } finally {
+      a.delete();
+      b.delete();
+      c.delete();
+    }
+  }
+
+  @Test
+  void testInvalidFileIsNotCached() throws Exception {
+    XmlDocumentCache cache = new XmlDocumentCache(10);
+    FileObject file = HopVfs.getFileObject("ram:///xml-document-cache-invalid.hpl");
+    try {
+      write(file, "<pipeline>");
+      assertThrows(HopXmlException.class, () -> cache.loadDocument(file));
+      assertEquals(0, cache.getSize());
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  void testEnabled() {
+    Variables variables = new Variables();
+    assertFalse(XmlDocumentCache.isEnabled(null));
+    assertFalse(XmlDocumentCache.isEnabled(variables));
+    variables.setVariable(Const.HOP_CACHE_LOADED_FILES, "Y");
+    assertTrue(XmlDocumentCache.isEnabled(variables));
+  }
+
+  private static void write(FileObject file, String content) throws Exception {
+    try (OutputStream outputStream = HopVfs.getOutputStream(file, false)) {
+      outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.serializer.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.xml.XmlHandler;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.hop.metadata.serializer.xml.classes.MetaData;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Node;
+
+/** Unit test for {@link XmlMetadataClassPlan} */
+class XmlMetadataClassPlanTest {
+
+  public static class Sample {
+    @HopMetadataProperty private String name;
+
+    @HopMetadataProperty(key = "row_limit")
+    private int limit;
+
+    @HopMetadataProperty private boolean enabled;
+
+    @HopMetadataProperty(groupKey = "values", key = "value")
+    private List<String> values = new ArrayList<>();
+
+    @HopMetadataProperty private transient String cached;
+
+    private String notSerialized;
+
+    private String extra;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getLimit() {
+      return limit;
+    }
+
+    public void setLimit(int limit) {
+      this.limit = limit;
+    }
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public List<String> getValues() {
+      return values;
+    }
+
+    public void setValues(List<String> values) {
+      this.values = values;
+    }
+
+    public String getCached() {
+      return cached;
+    }
+
+    public void setCached(String cached) {
+      this.cached = cached;
+    }
+
+    public String getNotSerialized() {
+      return notSerialized;
+    }
+
+    public void setNotSerialized(String notSerialized) {
+      this.notSerialized = notSerialized;
+    }
+
+    @HopMetadataProperty(key = "extra")
+    public String getExtra() {
+      return extra;
+    }
+
+    @HopMetadataProperty(key = "extra")
+    public void setExtra(String extra) {
+      this.extra = extra;
+    }
+  }
+
+  public static class SubSample extends Sample {
+    @HopMetadataProperty private String description;
+
+    public String getDescription() {
+      return description;
+    }
+
+    public void setDescription(String description) {
+      this.description = description;
+    }
+  }
+
+  public static class NoProperties {
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  @Test
+  void testPlanIsCreatedOncePerClass() {
+    assertSame(XmlMetadataClassPlan.of(Sample.class), XmlMetadataClassPlan.of(Sample.class));
+  }
+
+  @Test
+  void testFields() {
+    XmlMetadataClassPlan plan = XmlMetadataClassPlan.of(Sample.class);
+
+    List<String> names = new ArrayList<>();
+    for (XmlMetadataClassPlan.FieldPlan field : plan.getFields()) {
+      names.add(field.getName());
+    }
+    assertEquals(List.of("name", "limit", "enabled", "values", "cached"), names);
+
+    XmlMetadataClassPlan.FieldPlan limit = plan.getFields().get(1);
+    assertEquals("row_limit", limit.getTag());
+    assertEquals(int.class, limit.getType());
+
+    XmlMetadataClassPlan.FieldPlan values = plan.getFields().get(3);
+    assertEquals("value", values.getTag());
+    assertEquals(String.class, values.getGenericClass());
+
+    // Transient fields are never serialized
+    //
+    assertNull(plan.getFields().get(4).getProperty(Set.of(), Set.of()));
+  }
+
+  @Test
+  void testFieldSelection() {
+    XmlMetadataClassPlan.FieldPlan limit = XmlMetadataClassPlan.of(Sample.class).getFields().get(1);
+    assertNotNull(limit.getProperty(Set.of(), Set.of()));
+    assertNotNull(limit.getProperty(Set.of("limit"), Set.of()));
+    assertNull(limit.getProperty(Set.of("name"), Set.of()));
+    assertNull(limit.getProperty(Set.of(), Set.of("row_limit")));
+  }
+
+  @Test
+  void testInheritedFields() {
+    List<String> names = new ArrayList<>();
+    for (XmlMetadataClassPlan.FieldPlan field :
+        XmlMetadataClassPlan.of(SubSample.class).getFields()) {
+      names.add(field.getName());
+    }
+    assertEquals(List.of("description", "name", "limit", "enabled", "values", "cached"), names);
+  }
+
+  @Test
+  void testFieldValues() throws Exception {
+    XmlMetadataClassPlan plan = XmlMetadataClassPlan.of(Sample.class);
+    Sample sample = new Sample();
+
+    plan.getFields().get(0).setValue(sample, "test");
+    plan.getFields().get(1).setValue(sample, 42);
+    plan.getFields().get(2).setValue(sample, Boolean.TRUE);
+
+    assertEquals("test", sample.getName());
+    assertEquals(42, sample.getLimit());
+    assertTrue(sample.isEnabled());
+    assertEquals("test", plan.getFields().get(0).getValue(sample));
+    assertEquals(42, plan.getFields().get(1).getValue(sample));
+    assertEquals(Boolean.TRUE, plan.getFields().get(2).getValue(sample));
+
+    // A primitive can't be set to null
+    //
+    assertThrows(HopException.class, () -> plan.getFields().get(1).setValue(sample, null));
+  }
+
+  @Test
+  void testAnnotatedMethods() throws Exception {
+    XmlMetadataClassPlan plan = XmlMetadataClassPlan.of(Sample.class);
+    assertEquals(1, plan.getGetters().size());
+    assertEquals(1, plan.getSetters().size());
+
+    Sample sample = new Sample();
+    plan.getSetters().get(0).set(sample, "extra value");
+    assertEquals("extra value", sample.getExtra());
+    assertEquals("extra value", plan.getGetters().get(0).get(sample));
+  }
+
+  @Test
+  void testHasSerializableProperties() {
+    assertTrue(XmlMetadataClassPlan.of(Sample.class).hasSerializableProperties());
+    assertTrue(XmlMetadataClassPlan.of(MetaData.class).hasSerializableProperties());
+    assertFalse(XmlMetadataClassPlan.of(NoProperties.class).hasSerializableProperties());
+    assertFalse(XmlMetadataUtil.hasHopMetadataSerializableProperties(NoProperties.class));
+  }
+
+  @Test
+  void testRoundTrip() throws Exception {
+    SubSample sample = new SubSample();
+    sample.setName("sample");
+    sample.setLimit(100);
+    sample.setEnabled(true);
+    sample.setValues(List.of("a", "b"));
+    sample.setCached("not stored");
+    sample.setNotSerialized("not stored either");
+    sample.setExtra("extra");
+    sample.setDescription("description");
+
+    String xml = XmlMetadataUtil.serializeObjectToXml(sample);
+    Node node = XmlHandler.loadXmlString(XmlHandler.aroundTag("sample", xml), "sample");
+    SubSample copy = XmlMetadataUtil.deSerializeFromXml(node, SubSample.class, null, null);
+
+    assertEquals("sample", copy.getName());
+    assertEquals(100, copy.getLimit());
+    assertTrue(copy.isEnabled());
+    assertEquals(List.of("a", "b"), copy.getValues());
+    assertNull(copy.getCached());
+    assertNull(copy.getNotSerialized());
+    assertEquals("extra", copy.getExtra());
+    assertEquals("description", copy.getDescription());
+  }
+}
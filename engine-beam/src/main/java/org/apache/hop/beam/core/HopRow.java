@@ -34,7 +34,7 @@ public class HopRow implements Serializable {
   }
 
   public HopRow(Object[] row, int optionalSize) {
-    assert optionalSize <= row.length : "optionalSize needs to be <= row length";
+    assert row == null || optionalSize <= row.length : "optionalSize needs to be <= row length";
     this.row = row;
     this.optionalSize = optionalSize;
   }
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.HopLogStore;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.Dummy;
+import org.apache.hop.pipeline.transforms.dummy.DummyData;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The per-row overhead of {@code BaseTransform.getRow()} and {@code BaseTransform.putRow()}
+ * including the status counters (lines read and written), measured with a Dummy transform.
+ *
+ * <p>The row sets are queues which are kept well above the lower buffer boundary so that only the
+ * transform code itself is measured, not the row hand-over between threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BaseTransformBenchmark {
+
+  private static final int BACKLOG = 1_000;
+
+  private Dummy dummy;
+  private IRowSet input;
+  private IRowSet output;
+  private IRowMeta rowMeta;
+  private Object[] row;
+
+  @Setup(Level.Trial)
+  public void setUp() throws HopException {
+    HopLogStore.init();
+
+    DummyMeta meta = new DummyMeta();
+    TransformMeta transformMeta = new TransformMeta("dummy", meta);
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.addTransform(transformMeta);
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.setRunning(true);
+
+    // The transform has no hops in the pipeline metadata: we hook up the row sets ourselves
+    //
+    dummy = new Dummy(transformMeta, meta, new DummyData(), 0, pipelineMeta, pipeline);
+
+    rowMeta = RowSets.createRowMeta();
+    row = RowSets.createRow(42L);
+
+    input = new QueueRowSet();
+    input.setThreadNameFromToCopy("input", 0, "dummy", 0);
+    output = new QueueRowSet();
+    output.setThreadNameFromToCopy("dummy", 0, "output", 0);
+    dummy.addRowSetToInputRowSets(input);
+    dummy.addRowSetToOutputRowSets(output);
+
+    for (int i = 0; i < BACKLOG; i++) {
+      input.putRow(rowMeta, row);
+    }
+  }
+
+  /** One row through getRow(), putRow() and the counters. */
+  @Benchmark
+  public Object processRow() throws HopException {
+    input.putRow(rowMeta, row);
+    dummy.processRow();
+    return output.getRowImmediate();
+  }
+
+  /** Only the status counter updates, as done several times per row. */
+  @Benchmark
+  public long incrementCounters() {
+    dummy.incrementLinesRead();
+    dummy.incrementLinesWritten();
+    return dummy.getLinesWritten();
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, for example before and after an upgrade:
+ *
+ * <pre>
+ * java -cp hop-engine-bench.jar org.apache.hop.bench.CompareResults before.json after.json [10]
+ * </pre>
+ *
+ * <p>Every benchmark (including its parameters) found in both files is listed with the relative
+ * change of its score. A change in the wrong direction (slower) beyond the threshold percentage,
+ * 10% by default, is reported as a regression and makes the process exit with code 1.
+ */
+public class CompareResults {
+
+  private CompareResults() {
+    // Entry point only
+  }
+
+  /** A single score of a benchmark run. */
+  record Score(double value, String unit, boolean higherIsBetter) {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold %]");
+      System.exit(2);
+    }
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+    Map<String, Score> baseline = readScores(new File(args[0]));
+    Map<String, Score> current = readScores(new File(args[1]));
+
+    int regressions = 0;
+    for (Map.Entry<String, Score> entry : new TreeMap<>(current).entrySet()) {
+      Score before = baseline.get(entry.getKey());
+      if (before == null || before.value() == 0) {
+        continue;
+      }
+      Score after = entry.getValue();
+      double change = (after.value() - before.value()) / before.value() * 100.0;
+      double worse = after.higherIsBetter() ? -change : change;
+      boolean regression = worse > threshold;
+      if (regression) {
+        regressions++;
+      }
+      System.out.printf(
+          "%-10s %-90s %14.3f -> %14.3f %-8s %+8.2f%%%n",
+          regression ? "REGRESSION" : "",
+          entry.getKey(),
+          before.value(),
+          after.value(),
+          after.unit(),
+          change);
+    }
+    System.out.println(regressions + " regression(s) beyond " + threshold + "%");
+    if (regressions > 0) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Read the primary scores of a JMH JSON result file.
+   *
+   * @param file the result file
+   * @return the scores per benchmark name including its parameters
+   * @throws IOException in case the file can't be read
+   */
+  static Map<String, Score> readScores(File file) throws IOException {
+    Map<String, Score> scores = new LinkedHashMap<>();
+    JsonNode root = new ObjectMapper().readTree(file);
+    for (JsonNode run : root) {
+      StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+      JsonNode params = run.path("params");
+      Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        key.append(' ').append(field.getKey()).append('=').append(field.getValue().asText());
+      }
+      JsonNode metric = run.path("primaryMetric");
+      String mode = run.path("mode").asText();
+      scores.put(
+          key.toString(),
+          new Score(
+              metric.path("score").asDouble(),
+              metric.path("scoreUnit").asText(),
+              "thrpt".equals(mode)));
+    }
+    return scores;
+  }
+}
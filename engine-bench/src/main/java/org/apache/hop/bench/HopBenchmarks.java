@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the JMH benchmarks of this module. It accepts the regular JMH command line options but
+ * writes the results as JSON by default, to the file given by the {@value #RESULT_FILE_PROPERTY}
+ * system property or to {@value #DEFAULT_RESULT_FILE}. Two result files can be compared with {@link
+ * CompareResults}.
+ */
+public class HopBenchmarks {
+
+  public static final String RESULT_FILE_PROPERTY = "hop.bench.result";
+
+  public static final String DEFAULT_RESULT_FILE = "hop-bench-result.json";
+
+  private HopBenchmarks() {
+    // Entry point only
+  }
+
+  public static void main(String[] args) throws Exception {
+    List<String> arguments = new ArrayList<>(Arrays.asList(args));
+    if (!arguments.contains("-rf")) {
+      arguments.add("-rf");
+      arguments.add("json");
+    }
+    if (!arguments.contains("-rff")) {
+      arguments.add("-rff");
+      arguments.add(System.getProperty(RESULT_FILE_PROPERTY, DEFAULT_RESULT_FILE));
+    }
+    Main.main(arguments.toArray(new String[0]));
+  }
+}
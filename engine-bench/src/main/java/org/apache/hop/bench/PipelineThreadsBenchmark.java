@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.HopLogStore;
+import org.apache.hop.core.logging.LogLevel;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares running the transform copies of a local pipeline on platform threads, on virtual threads
+ * and as scheduled tasks on the shared worker pool. The pipeline is an Injector followed by a chain
+ * of Dummy transforms, each with a number of copies.
+ *
+ * <ul>
+ *   <li>{@link #startup()}: initialize, start and finish the pipeline without any rows.
+ *   <li>{@link #throughput()}: the same pipeline with {@link #ROWS} rows going through it.
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineThreadsBenchmark {
+
+  public static final int ROWS = 10_000;
+
+  @Param({"Platform", "Virtual", "Scheduled"})
+  public String threadType;
+
+  /** The number of Dummy transforms in the chain. */
+  @Param({"10", "50"})
+  public int transforms;
+
+  /** The number of copies of every Dummy transform. */
+  @Param({"1", "4"})
+  public int copies;
+
+  private PipelineMeta pipelineMeta;
+  private IRowMeta rowMeta;
+  private Object[] row;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    HopLogStore.init();
+
+    pipelineMeta = new PipelineMeta();
+    TransformMeta previous = new TransformMeta("injector", new InjectorMeta());
+    pipelineMeta.addTransform(previous);
+    for (int i = 0; i < transforms; i++) {
+      TransformMeta dummy = new TransformMeta("dummy " + i, new DummyMeta());
+      dummy.setCopies(copies);
+      pipelineMeta.addTransform(dummy);
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(previous, dummy));
+      previous = dummy;
+    }
+
+    rowMeta = RowSets.createRowMeta();
+    row = RowSets.createRow(42L);
+  }
+
+  private LocalPipelineEngine createPipeline() {
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.setLogLevel(LogLevel.NOTHING);
+    LocalPipelineRunConfiguration runConfiguration =
+        (LocalPipelineRunConfiguration)
+            pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+    runConfiguration.setTransformThreadType(threadType);
+    return pipeline;
+  }
+
+  private LocalPipelineEngine run(int nrRows) throws HopException {
+    LocalPipelineEngine pipeline = createPipeline();
+    pipeline.prepareExecution();
+    RowProducer producer = pipeline.addRowProducer("injector", 0);
+    pipeline.startThreads();
+    for (int i = 0; i < nrRows; i++) {
+      producer.putRow(rowMeta, row);
+    }
+    producer.finished();
+    pipeline.waitUntilFinished();
+    if (pipeline.getErrors() > 0) {
+      throw new HopException("The benchmark pipeline failed");
+    }
+    return pipeline;
+  }
+
+  @Benchmark
+  public Object startup() throws HopException {
+    return run(0);
+  }
+
+  @Benchmark
+  public Object throughput() throws HopException {
+    return run(ROWS);
+  }
+}
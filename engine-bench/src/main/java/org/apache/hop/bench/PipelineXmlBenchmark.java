@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.core.xml.XmlHandler;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.metadata.serializer.memory.MemoryMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * Loading and saving real pipeline files with the {@code @HopMetadataProperty} based XML
+ * serialization, as done when a project is opened, when a Pipeline Executor loads its pipeline or
+ * when a pipeline is sent to a Hop server. The XML is parsed up front so only the serialization
+ * itself is measured.
+ *
+ * <ul>
+ *   <li>{@link #load(Blackhole)}: create a {@link PipelineMeta} from the XML of every pipeline.
+ *   <li>{@link #save(Blackhole)}: get the XML of every pipeline.
+ * </ul>
+ *
+ * <p>By default a set of pipelines of the integration tests is used, they're read from the {@code
+ * integration-tests} folder of the source tree. Run from the root of the source tree or set the
+ * {@value #INTEGRATION_TESTS_PROPERTY} system property to the folder. Use {@code -p
+ * folder=/path/to/project} to use all the pipelines in a folder instead. Transforms of plugins
+ * which aren't found are loaded as placeholders, so run from a Hop installation folder or point
+ * {@code HOP_PLUGIN_BASE_FOLDERS} to its plugins to include the metadata of the transforms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineXmlBenchmark {
+
+  /** The system property with the integration tests folder of the source tree. */
+  public static final String INTEGRATION_TESTS_PROPERTY = "hop.bench.integration-tests";
+
+  public static final String DEFAULT_INTEGRATION_TESTS_FOLDER = "integration-tests";
+
+  /** The pipelines used when no folder is given, in the integration tests folder. */
+  public static final String[] PIPELINES = {
+    "deserialize/all-transforms.hpl",
+    "xml/0001-xml-join-test.hpl",
+    "transforms/0022-stream-lookup.hpl",
+    "mdi/0036-text-file-input.hpl",
+    "mdi/0038-json-input.hpl",
+    "mdi/0045-meta-inject.hpl",
+  };
+
+  /** The folder with the pipelines to use, empty for the bundled pipelines. */
+  @Param({""})
+  public String folder;
+
+  private IHopMetadataProvider metadataProvider;
+  private IVariables variables;
+  private List<Node> pipelineNodes;
+  private List<PipelineMeta> pipelineMetas;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    HopEnvironment.init();
+    metadataProvider = new MemoryMetadataProvider();
+    variables = new Variables();
+    variables.initializeFrom(null);
+
+    pipelineNodes = new ArrayList<>();
+    if (StringUtils.isEmpty(folder)) {
+      Path integrationTests = findIntegrationTests();
+      for (String pipeline : PIPELINES) {
+        addPipeline(XmlHandler.loadXmlFile(integrationTests.resolve(pipeline).toFile()));
+      }
+    } else {
+      for (Path path : findPipelines(Path.of(folder))) {
+        addPipeline(XmlHandler.loadXmlFile(path.toFile()));
+      }
+    }
+    if (pipelineNodes.isEmpty()) {
+      throw new HopException("No pipelines found to benchmark in folder '" + folder + "'");
+    }
+
+    pipelineMetas = new ArrayList<>();
+    for (Node pipelineNode : pipelineNodes) {
+      pipelineMetas.add(new PipelineMeta(pipelineNode, metadataProvider));
+    }
+  }
+
+  private void addPipeline(Document document) {
+    pipelineNodes.add(XmlHandler.getSubNode(document, PipelineMeta.XML_TAG));
+  }
+
+  private static Path findIntegrationTests() throws HopException {
+    String property = System.getProperty(INTEGRATION_TESTS_PROPERTY);
+    List<Path> candidates =
+        StringUtils.isNotEmpty(property)
+            ? List.of(Path.of(property))
+            : List.of(
+                Path.of(DEFAULT_INTEGRATION_TESTS_FOLDER),
+                Path.of("..", DEFAULT_INTEGRATION_TESTS_FOLDER));
+    for (Path candidate : candidates) {
+      if (Files.isDirectory(candidate)) {
+        return candidate;
+      }
+    }
+    throw new HopException(
+        "The integration tests folder isn't found in "
+            + candidates
+            + ", run from the root of the source tree, set -D"
+            + INTEGRATION_TESTS_PROPERTY
+            + " or pass -p folder=/path/to/project");
+  }
+
+  private static List<Path> findPipelines(Path folder) throws IOException {
+    try (Stream<Path> paths = Files.walk(folder)) {
+      return paths.filter(path -> path.toString().endsWith(".hpl")).sorted().toList();
+    }
+  }
+
+  @Benchmark
+  public void load(Blackhole blackhole) throws HopException {
+    for (Node pipelineNode : pipelineNodes) {
+      blackhole.consume(new PipelineMeta(pipelineNode, metadataProvider));
+    }
+  }
+
+  @Benchmark
+  public void save(Blackhole blackhole) throws HopException {
+    for (PipelineMeta pipelineMeta : pipelineMetas) {
+      blackhole.consume(pipelineMeta.getXml(variables));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.HopLogStore;
+import org.apache.hop.core.row.IRowMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Binary row serialization as used by spilling transforms (sort, blocking, ...) and the remote row
+ * streams: {@code RowMeta.writeData()} and {@code RowMeta.readData()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMetaBenchmark {
+
+  private IRowMeta rowMeta;
+  private Object[] row;
+  private ByteArrayOutputStream byteArrayOutputStream;
+  private DataOutputStream outputStream;
+  private byte[] serialized;
+
+  @Setup
+  public void setUp() throws HopException {
+    HopLogStore.init();
+    rowMeta = RowSets.createRowMeta();
+    row = RowSets.createRow(42L);
+    byteArrayOutputStream = new ByteArrayOutputStream(1024);
+    outputStream = new DataOutputStream(byteArrayOutputStream);
+
+    rowMeta.writeData(outputStream, row);
+    serialized = byteArrayOutputStream.toByteArray();
+  }
+
+  @Benchmark
+  public int writeData() throws HopException {
+    byteArrayOutputStream.reset();
+    rowMeta.writeData(outputStream, row);
+    return byteArrayOutputStream.size();
+  }
+
+  @Benchmark
+  public Object[] readData() throws Exception {
+    DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(serialized));
+    return rowMeta.readData(inputStream);
+  }
+}
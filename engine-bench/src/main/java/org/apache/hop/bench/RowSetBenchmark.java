@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.row.IRowMeta;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Throughput of the row sets which connect transform copies running in different threads: 1:1, one
+ * producer distributing over {@value #COPIES} consumers (1:N) and {@value #COPIES} producers
+ * feeding one consumer (N:1).
+ *
+ * <p>Every call of a producer or consumer method is one attempt. The auxiliary counters report the
+ * rows which were actually handed over (rowsPut, rowsGot) and the attempts which timed out because
+ * the row set was full or empty.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowSetBenchmark {
+
+  /** The number of copies on the "N" side of the 1:N and N:1 hops. */
+  public static final int COPIES = 4;
+
+  @Param({
+    RowSets.BLOCKING,
+    RowSets.BLOCKING_BATCHING,
+    RowSets.LOCK_FREE,
+    RowSets.ADAPTIVE_BATCHING
+  })
+  public String rowSetType;
+
+  @Param({"10000"})
+  public int rowSetSize;
+
+  private IRowMeta rowMeta;
+  private Object[] row;
+  private IRowSet[] rowSets;
+
+  /** Only used by the single thread on the "1" side of a hop. */
+  private int currentRowSet;
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Counters {
+    public long rowsPut;
+    public long rowsGot;
+    public long full;
+    public long empty;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      rowsPut = 0;
+      rowsGot = 0;
+      full = 0;
+      empty = 0;
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    rowMeta = RowSets.createRowMeta();
+    row = RowSets.createRow(42L);
+    rowSets = new IRowSet[COPIES];
+    for (int i = 0; i < COPIES; i++) {
+      rowSets[i] = RowSets.create(rowSetType, rowSetSize);
+    }
+    currentRowSet = 0;
+  }
+
+  private void put(IRowSet rowSet, Counters counters) {
+    if (rowSet.putRowWait(rowMeta, row, 1, TimeUnit.MILLISECONDS)) {
+      counters.rowsPut++;
+    } else {
+      counters.full++;
+    }
+  }
+
+  private void get(IRowSet rowSet, Counters counters) {
+    if (rowSet.getRowWait(1, TimeUnit.MILLISECONDS) != null) {
+      counters.rowsGot++;
+    } else {
+      counters.empty++;
+    }
+  }
+
+  // 1:1
+  //
+  @Benchmark
+  @Group("oneToOne")
+  @GroupThreads(1)
+  public void oneToOnePut(Counters counters) {
+    put(rowSets[0], counters);
+  }
+
+  @Benchmark
+  @Group("oneToOne")
+  @GroupThreads(1)
+  public void oneToOneGet(Counters counters) {
+    get(rowSets[0], counters);
+  }
+
+  // 1:N, round-robin distribution like BaseTransform does
+  //
+  @Benchmark
+  @Group("oneToMany")
+  @GroupThreads(1)
+  public void oneToManyPut(Counters counters) {
+    put(rowSets[currentRowSet], counters);
+    if (++currentRowSet == COPIES) {
+      currentRowSet = 0;
+    }
+  }
+
+  @Benchmark
+  @Group("oneToMany")
+  @GroupThreads(COPIES)
+  public void oneToManyGet(Counters counters, ThreadParams threadParams) {
+    get(rowSets[threadParams.getSubgroupThreadIndex()], counters);
+  }
+
+  // N:1, the consumer cycles over its input row sets like BaseTransform does
+  //
+  @Benchmark
+  @Group("manyToOne")
+  @GroupThreads(COPIES)
+  public void manyToOnePut(Counters counters, ThreadParams threadParams) {
+    put(rowSets[threadParams.getSubgroupThreadIndex()], counters);
+  }
+
+  @Benchmark
+  @Group("manyToOne")
+  @GroupThreads(1)
+  public void manyToOneGet(Counters counters) {
+    IRowSet rowSet = rowSets[currentRowSet];
+    if (++currentRowSet == COPIES) {
+      currentRowSet = 0;
+    }
+    if (rowSet.getRowImmediate() != null) {
+      counters.rowsGot++;
+    } else {
+      counters.empty++;
+    }
+  }
+}
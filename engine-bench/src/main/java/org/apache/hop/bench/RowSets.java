@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.bench;
+
+import java.util.Date;
+import org.apache.hop.core.AdaptiveBatchingRowSet;
+import org.apache.hop.core.BlockingBatchingRowSet;
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.SpscRowSet;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+
+/** Shared fixtures for the row set and transform benchmarks. */
+public final class RowSets {
+
+  /** The row set implementations which can be used between two threads. */
+  public static final String BLOCKING = "Blocking";
+
+  public static final String BLOCKING_BATCHING = "BlockingBatching";
+  public static final String LOCK_FREE = "LockFree";
+  public static final String ADAPTIVE_BATCHING = "AdaptiveBatching";
+
+  /** Only usable when the producer and consumer are the same thread. */
+  public static final String QUEUE = "Queue";
+
+  private RowSets() {
+    // Static utility
+  }
+
+  public static IRowSet create(String type, int size) {
+    return switch (type) {
+      case BLOCKING -> new BlockingRowSet(size);
+      case BLOCKING_BATCHING -> new BlockingBatchingRowSet(size);
+      case LOCK_FREE -> new SpscRowSet(size);
+      case ADAPTIVE_BATCHING -> new AdaptiveBatchingRowSet(size);
+      case QUEUE -> new QueueRowSet();
+      default -> throw new IllegalArgumentException("Unknown row set type: " + type);
+    };
+  }
+
+  /** A typical row layout: an id, a name, an amount and a date. */
+  public static IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaDate("updated"));
+    return rowMeta;
+  }
+
+  public static Object[] createRow(long id) {
+    return new Object[] {id, "Customer name " + id, id * 1.25, new Date(1_700_000_000_000L + id)};
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.row.IRowMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The raw cost of handing a row over when producer and consumer are the same thread, as in the
+ * single threaded pipeline engine. This is the only scenario in which a {@code QueueRowSet} can be
+ * used. The {@code BlockingBatchingRowSet} is left out: it only hands over complete batches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SingleThreadedRowSetBenchmark {
+
+  @Param({RowSets.QUEUE, RowSets.BLOCKING, RowSets.LOCK_FREE, RowSets.ADAPTIVE_BATCHING})
+  public String rowSetType;
+
+  /** The number of rows put before they are read back. */
+  @Param({"1", "100"})
+  public int burst;
+
+  private IRowMeta rowMeta;
+  private Object[] row;
+  private IRowSet rowSet;
+
+  @Setup
+  public void setUp() {
+    rowMeta = RowSets.createRowMeta();
+    row = RowSets.createRow(42L);
+    // Leave plenty of room so that the burst always fits
+    rowSet = RowSets.create(rowSetType, 10_000);
+  }
+
+  @Benchmark
+  public Object putThenGet() {
+    Object last = null;
+    for (int i = 0; i < burst; i++) {
+      rowSet.putRow(rowMeta, row);
+    }
+    for (int i = 0; i < burst; i++) {
+      last = rowSet.getRowImmediate();
+    }
+    return last;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.bench;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.HopLogStore;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The value metadata methods which are called for every row by lookups, joins, sorts and groupings:
+ * {@code compare()}, {@code hashCode()} and {@code convertData()}, per data type.
+ *
+ * <p>{@code convertData()} converts from a String to the given type, for the String type it
+ * converts from an Integer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueMetaBenchmark {
+
+  @Param({"Integer", "Number", "String", "Date", "BigNumber", "Boolean"})
+  public String type;
+
+  private IValueMeta valueMeta;
+  private IValueMeta sourceMeta;
+  private Object value1;
+  private Object value2;
+  private Object source;
+
+  @Setup
+  public void setUp() throws HopException {
+    HopLogStore.init();
+
+    sourceMeta = new ValueMetaString("source");
+    switch (type) {
+      case "Integer" -> {
+        valueMeta = new ValueMetaInteger("value");
+        value1 = 123456789L;
+        value2 = 123456790L;
+        source = "123456789";
+      }
+      case "Number" -> {
+        valueMeta = new ValueMetaNumber("value");
+        value1 = 12345.678;
+        value2 = 12345.679;
+        source = "12345.678";
+      }
+      case "String" -> {
+        valueMeta = new ValueMetaString("value");
+        value1 = "Some customer name 123";
+        value2 = "Some customer name 124";
+        sourceMeta = new ValueMetaInteger("source");
+        source = 123456789L;
+      }
+      case "Date" -> {
+        valueMeta = new ValueMetaDate("value");
+        value1 = new Date(1_700_000_000_000L);
+        value2 = new Date(1_700_000_000_001L);
+        valueMeta.setConversionMask("yyyy/MM/dd HH:mm:ss.SSS");
+        sourceMeta.setConversionMask("yyyy/MM/dd HH:mm:ss.SSS");
+        source = "2023/11/14 22:13:20.000";
+      }
+      case "BigNumber" -> {
+        valueMeta = new ValueMetaBigNumber("value");
+        value1 = new BigDecimal("12345678901234567890.123456789");
+        value2 = new BigDecimal("12345678901234567890.123456790");
+        source = "12345678901234567890.123456789";
+      }
+      case "Boolean" -> {
+        valueMeta = new ValueMetaBoolean("value");
+        value1 = Boolean.FALSE;
+        value2 = Boolean.TRUE;
+        source = "Y";
+      }
+      default -> throw new IllegalArgumentException("Unknown type: " + type);
+    }
+  }
+
+  @Benchmark
+  public int compare() throws HopException {
+    return valueMeta.compare(value1, value2);
+  }
+
+  @Benchmark
+  public int hashCodeOfValue() throws HopException {
+    return valueMeta.hashCode(value1);
+  }
+
+  @Benchmark
+  public Object convertData() throws HopException {
+    return valueMeta.convertData(sourceMeta, source);
+  }
+}
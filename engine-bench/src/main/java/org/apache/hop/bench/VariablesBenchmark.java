@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hop.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Variable resolution, done for practically every option of every transform and action. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariablesBenchmark {
+
+  private IVariables variables;
+
+  @Setup
+  public void setUp() {
+    variables = new Variables();
+    variables.initializeFrom(null);
+    variables.setVariable("DB_HOST", "db.example.com");
+    variables.setVariable("DB_PORT", "5432");
+    variables.setVariable("DB_NAME", "warehouse");
+    variables.setVariable("ENV", "PROD");
+    variables.setVariable("SCHEMA_PROD", "dwh");
+  }
+
+  @Benchmark
+  public String resolveWithoutVariables() {
+    return variables.resolve("SELECT * FROM customers WHERE id = ?");
+  }
+
+  @Benchmark
+  public String resolveSimple() {
+    return variables.resolve("jdbc:postgresql://${DB_HOST}:${DB_PORT}/${DB_NAME}");
+  }
+
+  @Benchmark
+  public String resolveMany() {
+    return variables.resolve(
+        "${DB_HOST}/${DB_PORT}/${DB_NAME}/${ENV}/${SCHEMA_PROD}/${DB_HOST}/${DB_PORT}/${DB_NAME}");
+  }
+
+  @Benchmark
+  public String resolveHexAndPercent() {
+    return variables.resolve("%%DB_NAME%%-$[41,42]");
+  }
+}
@@ -42,6 +42,9 @@ public class LogChannelFileWriter {
 
   private LogChannelFileWriterBuffer buffer;
 
+  /** Writes the events on a separate thread when asynchronous log files are enabled */
+  private AsyncLogWriter asyncWriter;
+
   /**
    * Create a new log channel file writer
    *
@@ -95,6 +98,14 @@ public class LogChannelFileWriter {
     exception = null;
     active.set(true);
 
+    if (AsyncLogWriter.isEnabled()) {
+      // The events are handed to the writer thread as they're logged, no need to poll
+      //
+      asyncWriter = AsyncLogWriter.create(logFile.toString(), logFileOutputStream);
+      buffer.setAsyncWriter(asyncWriter);
+      return;
+    }
+
     Thread thread =
         new Thread(
             () -> {
@@ -134,6 +145,10 @@ public class LogChannelFileWriter {
   }
 
   public synchronized void flush() {
+    if (asyncWriter != null) {
+      // The writer thread flushes by itself
+      return;
+    }
     try {
       StringBuffer buffer = this.buffer.getBuffer();
       logFileOutputStream.write(buffer.toString().getBytes());
@@ -145,6 +160,10 @@ public class LogChannelFileWriter {
   }
 
   public void stopLogging() {
+    if (asyncWriter != null) {
+      stopAsyncLogging();
+      return;
+    }
     flush();
     active.set(false);
     while (!finished.get()) {
@@ -156,6 +175,30 @@ public class LogChannelFileWriter {
     }
   }
 
+  private void stopAsyncLogging() {
+    active.set(false);
+    LoggingRegistry.getInstance().removeLogChannelFileWriterBuffer(buffer.getLogChannelId());
+    try {
+      // Write the events which are still queued
+      //
+      asyncWriter.close();
+    } catch (HopException e) {
+      exception = e;
+    } finally {
+      try {
+        if (logFileOutputStream != null) {
+          logFileOutputStream.close();
+          logFileOutputStream = null;
+        }
+      } catch (Exception e) {
+        exception =
+            new HopException("There was an error closing log file file '" + logFile + "'", e);
+      } finally {
+        finished.set(true);
+      }
+    }
+  }
+
   public HopException getException() {
     return exception;
   }
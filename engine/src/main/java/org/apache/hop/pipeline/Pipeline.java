@@ -44,6 +44,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.AdaptiveBatchingRowSet;
 import org.apache.hop.core.BlockingBatchingRowSet;
 import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.Const;
@@ -55,6 +56,8 @@ import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.RowSetType;
+import org.apache.hop.core.SpscRowSet;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
@@ -114,6 +117,7 @@ import org.apache.hop.pipeline.transform.TransformInitThread;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transform.TransformMetaDataCombi;
 import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
+import org.apache.hop.pipeline.transform.TransformScheduler;
 import org.apache.hop.pipeline.transform.TransformStatus;
 import org.apache.hop.workflow.WorkflowMeta;
 import org.apache.hop.workflow.engine.IWorkflowEngine;
@@ -350,6 +354,15 @@ public abstract class Pipeline
 
   @Getter @Setter protected int rowSetSize;
 
+  /** The type of row set to use for the hops between transforms. */
+  @Getter @Setter protected RowSetType rowSetType;
+
+  /** How the lock-free row sets wait when they are full or empty. */
+  @Getter @Setter protected SpscRowSet.WaitStrategy rowSetWaitStrategy;
+
+  /** The kind of thread used to initialize and run the transform copies. */
+  @Getter @Setter protected TransformThreadType transformThreadType;
+
   @Setter protected boolean feedbackShown;
 
   @Setter protected int feedbackSize;
@@ -379,6 +392,9 @@ public abstract class Pipeline
     extensionDataMap = new HashMap<>();
 
     rowSetSize = Const.ROWS_IN_ROWSET;
+    rowSetType = RowSetType.Blocking;
+    rowSetWaitStrategy = SpscRowSet.WaitStrategy.Yield;
+    transformThreadType = TransformThreadType.Platform;
 
     dataSamplers = Collections.synchronizedList(new ArrayList<>());
   }
@@ -684,19 +700,7 @@ public abstract class Pipeline
             IRowSet rowSet;
             switch (pipelineMeta.getPipelineType()) {
               case Normal:
-                // This is a temporary patch until the batching rowset has proven
-                // to be working in all situations.
-                // Currently there are stalling problems when dealing with small
-                // amounts of rows.
-                //
-                Boolean batchingRowSet =
-                    ValueMetaBase.convertStringToBoolean(
-                        System.getProperty(Const.HOP_BATCHING_ROWSET));
-                if (batchingRowSet != null && batchingRowSet) {
-                  rowSet = new BlockingBatchingRowSet(rowSetSize);
-                } else {
-                  rowSet = new BlockingRowSet(rowSetSize);
-                }
+                rowSet = createRowSet(dispatchType);
                 break;
 
               case SingleThreaded:
@@ -1024,9 +1028,9 @@ public abstract class Pipeline
 
       // Put it in a separate thread!
       //
-      threads[i] = new Thread(initThreads[i]);
-      threads[i].setName(
-          "init of " + sid.transformName + "." + sid.copy + " (" + threads[i].getName() + ")");
+      threads[i] =
+          transformThreadType.newThread(
+              initThreads[i], "init of " + sid.transformName + "." + sid.copy);
 
       ExtensionPointHandler.callExtensionPoint(
           log, this, HopExtensionPoint.TransformBeforeInitialize.id, initThreads[i]);
@@ -1282,12 +1286,17 @@ public abstract class Pipeline
     switch (pipelineMeta.getPipelineType()) {
       case Normal:
 
+        // Scheduled transforms run on the shared worker pool instead of a thread each,
+        // except the ones which block their thread while processing rows.
+        //
+        TransformScheduler scheduler = null;
+        if (transformThreadType == TransformThreadType.Scheduled) {
+          scheduler = new TransformScheduler(rowSetSize);
+        }
+
         // Now start all the threads...
         //
         for (final TransformMetaDataCombi combi : transforms) {
-          RunThread runThread = new RunThread(combi);
-          Thread thread = new Thread(runThread);
-          thread.setName(getName() + " - " + combi.transformName);
           ExtensionPointHandler.callExtensionPoint(
               log, this, HopExtensionPoint.TransformBeforeStart.id, combi);
           // Call an extension point at the end of the transform
@@ -1303,7 +1312,17 @@ public abstract class Pipeline
                 }
               });
 
-          thread.start();
+          if (scheduler != null && combi.meta.supportsScheduledExecution()) {
+            scheduler.addTransform(combi);
+          } else {
+            RunThread runThread = new RunThread(combi);
+            Thread thread =
+                transformThreadType.newThread(runThread, getName() + " - " + combi.transformName);
+            thread.start();
+          }
+        }
+        if (scheduler != null) {
+          scheduler.start();
         }
         break;
 
@@ -1491,6 +1510,16 @@ public abstract class Pipeline
   /** Waits until all RunThreads have finished. */
   @Override
   public void waitUntilFinished() {
+    if (TransformScheduler.isWorkerThread()) {
+      // A scheduled transform waits for this (sub-)pipeline: let the pool add a worker meanwhile
+      //
+      TransformScheduler.runBlocking(this::waitForFinishedSignal);
+    } else {
+      waitForFinishedSignal();
+    }
+  }
+
+  private void waitForFinishedSignal() {
     try {
       if (pipelineWaitUntilFinishedBlockingQueue == null) {
         return;
@@ -1583,6 +1612,36 @@ public abstract class Pipeline
     }
   }
 
+  /**
+   * Create a row set for a hop of a normal (multi-threaded) pipeline. Every row set connects one
+   * source transform copy with one target transform copy. The lock-free row set is only used for
+   * 1:1 and N:N hops, the batching row set for every hop which isn't re-partitioned. The other hops
+   * keep using a blocking row set.
+   *
+   * @param dispatchType the type of hop: {@link #TYPE_DISP_1_1}, {@link #TYPE_DISP_1_N}, ...
+   * @return a new row set
+   */
+  protected IRowSet createRowSet(int dispatchType) {
+    // This is a temporary patch until the batching rowset has proven
+    // to be working in all situations.
+    // Currently there are stalling problems when dealing with small
+    // amounts of rows.
+    //
+    Boolean batchingRowSet =
+        ValueMetaBase.convertStringToBoolean(System.getProperty(Const.HOP_BATCHING_ROWSET));
+    if (batchingRowSet != null && batchingRowSet) {
+      return new BlockingBatchingRowSet(rowSetSize);
+    }
+    if (rowSetType == RowSetType.LockFree
+        && (dispatchType == TYPE_DISP_1_1 || dispatchType == TYPE_DISP_N_N)) {
+      return new SpscRowSet(rowSetSize, rowSetWaitStrategy);
+    }
+    if (rowSetType == RowSetType.Batching && dispatchType != TYPE_DISP_N_M) {
+      return new AdaptiveBatchingRowSet(rowSetSize);
+    }
+    return new BlockingRowSet(rowSetSize);
+  }
+
   /**
    * Finds the IRowSet between two transforms (or copies of transforms).
    *
@@ -70,6 +70,7 @@ import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.core.xml.IXml;
+import org.apache.hop.core.xml.XmlDocumentCache;
 import org.apache.hop.core.xml.XmlFormatter;
 import org.apache.hop.core.xml.XmlHandler;
 import org.apache.hop.i18n.BaseMessages;
@@ -1486,7 +1487,11 @@ public class PipelineMeta extends AbstractMeta
         throw new HopXmlException(
             BaseMessages.getString(PKG, "PipelineMeta.Exception.InvalidXMLPath", filename));
       }
-      doc = XmlHandler.loadXmlFile(pipelineFile);
+      if (XmlDocumentCache.isEnabled(parentVariableSpace)) {
+        doc = XmlDocumentCache.getInstance().loadDocument(pipelineFile);
+      } else {
+        doc = XmlHandler.loadXmlFile(pipelineFile);
+      }
     } catch (HopXmlException ke) {
       // if we have a HopXmlException, simply re-throw it
       throw ke;
@@ -435,15 +435,22 @@ public class SingleThreadedPipelineExecutor {
                 String.valueOf(lu),
                 String.valueOf(e + lj)));
       }
-      if (clearingMetricsPerIteration) {
-        ((BaseTransform<?, ?>) combi.transform).setLinesInput(0);
-        ((BaseTransform<?, ?>) combi.transform).setLinesOutput(0);
-        ((BaseTransform<?, ?>) combi.transform).setLinesWritten(0);
-        ((BaseTransform<?, ?>) combi.transform).setLinesRead(0);
-        ((BaseTransform<?, ?>) combi.transform).setLinesSkipped(0);
-        ((BaseTransform<?, ?>) combi.transform).setLinesUpdated(0);
-        combi.transform.setLinesRejected(0);
-      }
+    }
+    if (clearingMetricsPerIteration) {
+      clearMetrics();
+    }
+  }
+
+  /** Reset the row counters of all transforms, for example before the next batch of rows. */
+  public void clearMetrics() {
+    for (TransformMetaDataCombi combi : transforms) {
+      ((BaseTransform<?, ?>) combi.transform).setLinesInput(0);
+      ((BaseTransform<?, ?>) combi.transform).setLinesOutput(0);
+      ((BaseTransform<?, ?>) combi.transform).setLinesWritten(0);
+      ((BaseTransform<?, ?>) combi.transform).setLinesRead(0);
+      ((BaseTransform<?, ?>) combi.transform).setLinesSkipped(0);
+      ((BaseTransform<?, ?>) combi.transform).setLinesUpdated(0);
+      combi.transform.setLinesRejected(0);
     }
   }
 
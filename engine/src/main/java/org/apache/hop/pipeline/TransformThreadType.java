@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline;
+
+/** The kind of thread the local pipeline engine uses to initialize and run transform copies. */
+@SuppressWarnings("java:S115")
+public enum TransformThreadType {
+  /** One platform (operating system) thread per transform copy. */
+  Platform,
+
+  /**
+   * One virtual thread per transform copy. The virtual threads are carried by the JVM's shared
+   * carrier pool, sized with the <code>jdk.virtualThreadScheduler.parallelism</code> system
+   * property. Pipelines with many transform copies or many small sub-pipelines start faster and use
+   * less memory.
+   */
+  Virtual,
+
+  /**
+   * The transform copies run as tasks on a pool of worker threads shared by all pipelines, see
+   * {@link org.apache.hop.pipeline.transform.TransformScheduler}. A transform copy only gets a
+   * worker when it has rows to process and room to write them. Many pipelines with many transform
+   * copies can run on one server without a thread for every copy.
+   *
+   * <p>A transform which blocks its worker in any other way, for example on a slow database or HTTP
+   * call, holds up the other scheduled pipelines. Transforms which are known to wait while
+   * processing a row declare it with {@link
+   * org.apache.hop.pipeline.transform.ITransformMeta#supportsScheduledExecution()} and run on their
+   * own platform thread.
+   */
+  Scheduled;
+
+  /**
+   * Find a thread type by name, ignoring case.
+   *
+   * @param name the name to look for
+   * @param defaultType the type to return if the name is empty or unknown
+   * @return the thread type
+   */
+  public static TransformThreadType lookup(String name, TransformThreadType defaultType) {
+    for (TransformThreadType type : values()) {
+      if (type.name().equalsIgnoreCase(name)) {
+        return type;
+      }
+    }
+    return defaultType;
+  }
+
+  /**
+   * Create a new, unstarted thread of this type. Scheduled transform copies are initialized on
+   * platform threads.
+   *
+   * @param runnable the code to run
+   * @param name the name of the thread
+   * @return the new thread
+   */
+  public Thread newThread(Runnable runnable, String name) {
+    if (this == Virtual) {
+      return Thread.ofVirtual().name(name).unstarted(runnable);
+    }
+    return Thread.ofPlatform().name(name).unstarted(runnable);
+  }
+}
@@ -89,6 +89,8 @@ public abstract class TransformWithMappingMeta<Main extends ITransform, Data ext
       tmpSpace.setVariable(
           INTERNAL_VARIABLE_WORKFLOW_FILENAME_NAME,
           parentSpace.getVariable(INTERNAL_VARIABLE_WORKFLOW_FILENAME_NAME));
+      tmpSpace.setVariable(
+          Const.HOP_CACHE_LOADED_FILES, parentSpace.getVariable(Const.HOP_CACHE_LOADED_FILES));
     }
     return tmpSpace;
   }
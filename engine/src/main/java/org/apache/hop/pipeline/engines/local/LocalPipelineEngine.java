@@ -28,6 +28,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.IExtensionData;
 import org.apache.hop.core.Result;
+import org.apache.hop.core.RowSetType;
+import org.apache.hop.core.SpscRowSet.WaitStrategy;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.map.DatabaseConnectionMap;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -50,6 +52,7 @@ import org.apache.hop.execution.sampler.IExecutionDataSamplerStore;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.TransformThreadType;
 import org.apache.hop.pipeline.config.IPipelineEngineRunConfiguration;
 import org.apache.hop.pipeline.config.PipelineRunConfiguration;
 import org.apache.hop.pipeline.engine.IEngineComponent;
@@ -125,12 +128,24 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
 
     int sizeRowsSet = Const.toInt(resolve(config.getRowSetSize()), Const.ROWS_IN_ROWSET);
     setRowSetSize(sizeRowsSet);
+    setRowSetType(RowSetType.lookup(resolve(config.getRowSetType()), RowSetType.Blocking));
+    setRowSetWaitStrategy(
+        WaitStrategy.lookup(resolve(config.getRowSetWaitStrategy()), WaitStrategy.Yield));
+    setTransformThreadType(
+        TransformThreadType.lookup(
+            resolve(config.getTransformThreadType()), TransformThreadType.Platform));
     setSafeModeEnabled(config.isSafeModeEnabled());
     setSortingTransformsTopologically(config.isSortingTransformsTopologically());
     setGatheringMetrics(config.isGatheringMetrics());
     setFeedbackShown(config.isFeedbackShown());
     setFeedbackSize(Const.toInt(resolve(config.getFeedbackSize()), Const.ROWS_UPDATE));
 
+    // The sub-pipelines and workflows loaded by the transforms can come from the cache
+    //
+    if (config.isCachingLoadedFiles()) {
+      setVariable(Const.HOP_CACHE_LOADED_FILES, "Y");
+    }
+
     // See if we need to enable transactions...
     //
     IExtensionData parentExtensionData = getParentPipeline();
@@ -20,6 +20,8 @@ package org.apache.hop.pipeline.engines.local;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.RowSetType;
+import org.apache.hop.core.SpscRowSet.WaitStrategy;
 import org.apache.hop.core.gui.plugin.GuiElementType;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
 import org.apache.hop.core.gui.plugin.GuiWidgetElement;
@@ -27,6 +29,7 @@ import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.util.EnvUtil;
 import org.apache.hop.metadata.api.HopMetadataProperty;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.TransformThreadType;
 import org.apache.hop.pipeline.config.IPipelineEngineRunConfiguration;
 import org.apache.hop.pipeline.config.PipelineRunConfiguration;
 import org.apache.hop.pipeline.engines.EmptyPipelineRunConfiguration;
@@ -45,6 +48,48 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "rowset_size")
   protected String rowSetSize;
 
+  /** The type of row set to use between transform copies, see {@link RowSetType}. */
+  @GuiWidgetElement(
+      id = "rowSetType",
+      order = "012",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetType.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetType.ToolTip",
+      comboValuesMethod = "getRowSetTypes")
+  @HopMetadataProperty(key = "rowset_type")
+  protected String rowSetType;
+
+  /** How lock-free row sets wait when they are full or empty, see {@link WaitStrategy}. */
+  @GuiWidgetElement(
+      id = "rowSetWaitStrategy",
+      order = "014",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetWaitStrategy.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetWaitStrategy.ToolTip",
+      comboValuesMethod = "getRowSetWaitStrategies")
+  @HopMetadataProperty(key = "rowset_wait_strategy")
+  protected String rowSetWaitStrategy;
+
+  /** The kind of thread to run the transform copies on, see {@link TransformThreadType}. */
+  @GuiWidgetElement(
+      id = "transformThreadType",
+      order = "016",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TransformThreadType.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TransformThreadType.ToolTip",
+      comboValuesMethod = "getTransformThreadTypes")
+  @HopMetadataProperty(key = "transform_thread_type")
+  protected String transformThreadType;
+
   @GuiWidgetElement(
       id = "safeModeEnabled",
       order = "020",
@@ -143,6 +188,19 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "transactional")
   protected boolean transactional;
 
+  /** Keep the parsed XML of the pipelines and workflows loaded by transforms and actions. */
+  @GuiWidgetElement(
+      id = "cachingLoadedFiles",
+      order = "110",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.CachingLoadedFiles.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.CachingLoadedFiles.ToolTip")
+  @HopMetadataProperty(key = "cache_loaded_files")
+  protected boolean cachingLoadedFiles;
+
   @SuppressWarnings("java:S115")
   public enum SampleType {
     None,
@@ -154,6 +212,9 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public LocalPipelineRunConfiguration() {
     super();
     this.rowSetSize = Integer.toString(Const.ROWS_IN_ROWSET);
+    this.rowSetType = RowSetType.Blocking.name();
+    this.rowSetWaitStrategy = WaitStrategy.Yield.name();
+    this.transformThreadType = TransformThreadType.Platform.name();
     this.feedbackShown = false;
     this.feedbackSize = Integer.toString(Const.ROWS_UPDATE);
     this.waitTime = EnvUtil.getSystemProperty(Const.HOP_DEFAULT_BUFFER_POLLING_WAITTIME, "20");
@@ -165,6 +226,9 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public LocalPipelineRunConfiguration(LocalPipelineRunConfiguration config) {
     super(config);
     this.rowSetSize = config.rowSetSize;
+    this.rowSetType = config.rowSetType;
+    this.rowSetWaitStrategy = config.rowSetWaitStrategy;
+    this.transformThreadType = config.transformThreadType;
     this.feedbackShown = config.feedbackShown;
     this.feedbackSize = config.feedbackSize;
     this.waitTime = config.waitTime;
@@ -174,6 +238,7 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = config.sampleTypeInGui;
     this.sampleSize = config.sampleSize;
     this.transactional = config.transactional;
+    this.cachingLoadedFiles = config.cachingLoadedFiles;
   }
 
   @Override
@@ -189,6 +254,32 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     return list;
   }
 
+  public List<String> getRowSetTypes(ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    for (RowSetType type : RowSetType.values()) {
+      list.add(type.name());
+    }
+    return list;
+  }
+
+  public List<String> getRowSetWaitStrategies(
+      ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    for (WaitStrategy strategy : WaitStrategy.values()) {
+      list.add(strategy.name());
+    }
+    return list;
+  }
+
+  public List<String> getTransformThreadTypes(
+      ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    for (TransformThreadType type : TransformThreadType.values()) {
+      list.add(type.name());
+    }
+    return list;
+  }
+
   /**
    * Gets rowSetSize
    *
@@ -205,6 +296,54 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.rowSetSize = rowSetSize;
   }
 
+  /**
+   * Gets rowSetType
+   *
+   * @return value of rowSetType
+   */
+  public String getRowSetType() {
+    return rowSetType;
+  }
+
+  /**
+   * @param rowSetType The rowSetType to set
+   */
+  public void setRowSetType(String rowSetType) {
+    this.rowSetType = rowSetType;
+  }
+
+  /**
+   * Gets rowSetWaitStrategy
+   *
+   * @return value of rowSetWaitStrategy
+   */
+  public String getRowSetWaitStrategy() {
+    return rowSetWaitStrategy;
+  }
+
+  /**
+   * @param rowSetWaitStrategy The rowSetWaitStrategy to set
+   */
+  public void setRowSetWaitStrategy(String rowSetWaitStrategy) {
+    this.rowSetWaitStrategy = rowSetWaitStrategy;
+  }
+
+  /**
+   * Gets transformThreadType
+   *
+   * @return value of transformThreadType
+   */
+  public String getTransformThreadType() {
+    return transformThreadType;
+  }
+
+  /**
+   * @param transformThreadType The transformThreadType to set
+   */
+  public void setTransformThreadType(String transformThreadType) {
+    this.transformThreadType = transformThreadType;
+  }
+
   /**
    * Gets safeModeEnabled
    *
@@ -348,4 +487,20 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public void setTransactional(boolean transactional) {
     this.transactional = transactional;
   }
+
+  /**
+   * Gets cachingLoadedFiles
+   *
+   * @return value of cachingLoadedFiles
+   */
+  public boolean isCachingLoadedFiles() {
+    return cachingLoadedFiles;
+  }
+
+  /**
+   * @param cachingLoadedFiles The cachingLoadedFiles to set
+   */
+  public void setCachingLoadedFiles(boolean cachingLoadedFiles) {
+    this.cachingLoadedFiles = cachingLoadedFiles;
+  }
 }
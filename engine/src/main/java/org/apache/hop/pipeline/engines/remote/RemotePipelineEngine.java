@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Timer;
@@ -162,6 +163,9 @@ public class RemotePipelineEngine extends Variables implements IPipelineEngine<P
   protected int lastLogLineNr;
   protected Timer refreshTimer;
 
+  /** The last known status of the transforms on the server, by transform name and copy */
+  protected Map<String, TransformStatus> transformStatusMap = new LinkedHashMap<>();
+
   /** The named parameters. */
   protected INamedParameters namedParams = new NamedParameters();
 
@@ -472,17 +476,15 @@ public class RemotePipelineEngine extends Variables implements IPipelineEngine<P
         // So the pipeline has been successfully started.
         // That doesn't mean that the execution itself is without error
         // To know that we need to monitor the execution remotely
-        // We monitor this every 2 seconds after a 1 second delay (configurable)
+        // Either the server pushes the changes to us or we poll for them every 2 seconds after
+        // a 1 second delay (configurable)
         //
-        TimerTask refreshTask =
-            new TimerTask() {
-              @Override
-              public void run() {
-                getPipelineStatus();
-              }
-            };
-        refreshTimer = new Timer();
-        refreshTimer.schedule(refreshTask, serverPollDelay, serverPollInterval);
+        if (remotePipelineRunConfiguration != null
+            && remotePipelineRunConfiguration.isStreamingStatus()) {
+          startStatusStream();
+        } else {
+          startStatusPolling(serverPollDelay);
+        }
 
         readyToStart = false;
         running = true;
@@ -501,100 +503,64 @@ public class RemotePipelineEngine extends Variables implements IPipelineEngine<P
     }
   }
 
+  private void startStatusPolling(long delay) {
+    TimerTask refreshTask =
+        new TimerTask() {
+          @Override
+          public void run() {
+            getPipelineStatus();
+          }
+        };
+    refreshTimer = new Timer();
+    refreshTimer.schedule(refreshTask, delay, serverPollInterval);
+  }
+
+  /**
+   * Subscribe to the status stream of the pipeline on the server. The server pushes only what
+   * changed. If the stream can't be opened, for example on an older server, or if it ends before
+   * the pipeline is finished, we fall back to polling the status.
+   */
+  private void startStatusStream() {
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                hopServer.streamPipelineStatus(
+                    this,
+                    subject.getName(),
+                    containerId,
+                    lastLogLineNr,
+                    serverPollInterval,
+                    pipelineStatus -> {
+                      try {
+                        updatePipelineStatus(pipelineStatus, true);
+                      } catch (HopException e) {
+                        throw new HopRuntimeException(e);
+                      }
+                    });
+              } catch (Exception e) {
+                logChannel.logDetailed(
+                    "Unable to follow the status stream of pipeline '"
+                        + subject.getName()
+                        + "' on hop server '"
+                        + hopServer.getName()
+                        + "', polling for the status instead",
+                    e);
+              }
+              if (!finished) {
+                startStatusPolling(0L);
+              }
+            },
+            "Remote pipeline status: " + subject.getName());
+    thread.setDaemon(true);
+    thread.start();
+  }
+
   private synchronized void getPipelineStatus() throws HopRuntimeException {
     try {
       HopServerPipelineStatus pipelineStatus =
           hopServer.getPipelineStatus(this, subject.getName(), containerId, lastLogLineNr);
-      synchronized (engineMetrics) {
-        hasHaltedComponents = false;
-        engineMetrics.setStartDate(pipelineStatus.getExecutionStartDate());
-        engineMetrics.setEndDate(pipelineStatus.getExecutionEndDate());
-        engineMetrics.getComponents().clear();
-        engineMetrics.getComponentRunningMap().clear();
-        engineMetrics.getComponentSpeedMap().clear();
-        engineMetrics.getComponentMetricsMap().clear();
-
-        for (TransformStatus transformStatus : pipelineStatus.getTransformStatusList()) {
-          EngineComponent component =
-              new EngineComponent(transformStatus.getTransformName(), transformStatus.getCopy());
-          status =
-              ComponentExecutionStatus.getStatusFromDescription(
-                  transformStatus.getStatusDescription());
-          boolean running = status == ComponentExecutionStatus.STATUS_RUNNING;
-          boolean halted =
-              status == ComponentExecutionStatus.STATUS_HALTED
-                  || status == ComponentExecutionStatus.STATUS_HALTING;
-          if (halted) {
-            hasHaltedComponents = true;
-          }
-
-          // Set the pipeline engine component state
-          component.setErrors(transformStatus.getErrors());
-          component.setStatus(status);
-          component.setRunning(running);
-          component.setStopped(status == ComponentExecutionStatus.STATUS_STOPPED);
-          component.setLogText(transformStatus.getLogText());
-
-          // Set the pipeline engine component metrics
-          engineMetrics.setComponentStatus(component, transformStatus.getStatusDescription());
-          engineMetrics.setComponentRunning(component, running);
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_READ, transformStatus.getLinesRead());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_WRITTEN, transformStatus.getLinesWritten());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_INPUT, transformStatus.getLinesInput());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_OUTPUT, transformStatus.getLinesOutput());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_REJECTED, transformStatus.getLinesRejected());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_UPDATED, transformStatus.getLinesUpdated());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_ERROR, transformStatus.getErrors());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_DATA_VOLUME, transformStatus.getDataVolume());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_DATA_VOLUME_IN, transformStatus.getDataVolumeIn());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_DATA_VOLUME_OUT, transformStatus.getDataVolumeOut());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_BUFFER_IN, transformStatus.getInputBufferSize());
-          engineMetrics.setComponentMetric(
-              component, Pipeline.METRIC_BUFFER_OUT, transformStatus.getOutputBufferSize());
-          engineMetrics.setComponentSpeed(component, transformStatus.getSpeed());
-          engineMetrics.getComponents().add(component);
-        }
-
-        statusDescription = pipelineStatus.getStatusDescription();
-        running = pipelineStatus.isRunning();
-        finished = pipelineStatus.isFinished();
-        stopped = pipelineStatus.isStopped();
-        paused = pipelineStatus.isPaused();
-        errors = (int) pipelineStatus.getNrTransformErrors();
-
-        lastLogLineNr = pipelineStatus.getLastLoggingLineNr();
-
-        // Also pass the remote log to this log channel as BASIC logging...
-        // TODO: make this configurable and split up the log lines individually so we can do a
-        // better job of this.
-        // Now it's a bit garbled
-        //
-        if (StringUtils.isNotEmpty(pipelineStatus.getLoggingString())) {
-          logChannel.logBasic(pipelineStatus.getLoggingString());
-        }
-
-        // If the pipeline is finished, cancel the timer task
-        //
-        if (finished) {
-          firePipelineExecutionFinishedListeners();
-          ExecutorUtil.cleanup(refreshTimer);
-          logChannel.logBasic(
-              "Execution finished on a remote pipeline engine with run configuration '"
-                  + pipelineRunConfiguration.getName()
-                  + "'");
-        }
-      }
+      updatePipelineStatus(pipelineStatus, false);
     } catch (Exception e) {
       throw new HopRuntimeException(
           "Error getting the status of pipeline '"
@@ -608,6 +574,116 @@ public class RemotePipelineEngine extends Variables implements IPipelineEngine<P
     }
   }
 
+  /**
+   * Update the state and metrics of this engine with a status received from the server.
+   *
+   * @param pipelineStatus the status of the pipeline on the server
+   * @param delta true if the status only contains the transforms which changed
+   */
+  private synchronized void updatePipelineStatus(
+      HopServerPipelineStatus pipelineStatus, boolean delta) throws HopException {
+    synchronized (engineMetrics) {
+      hasHaltedComponents = false;
+      engineMetrics.setStartDate(pipelineStatus.getExecutionStartDate());
+      engineMetrics.setEndDate(pipelineStatus.getExecutionEndDate());
+      engineMetrics.getComponents().clear();
+      engineMetrics.getComponentRunningMap().clear();
+      engineMetrics.getComponentSpeedMap().clear();
+      engineMetrics.getComponentMetricsMap().clear();
+
+      if (!delta) {
+        transformStatusMap.clear();
+      }
+      for (TransformStatus transformStatus : pipelineStatus.getTransformStatusList()) {
+        transformStatusMap.put(
+            transformStatus.getTransformName() + "." + transformStatus.getCopy(), transformStatus);
+      }
+
+      long nrErrors = 0L;
+      for (TransformStatus transformStatus : transformStatusMap.values()) {
+        nrErrors += transformStatus.getErrors();
+        EngineComponent component =
+            new EngineComponent(transformStatus.getTransformName(), transformStatus.getCopy());
+        status =
+            ComponentExecutionStatus.getStatusFromDescription(
+                transformStatus.getStatusDescription());
+        boolean running = status == ComponentExecutionStatus.STATUS_RUNNING;
+        boolean halted =
+            status == ComponentExecutionStatus.STATUS_HALTED
+                || status == ComponentExecutionStatus.STATUS_HALTING;
+        if (halted) {
+          hasHaltedComponents = true;
+        }
+
+        // Set the pipeline engine component state
+        component.setErrors(transformStatus.getErrors());
+        component.setStatus(status);
+        component.setRunning(running);
+        component.setStopped(status == ComponentExecutionStatus.STATUS_STOPPED);
+        component.setLogText(transformStatus.getLogText());
+
+        // Set the pipeline engine component metrics
+        engineMetrics.setComponentStatus(component, transformStatus.getStatusDescription());
+        engineMetrics.setComponentRunning(component, running);
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_READ, transformStatus.getLinesRead());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_WRITTEN, transformStatus.getLinesWritten());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_INPUT, transformStatus.getLinesInput());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_OUTPUT, transformStatus.getLinesOutput());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_REJECTED, transformStatus.getLinesRejected());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_UPDATED, transformStatus.getLinesUpdated());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_ERROR, transformStatus.getErrors());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_DATA_VOLUME, transformStatus.getDataVolume());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_DATA_VOLUME_IN, transformStatus.getDataVolumeIn());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_DATA_VOLUME_OUT, transformStatus.getDataVolumeOut());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_BUFFER_IN, transformStatus.getInputBufferSize());
+        engineMetrics.setComponentMetric(
+            component, Pipeline.METRIC_BUFFER_OUT, transformStatus.getOutputBufferSize());
+        engineMetrics.setComponentSpeed(component, transformStatus.getSpeed());
+        engineMetrics.getComponents().add(component);
+      }
+
+      statusDescription = pipelineStatus.getStatusDescription();
+      running = pipelineStatus.isRunning();
+      finished = pipelineStatus.isFinished();
+      stopped = pipelineStatus.isStopped();
+      paused = pipelineStatus.isPaused();
+      errors = (int) nrErrors;
+
+      lastLogLineNr = pipelineStatus.getLastLoggingLineNr();
+
+      // Also pass the remote log to this log channel as BASIC logging...
+      // TODO: make this configurable and split up the log lines individually so we can do a
+      // better job of this.
+      // Now it's a bit garbled
+      //
+      if (StringUtils.isNotEmpty(pipelineStatus.getLoggingString())) {
+        logChannel.logBasic(pipelineStatus.getLoggingString());
+      }
+
+      // If the pipeline is finished, cancel the timer task
+      //
+      if (finished) {
+        firePipelineExecutionFinishedListeners();
+        ExecutorUtil.cleanup(refreshTimer);
+        logChannel.logBasic(
+            "Execution finished on a remote pipeline engine with run configuration '"
+                + pipelineRunConfiguration.getName()
+                + "'");
+      }
+    }
+  }
+
   @Override
   public String getStatusDescription() {
     return statusDescription;
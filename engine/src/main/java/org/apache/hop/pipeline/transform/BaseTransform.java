@@ -34,14 +34,17 @@ import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.AdaptiveBatchingRowSet;
 import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.IExtensionData;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.SpscRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopRowException;
 import org.apache.hop.core.exception.HopRuntimeException;
@@ -144,34 +147,36 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private final IPipelineEngine<PipelineMeta> pipeline;
 
-  private final Object statusCountersLock = new Object();
-
   protected Date initStartDate;
   protected Date executionStartDate;
   protected Date firstRowReadDate;
   protected Date lastRowWrittenDate;
   protected Date executionEndDate;
 
+  // The status counters are updated several times per row by the transform thread and read by the
+  // status pollers, performance snapshots and logging. Atomic counters keep that lock free.
+  //
+
   /** Number of lines read from previous transform(s) */
-  private long linesRead;
+  private final AtomicLong linesRead = new AtomicLong();
 
   /** Number of lines written to next transform(s) */
-  private long linesWritten;
+  private final AtomicLong linesWritten = new AtomicLong();
 
   /** Number of lines read from file or database */
-  private long linesInput;
+  private final AtomicLong linesInput = new AtomicLong();
 
   /** Number of lines written to file or database */
-  private long linesOutput;
+  private final AtomicLong linesOutput = new AtomicLong();
 
   /** Number of updates in a database table or file */
-  private long linesUpdated;
+  private final AtomicLong linesUpdated = new AtomicLong();
 
   /** Number of lines skipped */
-  private long linesSkipped;
+  private final AtomicLong linesSkipped = new AtomicLong();
 
   /** Number of lines rejected to an error handling transform */
-  private long linesRejected;
+  private final AtomicLong linesRejected = new AtomicLong();
 
   /**
    * Data volume: estimated bytes from rows on getRow. Only updated when {@link
@@ -296,6 +301,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private boolean checkPipelineRunning;
 
+  /** True if this transform copy runs as a task of a {@link TransformScheduler}. */
+  private boolean scheduled;
+
   private static final int NR_OF_ROWS_IN_BLOCK = 500;
 
   private int blockPointer;
@@ -396,15 +404,6 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     init = false;
 
-    synchronized (statusCountersLock) {
-      linesRead = 0L;
-      linesWritten = 0L;
-      linesUpdated = 0L;
-      linesSkipped = 0L;
-      linesRejected = 0L;
-      linesInput = 0L;
-      linesOutput = 0L;
-    }
     dataVolume = null;
 
     inputRowSets = new ArrayList<>();
@@ -654,9 +653,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesRead() {
-    synchronized (statusCountersLock) {
-      return linesRead;
-    }
+    return linesRead.get();
   }
 
   /**
@@ -668,9 +665,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long incrementLinesRead() {
-    synchronized (statusCountersLock) {
-      return ++linesRead;
-    }
+    return linesRead.incrementAndGet();
   }
 
   /**
@@ -679,9 +674,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long decrementLinesRead() {
-    synchronized (statusCountersLock) {
-      return --linesRead;
-    }
+    return linesRead.decrementAndGet();
   }
 
   /**
@@ -691,9 +684,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #decrementLinesRead()
    */
   public void setLinesRead(long newLinesReadValue) {
-    synchronized (statusCountersLock) {
-      linesRead = newLinesReadValue;
-    }
+    linesRead.set(newLinesReadValue);
   }
 
   /**
@@ -702,9 +693,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesInput() {
-    synchronized (statusCountersLock) {
-      return linesInput;
-    }
+    return linesInput.get();
   }
 
   /**
@@ -715,9 +704,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return the new incremented value
    */
   public long incrementLinesInput() {
-    synchronized (statusCountersLock) {
-      return ++linesInput;
-    }
+    return linesInput.incrementAndGet();
   }
 
   /**
@@ -727,9 +714,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #incrementLinesInput()
    */
   public void setLinesInput(long newLinesInputValue) {
-    synchronized (statusCountersLock) {
-      linesInput = newLinesInputValue;
-    }
+    linesInput.set(newLinesInputValue);
   }
 
   /**
@@ -739,9 +724,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesOutput() {
-    synchronized (statusCountersLock) {
-      return linesOutput;
-    }
+    return linesOutput.get();
   }
 
   /**
@@ -752,9 +735,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #setLinesOutput(long)
    */
   public long incrementLinesOutput() {
-    synchronized (statusCountersLock) {
-      return ++linesOutput;
-    }
+    return linesOutput.incrementAndGet();
   }
 
   /**
@@ -764,9 +745,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #incrementLinesOutput()
    */
   public void setLinesOutput(long newLinesOutputValue) {
-    synchronized (statusCountersLock) {
-      linesOutput = newLinesOutputValue;
-    }
+    linesOutput.set(newLinesOutputValue);
   }
 
   /**
@@ -778,9 +757,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesWritten() {
-    synchronized (statusCountersLock) {
-      return linesWritten;
-    }
+    return linesWritten.get();
   }
 
   /**
@@ -791,9 +768,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long incrementLinesWritten() {
-    synchronized (statusCountersLock) {
-      return ++linesWritten;
-    }
+    return linesWritten.incrementAndGet();
   }
 
   /**
@@ -804,9 +779,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long decrementLinesWritten() {
-    synchronized (statusCountersLock) {
-      return --linesWritten;
-    }
+    return linesWritten.decrementAndGet();
   }
 
   /**
@@ -818,9 +791,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #decrementLinesWritten()
    */
   public void setLinesWritten(long newLinesWrittenValue) {
-    synchronized (statusCountersLock) {
-      linesWritten = newLinesWrittenValue;
-    }
+    linesWritten.set(newLinesWrittenValue);
   }
 
   /**
@@ -830,9 +801,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesUpdated() {
-    synchronized (statusCountersLock) {
-      return linesUpdated;
-    }
+    return linesUpdated.get();
   }
 
   /**
@@ -843,9 +812,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #setLinesUpdated(long)
    */
   public long incrementLinesUpdated() {
-    synchronized (statusCountersLock) {
-      return ++linesUpdated;
-    }
+    return linesUpdated.incrementAndGet();
   }
 
   /**
@@ -855,9 +822,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #incrementLinesUpdated()
    */
   public void setLinesUpdated(long newLinesUpdatedValue) {
-    synchronized (statusCountersLock) {
-      linesUpdated = newLinesUpdatedValue;
-    }
+    linesUpdated.set(newLinesUpdatedValue);
   }
 
   /**
@@ -869,9 +834,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesRejected() {
-    synchronized (statusCountersLock) {
-      return linesRejected;
-    }
+    return linesRejected.get();
   }
 
   /**
@@ -957,9 +920,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return the new incremented value
    */
   public long incrementLinesRejected() {
-    synchronized (statusCountersLock) {
-      return ++linesRejected;
-    }
+    return linesRejected.incrementAndGet();
   }
 
   /**
@@ -969,9 +930,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public void setLinesRejected(long newLinesRejectedValue) {
-    synchronized (statusCountersLock) {
-      linesRejected = newLinesRejectedValue;
-    }
+    linesRejected.set(newLinesRejectedValue);
   }
 
   /**
@@ -980,9 +939,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #incrementLinesSkipped()
    */
   public long getLinesSkipped() {
-    synchronized (statusCountersLock) {
-      return linesSkipped;
-    }
+    return linesSkipped.get();
   }
 
   /**
@@ -993,9 +950,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #setLinesSkipped(long)
    */
   public long incrementLinesSkipped() {
-    synchronized (statusCountersLock) {
-      return ++linesSkipped;
-    }
+    return linesSkipped.incrementAndGet();
   }
 
   /**
@@ -1004,9 +959,84 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see #incrementLinesSkipped()
    */
   public void setLinesSkipped(long newLinesSkippedValue) {
-    synchronized (statusCountersLock) {
-      linesSkipped = newLinesSkippedValue;
-    }
+    linesSkipped.set(newLinesSkippedValue);
+  }
+
+  /**
+   * Adds a number of lines read from previous transforms in one call.
+   *
+   * @param nrLines the number of lines to add
+   * @return the new value
+   * @see #incrementLinesRead()
+   */
+  public long addLinesRead(long nrLines) {
+    return linesRead.addAndGet(nrLines);
+  }
+
+  /**
+   * Adds a number of lines read from an input source: database, file, socket, etc. in one call.
+   *
+   * @param nrLines the number of lines to add
+   * @return the new value
+   * @see #incrementLinesInput()
+   */
+  public long addLinesInput(long nrLines) {
+    return linesInput.addAndGet(nrLines);
+  }
+
+  /**
+   * Adds a number of lines written to an output target: database, file, socket, etc. in one call.
+   *
+   * @param nrLines the number of lines to add
+   * @return the new value
+   * @see #incrementLinesOutput()
+   */
+  public long addLinesOutput(long nrLines) {
+    return linesOutput.addAndGet(nrLines);
+  }
+
+  /**
+   * Adds a number of lines written to next transforms in one call.
+   *
+   * @param nrLines the number of lines to add
+   * @return the new value
+   * @see #incrementLinesWritten()
+   */
+  public long addLinesWritten(long nrLines) {
+    return linesWritten.addAndGet(nrLines);
+  }
+
+  /**
+   * Adds a number of lines updated in an output target: database, file, socket, etc. in one call.
+   *
+   * @param nrLines the number of lines to add
+   * @return the new value
+   * @see #incrementLinesUpdated()
+   */
+  public long addLinesUpdated(long nrLines) {
+    return linesUpdated.addAndGet(nrLines);
+  }
+
+  /**
+   * Adds a number of lines skipped in one call.
+   *
+   * @param nrLines the number of lines to add
+   * @return the new value
+   * @see #incrementLinesSkipped()
+   */
+  public long addLinesSkipped(long nrLines) {
+    return linesSkipped.addAndGet(nrLines);
+  }
+
+  /**
+   * Adds a number of lines rejected to an error handling transform in one call.
+   *
+   * @param nrLines the number of lines to add
+   * @return the new value
+   * @see #incrementLinesRejected()
+   */
+  public long addLinesRejected(long nrLines) {
+    return linesRejected.addAndGet(nrLines);
   }
 
   @Override
@@ -1305,12 +1335,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // To reduce stress on the locking system we are NOT going to allow
         // the buffer to grow to its full capacity.
 
-        if (!rs.isDone() && rs.size() >= upperBufferBoundary && !isStopped()) {
-          try {
-            Thread.sleep(0, 1);
-          } catch (InterruptedException e) {
-            // Ignore sleep interruption exception
-          }
+        if (isLockBased(rs) && !rs.isDone() && rs.size() >= upperBufferBoundary && !isStopped()) {
+          relieveLockPressure();
         }
 
         // Loop until we find room in the target rowset
@@ -1341,12 +1367,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // To reduce stress on the locking system we are NOT going to allow
         // the buffer to grow to its full capacity.
 
-        if (!rs.isDone() && rs.size() >= upperBufferBoundary && !isStopped()) {
-          try {
-            Thread.sleep(0, 1);
-          } catch (InterruptedException e) {
-            // Ignore sleep interruption exception
-          }
+        if (isLockBased(rs) && !rs.isDone() && rs.size() >= upperBufferBoundary && !isStopped()) {
+          relieveLockPressure();
         }
 
         try {
@@ -1368,6 +1390,39 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  /**
+   * The short sleeps before reading from or writing to a row set only exist to reduce the stress on
+   * the locking system. A lock-free row set does its own back-off when it's empty or full and a
+   * batching row set only locks once per batch.
+   *
+   * @param rowSet the row set to check
+   * @return true if the row set takes a lock to hand over every row
+   */
+  private static boolean isLockBased(IRowSet rowSet) {
+    return !(rowSet instanceof SpscRowSet) && !(rowSet instanceof AdaptiveBatchingRowSet);
+  }
+
+  /**
+   * Give the transform on the other side of a lock based row set a moment to catch up. A virtual
+   * thread yields its carrier to the other transforms instead of going through a timed sleep. A
+   * scheduled transform doesn't wait here: it gives back its worker when a row set is full or
+   * empty.
+   */
+  private void relieveLockPressure() {
+    if (scheduled) {
+      return;
+    }
+    if (Thread.currentThread().isVirtual()) {
+      Thread.yield();
+      return;
+    }
+    try {
+      Thread.sleep(0, 1);
+    } catch (InterruptedException e) {
+      // Ignore sleep interruption exception
+    }
+  }
+
   private void putRowToRowSet(IRowSet rs, IRowMeta rowMeta, Object[] row) {
     IRowMeta toBeSent;
     IRowMeta metaFromRs = rs.getRowMeta();
@@ -1379,6 +1434,11 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       toBeSent = metaFromRs;
     }
 
+    if (scheduled) {
+      putRowScheduled(rs, toBeSent, row, true);
+      return;
+    }
+
     while (!rs.putRow(toBeSent, row)) {
       if (isStopped() && !safeStopped.get()) {
         return;
@@ -1386,6 +1446,68 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  /**
+   * Put a row in a row set when running as a task of a {@link TransformScheduler}. We only wait
+   * when the row set is full, the scheduler can add a worker in the meantime.
+   *
+   * @param rowSet the row set to put the row in
+   * @param rowMeta the row metadata
+   * @param row the row data
+   * @param drainOnSafeStop true if we keep waiting for room after a safe stop
+   */
+  private void putRowScheduled(
+      IRowSet rowSet, IRowMeta rowMeta, Object[] row, boolean drainOnSafeStop) {
+    if (rowSet.putRowWait(rowMeta, row, 0, TimeUnit.MILLISECONDS)) {
+      return;
+    }
+    TransformScheduler.block(
+        () ->
+            rowSet.putRowWait(rowMeta, row, 0, TimeUnit.MILLISECONDS)
+                || (isStopped() && !(drainOnSafeStop && safeStopped.get())));
+  }
+
+  /**
+   * Get a row from a row set when running as a task of a {@link TransformScheduler}. We only wait
+   * when the row set is empty, the scheduler can add a worker in the meantime.
+   *
+   * @param rowSet the row set to read from
+   * @return the row or null if there was none
+   */
+  private Object[] getRowScheduled(IRowSet rowSet) {
+    Object[] row = rowSet.getRowImmediate();
+    if (row == null) {
+      TransformScheduler.block(() -> rowSet.size() > 0 || rowSet.isDone() || stopped.get());
+      row = rowSet.getRowImmediate();
+    }
+    return row;
+  }
+
+  /**
+   * Wait until one of the input row sets has a row or is done when running as a task of a {@link
+   * TransformScheduler}. The caller holds the read lock on the input row sets.
+   */
+  private void waitForInputScheduled() {
+    TransformScheduler.block(
+        () -> {
+          if (stopped.get()) {
+            return true;
+          }
+          for (IRowSet rowSet : inputRowSets) {
+            if (rowSet.size() > 0 || rowSet.isDone()) {
+              return true;
+            }
+          }
+          return false;
+        });
+  }
+
+  /**
+   * @param scheduled true if this transform copy runs as a task of a {@link TransformScheduler}
+   */
+  void setScheduled(boolean scheduled) {
+    this.scheduled = scheduled;
+  }
+
   /**
    * putRowTo is used to put a row in a certain specific IRowSet.
    *
@@ -1442,9 +1564,13 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     // Don't distribute or anything, only go to this rowset!
     //
-    while (!rowSet.putRow(rowMeta, row)) {
-      if (isStopped()) {
-        break;
+    if (scheduled) {
+      putRowScheduled(rowSet, rowMeta, row, false);
+    } else {
+      while (!rowSet.putRow(rowMeta, row)) {
+        if (isStopped()) {
+          break;
+        }
       }
     }
     incrementLinesWritten();
@@ -1514,9 +1640,13 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
 
     if (errorRowSet != null) {
-      while (!errorRowSet.putRow(errorRowMeta, errorRowData)) {
-        if (isStopped()) {
-          break;
+      if (scheduled) {
+        putRowScheduled(errorRowSet, errorRowMeta, errorRowData, false);
+      } else {
+        while (!errorRowSet.putRow(errorRowMeta, errorRowData)) {
+          if (isStopped()) {
+            break;
+          }
         }
       }
       incrementLinesRejected();
@@ -1695,12 +1825,11 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       // The buffer to grow beyond "a few" entries.
       // We'll only do that if the previous transform has not ended...
 
-      if (!inputRowSet.isDone() && inputRowSet.size() <= lowerBufferBoundary && !isStopped()) {
-        try {
-          Thread.sleep(0, 1);
-        } catch (InterruptedException e) {
-          // Ignore sleep interruption exception
-        }
+      if (isLockBased(inputRowSet)
+          && !inputRowSet.isDone()
+          && inputRowSet.size() <= lowerBufferBoundary
+          && !isStopped()) {
+        relieveLockPressure();
       }
 
       // See if this transform is receiving partitioned data...
@@ -1729,7 +1858,14 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // Timeout immediately if nothing is there to read.
         // We will then switch to the next row set to read from...
         //
-        row = inputRowSet.getRowWait(waitingTime.get(), TimeUnit.MILLISECONDS);
+        if (scheduled) {
+          row = inputRowSet.getRowImmediate();
+          if (row == null && !inputRowSet.isDone()) {
+            waitForInputScheduled();
+          }
+        } else {
+          row = inputRowSet.getRowWait(waitingTime.get(), TimeUnit.MILLISECONDS);
+        }
         boolean timeout = false;
         if (row != null) {
           obtainInputRowMeta(row, inputRowSet);
@@ -1744,7 +1880,10 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
           // the input stream and move on to the next one...
           //
           if (inputRowSet.isDone()) {
-            row = inputRowSet.getRowWait(1, TimeUnit.MILLISECONDS);
+            row =
+                scheduled
+                    ? inputRowSet.getRowImmediate()
+                    : inputRowSet.getRowWait(1, TimeUnit.MILLISECONDS);
             if (row == null) {
 
               // Must release the read lock before acquisition of the write lock to prevent
@@ -2050,17 +2189,16 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     // The buffer to grow beyond "a few" entries.
     // We'll only do that if the previous transform has not ended...
 
-    if (!rowSet.isDone() && rowSet.size() <= lowerBufferBoundary && !isStopped()) {
-      try {
-        Thread.sleep(0, 1);
-      } catch (InterruptedException e) {
-        // Ignore sleep interruption exception
-      }
+    if (isLockBased(rowSet)
+        && !rowSet.isDone()
+        && rowSet.size() <= lowerBufferBoundary
+        && !isStopped()) {
+      relieveLockPressure();
     }
 
     // Grab a row... If nothing received after a timeout, try again.
     //
-    rowData = rowSet.getRow();
+    rowData = scheduled ? getRowScheduled(rowSet) : rowSet.getRow();
     while (rowData == null && !rowSet.isDone() && !stopped.get()) {
       rowData = rowSet.getRow();
     }
@@ -3042,36 +3180,34 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   /** Log summary. */
   public void logSummary() {
-    synchronized (statusCountersLock) {
-      long li = getLinesInput();
-      long lo = getLinesOutput();
-      long lr = getLinesRead();
-      long lw = getLinesWritten();
-      long lu = getLinesUpdated();
-      long lj = getLinesRejected();
-      if (li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || errors > 0) {
-        logBasic(
-            BaseMessages.getString(
-                PKG,
-                "BaseTransform.Log.SummaryInfo",
-                String.valueOf(li),
-                String.valueOf(lo),
-                String.valueOf(lr),
-                String.valueOf(lw),
-                String.valueOf(lw),
-                String.valueOf(errors + lj)));
-      } else {
-        logDetailed(
-            BaseMessages.getString(
-                PKG,
-                "BaseTransform.Log.SummaryInfo",
-                String.valueOf(li),
-                String.valueOf(lo),
-                String.valueOf(lr),
-                String.valueOf(lw),
-                String.valueOf(lw),
-                String.valueOf(errors + lj)));
-      }
+    long li = getLinesInput();
+    long lo = getLinesOutput();
+    long lr = getLinesRead();
+    long lw = getLinesWritten();
+    long lu = getLinesUpdated();
+    long lj = getLinesRejected();
+    if (li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || errors > 0) {
+      logBasic(
+          BaseMessages.getString(
+              PKG,
+              "BaseTransform.Log.SummaryInfo",
+              String.valueOf(li),
+              String.valueOf(lo),
+              String.valueOf(lr),
+              String.valueOf(lw),
+              String.valueOf(lw),
+              String.valueOf(errors + lj)));
+    } else {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "BaseTransform.Log.SummaryInfo",
+              String.valueOf(li),
+              String.valueOf(lo),
+              String.valueOf(lr),
+              String.valueOf(lw),
+              String.valueOf(lw),
+              String.valueOf(errors + lj)));
     }
   }
 
@@ -529,6 +529,18 @@ public interface ITransformMeta extends ILegacyXml {
     }
   }
 
+  /**
+   * Returns whether this transform can run as a task of the scheduled transform thread type. A
+   * transform which waits for something other than its row sets while processing a row, for example
+   * polling a message queue or waiting for other transforms to finish, keeps a shared worker busy
+   * while doing so. Such a transform returns false to run on its own platform thread instead.
+   *
+   * @return true if the transform can share the workers of the scheduler (default), false otherwise
+   */
+  default boolean supportsScheduledExecution() {
+    return true;
+  }
+
   /**
    * Returns whether this transform supports drill-down functionality to view executing
    * sub-pipelines or sub-workflows.
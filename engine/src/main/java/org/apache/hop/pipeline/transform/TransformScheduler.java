@@ -0,0 +1,456 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.util.EnvUtil;
+
+/**
+ * Runs the transform copies of a pipeline as tasks on a pool of worker threads which is shared by
+ * all pipelines, rather than on a thread per transform copy. The pool is sized to the number of
+ * processors, see {@link Const#HOP_TRANSFORM_SCHEDULER_THREADS}.
+ *
+ * <p>A transform copy is only given a worker when it can make progress without waiting: it has rows
+ * on one of its inputs (or all inputs are done) and there is room in all of its output row sets. It
+ * then processes rows until that is no longer the case or until it used up its slice of {@link
+ * #SLICE_SIZE} rows, and hands the worker back. Transforms which can't write their output aren't
+ * scheduled, which makes the back pressure of the row sets work across the whole pipeline.
+ *
+ * <p>Once a transform copy gives back its worker, the copies it reads from and writes to are woken
+ * up. The ones downstream are pushed last on the work-stealing queue of the worker so they run
+ * first: they drain the rows which were just written.
+ *
+ * <p>Some transforms still have to wait in the middle of processing a row, for example for an info
+ * stream or for a sub-pipeline. Such waits go through {@link #block(BooleanSupplier)} so that the
+ * pool can add a spare worker in the meantime, {@link #sleep(long)} does the same for a pause.
+ * Other blocking calls, like a slow database query, keep the worker busy. Transforms which wait for
+ * other things than their row sets as a rule don't support scheduled execution, see {@link
+ * ITransformMeta#supportsScheduledExecution()}. They run on their own platform thread.
+ *
+ * <p>Rows put by other threads and stopped transforms don't wake anything up. While pipelines are
+ * running, a single background thread wakes up their transform copies every {@link
+ * Const#HOP_TRANSFORM_SCHEDULER_RESCAN_INTERVAL} milliseconds. The thread is shut down when the
+ * last running pipeline finishes.
+ */
+public class TransformScheduler {
+
+  /** The maximum number of rows processed before a transform copy gives back its worker. */
+  public static final int SLICE_SIZE = 1_000;
+
+  /**
+   * The default number of milliseconds between checks of transform copies woken up from outside.
+   */
+  private static final long DEFAULT_RESCAN_INTERVAL_MILLIS = 1L;
+
+  /** How long to park between checks while blocking. */
+  private static final long BLOCK_PARK_NANOS = 50_000L;
+
+  private static volatile ForkJoinPool workerPool;
+  private static ScheduledExecutorService rescanService;
+  private static int nrRescanning;
+
+  private final int rowSetSize;
+  private final List<ScheduledTransform> tasks = new ArrayList<>();
+  private final AtomicInteger nrActive = new AtomicInteger();
+  private ScheduledFuture<?> rescanFuture;
+
+  /**
+   * Create a new scheduler for the transform copies of one pipeline.
+   *
+   * @param rowSetSize the maximum number of rows in the row sets between the transforms
+   */
+  public TransformScheduler(int rowSetSize) {
+    this.rowSetSize = Math.max(1, rowSetSize);
+  }
+
+  /**
+   * Add a transform copy to run. All transform copies need to be added before the scheduler is
+   * started.
+   *
+   * @param combi the transform copy
+   */
+  public void addTransform(TransformMetaDataCombi combi) {
+    if (combi.transform instanceof BaseTransform<?, ?> baseTransform) {
+      baseTransform.setScheduled(true);
+    }
+    tasks.add(new ScheduledTransform(combi));
+  }
+
+  /** Start running the transform copies on the worker pool. */
+  public void start() {
+    ForkJoinPool pool = getWorkerPool();
+
+    // Figure out which transform copies wake up which other ones
+    //
+    Map<IRowSet, ScheduledTransform> producers = new IdentityHashMap<>();
+    Map<IRowSet, ScheduledTransform> consumers = new IdentityHashMap<>();
+    for (ScheduledTransform task : tasks) {
+      for (IRowSet rowSet : task.outputs) {
+        producers.put(rowSet, task);
+      }
+      for (IRowSet rowSet : task.inputs) {
+        consumers.put(rowSet, task);
+      }
+    }
+    for (ScheduledTransform task : tasks) {
+      Set<ScheduledTransform> upstream = new LinkedHashSet<>();
+      for (IRowSet rowSet : task.inputs) {
+        ScheduledTransform producer = producers.get(rowSet);
+        if (producer != null && producer != task) {
+          upstream.add(producer);
+        }
+      }
+      Set<ScheduledTransform> downstream = new LinkedHashSet<>();
+      for (IRowSet rowSet : task.outputs) {
+        ScheduledTransform consumer = consumers.get(rowSet);
+        if (consumer != null && consumer != task) {
+          downstream.add(consumer);
+        }
+      }
+      task.upstream = upstream.toArray(new ScheduledTransform[0]);
+      task.downstream = downstream.toArray(new ScheduledTransform[0]);
+      task.pool = pool;
+    }
+
+    nrActive.set(tasks.size());
+    if (tasks.isEmpty()) {
+      return;
+    }
+
+    // Rows put by other threads (a row producer for example) and stopped transforms don't wake
+    // anything up, we check for those regularly.
+    //
+    rescanFuture = scheduleRescan(this::rescan);
+
+    for (ScheduledTransform task : tasks) {
+      task.wake();
+    }
+  }
+
+  private void rescan() {
+    for (ScheduledTransform task : tasks) {
+      task.wake();
+    }
+  }
+
+  private void transformFinished() {
+    if (nrActive.decrementAndGet() == 0 && rescanFuture != null) {
+      cancelRescan(rescanFuture);
+    }
+  }
+
+  /**
+   * @return true if the current thread is one of the scheduler's worker threads
+   */
+  public static boolean isWorkerThread() {
+    return Thread.currentThread() instanceof ForkJoinWorkerThread worker
+        && worker.getPool() == workerPool;
+  }
+
+  /**
+   * Wait until the given condition is met. When called on a worker of the scheduler, the pool can
+   * add a spare worker while this one waits so that the other transforms keep running.
+   *
+   * @param condition the condition to wait for, it's checked repeatedly
+   */
+  public static void block(BooleanSupplier condition) {
+    if (condition.getAsBoolean()) {
+      return;
+    }
+    managedBlock(
+        new ForkJoinPool.ManagedBlocker() {
+          private boolean released;
+
+          @Override
+          public boolean block() {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            released = condition.getAsBoolean();
+            return released;
+          }
+
+          @Override
+          public boolean isReleasable() {
+            return released;
+          }
+        });
+  }
+
+  /**
+   * Run an operation which may wait for a long time, for example for a sub-pipeline to finish. When
+   * called on a worker of the scheduler, the pool can add a spare worker in the meantime.
+   *
+   * @param operation the operation to run
+   */
+  public static void runBlocking(Runnable operation) {
+    if (!isWorkerThread()) {
+      operation.run();
+      return;
+    }
+    managedBlock(
+        new ForkJoinPool.ManagedBlocker() {
+          private boolean released;
+
+          @Override
+          public boolean block() {
+            operation.run();
+            released = true;
+            return true;
+          }
+
+          @Override
+          public boolean isReleasable() {
+            return released;
+          }
+        });
+  }
+
+  /**
+   * Pause the current thread. When called on a worker of the scheduler, the pool can add a spare
+   * worker in the meantime.
+   *
+   * @param millis the number of milliseconds to sleep
+   * @throws InterruptedException in case the thread is interrupted
+   */
+  public static void sleep(long millis) throws InterruptedException {
+    if (!isWorkerThread()) {
+      Thread.sleep(millis);
+      return;
+    }
+    ForkJoinPool.managedBlock(
+        new ForkJoinPool.ManagedBlocker() {
+          private boolean released;
+
+          @Override
+          public boolean block() throws InterruptedException {
+            Thread.sleep(millis);
+            released = true;
+            return true;
+          }
+
+          @Override
+          public boolean isReleasable() {
+            return released;
+          }
+        });
+  }
+
+  private static void managedBlock(ForkJoinPool.ManagedBlocker blocker) {
+    try {
+      ForkJoinPool.managedBlock(blocker);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static synchronized ForkJoinPool getWorkerPool() {
+    if (workerPool == null) {
+      int nrThreads =
+          Const.toInt(
+              EnvUtil.getSystemProperty(Const.HOP_TRANSFORM_SCHEDULER_THREADS),
+              Runtime.getRuntime().availableProcessors());
+      workerPool =
+          new ForkJoinPool(
+              Math.max(1, nrThreads),
+              pool -> {
+                ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Hop transform worker " + thread.getPoolIndex());
+                return thread;
+              },
+              null,
+              false);
+    }
+    return workerPool;
+  }
+
+  private static synchronized ScheduledFuture<?> scheduleRescan(Runnable rescan) {
+    if (rescanService == null) {
+      rescanService =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "Hop transform scheduler");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    nrRescanning++;
+    long interval =
+        Math.max(
+            1L,
+            Const.toLong(
+                EnvUtil.getSystemProperty(Const.HOP_TRANSFORM_SCHEDULER_RESCAN_INTERVAL),
+                DEFAULT_RESCAN_INTERVAL_MILLIS));
+    return rescanService.scheduleWithFixedDelay(rescan, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /** Stop the rescan of a pipeline, the thread is shut down when no pipeline is left. */
+  private static synchronized void cancelRescan(ScheduledFuture<?> rescanFuture) {
+    rescanFuture.cancel(false);
+    if (--nrRescanning == 0) {
+      rescanService.shutdown();
+      rescanService = null;
+    }
+  }
+
+  /** A transform copy which is run in slices by the workers of the pool. */
+  private final class ScheduledTransform implements Runnable {
+    private static final int IDLE = 0;
+    private static final int QUEUED = 1;
+    private static final int RUNNING = 2;
+    private static final int FINISHED = 3;
+
+    private final ITransform transform;
+    private final RunThread runThread;
+    private final IRowSet[] inputs;
+    private final IRowSet[] outputs;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+    private ScheduledTransform[] upstream;
+    private ScheduledTransform[] downstream;
+    private ForkJoinPool pool;
+    private boolean started;
+
+    private ScheduledTransform(TransformMetaDataCombi combi) {
+      this.transform = combi.transform;
+      this.runThread = new RunThread(combi);
+      this.inputs = transform.getInputRowSets().toArray(new IRowSet[0]);
+      this.outputs = transform.getOutputRowSets().toArray(new IRowSet[0]);
+    }
+
+    /**
+     * Queue this transform copy on the pool if it can make progress, unless it's queued, running or
+     * finished already.
+     */
+    private void wake() {
+      if (state.get() == IDLE && getRunnableRows() > 0 && state.compareAndSet(IDLE, QUEUED)) {
+        pool.execute(this);
+      }
+    }
+
+    /**
+     * Look at the row sets to see how many rows can be processed without waiting for other
+     * transforms. We assume a call to processRow() reads at most one row and writes at most one row
+     * to each output. When it writes more, it waits for room in the output like any other blocking
+     * operation.
+     *
+     * @return the number of calls to processRow() which can make progress, 0 if there are none
+     */
+    private int getRunnableRows() {
+      if (transform.isStopped()) {
+        return SLICE_SIZE;
+      }
+      if (transform.isPaused()) {
+        return 0;
+      }
+      int nrRows = SLICE_SIZE;
+      for (IRowSet output : outputs) {
+        nrRows = Math.min(nrRows, rowSetSize - output.size());
+      }
+      if (nrRows <= 0 || inputs.length == 0) {
+        return Math.max(0, nrRows);
+      }
+      int nrInputRows = 0;
+      boolean allDone = true;
+      for (IRowSet input : inputs) {
+        nrInputRows += input.size();
+        allDone = allDone && input.isDone();
+      }
+      // Once all inputs are done, processRow() finds out without waiting
+      //
+      return allDone ? nrRows : Math.min(nrRows, nrInputRows);
+    }
+
+    @Override
+    public void run() {
+      state.set(RUNNING);
+      boolean finished = false;
+      int nrRows = 0;
+      int nrRunnable = 0;
+      try {
+        if (!started) {
+          started = true;
+          runThread.beforeProcessing();
+        }
+        while (nrRows < SLICE_SIZE && !transform.isPaused()) {
+          // The row sets are only looked at again once the rows we know about are processed
+          //
+          if (nrRunnable == 0) {
+            nrRunnable = getRunnableRows();
+            if (nrRunnable == 0) {
+              break;
+            }
+          }
+          if (transform.isStopped() || !transform.processRow()) {
+            finished = true;
+            break;
+          }
+          nrRows++;
+          nrRunnable--;
+        }
+      } catch (Throwable t) {
+        runThread.handleError(t);
+        finished = true;
+      }
+
+      if (finished) {
+        state.set(FINISHED);
+        try {
+          runThread.afterProcessing();
+        } finally {
+          wakeNeighbours();
+          transformFinished();
+        }
+        return;
+      }
+
+      // Queue ourselves first: the neighbours queued after us are picked up before us.
+      // Only the rows we read or wrote can make the neighbours runnable.
+      //
+      state.set(IDLE);
+      wake();
+      if (nrRows > 0) {
+        wakeNeighbours();
+      }
+    }
+
+    private void wakeNeighbours() {
+      for (ScheduledTransform task : upstream) {
+        task.wake();
+      }
+      for (ScheduledTransform task : downstream) {
+        task.wake();
+      }
+    }
+  }
+}
@@ -0,0 +1,405 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.Getter;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.util.EnvUtil;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.pipeline.transform.TransformScheduler;
+
+/**
+ * A lookup cache which is shared by all transform copies and pipelines running in this JVM. The
+ * cached rows are grouped in regions: one region per connection, lookup query and key columns.
+ * Transforms doing the same lookup on the same database therefore share the same rows.
+ *
+ * <p>The cache is bounded by an estimate of the memory used by the rows, see {@link
+ * Const#HOP_SHARED_LOOKUP_CACHE_SIZE_MB}. It's split in segments which each evict their least
+ * recently used rows when they're full. Rows of a region can expire after a time to live and
+ * regions can be invalidated.
+ */
+public class SharedLookupCache {
+
+  /** The number of segments, a power of 2. Each segment has its own lock. */
+  private static final int NR_SEGMENTS = 16;
+
+  /** A rough estimate of the memory used by a cache entry, on top of its values. */
+  private static final long ENTRY_OVERHEAD = 128L;
+
+  private static SharedLookupCache instance;
+
+  /** The maximum size of the cache in bytes */
+  @Getter private final long maxSize;
+
+  private final Segment[] segments;
+  private final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+  /**
+   * Create a new cache. Transforms use the cache from {@link #getInstance()}.
+   *
+   * @param maxSize the maximum size of the cache in bytes
+   */
+  public SharedLookupCache(long maxSize) {
+    this.maxSize = maxSize;
+    this.segments = new Segment[NR_SEGMENTS];
+    for (int i = 0; i < NR_SEGMENTS; i++) {
+      segments[i] = new Segment(Math.max(1L, maxSize / NR_SEGMENTS));
+    }
+  }
+
+  /**
+   * @return the cache which is shared by all pipelines in this JVM
+   */
+  public static synchronized SharedLookupCache getInstance() {
+    if (instance == null) {
+      long sizeMb =
+          Const.toLong(EnvUtil.getSystemProperty(Const.HOP_SHARED_LOOKUP_CACHE_SIZE_MB), 256L);
+      instance = new SharedLookupCache(sizeMb * 1024L * 1024L);
+    }
+    return instance;
+  }
+
+  /**
+   * Describe a connection, including where it connects to, the way the regions are keyed.
+   *
+   * @param databaseMeta the connection
+   * @param variables the variables to resolve the connection with
+   * @return the description of the connection
+   * @throws HopDatabaseException in case the URL of the connection can't be determined
+   */
+  public static String getConnectionKey(DatabaseMeta databaseMeta, IVariables variables)
+      throws HopDatabaseException {
+    return databaseMeta.getName()
+        + " "
+        + databaseMeta.getURL(variables)
+        + " "
+        + Const.NVL(variables.resolve(databaseMeta.getUsername()), "");
+  }
+
+  /**
+   * Get the region for a lookup, it's created if needed.
+   *
+   * @param connection the connection to the database, see {@link #getConnectionKey(DatabaseMeta,
+   *     IVariables)}
+   * @param sql the lookup query
+   * @param keyColumns the key columns and their data types
+   * @param timeToLive the time in milliseconds after which cached rows expire, 0 to keep them
+   * @return the region
+   */
+  public Region getRegion(String connection, String sql, String keyColumns, long timeToLive) {
+    String key = connection + Const.CR + sql + Const.CR + keyColumns + Const.CR + timeToLive;
+    return regions.computeIfAbsent(key, k -> new Region(k, connection, timeToLive));
+  }
+
+  /**
+   * Invalidate the regions of a connection: the cached rows are removed.
+   *
+   * @param connection the connection of the regions to invalidate or null to invalidate all
+   */
+  public void invalidate(String connection) {
+    for (Region region : regions.values()) {
+      if (connection == null || connection.equals(region.connection)) {
+        region.invalidate();
+      }
+    }
+  }
+
+  /**
+   * @return the estimated memory used by the cached rows, in bytes
+   */
+  public long getSize() {
+    long size = 0L;
+    for (Segment segment : segments) {
+      size += segment.getSize();
+    }
+    return size;
+  }
+
+  /**
+   * @return the number of cached rows
+   */
+  public int getNrRows() {
+    int nrRows = 0;
+    for (Segment segment : segments) {
+      nrRows += segment.getNrRows();
+    }
+    return nrRows;
+  }
+
+  private Segment getSegment(Key key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (NR_SEGMENTS - 1)];
+  }
+
+  /** Loads all the rows of a region, see {@link Region#load(ILoader)}. */
+  @FunctionalInterface
+  public interface ILoader {
+    void load(Region region) throws HopException;
+  }
+
+  /** The cached rows of one lookup. */
+  public final class Region {
+    @Getter private final String key;
+    @Getter private final String connection;
+    private final long timeToLiveNanos;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** The number of rows which were too large to store */
+    private final AtomicLong refusals = new AtomicLong();
+
+    /** The number of times the region was invalidated */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /** True if all the rows were loaded and stored, and none of them were evicted since */
+    private volatile boolean complete;
+
+    private volatile long loadTime;
+
+    private Region(String key, String connection, long timeToLive) {
+      this.key = key;
+      this.connection = connection;
+      this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, timeToLive));
+    }
+
+    /**
+     * Look up a row in the cache.
+     *
+     * @param keyRow the key values
+     * @return the cached values or null if there are none. Don't modify them.
+     */
+    public Object[] get(RowMetaAndData keyRow) {
+      Key cacheKey = new Key(this, keyRow);
+      Object[] value = getSegment(cacheKey).get(cacheKey, System.nanoTime());
+      if (value == null) {
+        misses.incrementAndGet();
+      } else {
+        hits.incrementAndGet();
+      }
+      return value;
+    }
+
+    /**
+     * Store a row in the cache.
+     *
+     * @param keyRow the key values
+     * @param value the values to cache, they're no longer modified after this
+     * @return the number of rows which were evicted to make room
+     */
+    public int put(RowMetaAndData keyRow, Object[] value) {
+      Key cacheKey = new Key(this, keyRow);
+      long size =
+          ENTRY_OVERHEAD
+              + RowMeta.getRowSizeEstimateFromRow(keyRow.getData())
+              + RowMeta.getRowSizeEstimateFromRow(value);
+      long expiry = timeToLiveNanos > 0 ? System.nanoTime() + timeToLiveNanos : 0L;
+      return getSegment(cacheKey).put(cacheKey, new Entry(value, size, expiry));
+    }
+
+    /**
+     * Load all the rows of the region, unless they're loaded already. Only one transform copy at a
+     * time loads the rows, the others wait and then use them.
+     *
+     * @param loader stores all the rows in this region
+     * @throws HopException in case the rows couldn't be loaded
+     */
+    public void load(ILoader loader) throws HopException {
+      TransformScheduler.block(loadLock::tryLock);
+      try {
+        if (isComplete()) {
+          return;
+        }
+        long evictionsBefore = evictions.get();
+        long refusalsBefore = refusals.get();
+        long generationBefore = generation.get();
+        long startTime = System.nanoTime();
+        loader.load(this);
+        if (evictions.get() == evictionsBefore
+            && refusals.get() == refusalsBefore
+            && regions.get(key) == this) {
+          loadTime = startTime;
+          complete = true;
+
+          // An invalidate during the load removed rows we stored: lookups go to the database
+          //
+          if (generation.get() != generationBefore) {
+            complete = false;
+          }
+        }
+      } finally {
+        loadLock.unlock();
+      }
+    }
+
+    /**
+     * @return true if all the rows were loaded and none of them were evicted or expired since. In
+     *     that case a row which isn't in the cache doesn't exist.
+     */
+    public boolean isComplete() {
+      return complete && (timeToLiveNanos == 0 || System.nanoTime() - loadTime < timeToLiveNanos);
+    }
+
+    /** Remove all the rows of this region from the cache. */
+    public void invalidate() {
+      generation.incrementAndGet();
+      complete = false;
+      regions.remove(key, this);
+      for (Segment segment : segments) {
+        segment.removeRegion(this);
+      }
+    }
+
+    private void evicted() {
+      complete = false;
+      evictions.incrementAndGet();
+    }
+
+    private void refused() {
+      complete = false;
+      refusals.incrementAndGet();
+    }
+
+    /**
+     * @return the number of lookups which found a row in the cache
+     */
+    public long getHits() {
+      return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which didn't find a row in the cache
+     */
+    public long getMisses() {
+      return misses.get();
+    }
+
+    /**
+     * @return the number of rows which were evicted or expired
+     */
+    public long getEvictions() {
+      return evictions.get();
+    }
+  }
+
+  private record Key(Region region, RowMetaAndData keyRow) {}
+
+  private static final class Entry {
+    private final Object[] value;
+    private final long size;
+
+    /** The value of System.nanoTime() at which the entry expires or 0 if it doesn't */
+    private final long expiry;
+
+    private Entry(Object[] value, long size, long expiry) {
+      this.value = value;
+      this.size = size;
+      this.expiry = expiry;
+    }
+
+    private boolean isExpired(long now) {
+      return expiry != 0L && now - expiry >= 0;
+    }
+  }
+
+  /** A part of the cache with its own lock and least recently used eviction. */
+  private static final class Segment {
+    private final long maxSize;
+    private final LinkedHashMap<Key, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    private Segment(long maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    private synchronized Object[] get(Key key, long now) {
+      Entry entry = map.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.isExpired(now)) {
+        map.remove(key);
+        size -= entry.size;
+        key.region.evicted();
+        return null;
+      }
+      return entry.value;
+    }
+
+    private synchronized int put(Key key, Entry entry) {
+      if (entry.size > maxSize) {
+        // Never fits: a lookup of the row has to go to the database
+        //
+        key.region.refused();
+        return 0;
+      }
+      Entry previous = map.put(key, entry);
+      if (previous != null) {
+        size -= previous.size;
+      }
+      size += entry.size;
+
+      // Evict the least recently used rows until we're within the limit
+      //
+      int nrEvicted = 0;
+      Iterator<Map.Entry<Key, Entry>> iterator = map.entrySet().iterator();
+      while (size > maxSize && iterator.hasNext()) {
+        Map.Entry<Key, Entry> eldest = iterator.next();
+        iterator.remove();
+        size -= eldest.getValue().size;
+        eldest.getKey().region.evicted();
+        nrEvicted++;
+      }
+      return nrEvicted;
+    }
+
+    private synchronized void removeRegion(Region region) {
+      Iterator<Map.Entry<Key, Entry>> iterator = map.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<Key, Entry> entry = iterator.next();
+        if (entry.getKey().region == region) {
+          iterator.remove();
+          size -= entry.getValue().size;
+        }
+      }
+    }
+
+    private synchronized long getSize() {
+      return size;
+    }
+
+    private synchronized int getNrRows() {
+      return map.size();
+    }
+  }
+}
@@ -207,6 +207,11 @@ public abstract class HopRunBase implements Runnable, IHasHopMetadataProvider {
     } finally {
       if (fileLoggingEventListener != null) {
         HopLogStore.getAppender().removeLoggingEventListener(fileLoggingEventListener);
+        try {
+          fileLoggingEventListener.close();
+        } catch (HopException e) {
+          log.logError("Error closing the log file", e);
+        }
       }
     }
   }
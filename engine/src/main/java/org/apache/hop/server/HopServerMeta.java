@@ -30,6 +30,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.net.ssl.SSLContext;
@@ -60,6 +61,7 @@ import org.apache.hc.core5.http.io.entity.InputStreamEntity;
 import org.apache.hc.core5.http.message.BasicHeader;
 import org.apache.hc.core5.ssl.SSLContexts;
 import org.apache.hc.core5.ssl.TrustStrategy;
+import org.apache.hc.core5.util.Timeout;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.encryption.Encr;
@@ -79,8 +81,10 @@ import org.apache.hop.metadata.api.HopMetadataPropertyType;
 import org.apache.hop.metadata.api.IHopMetadata;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.www.GetPipelineStatusServlet;
+import org.apache.hop.www.GetPipelineStatusStreamServlet;
 import org.apache.hop.www.GetStatusServlet;
 import org.apache.hop.www.GetWorkflowStatusServlet;
+import org.apache.hop.www.GetWorkflowStatusStreamServlet;
 import org.apache.hop.www.HopServerPipelineStatus;
 import org.apache.hop.www.HopServerStatus;
 import org.apache.hop.www.HopServerWorkflowStatus;
@@ -88,10 +92,13 @@ import org.apache.hop.www.PausePipelineServlet;
 import org.apache.hop.www.RegisterPackageServlet;
 import org.apache.hop.www.RemovePipelineServlet;
 import org.apache.hop.www.RemoveWorkflowServlet;
+import org.apache.hop.www.ServerSentEventReader;
+import org.apache.hop.www.ServerSentEventWriter;
 import org.apache.hop.www.SniffTransformServlet;
 import org.apache.hop.www.SslConfiguration;
 import org.apache.hop.www.StartPipelineServlet;
 import org.apache.hop.www.StartWorkflowServlet;
+import org.apache.hop.www.StatusStream;
 import org.apache.hop.www.StopPipelineServlet;
 import org.apache.hop.www.StopWorkflowServlet;
 import org.apache.hop.www.WebResult;
@@ -122,6 +129,9 @@ public class HopServerMeta extends HopMetadataBase implements Cloneable, IXml, I
   private static final String CONST_XML = "&xml=Y";
   private static final String CONST_ID = "&id=";
 
+  /** The maximum time to wait for the next event of a status stream. */
+  private static final long STREAM_RESPONSE_TIMEOUT_MILLIS = 60000L;
+
   private static int getNumberOfHopServerRetries() {
     try {
       return Integer.parseInt(Const.NVL(System.getProperty("HOP_SERVER_RETRIES"), "0"));
@@ -817,6 +827,127 @@ public class HopServerMeta extends HopMetadataBase implements Cloneable, IXml, I
     return HopServerWorkflowStatus.fromXml(xml);
   }
 
+  /**
+   * Subscribe to the status updates of a pipeline on this server. Every update only contains what
+   * changed since the previous one: the transforms with new counters and the new log lines. This
+   * method returns once the pipeline is finished or the stream is closed by the server.
+   *
+   * @param variables the variables to resolve the server settings with
+   * @param pipelineName the name of the pipeline
+   * @param serverObjectId the ID of the pipeline on the server
+   * @param startLogLineNr the first log line to send
+   * @param interval the number of milliseconds between updates
+   * @param consumer receives the status updates
+   * @return true if the server sent the end of the stream, false if the stream was cut short
+   * @throws Exception in case the stream can't be opened or read
+   */
+  public boolean streamPipelineStatus(
+      IVariables variables,
+      String pipelineName,
+      String serverObjectId,
+      int startLogLineNr,
+      long interval,
+      Consumer<HopServerPipelineStatus> consumer)
+      throws Exception {
+    String query =
+        GetPipelineStatusStreamServlet.CONTEXT_PATH
+            + CONST_NAME
+            + URLEncoder.encode(pipelineName, UTF_8)
+            + CONST_ID
+            + Const.NVL(serverObjectId, "")
+            + "&from="
+            + startLogLineNr
+            + "&interval="
+            + interval;
+    return streamService(
+        variables, query, data -> consumer.accept(HopServerPipelineStatus.fromXml(data)));
+  }
+
+  /**
+   * Subscribe to the status updates of a workflow on this server. Every update contains the new log
+   * lines, the list of actions is only sent when it changed. This method returns once the workflow
+   * is finished or the stream is closed by the server.
+   *
+   * @param variables the variables to resolve the server settings with
+   * @param workflowName the name of the workflow
+   * @param serverObjectId the ID of the workflow on the server
+   * @param startLogLineNr the first log line to send
+   * @param interval the number of milliseconds between updates
+   * @param consumer receives the status updates
+   * @return true if the server sent the end of the stream, false if the stream was cut short
+   * @throws Exception in case the stream can't be opened or read
+   */
+  public boolean streamWorkflowStatus(
+      IVariables variables,
+      String workflowName,
+      String serverObjectId,
+      int startLogLineNr,
+      long interval,
+      Consumer<HopServerWorkflowStatus> consumer)
+      throws Exception {
+    String query =
+        GetWorkflowStatusStreamServlet.CONTEXT_PATH
+            + CONST_NAME
+            + URLEncoder.encode(workflowName, UTF_8)
+            + CONST_ID
+            + Const.NVL(serverObjectId, "")
+            + "&from="
+            + startLogLineNr
+            + "&interval="
+            + interval;
+    return streamService(
+        variables, query, data -> consumer.accept(HopServerWorkflowStatus.fromXml(data)));
+  }
+
+  private interface IStatusEventHandler {
+    void handle(String data) throws HopException;
+  }
+
+  private boolean streamService(IVariables variables, String service, IStatusEventHandler handler)
+      throws Exception {
+    org.apache.hc.client5.http.classic.methods.HttpGet method =
+        buildExecuteServiceMethod(
+            variables, service, Map.of("Accept", ServerSentEventWriter.CONTENT_TYPE));
+
+    // The server sends at least a keep-alive comment regularly, a silent connection is a dead one
+    //
+    HttpClientContext context = getAuthContext(variables);
+    RequestConfig requestConfig = context.getRequestConfig();
+    RequestConfig.Builder builder =
+        requestConfig == null ? RequestConfig.custom() : RequestConfig.copy(requestConfig);
+    context.setRequestConfig(
+        builder.setResponseTimeout(Timeout.ofMilliseconds(STREAM_RESPONSE_TIMEOUT_MILLIS)).build());
+
+    try (ClassicHttpResponse httpResponse =
+        (ClassicHttpResponse) getHttpClient().execute(method, context)) {
+      int statusCode = httpResponse.getCode();
+      if (statusCode >= 400) {
+        throw new HopException(
+            String.format(
+                "HTTP Status %d - %s - %s",
+                statusCode, method.getRequestUri(), httpResponse.getReasonPhrase()));
+      }
+      try (ServerSentEventReader reader =
+          new ServerSentEventReader(httpResponse.getEntity().getContent())) {
+        ServerSentEventReader.Event event;
+        while ((event = reader.readEvent()) != null) {
+          if (StatusStream.EVENT_END.equals(event.name())) {
+            return true;
+          }
+          if (StatusStream.EVENT_STATUS.equals(event.name())) {
+            handler.handle(event.data());
+          }
+        }
+      }
+      return false;
+    } finally {
+      if (log.isDetailed()) {
+        log.logDetailed(
+            BaseMessages.getString(PKG, "HopServer.DETAILED_ExecutedService", service, hostname));
+      }
+    }
+  }
+
   public WebResult stopPipeline(IVariables variables, String pipelineName, String serverObjectId)
       throws Exception {
     String xml =
@@ -58,6 +58,7 @@ import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.core.xml.IXml;
+import org.apache.hop.core.xml.XmlDocumentCache;
 import org.apache.hop.core.xml.XmlFormatter;
 import org.apache.hop.core.xml.XmlHandler;
 import org.apache.hop.i18n.BaseMessages;
@@ -390,7 +391,12 @@ public class WorkflowMeta extends AbstractMeta
       throws HopXmlException {
     try {
       // OK, try to load using the VFS stuff...
-      Document doc = XmlHandler.loadXmlFile(HopVfs.getFileObject(filename));
+      Document doc;
+      if (XmlDocumentCache.isEnabled(variables)) {
+        doc = XmlDocumentCache.getInstance().loadDocument(HopVfs.getFileObject(filename));
+      } else {
+        doc = XmlHandler.loadXmlFile(HopVfs.getFileObject(filename));
+      }
       if (doc != null) {
         // The workflowNode
         Node workflowNode = XmlHandler.getSubNode(doc, XML_TAG);
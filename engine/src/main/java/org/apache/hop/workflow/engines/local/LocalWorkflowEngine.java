@@ -107,6 +107,12 @@ public class LocalWorkflowEngine extends Workflow implements IWorkflowEngine<Wor
     LocalWorkflowRunConfiguration config =
         (LocalWorkflowRunConfiguration) workflowRunConfiguration.getEngineRunConfiguration();
 
+    // The pipelines and workflows loaded by the actions can come from the cache
+    //
+    if (config.isCachingLoadedFiles()) {
+      setVariable(Const.HOP_CACHE_LOADED_FILES, "Y");
+    }
+
     // See if we need to enable transactions...
     //
     IExtensionData parentExtensionData = getParentPipeline();
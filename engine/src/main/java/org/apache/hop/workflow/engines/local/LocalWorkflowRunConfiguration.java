@@ -50,6 +50,19 @@ public class LocalWorkflowRunConfiguration extends EmptyWorkflowRunConfiguration
   @HopMetadataProperty(key = "transactional")
   protected boolean transactional;
 
+  /** Keep the parsed XML of the pipelines and workflows loaded by actions and transforms. */
+  @GuiWidgetElement(
+      id = "cachingLoadedFiles",
+      order = "100",
+      parentId = WorkflowRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.CachingLoadedFiles.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.CachingLoadedFiles.ToolTip")
+  @HopMetadataProperty(key = "cache_loaded_files")
+  protected boolean cachingLoadedFiles;
+
   public LocalWorkflowRunConfiguration() {
     super();
     safeModeEnabled = false;
@@ -59,6 +72,7 @@ public class LocalWorkflowRunConfiguration extends EmptyWorkflowRunConfiguration
     super(config);
     this.safeModeEnabled = config.safeModeEnabled;
     this.transactional = config.transactional;
+    this.cachingLoadedFiles = config.cachingLoadedFiles;
   }
 
   @Override
@@ -97,4 +111,20 @@ public class LocalWorkflowRunConfiguration extends EmptyWorkflowRunConfiguration
   public void setTransactional(boolean transactional) {
     this.transactional = transactional;
   }
+
+  /**
+   * Gets cachingLoadedFiles
+   *
+   * @return value of cachingLoadedFiles
+   */
+  public boolean isCachingLoadedFiles() {
+    return cachingLoadedFiles;
+  }
+
+  /**
+   * @param cachingLoadedFiles The cachingLoadedFiles to set
+   */
+  public void setCachingLoadedFiles(boolean cachingLoadedFiles) {
+    this.cachingLoadedFiles = cachingLoadedFiles;
+  }
 }
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.workflow.engines.local;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.extension.ExtensionPoint;
+import org.apache.hop.core.extension.IExtensionPoint;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.xml.XmlDocumentCache;
+import org.apache.hop.workflow.WorkflowMeta;
+
+@ExtensionPoint(
+    id = "WorkflowSavedXp",
+    extensionPointId = "WorkflowAfterSave",
+    description = "Remove a saved workflow from the cache of loaded files")
+public class WorkflowSavedXp implements IExtensionPoint<WorkflowMeta> {
+  @Override
+  public void callExtensionPoint(ILogChannel log, IVariables variables, WorkflowMeta workflowMeta)
+      throws HopException {
+    // The modification time would tell us as well, but not if the file was saved within its
+    // resolution.
+    //
+    XmlDocumentCache.getInstance().invalidate(workflowMeta.getFilename());
+  }
+}
@@ -307,6 +307,14 @@ public class RemoteWorkflowEngine extends Variables implements IWorkflowEngine<W
 
       long serverPollInterval =
           Const.toLong(resolve(remoteWorkflowRunConfiguration.getServerPollInterval()), 500L);
+
+      // Let the server push the changes to us if we can.
+      // We fall back to polling if that doesn't work or if the stream ends too soon.
+      //
+      if (remoteWorkflowRunConfiguration.isStreamingStatus()) {
+        followWorkflowStatusStream(serverPollInterval);
+      }
+
       while (!stopped && !finished) {
         getWorkflowStatus();
         Thread.sleep(serverPollInterval);
@@ -318,47 +326,82 @@ public class RemoteWorkflowEngine extends Variables implements IWorkflowEngine<W
     }
   }
 
+  private void followWorkflowStatusStream(long interval) {
+    try {
+      hopServer.streamWorkflowStatus(
+          this,
+          workflowMeta.getName(),
+          containerId,
+          lastLogLineNr,
+          interval,
+          status -> updateWorkflowStatus(status, true));
+    } catch (Exception e) {
+      logChannel.logDetailed(
+          "Unable to follow the status stream of workflow '"
+              + workflowMeta.getName()
+              + "' on hop server '"
+              + hopServer.getName()
+              + "', polling for the status instead",
+          e);
+    }
+  }
+
   public synchronized void getWorkflowStatus() throws HopException {
     if (containerId == null) {
       // Nothing to look for yet...
       return;
     }
     try {
-      workflowStatus =
-          hopServer.getWorkflowStatus(this, workflowMeta.getName(), containerId, lastLogLineNr);
-      lastLogLineNr = workflowStatus.getLastLoggingLineNr();
-      if (StringUtils.isNotEmpty(workflowStatus.getLoggingString())) {
-        // TODO implement detailed logging and add option to log at all
-        logChannel.logBasic(workflowStatus.getLoggingString());
-      }
-      finished = workflowStatus.isFinished();
-      stopped = workflowStatus.isStopped();
-      running = workflowStatus.isRunning();
-      active = running; // TODO: differentiate
-      statusDescription = workflowStatus.getStatusDescription();
-      result = workflowStatus.getResult();
-
-      this.actionResults.clear();
-      this.activeActions.clear();
-
-      for (ActionStatus actionStatus : workflowStatus.getActionStatusList()) {
-        ActionMeta actionMeta = workflowMeta.findAction(actionStatus.getName());
-
-        if (actionStatus.getStatus() == Status.FINISHED) {
-          ActionResult actionResult = new ActionResult();
-          actionResult.setActionName(actionStatus.getName());
-          actionResult.setResult(actionStatus.getResult());
-          this.actionResults.add(actionResult);
-        } else if (actionStatus.getStatus() == Status.RUNNING) {
-          this.activeActions.add(actionMeta);
-        }
-      }
-
+      updateWorkflowStatus(
+          hopServer.getWorkflowStatus(this, workflowMeta.getName(), containerId, lastLogLineNr),
+          false);
     } catch (Exception e) {
       throw new HopException("Error getting workflow status", e);
     }
   }
 
+  /**
+   * Update the state of this engine with a status received from the server.
+   *
+   * @param status the status of the workflow on the server
+   * @param delta true if the status only contains the actions when they changed
+   */
+  private synchronized void updateWorkflowStatus(HopServerWorkflowStatus status, boolean delta) {
+    if (delta && status.getActionStatusList().isEmpty() && workflowStatus != null) {
+      // Nothing changed in the actions
+      //
+      status.setActionStatusList(workflowStatus.getActionStatusList());
+    }
+    workflowStatus = status;
+    lastLogLineNr = workflowStatus.getLastLoggingLineNr();
+    if (StringUtils.isNotEmpty(workflowStatus.getLoggingString())) {
+      // TODO implement detailed logging and add option to log at all
+      logChannel.logBasic(workflowStatus.getLoggingString());
+    }
+    finished = workflowStatus.isFinished();
+    stopped = workflowStatus.isStopped();
+    running = workflowStatus.isRunning();
+    active = running; // TODO: differentiate
+    statusDescription = workflowStatus.getStatusDescription();
+    result = workflowStatus.getResult();
+
+    this.actionResults.clear();
+    this.activeActions.clear();
+
+    for (ActionStatus actionStatus : workflowStatus.getActionStatusList()) {
+      ActionMeta actionMeta = workflowMeta.findAction(actionStatus.getName());
+
+      if (actionStatus.getStatus() == Status.FINISHED) {
+        ActionResult actionResult = new ActionResult();
+        actionResult.setActionName(actionStatus.getName());
+        actionResult.setResult(actionStatus.getResult());
+        this.actionResults.add(actionResult);
+      } else if (actionStatus.getStatus() == Status.RUNNING) {
+        this.activeActions.add(actionMeta);
+      }
+    }
+  }
+
   @Override
   public void stopExecution() {
     try {
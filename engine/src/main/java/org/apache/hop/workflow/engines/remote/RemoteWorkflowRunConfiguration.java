@@ -73,6 +73,17 @@ public class RemoteWorkflowRunConfiguration extends EmptyWorkflowRunConfiguratio
   @HopMetadataProperty(key = "server_poll_interval")
   protected String serverPollInterval;
 
+  @GuiWidgetElement(
+      order = "45",
+      parentId = WorkflowRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.StreamingStatus.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.workflow.config:WorkflowRunConfigurationDialog.StreamingStatus.ToolTip")
+  @HopMetadataProperty(key = "streaming_status")
+  protected boolean streamingStatus;
+
   @GuiWidgetElement(
       order = "50",
       parentId = WorkflowRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
@@ -116,6 +127,7 @@ public class RemoteWorkflowRunConfiguration extends EmptyWorkflowRunConfiguratio
     this.runConfigurationName = config.runConfigurationName;
     this.serverPollDelay = config.serverPollDelay;
     this.serverPollInterval = config.serverPollInterval;
+    this.streamingStatus = config.streamingStatus;
     this.exportingResources = config.exportingResources;
     this.namedResourcesSourceFolder = config.namedResourcesSourceFolder;
     this.namedResourcesTargetFolder = config.namedResourcesTargetFolder;
@@ -190,6 +202,22 @@ public class RemoteWorkflowRunConfiguration extends EmptyWorkflowRunConfiguratio
     this.serverPollInterval = serverPollInterval;
   }
 
+  /**
+   * Gets streamingStatus
+   *
+   * @return value of streamingStatus
+   */
+  public boolean isStreamingStatus() {
+    return streamingStatus;
+  }
+
+  /**
+   * @param streamingStatus The streamingStatus to set
+   */
+  public void setStreamingStatus(boolean streamingStatus) {
+    this.streamingStatus = streamingStatus;
+  }
+
   /**
    * Gets exportingResources
    *
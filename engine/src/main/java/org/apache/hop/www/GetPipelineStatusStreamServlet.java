@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Serial;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.annotations.HopServerServlet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.HopLogStore;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.EngineComponent.ComponentExecutionStatus;
+import org.apache.hop.pipeline.engine.IEngineComponent;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.transform.TransformStatus;
+
+/**
+ * Streams the status of a pipeline as server-sent events until the pipeline is finished. Every
+ * update is a {@link HopServerPipelineStatus} in XML with only what changed since the previous
+ * update: the state, the transforms with changed counters or status and the new log lines. See
+ * {@link StatusStream}.
+ */
+@HopServerServlet(id = "pipelineStatusStream", name = "Stream the status of a pipeline")
+public class GetPipelineStatusStreamServlet extends BaseHttpServlet implements IHopServerPlugin {
+
+  private static final Class<?> PKG = GetPipelineStatusServlet.class;
+  @Serial private static final long serialVersionUID = -4217402526350148371L;
+
+  public static final String CONTEXT_PATH = "/hop/pipelineStatusStream";
+
+  public GetPipelineStatusStreamServlet() {}
+
+  public GetPipelineStatusStreamServlet(PipelineMap pipelineMap) {
+    super(pipelineMap);
+  }
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response)
+      throws ServletException, IOException {
+
+    if (isJettyMode() && !request.getContextPath().startsWith(CONTEXT_PATH)) {
+      return;
+    }
+
+    String pipelineName = request.getParameter("name");
+    String id = request.getParameter("id");
+    int startLineNr = Const.toInt(request.getParameter("from"), 0);
+    long interval = Const.toLong(request.getParameter("interval"), StatusStream.DEFAULT_INTERVAL);
+    boolean sendResultXmlWithStatus =
+        "Y".equalsIgnoreCase(request.getParameter(GetPipelineStatusServlet.SEND_RESULT));
+
+    // ID is optional...
+    //
+    HopServerObjectEntry entry;
+    if (Utils.isEmpty(id)) {
+      entry = getPipelineMap().getFirstServerObjectEntry(pipelineName);
+    } else {
+      entry = new HopServerObjectEntry(pipelineName, id);
+    }
+    IPipelineEngine<PipelineMeta> pipeline =
+        entry == null ? null : getPipelineMap().getPipeline(entry);
+
+    if (pipeline == null) {
+      sendSafeError(
+          response,
+          HttpServletResponse.SC_NOT_FOUND,
+          BaseMessages.getString(
+              PKG, "PipelineStatusServlet.Log.CoundNotFindSpecPipeline", pipelineName));
+      return;
+    }
+
+    new PipelineStatusStream(
+            log, interval, getPipelineMap(), entry, pipeline, startLineNr, sendResultXmlWithStatus)
+        .start(request, response);
+  }
+
+  public String toString() {
+    return "Pipeline Status Stream IHandler";
+  }
+
+  @Override
+  public String getService() {
+    return CONTEXT_PATH + " (" + this + ")";
+  }
+
+  @Override
+  public String getContextPath() {
+    return CONTEXT_PATH;
+  }
+
+  /** Keeps track of what was sent to the client to only send the changes. */
+  private static final class PipelineStatusStream extends StatusStream {
+    private final PipelineMap pipelineMap;
+    private final HopServerObjectEntry entry;
+    private final IPipelineEngine<PipelineMeta> pipeline;
+    private final boolean sendResultXmlWithStatus;
+
+    private int lastLineNr;
+    private String sentState;
+    private final Map<String, String> sentTransforms = new HashMap<>();
+
+    private PipelineStatusStream(
+        ILogChannel log,
+        long interval,
+        PipelineMap pipelineMap,
+        HopServerObjectEntry entry,
+        IPipelineEngine<PipelineMeta> pipeline,
+        int startLineNr,
+        boolean sendResultXmlWithStatus) {
+      super(log, interval);
+      this.pipelineMap = pipelineMap;
+      this.entry = entry;
+      this.pipeline = pipeline;
+      this.lastLineNr = startLineNr;
+      this.sendResultXmlWithStatus = sendResultXmlWithStatus;
+    }
+
+    @Override
+    protected boolean isComplete() {
+      // Also stop when the pipeline was removed from the server
+      //
+      return pipeline.isFinished() || pipelineMap.getPipeline(entry) != pipeline;
+    }
+
+    @Override
+    protected String getUpdate(boolean complete) throws HopException {
+      HopServerPipelineStatus pipelineStatus =
+          new HopServerPipelineStatus(
+              entry.getName(), entry.getId(), pipeline.getStatusDescription());
+      pipelineStatus.setPaused(pipeline.isPaused());
+      pipelineStatus.setExecutionStartDate(pipeline.getExecutionStartDate());
+      pipelineStatus.setExecutionEndDate(pipeline.getExecutionEndDate());
+
+      String state =
+          pipelineStatus.getStatusDescription()
+              + "|"
+              + pipelineStatus.isPaused()
+              + "|"
+              + pipelineStatus.getExecutionStartDate()
+              + "|"
+              + pipelineStatus.getExecutionEndDate();
+      boolean changed = !state.equals(sentState);
+
+      for (IEngineComponent component : pipeline.getComponents()) {
+        if (component.isRunning()
+            || component.getStatus() != ComponentExecutionStatus.STATUS_EMPTY) {
+          String key = component.getName() + "." + component.getCopyNr();
+          String signature = getSignature(component);
+          if (!signature.equals(sentTransforms.get(key))) {
+            sentTransforms.put(key, signature);
+            pipelineStatus.getTransformStatusList().add(new TransformStatus(component));
+          }
+        }
+      }
+
+      int lastBufferLineNr = HopLogStore.getLastBufferLineNr();
+      String logText = getLogText(lastBufferLineNr);
+
+      if (!changed
+          && !complete
+          && pipelineStatus.getTransformStatusList().isEmpty()
+          && logText.isEmpty()) {
+        return null;
+      }
+
+      pipelineStatus.setFirstLoggingLineNr(lastLineNr);
+      pipelineStatus.setLastLoggingLineNr(lastBufferLineNr);
+      pipelineStatus.setLogDate(new Date());
+      pipelineStatus.setLoggingString(encodeLogText(logText));
+      pipelineStatus.setResult(pipeline.getResult());
+
+      sentState = state;
+      lastLineNr = lastBufferLineNr;
+
+      return pipelineStatus.getXml(sendResultXmlWithStatus);
+    }
+
+    private String getLogText(int lastBufferLineNr) throws HopException {
+      if (pipeline.getLogChannel() == null || lastBufferLineNr <= lastLineNr) {
+        return "";
+      }
+      try {
+        return HopLogStore.getAppender()
+            .getBuffer(
+                pipeline.getLogChannel().getLogChannelId(), false, lastLineNr, lastBufferLineNr)
+            .toString();
+      } catch (OutOfMemoryError error) {
+        throw new HopException("Log string is too long", error);
+      }
+    }
+
+    /** The values of a transform which are sent to the client, to see if anything changed. */
+    private static String getSignature(IEngineComponent component) {
+      return component.getStatusDescription()
+          + "|"
+          + component.getLinesRead()
+          + "|"
+          + component.getLinesWritten()
+          + "|"
+          + component.getLinesInput()
+          + "|"
+          + component.getLinesOutput()
+          + "|"
+          + component.getLinesUpdated()
+          + "|"
+          + component.getLinesRejected()
+          + "|"
+          + component.getErrors()
+          + "|"
+          + component.getInputBufferSize()
+          + "|"
+          + component.getOutputBufferSize();
+    }
+  }
+}
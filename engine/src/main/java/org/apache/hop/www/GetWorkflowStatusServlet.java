@@ -29,6 +29,8 @@ import java.io.PrintWriter;
 import java.io.Serial;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.annotations.HopServerServlet;
 import org.apache.hop.core.exception.HopException;
@@ -136,26 +138,8 @@ public class GetWorkflowStatusServlet extends BaseHttpServlet implements IHopSer
           workflowStatus.setLastLoggingLineNr(lastLineNr);
           workflowStatus.setLogDate(workflow.getExecutionStartDate());
 
-          // Add status of executed actions
-          for (ActionResult actionResult : workflow.getActionResults()) {
-            ActionStatus actionState = new ActionStatus();
-            actionState.setName(actionResult.getActionName());
-            if (actionResult.getResult().isResult()) {
-              actionState.setStatus(Status.FINISHED);
-            } else {
-              actionState.setStatus(Status.STOPPED);
-            }
-            actionState.setResult(actionResult.getResult());
-            workflowStatus.getActionStatusList().add(actionState);
-          }
-
-          // Add status of active actions
-          for (ActionMeta actionMeta : workflow.getActiveActions()) {
-            ActionStatus actionState = new ActionStatus();
-            actionState.setName(actionMeta.getName());
-            actionState.setStatus(Status.RUNNING);
-            workflowStatus.getActionStatusList().add(actionState);
-          }
+          // Add status of executed and active actions
+          workflowStatus.getActionStatusList().addAll(getActionStatusList(workflow));
 
           // The log can be quite large at times, we are going to putIfAbsent a base64 encoding
           // around a compressed
@@ -475,6 +459,36 @@ public class GetWorkflowStatusServlet extends BaseHttpServlet implements IHopSer
     return CONTEXT_PATH;
   }
 
+  /**
+   * @param workflow the workflow to look at
+   * @return the status of the executed actions followed by the status of the active actions
+   */
+  static List<ActionStatus> getActionStatusList(IWorkflowEngine<WorkflowMeta> workflow) {
+    List<ActionStatus> actionStatusList = new ArrayList<>();
+
+    // Add status of executed actions
+    for (ActionResult actionResult : workflow.getActionResults()) {
+      ActionStatus actionState = new ActionStatus();
+      actionState.setName(actionResult.getActionName());
+      if (actionResult.getResult().isResult()) {
+        actionState.setStatus(Status.FINISHED);
+      } else {
+        actionState.setStatus(Status.STOPPED);
+      }
+      actionState.setResult(actionResult.getResult());
+      actionStatusList.add(actionState);
+    }
+
+    // Add status of active actions
+    for (ActionMeta actionMeta : workflow.getActiveActions()) {
+      ActionStatus actionState = new ActionStatus();
+      actionState.setName(actionMeta.getName());
+      actionState.setStatus(Status.RUNNING);
+      actionStatusList.add(actionState);
+    }
+    return actionStatusList;
+  }
+
   private String getLogText(IWorkflowEngine<WorkflowMeta> workflow, int startLineNr, int lastLineNr)
       throws HopException {
     try {
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Serial;
+import java.util.List;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.annotations.HopServerServlet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.HopLogStore;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.workflow.WorkflowMeta;
+import org.apache.hop.workflow.action.ActionStatus;
+import org.apache.hop.workflow.engine.IWorkflowEngine;
+
+/**
+ * Streams the status of a workflow as server-sent events until the workflow is finished. Every
+ * update is a {@link HopServerWorkflowStatus} in XML with only what changed since the previous
+ * update: the state, the new log lines and the list of action statuses when it changed. See {@link
+ * StatusStream}.
+ */
+@HopServerServlet(id = "workflowStatusStream", name = "Stream the status of a workflow")
+public class GetWorkflowStatusStreamServlet extends BaseHttpServlet implements IHopServerPlugin {
+
+  private static final Class<?> PKG = GetWorkflowStatusServlet.class;
+  @Serial private static final long serialVersionUID = 6049627531962875840L;
+
+  public static final String CONTEXT_PATH = "/hop/workflowStatusStream";
+
+  public GetWorkflowStatusStreamServlet() {}
+
+  public GetWorkflowStatusStreamServlet(WorkflowMap workflowMap) {
+    super(workflowMap);
+  }
+
+  @Override
+  public void doGet(HttpServletRequest request, HttpServletResponse response)
+      throws ServletException, IOException {
+
+    if (isJettyMode() && !request.getContextPath().startsWith(CONTEXT_PATH)) {
+      return;
+    }
+
+    String workflowName = request.getParameter("name");
+    String id = request.getParameter("id");
+    int startLineNr = Const.toInt(request.getParameter("from"), 0);
+    long interval = Const.toLong(request.getParameter("interval"), StatusStream.DEFAULT_INTERVAL);
+
+    // ID is optional...
+    //
+    IWorkflowEngine<WorkflowMeta> workflow = null;
+    if (Utils.isEmpty(id)) {
+      HopServerObjectEntry entry = getWorkflowMap().getFirstHopServerObjectEntry(workflowName);
+      if (entry != null) {
+        id = entry.getId();
+        workflow = getWorkflowMap().getWorkflow(entry);
+      }
+    } else {
+      workflow = getWorkflowMap().findWorkflow(id);
+    }
+
+    if (workflow == null) {
+      sendSafeError(
+          response,
+          HttpServletResponse.SC_NOT_FOUND,
+          BaseMessages.getString(
+              PKG, "StartWorkflowServlet.Log.SpecifiedWorkflowNotFound", workflowName, id));
+      return;
+    }
+
+    new WorkflowStatusStream(log, interval, getWorkflowMap(), id, workflow, startLineNr)
+        .start(request, response);
+  }
+
+  public String toString() {
+    return "Workflow Status Stream IHandler";
+  }
+
+  @Override
+  public String getService() {
+    return CONTEXT_PATH + " (" + this + ")";
+  }
+
+  @Override
+  public String getContextPath() {
+    return CONTEXT_PATH;
+  }
+
+  /** Keeps track of what was sent to the client to only send the changes. */
+  private static final class WorkflowStatusStream extends StatusStream {
+    private final WorkflowMap workflowMap;
+    private final String id;
+    private final IWorkflowEngine<WorkflowMeta> workflow;
+
+    private int lastLineNr;
+    private String sentState;
+    private String sentActions;
+
+    private WorkflowStatusStream(
+        ILogChannel log,
+        long interval,
+        WorkflowMap workflowMap,
+        String id,
+        IWorkflowEngine<WorkflowMeta> workflow,
+        int startLineNr) {
+      super(log, interval);
+      this.workflowMap = workflowMap;
+      this.id = id;
+      this.workflow = workflow;
+      this.lastLineNr = startLineNr;
+    }
+
+    @Override
+    protected boolean isComplete() {
+      // Also stop when the workflow was removed from the server
+      //
+      return workflow.isFinished() || workflowMap.findWorkflow(id) != workflow;
+    }
+
+    @Override
+    protected String getUpdate(boolean complete) throws HopException {
+      HopServerWorkflowStatus workflowStatus =
+          new HopServerWorkflowStatus(
+              workflow.getWorkflowName(), id, workflow.getStatusDescription());
+      workflowStatus.setLogDate(workflow.getExecutionStartDate());
+
+      String state = workflowStatus.getStatusDescription();
+      boolean changed = !state.equals(sentState);
+
+      List<ActionStatus> actionStatusList = GetWorkflowStatusServlet.getActionStatusList(workflow);
+      StringBuilder actions = new StringBuilder();
+      for (ActionStatus actionStatus : actionStatusList) {
+        actions.append(actionStatus.getName()).append('|').append(actionStatus.getStatus());
+        actions.append('\n');
+      }
+      boolean actionsChanged = !actions.toString().equals(sentActions);
+      if (actionsChanged) {
+        workflowStatus.getActionStatusList().addAll(actionStatusList);
+      }
+
+      int lastBufferLineNr = HopLogStore.getLastBufferLineNr();
+      String logText = getLogText(lastBufferLineNr);
+
+      if (!changed && !complete && !actionsChanged && logText.isEmpty()) {
+        return null;
+      }
+
+      workflowStatus.setFirstLoggingLineNr(lastLineNr);
+      workflowStatus.setLastLoggingLineNr(lastBufferLineNr);
+      workflowStatus.setLoggingString(encodeLogText(logText));
+      workflowStatus.setResult(workflow.getResult());
+
+      sentState = state;
+      sentActions = actions.toString();
+      lastLineNr = lastBufferLineNr;
+
+      return workflowStatus.getXml();
+    }
+
+    private String getLogText(int lastBufferLineNr) throws HopException {
+      if (workflow.getLogChannel() == null || lastBufferLineNr <= lastLineNr) {
+        return "";
+      }
+      try {
+        return HopLogStore.getAppender()
+            .getBuffer(
+                workflow.getLogChannel().getLogChannelId(), false, lastLineNr, lastBufferLineNr)
+            .toString();
+      } catch (OutOfMemoryError error) {
+        throw new HopException("Log string is too long", error);
+      }
+    }
+  }
+}
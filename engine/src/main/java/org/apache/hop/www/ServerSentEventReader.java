@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/** Reads the server-sent events written by a {@link ServerSentEventWriter}. */
+public class ServerSentEventReader implements Closeable {
+
+  /** The name of an event which doesn't specify one. */
+  public static final String DEFAULT_EVENT_NAME = "message";
+
+  /**
+   * An event sent by the server.
+   *
+   * @param name the name of the event
+   * @param data the data of the event, the lines separated by a newline
+   */
+  public record Event(String name, String data) {}
+
+  private final BufferedReader reader;
+
+  public ServerSentEventReader(InputStream inputStream) {
+    this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Wait for the next event. Comments are skipped.
+   *
+   * @return the next event or null at the end of the stream
+   * @throws IOException in case the stream can't be read
+   */
+  public Event readEvent() throws IOException {
+    String name = null;
+    StringBuilder data = null;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.isEmpty()) {
+        // An empty line dispatches the event, if there is one
+        //
+        if (name != null || data != null) {
+          return new Event(
+              name == null ? DEFAULT_EVENT_NAME : name, data == null ? "" : data.toString());
+        }
+        continue;
+      }
+      if (line.startsWith(":")) {
+        continue;
+      }
+      int colon = line.indexOf(':');
+      String field = colon < 0 ? line : line.substring(0, colon);
+      String value = colon < 0 ? "" : line.substring(colon + 1);
+      if (value.startsWith(" ")) {
+        value = value.substring(1);
+      }
+      if ("event".equals(field)) {
+        name = value;
+      } else if ("data".equals(field)) {
+        if (data == null) {
+          data = new StringBuilder();
+        } else {
+          data.append('\n');
+        }
+        data.append(value);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes server-sent events to the output stream of an HTTP response. Every event has a name and
+ * data which can span several lines. Comments are ignored by the clients but keep the connection
+ * alive.
+ */
+public class ServerSentEventWriter {
+  public static final String CONTENT_TYPE = "text/event-stream";
+
+  private final OutputStream outputStream;
+
+  public ServerSentEventWriter(OutputStream outputStream) {
+    this.outputStream = outputStream;
+  }
+
+  /**
+   * Send an event and flush it to the client.
+   *
+   * @param name the name of the event
+   * @param data the data of the event
+   * @throws IOException in case the client can't be reached anymore
+   */
+  public synchronized void sendEvent(String name, String data) throws IOException {
+    StringBuilder event = new StringBuilder();
+    event.append("event: ").append(name).append('\n');
+    for (String line : data.split("\\r?\\n", -1)) {
+      event.append("data: ").append(line).append('\n');
+    }
+    event.append('\n');
+    write(event.toString());
+  }
+
+  /**
+   * Send a comment and flush it to the client.
+   *
+   * @param comment the comment to send
+   * @throws IOException in case the client can't be reached anymore
+   */
+  public synchronized void sendComment(String comment) throws IOException {
+    write(": " + comment + "\n\n");
+  }
+
+  private void write(String text) throws IOException {
+    outputStream.write(text.getBytes(StandardCharsets.UTF_8));
+    outputStream.flush();
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.server.HttpUtil;
+
+/**
+ * Pushes the status updates of an execution to a client as server-sent events, until the execution
+ * is complete. Only what changed since the previous update is sent.
+ *
+ * <ul>
+ *   <li>A {@link #EVENT_STATUS} event carries an update, the first one has the complete status.
+ *   <li>A {@link #EVENT_END} event is sent after the last update.
+ *   <li>When nothing changes for a while a comment is sent to keep the connection alive.
+ * </ul>
+ *
+ * <p>When the servlet container supports it, the request is handled asynchronously: the updates of
+ * all streams are computed and sent by a small shared pool of threads instead of holding on to a
+ * request thread per stream.
+ */
+public abstract class StatusStream implements Runnable {
+  public static final String EVENT_STATUS = "status";
+  public static final String EVENT_END = "end";
+
+  public static final long DEFAULT_INTERVAL = 1000L;
+  public static final long MIN_INTERVAL = 100L;
+
+  /** How long to wait before sending a comment when nothing changed. */
+  public static final long KEEP_ALIVE_INTERVAL = 10000L;
+
+  private static ScheduledExecutorService scheduler;
+
+  protected final ILogChannel log;
+  private final long interval;
+
+  private ServerSentEventWriter writer;
+  private AsyncContext asyncContext;
+  private volatile ScheduledFuture<?> future;
+  private long lastEventTime;
+
+  /**
+   * @param log the log channel to report problems to
+   * @param interval the time between updates in milliseconds
+   */
+  protected StatusStream(ILogChannel log, long interval) {
+    this.log = log;
+    this.interval = Math.max(MIN_INTERVAL, interval);
+  }
+
+  /**
+   * @return true if the execution is complete and no more updates will follow
+   */
+  protected abstract boolean isComplete();
+
+  /**
+   * Get the changes since the previous update.
+   *
+   * @param complete true if this is the last update
+   * @return the update to send or null if nothing changed
+   * @throws HopException in case the update can't be built
+   */
+  protected abstract String getUpdate(boolean complete) throws HopException;
+
+  /**
+   * Start sending the updates to the client. The first update is sent right away.
+   *
+   * @param request the request of the client
+   * @param response the response to write the events to
+   * @throws IOException in case the response can't be written to
+   */
+  public void start(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(ServerSentEventWriter.CONTENT_TYPE + ";charset=UTF-8");
+    response.setHeader("Cache-Control", "no-cache");
+    writer = new ServerSentEventWriter(response.getOutputStream());
+
+    if (!update()) {
+      return;
+    }
+
+    if (request.isAsyncSupported()) {
+      asyncContext = request.startAsync();
+      asyncContext.setTimeout(0);
+      future =
+          getScheduler().scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
+    } else {
+      // Keep the request thread until the execution is complete
+      //
+      try {
+        do {
+          Thread.sleep(interval);
+        } while (update());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    if (!update()) {
+      ScheduledFuture<?> scheduled = future;
+      if (scheduled != null) {
+        scheduled.cancel(false);
+      }
+      asyncContext.complete();
+    }
+  }
+
+  /**
+   * Send the changes to the client.
+   *
+   * @return true if more updates are to follow
+   */
+  private boolean update() {
+    try {
+      // Check before getting the update so that the last update has the final state
+      //
+      boolean complete = isComplete();
+      String update = getUpdate(complete);
+      long now = System.currentTimeMillis();
+      if (update != null) {
+        writer.sendEvent(EVENT_STATUS, update);
+        lastEventTime = now;
+      } else if (now - lastEventTime >= KEEP_ALIVE_INTERVAL) {
+        writer.sendComment("keep-alive");
+        lastEventTime = now;
+      }
+      if (complete) {
+        writer.sendEvent(EVENT_END, "");
+      }
+      return !complete;
+    } catch (IOException e) {
+      // The client went away
+      //
+      if (log.isDebug()) {
+        log.logDebug("Status stream closed by the client: " + e.getMessage());
+      }
+      return false;
+    } catch (Exception e) {
+      log.logError("Error sending a status update", e);
+      return false;
+    }
+  }
+
+  /**
+   * Compress and encode log text the way the status servlets send it.
+   *
+   * @param logText the log text to send
+   * @return the encoded log text
+   * @throws HopException in case the log text can't be encoded
+   */
+  protected static String encodeLogText(String logText) throws HopException {
+    try {
+      return HttpUtil.encodeBase64ZippedString(logText);
+    } catch (IOException e) {
+      throw new HopException("Unable to encode the log text", e);
+    }
+  }
+
+  private static synchronized ScheduledExecutorService getScheduler() {
+    if (scheduler == null) {
+      scheduler =
+          Executors.newScheduledThreadPool(
+              Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
+              runnable -> {
+                Thread thread = new Thread(runnable, "Hop server status stream");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return scheduler;
+  }
+}
@@ -289,6 +289,8 @@ public class WebServer {
       servletContext.setAllowNullPathInContext(true);
       contexts.addHandler(servletContext);
       ServletHolder servletHolder = new ServletHolder((Servlet) servlet);
+      // The status streams keep sending updates after the request thread is given back
+      servletHolder.setAsyncSupported(true);
       servletContext.addServlet(servletHolder, "/*");
       servletContext.setAttribute("GraphicsEnvironment", graphicsEnvironment);
     }
@@ -18,7 +18,9 @@
 package org.apache.hop.pipeline;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -27,17 +29,28 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopRuntimeException;
 import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
 import org.apache.hop.pipeline.transform.ITransform;
 import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformScheduler;
+import org.apache.hop.pipeline.transforms.dummy.Dummy;
+import org.apache.hop.pipeline.transforms.dummy.DummyData;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -339,4 +352,230 @@ class PipelineTest {
         "Original value defined at run execution",
         pipelineTest.getVariable(Const.INTERNAL_VARIABLE_ENTRY_CURRENT_FOLDER));
   }
+
+  @Test
+  void testTransformsRunOnVirtualThreads() throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    TransformMeta injector = new TransformMeta("injector", new InjectorMeta());
+    TransformMeta dummy = new TransformMeta("dummy", new DummyMeta());
+    dummy.setCopies(2);
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(dummy);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, dummy));
+
+    LocalPipelineEngine virtualPipeline = new LocalPipelineEngine(pipelineMeta);
+    virtualPipeline.setLogChannel(Mockito.mock(ILogChannel.class));
+    LocalPipelineRunConfiguration runConfiguration =
+        (LocalPipelineRunConfiguration)
+            virtualPipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+    runConfiguration.setTransformThreadType(TransformThreadType.Virtual.name());
+    virtualPipeline.prepareExecution();
+
+    AtomicBoolean allVirtual = new AtomicBoolean(true);
+    virtualPipeline
+        .getTransform("dummy", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                if (!Thread.currentThread().isVirtual()) {
+                  allVirtual.set(false);
+                }
+              }
+            });
+
+    RowProducer producer = virtualPipeline.addRowProducer("injector", 0);
+    virtualPipeline.startThreads();
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long i = 0; i < 1000; i++) {
+      producer.putRow(rowMeta, new Object[] {i});
+    }
+    producer.finished();
+    virtualPipeline.waitUntilFinished();
+
+    assertEquals(0, virtualPipeline.getErrors());
+    assertTrue(allVirtual.get());
+    long written = 0;
+    for (int copy = 0; copy < 2; copy++) {
+      written += virtualPipeline.getTransform("dummy", copy).getLinesWritten();
+    }
+    assertEquals(1000, written);
+  }
+
+  @Test
+  void testScheduledTransformsWithSmallRowSets() throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    TransformMeta injector = new TransformMeta("injector", new InjectorMeta());
+    TransformMeta dummy = new TransformMeta("dummy", new DummyMeta());
+    dummy.setCopies(2);
+    TransformMeta last = new TransformMeta("last", new DummyMeta());
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(dummy);
+    pipelineMeta.addTransform(last);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, dummy));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(dummy, last));
+
+    LocalPipelineEngine scheduledPipeline = new LocalPipelineEngine(pipelineMeta);
+    scheduledPipeline.setLogChannel(Mockito.mock(ILogChannel.class));
+    LocalPipelineRunConfiguration runConfiguration =
+        (LocalPipelineRunConfiguration)
+            scheduledPipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+    runConfiguration.setTransformThreadType(TransformThreadType.Scheduled.name());
+    runConfiguration.setRowSetSize("10");
+    scheduledPipeline.prepareExecution();
+
+    AtomicBoolean allScheduled = new AtomicBoolean(true);
+    scheduledPipeline
+        .getTransform("last", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                if (!TransformScheduler.isWorkerThread()) {
+                  allScheduled.set(false);
+                }
+              }
+            });
+
+    RowProducer producer = scheduledPipeline.addRowProducer("injector", 0);
+    scheduledPipeline.startThreads();
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long i = 0; i < 10_000; i++) {
+      producer.putRow(rowMeta, new Object[] {i});
+    }
+    producer.finished();
+    scheduledPipeline.waitUntilFinished();
+
+    assertEquals(0, scheduledPipeline.getErrors());
+    assertTrue(allScheduled.get());
+    assertEquals(10_000, scheduledPipeline.getTransform("last", 0).getLinesWritten());
+    assertEquals(Pipeline.STRING_FINISHED, scheduledPipeline.getStatusDescription());
+  }
+
+  @Test
+  void testBlockingTransformsRunOnOwnThreadWhenScheduled() throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    TransformMeta injector = new TransformMeta("injector", new InjectorMeta());
+    TransformMeta dummy = new TransformMeta("dummy", new DummyMeta());
+    TransformMeta blocking =
+        new TransformMeta(
+            "blocking",
+            new DummyMeta() {
+              @Override
+              public ITransform createTransform(
+                  TransformMeta transformMeta,
+                  ITransformData data,
+                  int copyNr,
+                  PipelineMeta pipelineMeta,
+                  Pipeline pipeline) {
+                return new Dummy(
+                    transformMeta, this, (DummyData) data, copyNr, pipelineMeta, pipeline);
+              }
+
+              @Override
+              public boolean supportsScheduledExecution() {
+                return false;
+              }
+            });
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(dummy);
+    pipelineMeta.addTransform(blocking);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, dummy));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(dummy, blocking));
+
+    LocalPipelineEngine scheduledPipeline = new LocalPipelineEngine(pipelineMeta);
+    scheduledPipeline.setLogChannel(Mockito.mock(ILogChannel.class));
+    LocalPipelineRunConfiguration runConfiguration =
+        (LocalPipelineRunConfiguration)
+            scheduledPipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+    runConfiguration.setTransformThreadType(TransformThreadType.Scheduled.name());
+    scheduledPipeline.prepareExecution();
+
+    AtomicBoolean dummyScheduled = new AtomicBoolean(true);
+    AtomicBoolean blockingScheduled = new AtomicBoolean(false);
+    scheduledPipeline
+        .getTransform("dummy", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                if (!TransformScheduler.isWorkerThread()) {
+                  dummyScheduled.set(false);
+                }
+              }
+            });
+    scheduledPipeline
+        .getTransform("blocking", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                if (TransformScheduler.isWorkerThread()) {
+                  blockingScheduled.set(true);
+                }
+              }
+            });
+
+    RowProducer producer = scheduledPipeline.addRowProducer("injector", 0);
+    scheduledPipeline.startThreads();
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long i = 0; i < 1000; i++) {
+      producer.putRow(rowMeta, new Object[] {i});
+    }
+    producer.finished();
+    scheduledPipeline.waitUntilFinished();
+
+    assertEquals(0, scheduledPipeline.getErrors());
+    assertTrue(dummyScheduled.get());
+    assertFalse(blockingScheduled.get());
+    assertEquals(1000, scheduledPipeline.getTransform("blocking", 0).getLinesWritten());
+  }
+
+  @Test
+  void testScheduledTransformsStopRescanWhenFinished() throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    TransformMeta injector = new TransformMeta("injector", new InjectorMeta());
+    TransformMeta dummy = new TransformMeta("dummy", new DummyMeta());
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(dummy);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, dummy));
+
+    // The rescan thread is started again by the next pipeline after it's shut down
+    //
+    for (int run = 0; run < 2; run++) {
+      LocalPipelineEngine scheduledPipeline = new LocalPipelineEngine(pipelineMeta);
+      scheduledPipeline.setLogChannel(Mockito.mock(ILogChannel.class));
+      LocalPipelineRunConfiguration runConfiguration =
+          (LocalPipelineRunConfiguration)
+              scheduledPipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+      runConfiguration.setTransformThreadType(TransformThreadType.Scheduled.name());
+      scheduledPipeline.prepareExecution();
+
+      RowProducer producer = scheduledPipeline.addRowProducer("injector", 0);
+      scheduledPipeline.startThreads();
+      assertTrue(isRescanThreadAlive());
+      IRowMeta rowMeta = new RowMeta();
+      rowMeta.addValueMeta(new ValueMetaInteger("id"));
+      for (long i = 0; i < 100; i++) {
+        producer.putRow(rowMeta, new Object[] {i});
+      }
+      producer.finished();
+      scheduledPipeline.waitUntilFinished();
+
+      assertEquals(100, scheduledPipeline.getTransform("dummy", 0).getLinesWritten());
+      long deadline = System.currentTimeMillis() + 5_000L;
+      while (isRescanThreadAlive() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertFalse(isRescanThreadAlive());
+    }
+  }
+
+  private static boolean isRescanThreadAlive() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .anyMatch(thread -> thread.isAlive() && "Hop transform scheduler".equals(thread.getName()));
+  }
 }
@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transform;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -471,4 +472,69 @@ class BaseTransformTest {
     verify(mockHelper.pipelineMeta, times(1))
         .checkRowMixingStatically(any(IVariables.class), any(TransformMeta.class), eq(null));
   }
+
+  @Test
+  void testStatusCountersAreNotLostUnderConcurrency() throws Exception {
+    final BaseTransform<ITransformMeta, ITransformData> transform =
+        new BaseTransform<>(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+
+    final int nrThreads = 4;
+    final int nrIncrements = 10_000;
+    Thread[] threads = new Thread[nrThreads];
+    for (int t = 0; t < nrThreads; t++) {
+      threads[t] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < nrIncrements; i++) {
+                  transform.incrementLinesRead();
+                  transform.incrementLinesWritten();
+                }
+                transform.addLinesOutput(nrIncrements);
+              });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals((long) nrThreads * nrIncrements, transform.getLinesRead());
+    assertEquals((long) nrThreads * nrIncrements, transform.getLinesWritten());
+    assertEquals((long) nrThreads * nrIncrements, transform.getLinesOutput());
+  }
+
+  @Test
+  void testBulkIncrementStatusCounters() {
+    BaseTransform<ITransformMeta, ITransformData> transform =
+        new BaseTransform<>(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+
+    assertEquals(10L, transform.addLinesRead(10));
+    assertEquals(11L, transform.incrementLinesRead());
+    assertEquals(5L, transform.addLinesInput(5));
+    assertEquals(6L, transform.addLinesOutput(6));
+    assertEquals(7L, transform.addLinesWritten(7));
+    assertEquals(8L, transform.addLinesUpdated(8));
+    assertEquals(9L, transform.addLinesSkipped(9));
+    assertEquals(3L, transform.addLinesRejected(3));
+
+    transform.setLinesRead(0);
+    assertEquals(0L, transform.getLinesRead());
+    assertEquals(5L, transform.getLinesInput());
+    assertEquals(6L, transform.getLinesOutput());
+    assertEquals(7L, transform.getLinesWritten());
+    assertEquals(8L, transform.getLinesUpdated());
+    assertEquals(9L, transform.getLinesSkipped());
+    assertEquals(3L, transform.getLinesRejected());
+  }
 }
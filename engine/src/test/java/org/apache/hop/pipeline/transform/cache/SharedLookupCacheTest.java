@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.jupiter.api.Test;
+
+class SharedLookupCacheTest {
+
+  private static RowMetaAndData key(long id) {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    return new RowMetaAndData(rowMeta, id);
+  }
+
+  @Test
+  void testRegionsAreShared() {
+    SharedLookupCache cache = new SharedLookupCache(1024L * 1024L);
+    SharedLookupCache.Region region = cache.getRegion("db", "SELECT name FROM t", "id", 0L);
+
+    assertSame(region, cache.getRegion("db", "SELECT name FROM t", "id", 0L));
+    assertNotSame(region, cache.getRegion("other", "SELECT name FROM t", "id", 0L));
+
+    assertNull(region.get(key(1L)));
+    region.put(key(1L), new Object[] {"one"});
+    assertArrayEquals(new Object[] {"one"}, region.get(key(1L)));
+
+    assertEquals(1L, region.getHits());
+    assertEquals(1L, region.getMisses());
+    assertEquals(1, cache.getNrRows());
+    assertTrue(cache.getSize() > 0);
+  }
+
+  @Test
+  void testLeastRecentlyUsedRowsAreEvicted() {
+    // 16 segments of 1kB, a row takes a little more than 128 bytes
+    //
+    SharedLookupCache cache = new SharedLookupCache(16L * 1024L);
+    SharedLookupCache.Region region = cache.getRegion("db", "sql", "id", 0L);
+
+    int nrEvicted = 0;
+    for (long id = 0; id < 1000; id++) {
+      nrEvicted += region.put(key(id), new Object[] {id});
+      region.get(key(0L)); // keep this one in use
+    }
+
+    assertTrue(nrEvicted > 0);
+    assertEquals(nrEvicted, region.getEvictions());
+    assertTrue(cache.getSize() <= cache.getMaxSize());
+    assertArrayEquals(new Object[] {0L}, region.get(key(0L)));
+    assertNull(region.get(key(1L)));
+  }
+
+  @Test
+  void testRowTooLargeLeavesRegionIncomplete() throws Exception {
+    // 16 segments of 1kB
+    //
+    SharedLookupCache cache = new SharedLookupCache(16L * 1024L);
+    SharedLookupCache.Region region = cache.getRegion("db", "sql", "id", 0L);
+
+    region.load(
+        r -> {
+          r.put(key(1L), new Object[] {"one"});
+          r.put(key(2L), new Object[] {"x".repeat(2000)});
+        });
+
+    assertFalse(region.isComplete());
+    assertArrayEquals(new Object[] {"one"}, region.get(key(1L)));
+    assertNull(region.get(key(2L)));
+  }
+
+  @Test
+  void testInvalidateDuringLoadLeavesRegionIncomplete() throws Exception {
+    SharedLookupCache cache = new SharedLookupCache(1024L * 1024L);
+    SharedLookupCache.Region region = cache.getRegion("db", "sql", "id", 0L);
+
+    region.load(
+        r -> {
+          r.put(key(1L), new Object[] {"one"});
+          cache.invalidate("db");
+          r.put(key(2L), new Object[] {"two"});
+        });
+
+    assertFalse(region.isComplete());
+    assertNull(region.get(key(1L)));
+
+    // A new region is loaded again
+    //
+    SharedLookupCache.Region newRegion = cache.getRegion("db", "sql", "id", 0L);
+    assertNotSame(region, newRegion);
+    newRegion.load(r -> r.put(key(1L), new Object[] {"one"}));
+    assertTrue(newRegion.isComplete());
+  }
+
+  @Test
+  void testRowsExpire() throws Exception {
+    SharedLookupCache cache = new SharedLookupCache(1024L * 1024L);
+    SharedLookupCache.Region region = cache.getRegion("db", "sql", "id", 10L);
+
+    region.put(key(1L), new Object[] {"one"});
+    Thread.sleep(20L);
+
+    assertNull(region.get(key(1L)));
+    assertEquals(1L, region.getEvictions());
+    assertEquals(0, cache.getNrRows());
+  }
+
+  @Test
+  void testLoadOnceAndInvalidate() throws Exception {
+    SharedLookupCache cache = new SharedLookupCache(1024L * 1024L);
+    SharedLookupCache.Region region = cache.getRegion("db", "sql", "id", 0L);
+    AtomicInteger nrLoads = new AtomicInteger();
+    SharedLookupCache.ILoader loader =
+        r -> {
+          nrLoads.incrementAndGet();
+          for (long id = 0; id < 10; id++) {
+            r.put(key(id), new Object[] {id});
+          }
+        };
+
+    assertFalse(region.isComplete());
+    region.load(loader);
+    region.load(loader);
+    assertEquals(1, nrLoads.get());
+    assertTrue(region.isComplete());
+
+    cache.invalidate("db");
+    assertFalse(region.isComplete());
+    assertEquals(0, cache.getNrRows());
+    assertNotSame(region, cache.getRegion("db", "sql", "id", 0L));
+  }
+}
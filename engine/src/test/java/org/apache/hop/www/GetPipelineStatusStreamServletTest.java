@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.www;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import org.apache.hop.core.Result;
+import org.apache.hop.core.logging.HopLogStore;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.EngineComponent.ComponentExecutionStatus;
+import org.apache.hop.pipeline.engine.IEngineComponent;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GetPipelineStatusStreamServletTest {
+  private PipelineMap mockPipelineMap;
+
+  private GetPipelineStatusStreamServlet servlet;
+
+  @BeforeEach
+  void setup() {
+    HopLogStore.init();
+    mockPipelineMap = mock(PipelineMap.class);
+    servlet = new GetPipelineStatusStreamServlet(mockPipelineMap);
+  }
+
+  @Test
+  void testPipelineNotFound() throws Exception {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    when(request.getContextPath()).thenReturn(GetPipelineStatusStreamServlet.CONTEXT_PATH);
+    when(request.getParameter("name")).thenReturn("unknown");
+    when(request.getParameter("id")).thenReturn("123");
+
+    servlet.doGet(request, response);
+
+    verify(response).sendError(anyInt(), anyString());
+  }
+
+  @Test
+  void testStreamFinishedPipeline() throws Exception {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    when(request.getContextPath()).thenReturn(GetPipelineStatusStreamServlet.CONTEXT_PATH);
+    when(request.getParameter("name")).thenReturn("test");
+    when(request.getParameter("id")).thenReturn("123");
+    when(request.getParameter("interval")).thenReturn("100");
+    when(request.isAsyncSupported()).thenReturn(false);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    when(response.getOutputStream()).thenReturn(new TestOutputStream(out));
+
+    IEngineComponent component = mock(IEngineComponent.class);
+    when(component.getName()).thenReturn("input");
+    when(component.getCopyNr()).thenReturn(0);
+    when(component.getStatus()).thenReturn(ComponentExecutionStatus.STATUS_FINISHED);
+    when(component.getStatusDescription())
+        .thenReturn(ComponentExecutionStatus.STATUS_FINISHED.getDescription());
+    when(component.getLinesWritten()).thenReturn(42L);
+
+    ILogChannel logChannel = mock(ILogChannel.class);
+    when(logChannel.getLogChannelId()).thenReturn("channel");
+
+    @SuppressWarnings("unchecked")
+    IPipelineEngine<PipelineMeta> pipeline = mock(IPipelineEngine.class);
+    when(pipeline.isFinished()).thenReturn(true);
+    when(pipeline.getStatusDescription()).thenReturn(Pipeline.STRING_FINISHED);
+    when(pipeline.getComponents()).thenReturn(List.of(component));
+    when(pipeline.getLogChannel()).thenReturn(logChannel);
+    when(pipeline.getResult()).thenReturn(new Result());
+    when(mockPipelineMap.getPipeline(any(HopServerObjectEntry.class))).thenReturn(pipeline);
+
+    servlet.doGet(request, response);
+
+    verify(response).setContentType(ServerSentEventWriter.CONTENT_TYPE + ";charset=UTF-8");
+
+    try (ServerSentEventReader reader =
+        new ServerSentEventReader(new ByteArrayInputStream(out.toByteArray()))) {
+      ServerSentEventReader.Event event = reader.readEvent();
+      assertNotNull(event);
+      assertEquals(StatusStream.EVENT_STATUS, event.name());
+
+      HopServerPipelineStatus status = HopServerPipelineStatus.fromXml(event.data());
+      assertTrue(status.isFinished());
+      assertEquals(1, status.getTransformStatusList().size());
+      assertEquals("input", status.getTransformStatusList().get(0).getTransformName());
+      assertEquals(42L, status.getTransformStatusList().get(0).getLinesWritten());
+
+      event = reader.readEvent();
+      assertNotNull(event);
+      assertEquals(StatusStream.EVENT_END, event.name());
+      assertNull(reader.readEvent());
+    }
+  }
+
+  private static final class TestOutputStream extends ServletOutputStream {
+    private final ByteArrayOutputStream out;
+
+    private TestOutputStream(ByteArrayOutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void write(int b) {
+      out.write(b);
+    }
+
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      // Not used
+    }
+  }
+}
@@ -0,0 +1,446 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.coders.CustomCoder;
+import org.apache.beam.sdk.util.VarInt;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaAvroRecord;
+
+/**
+ * A compact coder for rows of which the layout is known when the Beam pipeline is built. Instead of
+ * Java serialization it writes a bitmap of the null values followed by the values in a binary form
+ * which depends on their type: variable length integers, length prefixed strings and so on.
+ *
+ * <p>Rows which don't match the layout, for example because a value has a different class, are
+ * written with a type tag in front of every value. That way every row can be encoded.
+ *
+ * <p>The encoding is deterministic for all data types except Avro records. Use {@link
+ * #keyCoder(IRowMeta)} to encode the keys of a GroupByKey.
+ */
+public class HopRowSchemaCoder extends CustomCoder<HopRow> {
+
+  private static final int NULL_ROW = 0;
+  private static final int TAGGED_ROW = 1;
+  private static final int SCHEMA_ROW = 2;
+
+  /** The data types of the values in the rows, Hop IValueMeta.TYPE_* constants. */
+  private final int[] valueTypes;
+
+  private HopRowSchemaCoder(int[] valueTypes) {
+    this.valueTypes = valueTypes;
+  }
+
+  /**
+   * Create a coder for rows with the given layout.
+   *
+   * @param rowMeta the layout of the rows
+   * @return a new coder
+   */
+  public static HopRowSchemaCoder of(IRowMeta rowMeta) {
+    int[] valueTypes = new int[rowMeta.size()];
+    for (int i = 0; i < valueTypes.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(i);
+      // Lazy conversion passes the original bytes along
+      //
+      valueTypes[i] =
+          valueMeta.isStorageBinaryString() ? IValueMeta.TYPE_BINARY : valueMeta.getType();
+    }
+    return new HopRowSchemaCoder(valueTypes);
+  }
+
+  /**
+   * Create a coder for the keys of a GroupByKey or join with the given layout. Keys with an Avro
+   * record value fall back to the generic {@link HopRowCoder} since this coder doesn't encode them
+   * deterministically.
+   *
+   * @param rowMeta the layout of the keys
+   * @return a new coder
+   */
+  public static Coder<HopRow> keyCoder(IRowMeta rowMeta) {
+    for (IValueMeta valueMeta : rowMeta.getValueMetaList()) {
+      if (valueMeta.getType() == IValueMeta.TYPE_AVRO) {
+        return new HopRowCoder();
+      }
+    }
+    return of(rowMeta);
+  }
+
+  @Override
+  public void encode(HopRow hopRow, OutputStream out) throws IOException {
+    Object[] row = hopRow.getRow();
+    if (row == null) {
+      VarInt.encode(NULL_ROW, out);
+      return;
+    }
+    int length = hopRow.length();
+    if (matchesSchema(row, length)) {
+      VarInt.encode(SCHEMA_ROW, out);
+      writeNullBitmap(out, row, length);
+      for (int i = 0; i < length; i++) {
+        if (row[i] != null) {
+          writeValue(out, valueTypes[i], row[i]);
+        }
+      }
+    } else {
+      VarInt.encode(TAGGED_ROW, out);
+      VarInt.encode(length, out);
+      writeNullBitmap(out, row, length);
+      for (int i = 0; i < length; i++) {
+        if (row[i] != null) {
+          int objectType = getObjectType(row[i]);
+          out.write(objectType);
+          writeValue(out, objectType, row[i]);
+        }
+      }
+    }
+  }
+
+  @Override
+  public HopRow decode(InputStream in) throws IOException {
+    int format = VarInt.decodeInt(in);
+    switch (format) {
+      case NULL_ROW:
+        return new HopRow();
+      case SCHEMA_ROW:
+        {
+          int length = valueTypes.length;
+          Object[] row = new Object[length];
+          byte[] nullBitmap = readNullBitmap(in, length);
+          for (int i = 0; i < length; i++) {
+            if (!isNull(nullBitmap, i)) {
+              row[i] = readValue(in, valueTypes[i]);
+            }
+          }
+          return new HopRow(row, length);
+        }
+      case TAGGED_ROW:
+        {
+          int length = VarInt.decodeInt(in);
+          Object[] row = new Object[length];
+          byte[] nullBitmap = readNullBitmap(in, length);
+          for (int i = 0; i < length; i++) {
+            if (!isNull(nullBitmap, i)) {
+              row[i] = readValue(in, readByte(in));
+            }
+          }
+          return new HopRow(row, length);
+        }
+      default:
+        throw new CoderException("Unknown row format: " + format);
+    }
+  }
+
+  @Override
+  public void verifyDeterministic() throws NonDeterministicException {
+    for (int valueType : valueTypes) {
+      if (valueType == IValueMeta.TYPE_AVRO) {
+        throw new NonDeterministicException(
+            this, "The binary encoding of Avro records isn't guaranteed to be deterministic");
+      }
+    }
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof HopRowSchemaCoder otherCoder)) {
+      return false;
+    }
+    return Arrays.equals(valueTypes, otherCoder.valueTypes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(valueTypes);
+  }
+
+  @Override
+  public String toString() {
+    return "HopRowSchemaCoder" + Arrays.toString(valueTypes);
+  }
+
+  /**
+   * @return true if all the values in the row have the class we expect from the layout
+   */
+  private boolean matchesSchema(Object[] row, int length) {
+    if (length != valueTypes.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      Object object = row[i];
+      if (object != null && !isOfType(object, valueTypes[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isOfType(Object object, int valueType) {
+    return switch (valueType) {
+      case IValueMeta.TYPE_STRING -> object instanceof String;
+      case IValueMeta.TYPE_INTEGER -> object instanceof Long;
+      case IValueMeta.TYPE_NUMBER -> object instanceof Double;
+      case IValueMeta.TYPE_TIMESTAMP -> object instanceof Timestamp;
+      case IValueMeta.TYPE_DATE -> object.getClass() == Date.class;
+      case IValueMeta.TYPE_BOOLEAN -> object instanceof Boolean;
+      case IValueMeta.TYPE_BIGNUMBER -> object instanceof BigDecimal;
+      case IValueMeta.TYPE_BINARY -> object instanceof byte[];
+      case IValueMeta.TYPE_INET -> object instanceof InetAddress;
+      case IValueMeta.TYPE_AVRO -> object instanceof GenericRecord;
+      default -> false;
+    };
+  }
+
+  private static int getObjectType(Object object) throws CoderException {
+    if (object instanceof String) {
+      return IValueMeta.TYPE_STRING;
+    }
+    if (object instanceof Long) {
+      return IValueMeta.TYPE_INTEGER;
+    }
+    if (object instanceof Timestamp) {
+      return IValueMeta.TYPE_TIMESTAMP;
+    }
+    if (object instanceof Date) {
+      return IValueMeta.TYPE_DATE;
+    }
+    if (object instanceof Boolean) {
+      return IValueMeta.TYPE_BOOLEAN;
+    }
+    if (object instanceof Double) {
+      return IValueMeta.TYPE_NUMBER;
+    }
+    if (object instanceof BigDecimal) {
+      return IValueMeta.TYPE_BIGNUMBER;
+    }
+    if (object instanceof byte[]) {
+      return IValueMeta.TYPE_BINARY;
+    }
+    if (object instanceof InetAddress) {
+      return IValueMeta.TYPE_INET;
+    }
+    if (object instanceof GenericRecord) {
+      return IValueMeta.TYPE_AVRO;
+    }
+    throw new CoderException(
+        "Data type for object class " + object.getClass().getName() + " isn't supported yet");
+  }
+
+  private static void writeNullBitmap(OutputStream out, Object[] row, int length)
+      throws IOException {
+    byte[] nullBitmap = new byte[(length + 7) / 8];
+    for (int i = 0; i < length; i++) {
+      if (row[i] == null) {
+        nullBitmap[i >> 3] |= (byte) (1 << (i & 7));
+      }
+    }
+    out.write(nullBitmap);
+  }
+
+  private static byte[] readNullBitmap(InputStream in, int length) throws IOException {
+    byte[] nullBitmap = new byte[(length + 7) / 8];
+    readFully(in, nullBitmap);
+    return nullBitmap;
+  }
+
+  private static boolean isNull(byte[] nullBitmap, int index) {
+    return (nullBitmap[index >> 3] & (1 << (index & 7))) != 0;
+  }
+
+  private static void writeValue(OutputStream out, int valueType, Object object)
+      throws IOException {
+    switch (valueType) {
+      case IValueMeta.TYPE_STRING:
+        writeBytes(out, ((String) object).getBytes(StandardCharsets.UTF_8));
+        break;
+      case IValueMeta.TYPE_INTEGER:
+        writeZigZag(out, (Long) object);
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        writeLong(out, Double.doubleToLongBits((Double) object));
+        break;
+      case IValueMeta.TYPE_TIMESTAMP:
+        {
+          Timestamp timestamp = (Timestamp) object;
+          writeZigZag(out, timestamp.getTime());
+          VarInt.encode(timestamp.getNanos(), out);
+        }
+        break;
+      case IValueMeta.TYPE_DATE:
+        writeZigZag(out, ((Date) object).getTime());
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        out.write(((Boolean) object) ? 1 : 0);
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        {
+          BigDecimal bigDecimal = (BigDecimal) object;
+          writeZigZag(out, bigDecimal.scale());
+          writeBytes(out, bigDecimal.unscaledValue().toByteArray());
+        }
+        break;
+      case IValueMeta.TYPE_BINARY:
+        writeBytes(out, (byte[]) object);
+        break;
+      case IValueMeta.TYPE_INET:
+        writeBytes(out, ((InetAddress) object).getAddress());
+        break;
+      case IValueMeta.TYPE_AVRO:
+        {
+          GenericRecord genericRecord = (GenericRecord) object;
+          try {
+            writeBytes(
+                out, genericRecord.getSchema().toString(false).getBytes(StandardCharsets.UTF_8));
+            ValueMetaAvroRecord valueMeta =
+                new ValueMetaAvroRecord("write", genericRecord.getSchema());
+            DataOutputStream dataOutputStream = new DataOutputStream(out);
+            valueMeta.writeData(dataOutputStream, genericRecord);
+            dataOutputStream.flush();
+          } catch (Exception e) {
+            throw new IOException("Error serializing Avro generic schema and record", e);
+          }
+        }
+        break;
+      default:
+        throw new CoderException("Data type not supported yet: " + valueType + " - " + object);
+    }
+  }
+
+  private static Object readValue(InputStream in, int valueType) throws IOException {
+    switch (valueType) {
+      case IValueMeta.TYPE_STRING:
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+      case IValueMeta.TYPE_INTEGER:
+        return readZigZag(in);
+      case IValueMeta.TYPE_NUMBER:
+        return Double.longBitsToDouble(readLong(in));
+      case IValueMeta.TYPE_TIMESTAMP:
+        {
+          Timestamp timestamp = new Timestamp(readZigZag(in));
+          timestamp.setNanos(VarInt.decodeInt(in));
+          return timestamp;
+        }
+      case IValueMeta.TYPE_DATE:
+        return new Date(readZigZag(in));
+      case IValueMeta.TYPE_BOOLEAN:
+        return readByte(in) != 0;
+      case IValueMeta.TYPE_BIGNUMBER:
+        {
+          int scale = (int) readZigZag(in);
+          return new BigDecimal(new BigInteger(readBytes(in)), scale);
+        }
+      case IValueMeta.TYPE_BINARY:
+        return readBytes(in);
+      case IValueMeta.TYPE_INET:
+        return InetAddress.getByAddress(readBytes(in));
+      case IValueMeta.TYPE_AVRO:
+        {
+          try {
+            Schema schema =
+                new Schema.Parser().parse(new String(readBytes(in), StandardCharsets.UTF_8));
+            ValueMetaAvroRecord valueMeta = new ValueMetaAvroRecord("read", schema);
+            return valueMeta.readData(new DataInputStream(in));
+          } catch (Exception e) {
+            throw new IOException("Error de-serializing Avro schema and generic record", e);
+          }
+        }
+      default:
+        throw new CoderException("Data type not supported yet: " + valueType);
+    }
+  }
+
+  private static void writeZigZag(OutputStream out, long value) throws IOException {
+    VarInt.encode((value << 1) ^ (value >> 63), out);
+  }
+
+  private static long readZigZag(InputStream in) throws IOException {
+    long value = VarInt.decodeLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeLong(OutputStream out, long value) throws IOException {
+    byte[] bytes = new byte[8];
+    for (int i = 7; i >= 0; i--) {
+      bytes[i] = (byte) value;
+      value >>>= 8;
+    }
+    out.write(bytes);
+  }
+
+  private static long readLong(InputStream in) throws IOException {
+    byte[] bytes = new byte[8];
+    readFully(in, bytes);
+    long value = 0L;
+    for (byte b : bytes) {
+      value = (value << 8) | (b & 0xFF);
+    }
+    return value;
+  }
+
+  private static void writeBytes(OutputStream out, byte[] bytes) throws IOException {
+    VarInt.encode(bytes.length, out);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(InputStream in) throws IOException {
+    byte[] bytes = new byte[VarInt.decodeInt(in)];
+    readFully(in, bytes);
+    return bytes;
+  }
+
+  private static int readByte(InputStream in) throws IOException {
+    int b = in.read();
+    if (b < 0) {
+      throw new EOFException("Unexpected end of a Hop row");
+    }
+    return b;
+  }
+
+  private static void readFully(InputStream in, byte[] bytes) throws IOException {
+    int offset = 0;
+    while (offset < bytes.length) {
+      int read = in.read(bytes, offset, bytes.length - offset);
+      if (read < 0) {
+        throw new EOFException("Unexpected end of a Hop row");
+      }
+      offset += read;
+    }
+  }
+}
@@ -37,6 +37,7 @@ import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hop.beam.core.HopRow;
 import org.apache.hop.beam.core.coder.HopRowCoder;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.util.HopBeamUtil;
 import org.apache.hop.beam.engines.HopPipelineExecutionOptions;
 import org.apache.hop.beam.engines.IBeamPipelineEngineRunConfiguration;
@@ -380,6 +381,31 @@ public class HopPipelineMetaToBeamPipelineConverter {
           null,
           null,
           parentLogChannelId);
+
+      setRowSchemaCoder(transformCollectionMap, transformMeta);
+    }
+  }
+
+  /**
+   * We know the layout of the rows a transform produces while we build the pipeline. This allows us
+   * to use a compact coder for them rather than the generic {@link HopRowCoder}.
+   *
+   * @param transformCollectionMap the output collections of the transforms
+   * @param transformMeta the transform which was just handled
+   * @throws HopException in case the layout of the output rows can't be determined
+   */
+  private void setRowSchemaCoder(
+      Map<String, PCollection<HopRow>> transformCollectionMap, TransformMeta transformMeta)
+      throws HopException {
+    PCollection<HopRow> collection = transformCollectionMap.get(transformMeta.getName());
+    if (collection == null) {
+      return;
+    }
+    IRowMeta rowMeta = pipelineMeta.getTransformFields(variables, transformMeta);
+    try {
+      collection.setCoder(HopRowSchemaCoder.of(rowMeta));
+    } catch (IllegalStateException e) {
+      // The handler already used the collection: keep the coder it has
     }
   }
 
@@ -595,6 +621,8 @@ public class HopPipelineMetaToBeamPipelineConverter {
             previousTransforms,
             input,
             parentLogChannelId);
+
+        setRowSchemaCoder(transformCollectionMap, transformMeta);
       }
     }
   }
@@ -22,12 +22,14 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.extensions.joinlibrary.Join;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.fn.HopKeyValueFn;
 import org.apache.hop.beam.core.fn.MergeJoinAssemblerFn;
 import org.apache.hop.beam.engines.IBeamPipelineEngineRunConfiguration;
@@ -135,7 +137,12 @@ public class BeamMergeJoinTransformHandler extends BeamBaseTransformHandler
             leftK.toArray(new String[0]),
             leftV.toArray(new String[0]),
             transformMeta.getName());
-    PCollection<KV<HopRow, HopRow>> leftKVPCollection = leftPCollection.apply(ParDo.of(leftKVFn));
+    PCollection<KV<HopRow, HopRow>> leftKVPCollection =
+        leftPCollection
+            .apply(ParDo.of(leftKVFn))
+            .setCoder(
+                KvCoder.of(
+                    HopRowSchemaCoder.keyCoder(leftKRowMeta), HopRowSchemaCoder.of(leftVRowMeta)));
 
     // Create key-value pairs (KV) for the right collections
     //
@@ -159,7 +166,12 @@ public class BeamMergeJoinTransformHandler extends BeamBaseTransformHandler
             rightV.toArray(new String[0]),
             transformMeta.getName());
     PCollection<KV<HopRow, HopRow>> rightKVPCollection =
-        rightPCollection.apply(ParDo.of(rightKVFn));
+        rightPCollection
+            .apply(ParDo.of(rightKVFn))
+            .setCoder(
+                KvCoder.of(
+                    HopRowSchemaCoder.keyCoder(rightKRowMeta),
+                    HopRowSchemaCoder.of(rightVRowMeta)));
 
     PCollection<KV<HopRow, KV<HopRow, HopRow>>> kvpCollection;
 
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.beam.runners.direct.DirectRunner;
+import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.options.PipelineOptions;
+import org.apache.beam.sdk.options.PipelineOptionsFactory;
+import org.apache.beam.sdk.transforms.Count;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.GroupByKey;
+import org.apache.beam.sdk.transforms.MapElements;
+import org.apache.beam.sdk.transforms.SimpleFunction;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.apache.beam.sdk.values.KV;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the generic {@link HopRowCoder} with the {@link HopRowSchemaCoder}: the coders on their
+ * own and a group by on the DirectRunner. The DirectRunner encodes every element to check that it
+ * can be encoded, on top of the encoding for the shuffle.
+ *
+ * <p>This isn't a unit test. Run the main method from the test classpath after {@code mvn
+ * test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HopRowCoderBenchmark {
+
+  @Param({"Serialized", "Schema"})
+  public String coderType;
+
+  @Param({"10000"})
+  public int nrRows;
+
+  private List<HopRow> rows;
+  private Coder<HopRow> rowCoder;
+  private Coder<HopRow> keyCoder;
+  private Coder<HopRow> valueCoder;
+
+  @Setup
+  public void setUp() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("customer"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("state"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaInteger("quantity"));
+    rowMeta.addValueMeta(new ValueMetaDate("order_date"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("updated"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("shipped"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("price"));
+
+    IRowMeta keyRowMeta = new RowMeta();
+    keyRowMeta.addValueMeta(rowMeta.getValueMeta(0));
+    IRowMeta valueRowMeta = rowMeta.clone();
+    valueRowMeta.removeValueMeta(0);
+
+    rows = new ArrayList<>(nrRows);
+    long now = System.currentTimeMillis();
+    for (int i = 0; i < nrRows; i++) {
+      rows.add(
+          new HopRow(
+              new Object[] {
+                "customer-" + (i % 100),
+                (long) i,
+                i % 7 == 0 ? null : "state-" + (i % 50),
+                i * 1.25,
+                (long) (i % 10),
+                new Date(now - i * 86_400_000L),
+                new Timestamp(now - i),
+                i % 2 == 0,
+                BigDecimal.valueOf(i, 2),
+              }));
+    }
+
+    if ("Schema".equals(coderType)) {
+      rowCoder = HopRowSchemaCoder.of(rowMeta);
+      keyCoder = HopRowSchemaCoder.keyCoder(keyRowMeta);
+      valueCoder = HopRowSchemaCoder.of(valueRowMeta);
+    } else {
+      rowCoder = new HopRowCoder();
+      keyCoder = new HopRowCoder();
+      valueCoder = new HopRowCoder();
+    }
+  }
+
+  @Benchmark
+  public long encodeDecode() throws CoderException {
+    long size = 0;
+    for (HopRow row : rows) {
+      byte[] bytes = CoderUtils.encodeToByteArray(rowCoder, row);
+      size += bytes.length + CoderUtils.decodeFromByteArray(rowCoder, bytes).length();
+    }
+    return size;
+  }
+
+  @Benchmark
+  public void directRunnerGroupBy() {
+    PipelineOptions options = PipelineOptionsFactory.create();
+    options.setRunner(DirectRunner.class);
+    Pipeline pipeline = Pipeline.create(options);
+
+    pipeline
+        .apply(Create.of(rows).withCoder(rowCoder))
+        .apply(MapElements.via(new KeyValueFn()))
+        .setCoder(KvCoder.of(keyCoder, valueCoder))
+        .apply(GroupByKey.create())
+        .apply(Count.globally());
+
+    pipeline.run().waitUntilFinish();
+  }
+
+  /** Splits the rows in the customer key and the other values, like a group by does. */
+  private static class KeyValueFn extends SimpleFunction<HopRow, KV<HopRow, HopRow>> {
+    @Override
+    public KV<HopRow, HopRow> apply(HopRow hopRow) {
+      Object[] row = hopRow.getRow();
+      Object[] values = new Object[row.length - 1];
+      System.arraycopy(row, 1, values, 0, values.length);
+      return KV.of(new HopRow(new Object[] {row[0]}), new HopRow(values));
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(HopRowCoderBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.util.Date;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.apache.beam.sdk.values.KV;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaAvroRecord;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaInternetAddress;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HopRowSchemaCoderTest {
+
+  private IRowMeta rowMeta;
+  private HopRowSchemaCoder coder;
+
+  @BeforeEach
+  void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    rowMeta.addValueMeta(new ValueMetaBinary("binary"));
+    rowMeta.addValueMeta(new ValueMetaInternetAddress("inet"));
+    coder = HopRowSchemaCoder.of(rowMeta);
+  }
+
+  private Object[] createRow() throws Exception {
+    Timestamp timestamp = new Timestamp(1612450125999L);
+    timestamp.setNanos(999123456);
+    return new Object[] {
+      "Apache Hop",
+      -1234567890123L,
+      1.234,
+      new Date(876876868L),
+      timestamp,
+      true,
+      new BigDecimal("-12345678901234567890.123456789"),
+      new byte[] {1, 2, 3, (byte) 0xFF},
+      InetAddress.getByAddress(new byte[] {10, 0, 0, 1}),
+    };
+  }
+
+  private HopRow roundTrip(Coder<HopRow> hopRowCoder, HopRow hopRow) throws Exception {
+    byte[] bytes = CoderUtils.encodeToByteArray(hopRowCoder, hopRow);
+    return CoderUtils.decodeFromByteArray(hopRowCoder, bytes);
+  }
+
+  @Test
+  void testEncodeDecodeAllTypes() throws Exception {
+    Object[] row = createRow();
+    HopRow decoded = roundTrip(coder, new HopRow(row));
+
+    assertEquals(row.length, decoded.length());
+    for (int i = 0; i < row.length; i++) {
+      if (row[i] instanceof byte[] bytes) {
+        assertArrayEquals(bytes, (byte[]) decoded.getRow()[i]);
+      } else {
+        assertEquals(row[i], decoded.getRow()[i], rowMeta.getValueMeta(i).getName());
+      }
+    }
+  }
+
+  @Test
+  void testNullValues() throws Exception {
+    Object[] row = createRow();
+    row[0] = null;
+    row[4] = null;
+    row[8] = null;
+    HopRow decoded = roundTrip(coder, new HopRow(row));
+
+    assertNull(decoded.getRow()[0]);
+    assertNull(decoded.getRow()[4]);
+    assertNull(decoded.getRow()[8]);
+    assertEquals(row[1], decoded.getRow()[1]);
+    assertEquals(row[6], decoded.getRow()[6]);
+
+    HopRow allNulls = roundTrip(coder, new HopRow(new Object[rowMeta.size()]));
+    assertEquals(rowMeta.size(), allNulls.length());
+    for (Object value : allNulls.getRow()) {
+      assertNull(value);
+    }
+
+    assertNull(roundTrip(coder, new HopRow()).getRow());
+  }
+
+  @Test
+  void testRowsNotMatchingTheLayout() throws Exception {
+    // A value of another class than expected
+    //
+    Object[] row = createRow();
+    row[0] = 42L;
+    HopRow decoded = roundTrip(coder, new HopRow(row));
+    assertEquals(42L, decoded.getRow()[0]);
+    assertEquals(row[1], decoded.getRow()[1]);
+
+    // Rows of another size, like the empty rows used for outer joins
+    //
+    assertEquals(0, roundTrip(coder, new HopRow(new Object[0])).length());
+    HopRow shorter = roundTrip(coder, new HopRow(new Object[] {"A", null, 3L}));
+    assertEquals(new HopRow(new Object[] {"A", null, 3L}), shorter);
+
+    // Only the populated part of the row is encoded
+    //
+    HopRow partial = new HopRow(new Object[] {"A", 2L, null, null}, 2);
+    assertEquals(2, roundTrip(coder, partial).length());
+  }
+
+  @Test
+  void testDeterministicAndCompact() throws Exception {
+    byte[] bytes1 = CoderUtils.encodeToByteArray(coder, new HopRow(createRow()));
+    byte[] bytes2 = CoderUtils.encodeToByteArray(coder, new HopRow(createRow()));
+    assertArrayEquals(bytes1, bytes2);
+    assertDoesNotThrow(coder::verifyDeterministic);
+
+    byte[] serialized = CoderUtils.encodeToByteArray(new HopRowCoder(), new HopRow(createRow()));
+    assertTrue(
+        bytes1.length < serialized.length,
+        "Expected " + bytes1.length + " to be smaller than " + serialized.length);
+
+    IRowMeta avroRowMeta = new RowMeta();
+    avroRowMeta.addValueMeta(new ValueMetaAvroRecord("avro"));
+    HopRowSchemaCoder avroCoder = HopRowSchemaCoder.of(avroRowMeta);
+    assertThrows(Coder.NonDeterministicException.class, avroCoder::verifyDeterministic);
+  }
+
+  @Test
+  void testKeyCoder() {
+    IRowMeta keyRowMeta = new RowMeta();
+    keyRowMeta.addValueMeta(new ValueMetaString("key"));
+    assertEquals(HopRowSchemaCoder.of(keyRowMeta), HopRowSchemaCoder.keyCoder(keyRowMeta));
+
+    // Avro keys can't be encoded deterministically by the schema coder
+    //
+    keyRowMeta.addValueMeta(new ValueMetaAvroRecord("avro"));
+    Coder<HopRow> avroKeyCoder = HopRowSchemaCoder.keyCoder(keyRowMeta);
+    assertInstanceOf(HopRowCoder.class, avroKeyCoder);
+    assertDoesNotThrow(
+        () -> KvCoder.of(avroKeyCoder, HopRowSchemaCoder.of(rowMeta)).verifyDeterministic());
+  }
+
+  @Test
+  void testKeyValueCoder() throws Exception {
+    IRowMeta keyRowMeta = new RowMeta();
+    keyRowMeta.addValueMeta(new ValueMetaString("key"));
+    KvCoder<HopRow, HopRow> kvCoder =
+        KvCoder.of(HopRowSchemaCoder.of(keyRowMeta), HopRowSchemaCoder.of(rowMeta));
+    assertDoesNotThrow(() -> kvCoder.getKeyCoder().verifyDeterministic());
+
+    KV<HopRow, HopRow> kv =
+        KV.of(new HopRow(new Object[] {"key"}), new HopRow(new Object[] {"value", 1L}));
+    byte[] bytes = CoderUtils.encodeToByteArray(kvCoder, kv);
+    KV<HopRow, HopRow> decoded = CoderUtils.decodeFromByteArray(kvCoder, bytes);
+
+    assertEquals(kv.getKey(), decoded.getKey());
+    assertEquals(kv.getValue(), decoded.getValue());
+  }
+
+  @Test
+  void testEquality() {
+    assertEquals(coder, HopRowSchemaCoder.of(rowMeta.clone()));
+    assertEquals(coder.hashCode(), HopRowSchemaCoder.of(rowMeta.clone()).hashCode());
+    assertNotEquals(coder, HopRowSchemaCoder.of(new RowMeta()));
+  }
+}
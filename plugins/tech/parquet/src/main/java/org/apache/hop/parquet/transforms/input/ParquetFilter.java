@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+
+/**
+ * A condition on a column of the Parquet file. The conditions are pushed down to the reader: row
+ * groups which can't match according to their statistics or dictionaries are skipped without being
+ * read, the remaining rows are filtered one by one.
+ *
+ * <p>The value is compared with the physical value in the file. Dates can be given as yyyy-MM-dd.
+ */
+@Getter
+@Setter
+public class ParquetFilter {
+  @HopMetadataProperty(key = "source_field")
+  private String sourceField;
+
+  @HopMetadataProperty(key = "operator")
+  private String operator;
+
+  @HopMetadataProperty(key = "value")
+  private String value;
+
+  public ParquetFilter() {}
+
+  public ParquetFilter(ParquetFilter f) {
+    this.sourceField = f.sourceField;
+    this.operator = f.operator;
+    this.value = f.value;
+  }
+
+  public ParquetFilter(String sourceField, String operator, String value) {
+    this.sourceField = sourceField;
+    this.operator = operator;
+    this.value = value;
+  }
+
+  /**
+   * Combine the given filters into one predicate for the Parquet reader.
+   *
+   * @param filters the filters to combine, all of them need to match
+   * @param schema the schema of the file
+   * @param variables to resolve the filter values with
+   * @return the predicate or null if there are no filters
+   * @throws HopException in case a filter can't be applied to the file
+   */
+  public static FilterPredicate createPredicate(
+      List<ParquetFilter> filters, MessageType schema, IVariables variables) throws HopException {
+    FilterPredicate predicate = null;
+    for (ParquetFilter filter : filters) {
+      FilterPredicate filterPredicate = filter.createPredicate(schema, variables);
+      predicate = predicate == null ? filterPredicate : FilterApi.and(predicate, filterPredicate);
+    }
+    return predicate;
+  }
+
+  public FilterPredicate createPredicate(MessageType schema, IVariables variables)
+      throws HopException {
+    ParquetFilterOperator filterOperator = ParquetFilterOperator.lookup(operator, null);
+    if (filterOperator == null) {
+      throw new HopException("Unknown filter operator '" + operator + "' on field " + sourceField);
+    }
+    String[] path = StringUtils.split(sourceField, '.');
+    if (path == null || path.length == 0 || !schema.containsPath(path)) {
+      throw new HopException("Unable to find filter field '" + sourceField + "' in the file");
+    }
+    ColumnDescriptor column = schema.getColumnDescription(path);
+    PrimitiveType primitiveType = column.getPrimitiveType();
+    String columnPath = String.join(".", path);
+    String filterValue = filterOperator.isNeedingValue() ? variables.resolve(value) : null;
+
+    try {
+      return switch (primitiveType.getPrimitiveTypeName()) {
+        case INT32 ->
+            compare(
+                FilterApi.intColumn(columnPath),
+                filterOperator,
+                filterValue == null ? null : toInt(filterValue, primitiveType));
+        case INT64 ->
+            compare(
+                FilterApi.longColumn(columnPath),
+                filterOperator,
+                filterValue == null ? null : Long.valueOf(filterValue.trim()));
+        case FLOAT ->
+            compare(
+                FilterApi.floatColumn(columnPath),
+                filterOperator,
+                filterValue == null ? null : Float.valueOf(filterValue.trim()));
+        case DOUBLE ->
+            compare(
+                FilterApi.doubleColumn(columnPath),
+                filterOperator,
+                filterValue == null ? null : Double.valueOf(filterValue.trim()));
+        case BINARY ->
+            compare(
+                FilterApi.binaryColumn(columnPath),
+                filterOperator,
+                filterValue == null ? null : Binary.fromString(filterValue));
+        case BOOLEAN -> {
+          Operators.BooleanColumn booleanColumn = FilterApi.booleanColumn(columnPath);
+          Boolean booleanValue = filterValue == null ? null : Boolean.valueOf(filterValue.trim());
+          yield switch (filterOperator) {
+            case Equal, IsNull -> FilterApi.eq(booleanColumn, booleanValue);
+            case NotEqual, IsNotNull -> FilterApi.notEq(booleanColumn, booleanValue);
+            default ->
+                throw new HopException(
+                    "Operator "
+                        + filterOperator.getCode()
+                        + " isn't supported on boolean field "
+                        + sourceField);
+          };
+        }
+        default ->
+            throw new HopException(
+                "Filtering on field "
+                    + sourceField
+                    + " of type "
+                    + primitiveType.getPrimitiveTypeName()
+                    + " isn't supported");
+      };
+    } catch (RuntimeException e) {
+      throw new HopException(
+          "Unable to use value '" + filterValue + "' in the filter on field " + sourceField, e);
+    }
+  }
+
+  private static Integer toInt(String value, PrimitiveType primitiveType) {
+    if (primitiveType.getLogicalTypeAnnotation()
+            instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation
+        && value.indexOf('-') > 0) {
+      // Dates are stored as the number of days since the epoch
+      //
+      return (int) LocalDate.parse(value.trim()).toEpochDay();
+    }
+    return Integer.valueOf(value.trim());
+  }
+
+  private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+      FilterPredicate compare(C column, ParquetFilterOperator operator, T value) {
+    return switch (operator) {
+      case Equal, IsNull -> FilterApi.eq(column, value);
+      case NotEqual, IsNotNull -> FilterApi.notEq(column, value);
+      case LessThan -> FilterApi.lt(column, value);
+      case LessThanOrEqual -> FilterApi.ltEq(column, value);
+      case GreaterThan -> FilterApi.gt(column, value);
+      case GreaterThanOrEqual -> FilterApi.gtEq(column, value);
+    };
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import lombok.Getter;
+
+/** The comparison operators which can be pushed down to the Parquet reader as a filter. */
+@Getter
+@SuppressWarnings("java:S115")
+public enum ParquetFilterOperator {
+  Equal("=", true),
+  NotEqual("<>", true),
+  LessThan("<", true),
+  LessThanOrEqual("<=", true),
+  GreaterThan(">", true),
+  GreaterThanOrEqual(">=", true),
+  IsNull("IS NULL", false),
+  IsNotNull("IS NOT NULL", false);
+
+  private final String code;
+  private final boolean needingValue;
+
+  ParquetFilterOperator(String code, boolean needingValue) {
+    this.code = code;
+    this.needingValue = needingValue;
+  }
+
+  public static String[] getCodes() {
+    ParquetFilterOperator[] operators = values();
+    String[] codes = new String[operators.length];
+    for (int i = 0; i < operators.length; i++) {
+      codes[i] = operators[i].code;
+    }
+    return codes;
+  }
+
+  /**
+   * Find an operator by its code or name, ignoring case.
+   *
+   * @param code the code or the name to look for
+   * @param defaultOperator the operator to return if the code is empty or unknown
+   * @return the operator
+   */
+  public static ParquetFilterOperator lookup(String code, ParquetFilterOperator defaultOperator) {
+    for (ParquetFilterOperator operator : values()) {
+      if (operator.code.equalsIgnoreCase(code) || operator.name().equalsIgnoreCase(code)) {
+        return operator;
+      }
+    }
+    return defaultOperator;
+  }
+}
@@ -17,11 +17,9 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
@@ -33,6 +31,12 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 
 public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputData> {
   public ParquetInput(
@@ -45,6 +49,20 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
+  @Override
+  public boolean init() {
+    if (!super.init()) {
+      return false;
+    }
+
+    // Handle parallel reading capabilities: the copies split the row groups of each file
+    //
+    data.transformNumber = getCopyNr();
+    data.totalNumberOfTransforms = getTransformMeta().getCopies(this);
+    data.parallel = meta.isRunningInParallel() && data.totalNumberOfTransforms > 1;
+    return true;
+  }
+
   @Override
   public boolean processRow() throws HopException {
     Object[] row = getRow();
@@ -53,8 +71,11 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
       closeFile();
 
       // Do we need the file metadata and the file was empty?
+      // When running in parallel only the first copy sends the empty row.
       //
-      if (meta.isSendingNullsRowWhenEmpty() && getLinesInput() == 0) {
+      if (meta.isSendingNullsRowWhenEmpty()
+          && getLinesInput() == 0
+          && (!data.parallel || data.transformNumber == 0)) {
         Object[] outputRow = RowDataUtil.allocateRowData(getInputRowMeta().size());
         putRow(data.outputRowMeta, outputRow);
       }
@@ -108,25 +129,53 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
 
       long size = fileObject.getContent().getSize();
       dataVolumeIn = (dataVolumeIn != null ? dataVolumeIn : 0L) + size;
-      data.inputStream = HopVfs.getInputStream(fileObject);
 
-      // Reads the whole file into memory...
+      // The file is read straight from VFS: only the row groups and columns we need are fetched.
       //
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-      IOUtils.copy(data.inputStream, outputStream);
-      ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
-
-      ParquetReadSupport readSupport = new ParquetReadSupport(fields);
-      data.reader = new ParquetReaderBuilder<>(readSupport, inputFile).build();
+      ParquetVfsInputFile inputFile = new ParquetVfsInputFile(fileObject);
+      ParquetReader.Builder<RowMetaAndData> builder =
+          new ParquetReaderBuilder<>(new ParquetReadSupport(fields, meta.getFilters()), inputFile);
+
+      if (data.parallel || !meta.getFilters().isEmpty()) {
+        ParquetMetadata footer;
+        try (ParquetFileReader fileReader = ParquetFileReader.open(inputFile)) {
+          footer = fileReader.getFooter();
+        }
 
-      RowMetaAndData r = data.reader.read();
-      while (r != null && !isStopped()) {
-        incrementLinesInput();
-        // Add r to the input rows...
+        // Skip row groups based on their statistics and filter the remaining rows
         //
-        Object[] outputRow = RowDataUtil.addRowData(row, getInputRowMeta().size(), r.getData());
-        putRow(data.outputRowMeta, outputRow);
-        r = data.reader.read();
+        FilterPredicate predicate =
+            ParquetFilter.createPredicate(
+                meta.getFilters(), footer.getFileMetaData().getSchema(), this);
+        if (predicate != null) {
+          builder = builder.withFilter(FilterCompat.get(predicate));
+        }
+
+        if (data.parallel) {
+          long[] range = getRowGroupRange(footer.getBlocks());
+          if (range == null) {
+            // Not enough row groups in this file to give this copy any of them
+            //
+            return true;
+          }
+          builder = builder.withFileRange(range[0], range[1]);
+        }
+      }
+
+      data.reader = builder.build();
+      data.readerClosed = false;
+      try {
+        RowMetaAndData r = data.reader.read();
+        while (r != null && !isStopped()) {
+          incrementLinesInput();
+          // Add r to the input rows...
+          //
+          Object[] outputRow = RowDataUtil.addRowData(row, getInputRowMeta().size(), r.getData());
+          putRow(data.outputRowMeta, outputRow);
+          r = data.reader.read();
+        }
+      } finally {
+        closeFile();
       }
     } catch (Exception e) {
       throw new HopException("Error read file " + filename, e);
@@ -135,11 +184,37 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
     return true;
   }
 
+  /**
+   * The row groups of a file are split in as many ranges of consecutive row groups as there are
+   * transform copies. A row group is read by the copy whose range contains its starting position.
+   *
+   * @param blocks the row groups of the file
+   * @return the start and end position in the file for this copy or null if there is nothing to
+   *     read
+   */
+  private long[] getRowGroupRange(List<BlockMetaData> blocks) {
+    long start = -1L;
+    long end = -1L;
+    int nrBlocks = blocks.size();
+    for (int i = 0; i < nrBlocks; i++) {
+      if ((int) ((long) i * data.totalNumberOfTransforms / nrBlocks) == data.transformNumber) {
+        BlockMetaData block = blocks.get(i);
+        if (start < 0) {
+          start = block.getStartingPos();
+        }
+        end = block.getStartingPos() + block.getCompressedSize();
+      }
+    }
+    if (start < 0) {
+      return null;
+    }
+    return new long[] {start, end};
+  }
+
   public void closeFile() {
-    if (!data.readerClosed && data.reader != null && data.inputStream != null) {
+    if (!data.readerClosed && data.reader != null) {
       try {
         data.reader.close();
-        data.inputStream.close();
       } catch (IOException e) {
         logError("Unable to properly close parquet reader!");
       }
@@ -49,7 +49,9 @@ public class ParquetInputDialog extends BaseTransformDialog {
   private Combo wFilenameField;
   private TextVar wMetaFilename;
   private Button wNullWhenEmpty;
+  private Button wRunningInParallel;
   private TableView wFields;
+  private TableView wFilters;
 
   private String returnValue;
 
@@ -121,6 +123,28 @@ public class ParquetInputDialog extends BaseTransformDialog {
     wNullWhenEmpty.setLayoutData(fdNullWhenEmpty);
     lastControl = wNullWhenEmpty;
 
+    Label wlRunningInParallel = new Label(shell, SWT.RIGHT);
+    wlRunningInParallel.setText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.RunningInParallel.Label"));
+    wlRunningInParallel.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.RunningInParallel.Tooltip"));
+    PropsUi.setLook(wlRunningInParallel);
+    FormData fdlRunningInParallel = new FormData();
+    fdlRunningInParallel.left = new FormAttachment(0, 0);
+    fdlRunningInParallel.right = new FormAttachment(middle, -margin);
+    fdlRunningInParallel.top = new FormAttachment(lastControl, margin);
+    wlRunningInParallel.setLayoutData(fdlRunningInParallel);
+    wRunningInParallel = new Button(shell, SWT.CHECK);
+    wRunningInParallel.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.RunningInParallel.Tooltip"));
+    PropsUi.setLook(wRunningInParallel);
+    FormData fdRunningInParallel = new FormData();
+    fdRunningInParallel.left = new FormAttachment(middle, 0);
+    fdRunningInParallel.top = new FormAttachment(wlRunningInParallel, 0, SWT.CENTER);
+    fdRunningInParallel.right = new FormAttachment(100, 0);
+    wRunningInParallel.setLayoutData(fdRunningInParallel);
+    lastControl = wRunningInParallel;
+
     Label wlFields = new Label(shell, SWT.LEFT);
     wlFields.setText(BaseMessages.getString(PKG, "ParquetInputDialog.Fields.Label"));
     PropsUi.setLook(wlFields);
@@ -169,9 +193,56 @@ public class ParquetInputDialog extends BaseTransformDialog {
     fdFields.left = new FormAttachment(0, 0);
     fdFields.top = new FormAttachment(wlFields, margin);
     fdFields.right = new FormAttachment(100, 0);
-    fdFields.bottom = new FormAttachment(100, -50);
+    fdFields.bottom = new FormAttachment(65, 0);
     wFields.setLayoutData(fdFields);
 
+    Label wlFilters = new Label(shell, SWT.LEFT);
+    wlFilters.setText(BaseMessages.getString(PKG, "ParquetInputDialog.Filters.Label"));
+    wlFilters.setToolTipText(BaseMessages.getString(PKG, "ParquetInputDialog.Filters.Tooltip"));
+    PropsUi.setLook(wlFilters);
+    FormData fdlFilters = new FormData();
+    fdlFilters.left = new FormAttachment(0, 0);
+    fdlFilters.right = new FormAttachment(middle, -margin);
+    fdlFilters.top = new FormAttachment(wFields, 2 * margin);
+    wlFilters.setLayoutData(fdlFilters);
+
+    ColumnInfo[] filterColumns =
+        new ColumnInfo[] {
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetInputDialog.FiltersColumn.SourceField.Label"),
+              ColumnInfo.COLUMN_TYPE_TEXT,
+              false,
+              false),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetInputDialog.FiltersColumn.Operator.Label"),
+              ColumnInfo.COLUMN_TYPE_CCOMBO,
+              ParquetFilterOperator.getCodes(),
+              false),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetInputDialog.FiltersColumn.Value.Label"),
+              ColumnInfo.COLUMN_TYPE_TEXT,
+              false,
+              false),
+        };
+    filterColumns[2].setUsingVariables(true);
+    wFilters =
+        new TableView(
+            variables,
+            shell,
+            SWT.BORDER,
+            filterColumns,
+            input.getFilters().size(),
+            false,
+            null,
+            props);
+    PropsUi.setLook(wFilters);
+    FormData fdFilters = new FormData();
+    fdFilters.left = new FormAttachment(0, 0);
+    fdFilters.top = new FormAttachment(wlFilters, margin);
+    fdFilters.right = new FormAttachment(100, 0);
+    fdFilters.bottom = new FormAttachment(100, -50);
+    wFilters.setLayoutData(fdFilters);
+
     getData();
     focusTransformName();
     BaseDialog.defaultShellHandling(shell, c -> ok(), c -> cancel());
@@ -209,6 +280,7 @@ public class ParquetInputDialog extends BaseTransformDialog {
     wFilenameField.setText(Const.NVL(input.getFilenameField(), ""));
     wMetaFilename.setText(Const.NVL(input.getMetadataFilename(), ""));
     wNullWhenEmpty.setSelection(input.isSendingNullsRowWhenEmpty());
+    wRunningInParallel.setSelection(input.isRunningInParallel());
     for (int i = 0; i < input.getFields().size(); i++) {
       ParquetField field = input.getFields().get(i);
       TableItem item = wFields.table.getItem(i);
@@ -220,6 +292,14 @@ public class ParquetInputDialog extends BaseTransformDialog {
       item.setText(index++, Const.NVL(field.getTargetLength(), ""));
       item.setText(index++, Const.NVL(field.getTargetPrecision(), ""));
     }
+    for (int i = 0; i < input.getFilters().size(); i++) {
+      ParquetFilter filter = input.getFilters().get(i);
+      TableItem item = wFilters.table.getItem(i);
+      int index = 1;
+      item.setText(index++, Const.NVL(filter.getSourceField(), ""));
+      item.setText(index++, Const.NVL(filter.getOperator(), ""));
+      item.setText(index++, Const.NVL(filter.getValue(), ""));
+    }
   }
 
   private void ok() {
@@ -234,6 +314,7 @@ public class ParquetInputDialog extends BaseTransformDialog {
     meta.setFilenameField(wFilenameField.getText());
     meta.setMetadataFilename(wMetaFilename.getText());
     meta.setSendingNullsRowWhenEmpty(wNullWhenEmpty.getSelection());
+    meta.setRunningInParallel(wRunningInParallel.getSelection());
     meta.getFields().clear();
     for (TableItem item : wFields.getNonEmptyItems()) {
       int index = 1;
@@ -247,6 +328,13 @@ public class ParquetInputDialog extends BaseTransformDialog {
                   item.getText(index++),
                   item.getText(index)));
     }
+    meta.getFilters().clear();
+    for (TableItem item : wFilters.getNonEmptyItems()) {
+      int index = 1;
+      meta.getFilters()
+          .add(
+              new ParquetFilter(item.getText(index++), item.getText(index++), item.getText(index)));
+    }
   }
 
   private void cancel() {
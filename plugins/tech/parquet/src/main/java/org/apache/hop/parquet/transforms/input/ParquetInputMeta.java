@@ -17,16 +17,12 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.vfs2.FileObject;
-import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.annotations.Transform;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -41,7 +37,7 @@ import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.transform.BaseTransformMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.parquet.column.ColumnDescriptor;
-import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.DateLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
@@ -73,11 +69,18 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
   @HopMetadataProperty(key = "nulls_when_empty")
   private boolean sendingNullsRowWhenEmpty;
 
+  @HopMetadataProperty(key = "parallel")
+  private boolean runningInParallel;
+
   @HopMetadataProperty(groupKey = "fields", key = "field")
   private List<ParquetField> fields;
 
+  @HopMetadataProperty(groupKey = "filters", key = "filter")
+  private List<ParquetFilter> filters;
+
   public ParquetInputMeta() {
     fields = new ArrayList<>();
+    filters = new ArrayList<>();
   }
 
   @Override
@@ -120,27 +123,13 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
     try {
       FileObject fileObject = HopVfs.getFileObject(variables.resolve(filename), variables);
 
-      long size = fileObject.getContent().getSize();
-      InputStream inputStream = HopVfs.getInputStream(fileObject);
-
-      // Reads the whole file into memory...
+      // We only need the footer of the file to get the schema
       //
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-      IOUtils.copy(inputStream, outputStream);
-      ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
-      // Empty list of fields to retrieve: we still grab the schema
-      //
-      ParquetReadSupport readSupport = new ParquetReadSupport(new ArrayList<>());
-      ParquetReader<RowMetaAndData> reader =
-          new ParquetReaderBuilder<>(readSupport, inputFile).build();
-
-      // Read one empty row...
-      //
-      reader.read();
-
-      // Now we have the schema...
-      //
-      MessageType schema = readSupport.getMessageType();
+      MessageType schema;
+      try (ParquetFileReader fileReader =
+          ParquetFileReader.open(new ParquetVfsInputFile(fileObject))) {
+        schema = fileReader.getFooter().getFileMetaData().getSchema();
+      }
       IRowMeta rowMeta = new RowMeta();
       List<ColumnDescriptor> columns = schema.getColumns();
       for (ColumnDescriptor column : columns) {
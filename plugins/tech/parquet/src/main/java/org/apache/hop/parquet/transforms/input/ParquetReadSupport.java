@@ -17,6 +17,7 @@
 
 package org.apache.hop.parquet.transforms.input;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,13 +28,24 @@ import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
 public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
 
   private List<ParquetField> fields;
+  private List<ParquetFilter> filters;
 
   public ParquetReadSupport(List<ParquetField> fields) {
+    this(fields, List.of());
+  }
+
+  /**
+   * @param fields the fields to read
+   * @param filters the filters on the rows, their columns are read as well
+   */
+  public ParquetReadSupport(List<ParquetField> fields, List<ParquetFilter> filters) {
     this.fields = fields;
+    this.filters = filters;
   }
 
   @Getter private MessageType messageType;
@@ -41,7 +53,48 @@ public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
   @Override
   public ReadContext init(InitContext context) {
     this.messageType = context.getFileSchema();
-    return new ReadContext(messageType, new HashMap<>());
+    return new ReadContext(getRequestedSchema(messageType), new HashMap<>());
+  }
+
+  /**
+   * Only the columns of the fields we're asked for are read from the file. The columns the rows are
+   * filtered on are read as well, even if they're not in the output: the filter sees a column which
+   * isn't read as always null.
+   *
+   * @param fileSchema the schema of the file
+   * @return the schema with the columns to read
+   */
+  MessageType getRequestedSchema(MessageType fileSchema) {
+    if (fields.isEmpty()) {
+      return fileSchema;
+    }
+    List<Type> requestedTypes = new ArrayList<>();
+    for (Type type : fileSchema.getFields()) {
+      if (isRequested(type.getName())) {
+        requestedTypes.add(type);
+      }
+    }
+    return new MessageType(fileSchema.getName(), requestedTypes);
+  }
+
+  private boolean isRequested(String name) {
+    for (ParquetField field : fields) {
+      if (isColumn(field.getSourceField(), name)) {
+        return true;
+      }
+    }
+    for (ParquetFilter filter : filters) {
+      if (isColumn(filter.getSourceField(), name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isColumn(String sourceField, String name) {
+    return sourceField != null
+        && (sourceField.equalsIgnoreCase(name)
+            || sourceField.toLowerCase().startsWith(name.toLowerCase() + "."));
   }
 
   @Override
@@ -50,6 +103,6 @@ public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
       Map<String, String> keyValueMetaData,
       MessageType messageType,
       ReadContext readContext) {
-    return new ParquetRecordMaterializer(messageType, fields);
+    return new ParquetRecordMaterializer(readContext.getRequestedSchema(), fields);
   }
 }
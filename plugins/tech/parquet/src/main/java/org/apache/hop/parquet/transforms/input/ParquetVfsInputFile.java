@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.RandomAccessContent;
+import org.apache.commons.vfs2.util.RandomAccessMode;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ * A Parquet input file which reads straight from a VFS file object. Only the footer, the row groups
+ * and the columns which are asked for are read, the file is never loaded into memory as a whole.
+ *
+ * <p>If the file system supports random access reads we seek in the file. Otherwise, we skip ahead
+ * in the input stream and re-open the file when the reader seeks backwards.
+ */
+public class ParquetVfsInputFile implements InputFile {
+  private final FileObject fileObject;
+
+  public ParquetVfsInputFile(FileObject fileObject) {
+    this.fileObject = fileObject;
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    return fileObject.getContent().getSize();
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    final VfsInputStream stream = new VfsInputStream(fileObject);
+    return new DelegatingSeekableInputStream(stream) {
+      @Override
+      public long getPos() {
+        return stream.position;
+      }
+
+      @Override
+      public void seek(long newPos) throws IOException {
+        stream.seek(newPos);
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return "Parquet file '" + fileObject.getName().getURI() + "'";
+  }
+
+  /** An input stream on a VFS file which keeps track of its position and which can seek. */
+  private static class VfsInputStream extends InputStream {
+    private final FileObject fileObject;
+    private final RandomAccessContent content;
+    private InputStream inputStream;
+    private long position;
+
+    private VfsInputStream(FileObject fileObject) throws IOException {
+      this.fileObject = fileObject;
+      if (fileObject.getFileSystem().hasCapability(Capability.RANDOM_ACCESS_READ)) {
+        this.content = fileObject.getContent().getRandomAccessContent(RandomAccessMode.READ);
+        this.inputStream = content.getInputStream();
+      } else {
+        this.content = null;
+        this.inputStream = fileObject.getContent().getInputStream();
+      }
+      this.position = 0L;
+    }
+
+    private void seek(long newPos) throws IOException {
+      if (newPos == position) {
+        return;
+      }
+      if (content != null) {
+        content.seek(newPos);
+        inputStream = content.getInputStream();
+      } else {
+        if (newPos < position) {
+          // We can only read forward: start over
+          //
+          inputStream.close();
+          inputStream = fileObject.getContent().getInputStream();
+          position = 0L;
+        }
+        IOUtils.skipFully(inputStream, newPos - position);
+      }
+      position = newPos;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = inputStream.read();
+      if (b >= 0) {
+        position++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = inputStream.read(buffer, offset, length);
+      if (read > 0) {
+        position += read;
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (content != null) {
+        content.close();
+      } else {
+        inputStream.close();
+      }
+    }
+  }
+}
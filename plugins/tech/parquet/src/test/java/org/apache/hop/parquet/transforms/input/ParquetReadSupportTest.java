@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParquetReadSupportTest {
+
+  private static final MessageType SCHEMA =
+      MessageTypeParser.parseMessageType(
+          "message test { required int32 id; required binary name (UTF8); required int64 amount; }");
+
+  @TempDir Path folder;
+
+  @BeforeAll
+  static void init() throws Exception {
+    HopClientEnvironment.init();
+  }
+
+  private static List<ParquetField> nameField() {
+    List<ParquetField> fields = new ArrayList<>();
+    fields.add(new ParquetField("name", "name", "String", null, null, null));
+    return fields;
+  }
+
+  private static List<ParquetFilter> amountFilter() {
+    List<ParquetFilter> filters = new ArrayList<>();
+    filters.add(new ParquetFilter("amount", ">", "5"));
+    return filters;
+  }
+
+  @Test
+  void testRequestedSchemaContainsFilterColumns() {
+    ParquetReadSupport readSupport = new ParquetReadSupport(nameField(), amountFilter());
+
+    MessageType requested = readSupport.getRequestedSchema(SCHEMA);
+
+    assertTrue(requested.containsField("name"));
+    assertTrue(requested.containsField("amount"));
+    assertFalse(requested.containsField("id"));
+  }
+
+  @Test
+  void testFilterOnColumnWhichIsNotAnOutputField() throws Exception {
+    Path file = folder.resolve("test.parquet");
+    SimpleGroupFactory groupFactory = new SimpleGroupFactory(SCHEMA);
+    try (ParquetWriter<Group> writer =
+        ExampleParquetWriter.builder(new LocalOutputFile(file)).withType(SCHEMA).build()) {
+      writer.write(
+          groupFactory.newGroup().append("id", 1).append("name", "a").append("amount", 10L));
+      writer.write(
+          groupFactory.newGroup().append("id", 2).append("name", "b").append("amount", 1L));
+      writer.write(
+          groupFactory.newGroup().append("id", 3).append("name", "c").append("amount", 20L));
+    }
+
+    List<ParquetField> fields = nameField();
+    List<ParquetFilter> filters = amountFilter();
+    ParquetVfsInputFile inputFile =
+        new ParquetVfsInputFile(HopVfs.getFileObject(file.toAbsolutePath().toString()));
+    List<String> names = new ArrayList<>();
+    try (ParquetReader<RowMetaAndData> reader =
+        new ParquetReaderBuilder<>(new ParquetReadSupport(fields, filters), inputFile)
+            .withFilter(
+                FilterCompat.get(ParquetFilter.createPredicate(filters, SCHEMA, new Variables())))
+            .build()) {
+      RowMetaAndData row;
+      while ((row = reader.read()) != null) {
+        // Only the output fields are in the row, not the filter column
+        //
+        assertEquals(1, row.getRowMeta().size());
+        names.add(row.getString("name", null));
+      }
+    }
+
+    assertEquals(List.of("a", "c"), names);
+  }
+}
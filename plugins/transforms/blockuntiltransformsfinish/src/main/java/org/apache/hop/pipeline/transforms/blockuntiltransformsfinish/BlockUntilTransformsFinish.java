@@ -28,6 +28,7 @@ import org.apache.hop.pipeline.engine.EngineComponent;
 import org.apache.hop.pipeline.engine.IEngineComponent;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformScheduler;
 
 /** Block all incoming rows until defined transforms finish processing rows. */
 public class BlockUntilTransformsFinish
@@ -130,7 +131,7 @@ public class BlockUntilTransformsFinish
 
       if (data.continueLoop) {
         try {
-          Thread.sleep(20);
+          TransformScheduler.sleep(20);
         } catch (Exception e) {
           // ignore
         }
@@ -127,6 +127,11 @@ public class BlockUntilTransformsFinishMeta
     };
   }
 
+  @Override
+  public boolean supportsScheduledExecution() {
+    return false;
+  }
+
   /**
    * Gets blockingTransforms
    *
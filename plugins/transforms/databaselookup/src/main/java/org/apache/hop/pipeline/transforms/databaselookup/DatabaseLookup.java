@@ -41,6 +41,7 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.cache.SharedLookupCache;
 import org.apache.hop.pipeline.transforms.databaselookup.readallcache.ReadAllCache;
 
 /** Looks up values in a database using keys from input streams. */
@@ -116,11 +117,13 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     }
 
     if (add == null
-        && (!(meta.isCached() && meta.isLoadingAllDataInCache()) || data.hasDBCondition)) {
+        && (!(meta.isCached() && meta.isLoadingAllDataInCache())
+            || data.hasDBCondition
+            || !data.cache.isComplete())) {
       // do not go to the
       // database when all rows
       // are in (exception LIKE
-      // operator)
+      // operator, or rows were evicted from a shared cache)
       if (isRowLevel()) {
         logRowlevel(
             BaseMessages.getString(PKG, "DatabaseLookup.Log.AddedValuesToLookupRow1")
@@ -201,7 +204,10 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     // Store in cache if we need to!
     // If we already loaded all data into the cache, storing more makes no sense.
     //
-    if (meta.isCached() && cacheNow && !meta.isLoadingAllDataInCache() && data.allEquals) {
+    if (meta.isCached()
+        && cacheNow
+        && (!meta.isLoadingAllDataInCache() || !data.cache.isComplete())
+        && data.allEquals) {
       data.cache.storeRowInCache(meta, data.lookupMeta, lookupRow, add);
     }
 
@@ -402,10 +408,6 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
         }
       }
 
-      if (meta.isCached()) {
-        data.cache = DefaultCache.newCache(data, meta.getCacheSize());
-      }
-
       determineFieldsTypesQueryingDb();
 
       initNullIf();
@@ -425,10 +427,19 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
         }
       }
 
+      if (meta.isCached()) {
+        data.cache = createCache();
+      }
+
       // If the user selected to load all data into the cache at startup, that's what we do now...
+      // A shared cache is only loaded by the first transform copy, the others use the same rows.
       //
       if (meta.isCached() && meta.isLoadingAllDataInCache()) {
-        loadAllTableDataIntoTheCache();
+        if (data.cache instanceof SharedCache sharedCache) {
+          sharedCache.getRegion().load(region -> loadAllTableDataIntoTheCache());
+        } else {
+          loadAllTableDataIntoTheCache();
+        }
       }
     }
 
@@ -472,6 +483,79 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     return true;
   }
 
+  /**
+   * Create the cache for the looked up rows. A shared cache is only used when all the conditions
+   * are equalities, the other conditions need to scan the cached rows.
+   *
+   * @return the cache to use
+   * @throws HopException in case the database connection can't be described
+   */
+  private DatabaseLookupData.ICache createCache() throws HopException {
+    if (meta.isSharingCache()) {
+      if (data.allEquals) {
+        DatabaseMeta databaseMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
+        String connection = SharedLookupCache.getConnectionKey(databaseMeta, this);
+        SharedLookupCache.Region region =
+            SharedLookupCache.getInstance()
+                .getRegion(
+                    connection,
+                    getCacheSql(),
+                    getCacheKeyColumns(),
+                    meta.getCacheTimeToLive() * 1000L);
+        return new SharedCache(region, getLogChannel());
+      }
+      logBasic(BaseMessages.getString(PKG, "DatabaseLookup.Log.SharedCacheNotUsed"));
+    }
+    return DefaultCache.newCache(data, meta.getCacheSize());
+  }
+
+  /**
+   * Describe the lookup query. Transforms doing the same lookup share the cached rows.
+   *
+   * @return a description of the lookup query
+   */
+  private String getCacheSql() {
+    Lookup lookup = meta.getLookup();
+    StringBuilder sql = new StringBuilder("SELECT");
+    for (ReturnValue returnValue : lookup.getReturnValues()) {
+      // The type and trimming of the returned values are cached as well
+      //
+      sql.append(' ')
+          .append(returnValue.getTableField())
+          .append(' ')
+          .append(returnValue.getDefaultType())
+          .append(' ')
+          .append(returnValue.getTrimType())
+          .append(',');
+    }
+    sql.append(" FROM ")
+        .append(Const.NVL(resolve(meta.getSchemaName()), ""))
+        .append('.')
+        .append(resolve(meta.getTableName()))
+        .append(" WHERE");
+    for (KeyField keyField : lookup.getKeyFields()) {
+      sql.append(' ').append(keyField.getTableField()).append(' ').append(keyField.getCondition());
+    }
+    if (StringUtils.isNotEmpty(lookup.getOrderByClause())) {
+      sql.append(" ORDER BY ").append(lookup.getOrderByClause());
+    }
+    if (lookup.isFailingOnMultipleResults()) {
+      sql.append(" FAIL ON MULTIPLE RESULTS");
+    }
+    return sql.toString();
+  }
+
+  /**
+   * @return the data types of the key values
+   */
+  private String getCacheKeyColumns() {
+    StringBuilder keyColumns = new StringBuilder();
+    for (IValueMeta valueMeta : data.lookupMeta.getValueMetaList()) {
+      keyColumns.append(valueMeta.getTypeDesc()).append(' ');
+    }
+    return keyColumns.toString();
+  }
+
   private void loadAllTableDataIntoTheCache() throws HopException {
     DatabaseMeta dbMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
 
@@ -658,6 +742,17 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   @Override
   public void dispose() {
 
+    if (data.cache instanceof SharedCache sharedCache && isDetailed()) {
+      SharedLookupCache.Region region = sharedCache.getRegion();
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "DatabaseLookup.Log.SharedCacheStatistics",
+              Long.toString(region.getHits()),
+              Long.toString(region.getMisses()),
+              Long.toString(region.getEvictions())));
+    }
+
     if (data.db != null) {
       data.db.disconnect();
     }
@@ -74,5 +74,15 @@ public class DatabaseLookupData extends BaseTransformData implements ITransformD
      */
     void storeRowInCache(
         DatabaseLookupMeta meta, IRowMeta lookupMeta, Object[] lookupRow, Object[] add);
+
+    /**
+     * Tells whether the cache still holds all the rows which were loaded into it. When the cache is
+     * complete, a row which isn't found doesn't exist in the table.
+     *
+     * @return true if no rows were removed from the cache after loading all of them
+     */
+    default boolean isComplete() {
+      return true;
+    }
   }
 }
@@ -81,6 +81,12 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
   private Label wlCacheSize;
   private Text wCacheSize;
 
+  private Label wlCacheShared;
+  private Button wCacheShared;
+
+  private Label wlCacheTimeToLive;
+  private Text wCacheTimeToLive;
+
   private TableView wKey;
 
   private TextVar wSchema;
@@ -363,13 +369,56 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
           }
         });
 
+    // Share the cache
+    wlCacheShared = new Label(fieldGeneralComp, SWT.RIGHT);
+    wlCacheShared.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheShared.Label"));
+    PropsUi.setLook(wlCacheShared);
+    FormData fdlCacheShared = new FormData();
+    fdlCacheShared.left = new FormAttachment(0, 0);
+    fdlCacheShared.right = new FormAttachment(middle, -margin);
+    fdlCacheShared.top = new FormAttachment(wCacheLoadAll, margin);
+    wlCacheShared.setLayoutData(fdlCacheShared);
+    wCacheShared = new Button(fieldGeneralComp, SWT.CHECK);
+    PropsUi.setLook(wCacheShared);
+    FormData fdCacheShared = new FormData();
+    fdCacheShared.left = new FormAttachment(middle, 0);
+    fdCacheShared.top = new FormAttachment(wlCacheShared, 0, SWT.CENTER);
+    wCacheShared.setLayoutData(fdCacheShared);
+    wCacheShared.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+            enableFields();
+          }
+        });
+
+    // Time to live of the shared cache
+    wlCacheTimeToLive = new Label(fieldGeneralComp, SWT.RIGHT);
+    wlCacheTimeToLive.setText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheTimeToLive.Label"));
+    PropsUi.setLook(wlCacheTimeToLive);
+    FormData fdlCacheTimeToLive = new FormData();
+    fdlCacheTimeToLive.left = new FormAttachment(0, 0);
+    fdlCacheTimeToLive.right = new FormAttachment(middle, -margin);
+    fdlCacheTimeToLive.top = new FormAttachment(wCacheShared, margin);
+    wlCacheTimeToLive.setLayoutData(fdlCacheTimeToLive);
+    wCacheTimeToLive = new Text(fieldGeneralComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wCacheTimeToLive);
+    wCacheTimeToLive.addModifyListener(lsMod);
+    FormData fdCacheTimeToLive = new FormData();
+    fdCacheTimeToLive.left = new FormAttachment(middle, 0);
+    fdCacheTimeToLive.right = new FormAttachment(100, 0);
+    fdCacheTimeToLive.top = new FormAttachment(wCacheShared, margin);
+    wCacheTimeToLive.setLayoutData(fdCacheTimeToLive);
+
     // EatRows?
     Label wlEatRows = new Label(fieldGeneralComp, SWT.RIGHT);
     wlEatRows.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.EatRows.Label"));
     PropsUi.setLook(wlEatRows);
     FormData fdlEatRows = new FormData();
     fdlEatRows.left = new FormAttachment(0, 0);
-    fdlEatRows.top = new FormAttachment(wCacheLoadAll, margin);
+    fdlEatRows.top = new FormAttachment(wCacheTimeToLive, margin);
     fdlEatRows.right = new FormAttachment(middle, -margin);
     wlEatRows.setLayoutData(fdlEatRows);
     wEatRows = new Button(fieldGeneralComp, SWT.CHECK);
@@ -645,6 +694,10 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
     wlCacheSize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
     wCacheLoadAll.setEnabled(wCache.getSelection());
     wlCacheLoadAll.setEnabled(wCache.getSelection());
+    wCacheShared.setEnabled(wCache.getSelection());
+    wlCacheShared.setEnabled(wCache.getSelection());
+    wCacheTimeToLive.setEnabled(wCache.getSelection() && wCacheShared.getSelection());
+    wlCacheTimeToLive.setEnabled(wCache.getSelection() && wCacheShared.getSelection());
     wFailMultiple.setEnabled(!wCache.getSelection());
     wlFailMultiple.setEnabled(!wCache.getSelection());
   }
@@ -656,6 +709,8 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
     wCache.setSelection(input.isCached());
     wCacheSize.setText("" + input.getCacheSize());
     wCacheLoadAll.setSelection(input.isLoadingAllDataInCache());
+    wCacheShared.setSelection(input.isSharingCache());
+    wCacheTimeToLive.setText("" + input.getCacheTimeToLive());
 
     Lookup lookup = input.getLookup();
 
@@ -716,6 +771,8 @@ public class DatabaseLookupDialog extends BaseTransformDialog {
     input.setCached(wCache.getSelection());
     input.setCacheSize(Const.toInt(wCacheSize.getText(), 0));
     input.setLoadingAllDataInCache(wCacheLoadAll.getSelection());
+    input.setSharingCache(wCacheShared.getSelection());
+    input.setCacheTimeToLive(Const.toInt(wCacheTimeToLive.getText(), 0));
 
     for (TableItem item : wKey.getNonEmptyItems()) {
       KeyField keyField = new KeyField();
@@ -100,6 +100,18 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
       injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheLoadAll")
   private boolean loadingAllDataInCache;
 
+  /** Share the cached rows with other transform copies and pipelines doing the same lookup */
+  @HopMetadataProperty(
+      key = "cache_shared",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheShared")
+  private boolean sharingCache;
+
+  /** The number of seconds a row stays in the shared cache, 0 to keep it until evicted */
+  @HopMetadataProperty(
+      key = "cache_time_to_live",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheTimeToLive")
+  private int cacheTimeToLive;
+
   @HopMetadataProperty(key = "lookup")
   private Lookup lookup;
 
@@ -112,6 +124,8 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     this.cached = m.cached;
     this.cacheSize = m.cacheSize;
     this.loadingAllDataInCache = m.loadingAllDataInCache;
+    this.sharingCache = m.sharingCache;
+    this.cacheTimeToLive = m.cacheTimeToLive;
     this.lookup = new Lookup(m.lookup);
   }
 
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.databaselookup;
+
+import lombok.Getter;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.pipeline.transform.cache.SharedLookupCache;
+
+/**
+ * A cache which keeps the rows in a region of the {@link SharedLookupCache}. The rows are shared
+ * with the other transform copies and pipelines doing the same lookup. It's only used when all the
+ * lookup conditions are equalities.
+ */
+public class SharedCache implements DatabaseLookupData.ICache {
+
+  @Getter private final SharedLookupCache.Region region;
+  private final ILogChannel log;
+
+  public SharedCache(SharedLookupCache.Region region, ILogChannel log) {
+    this.region = region;
+    this.log = log;
+  }
+
+  @Override
+  public Object[] getRowFromCache(IRowMeta lookupMeta, Object[] lookupRow) {
+    Object[] row = region.get(new RowMetaAndData(lookupMeta, lookupRow));
+    if (row == null) {
+      log.snap(Metrics.METRIC_LOOKUP_CACHE_MISS);
+      return null;
+    }
+    log.snap(Metrics.METRIC_LOOKUP_CACHE_HIT);
+
+    // The cached row is shared, the transform may modify its copy
+    //
+    return row.clone();
+  }
+
+  @Override
+  public void storeRowInCache(
+      DatabaseLookupMeta meta, IRowMeta lookupMeta, Object[] lookupRow, Object[] add) {
+    int nrEvicted = region.put(new RowMetaAndData(lookupMeta, lookupRow), add.clone());
+    if (nrEvicted > 0) {
+      log.snap(Metrics.METRIC_LOOKUP_CACHE_EVICTION, nrEvicted);
+    }
+  }
+
+  @Override
+  public boolean isComplete() {
+    return region.isComplete();
+  }
+}
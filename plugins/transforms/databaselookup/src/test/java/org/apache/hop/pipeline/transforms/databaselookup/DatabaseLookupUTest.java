@@ -22,6 +22,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -35,6 +36,8 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockingDetails;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
@@ -65,6 +68,7 @@ import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.cache.SharedLookupCache;
 import org.apache.hop.pipeline.transforms.databaselookup.readallcache.ReadAllCache;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.junit.jupiter.api.AfterAll;
@@ -406,6 +410,56 @@ class DatabaseLookupUTest {
     assertNotNull(data.cache.getRowFromCache(data.lookupMeta, new Object[] {2L}));
   }
 
+  @Test
+  void sharedCacheIsLoadedOnceForAllCopies() throws Exception {
+    Database db = mock(Database.class);
+    when(db.getRows(anyString(), anyInt()))
+        .thenReturn(Arrays.asList(new Object[] {1L, 10L}, new Object[] {2L, 20L}));
+
+    RowMeta returnRowMeta = new RowMeta();
+    returnRowMeta.addValueMeta(new ValueMetaInteger());
+    returnRowMeta.addValueMeta(new ValueMetaInteger());
+    when(db.getReturnRowMeta()).thenReturn(returnRowMeta);
+
+    try {
+      DatabaseLookupData[] datas = new DatabaseLookupData[2];
+      for (int i = 0; i < datas.length; i++) {
+        DatabaseLookupMeta meta = createTestMeta();
+        meta.setSharingCache(true);
+        meta.getLookup().setTableName("shared_lookup");
+        DatabaseLookupData data = new DatabaseLookupData();
+
+        // Every copy reads its own row
+        //
+        TransformMockHelper<DatabaseLookupMeta, DatabaseLookupData> copyMockHelper =
+            createMockHelper();
+        DatabaseLookup transform = createSpiedTransform(db, copyMockHelper, meta, data);
+        transform.init();
+
+        data.db = db;
+        data.keytypes = new int[] {IValueMeta.TYPE_INTEGER};
+        data.allEquals = true;
+        data.conditions = new int[] {DatabaseLookupMeta.CONDITION_EQ};
+
+        transform.processRow();
+        copyMockHelper.cleanUp();
+        datas[i] = data;
+      }
+
+      verify(db, times(1)).getRows(anyString(), anyInt());
+      assertThat(datas[0].cache, is(instanceOf(SharedCache.class)));
+      assertSame(
+          ((SharedCache) datas[0].cache).getRegion(), ((SharedCache) datas[1].cache).getRegion());
+      assertTrue(datas[1].cache.isComplete());
+
+      IRowMeta lookupMeta = new RowMeta();
+      lookupMeta.addValueMeta(new ValueMetaInteger());
+      assertNotNull(datas[1].cache.getRowFromCache(lookupMeta, new Object[] {2L}));
+    } finally {
+      SharedLookupCache.getInstance().invalidate(null);
+    }
+  }
+
   public class MockDatabaseLookup extends DatabaseLookup {
     public MockDatabaseLookup(
         TransformMeta transformMeta,
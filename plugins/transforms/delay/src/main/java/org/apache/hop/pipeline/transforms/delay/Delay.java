@@ -29,6 +29,7 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformScheduler;
 
 /** Delay input row. */
 public class Delay extends BaseTransform<DelayMeta, DelayData> {
@@ -262,7 +263,7 @@ public class Delay extends BaseTransform<DelayMeta, DelayData> {
 
     if (delayMillis < 1000L) {
       try {
-        Thread.sleep(delayMillis);
+        TransformScheduler.sleep(delayMillis);
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
       }
@@ -277,7 +278,7 @@ public class Delay extends BaseTransform<DelayMeta, DelayData> {
       }
       long sleepChunk = Math.min(remaining, 1000L);
       try {
-        Thread.sleep(sleepChunk);
+        TransformScheduler.sleep(sleepChunk);
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
         break;
@@ -24,13 +24,16 @@ import static org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookup
 import static org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.StartDateAlternative.NULL;
 import static org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.StartDateAlternative.SYSTEM_DATE;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.IntStream;
 import org.apache.commons.lang3.StringUtils;
@@ -66,12 +69,16 @@ import org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.Te
 public class DimensionLookup extends BaseTransform<DimensionLookupMeta, DimensionLookupData> {
 
   private static final Class<?> PKG = DimensionLookupMeta.class;
+
   public static final String CONST_DIMENSION_LOOKUP_EXCEPTION_KEY_FIELD_NOT_FOUND =
       "DimensionLookup.Exception.KeyFieldNotFound";
   public static final String CONST_UPDATE = "UPDATE ";
   public static final String CONST_AND = "AND   ";
   public static final String CONST_WHERE = " WHERE ";
 
+  /** The maximum number of parameters in a single batch lookup query. */
+  private static final int MAX_BATCH_LOOKUP_PARAMETERS = 1000;
+
   int[] columnLookupArray = null;
 
   public DimensionLookup(
@@ -89,6 +96,11 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     Object[] r = getRow();
     if (r == null) {
       // No more input is to be expected.
+      // Look up the rows which are still waiting in the last batch first.
+      //
+      if (data.batchRows != null && !data.batchRows.isEmpty() && !lookupBatch()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -178,6 +190,18 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
               new ByteArrayHashMap(
                   meta.getCacheSize() > 0 ? meta.getCacheSize() : 5000, data.cacheKeyRowMeta);
         }
+
+        if (meta.isUpdate() && meta.isPreloadingCache() && meta.getCacheSize() >= 0) {
+          preloadCurrentVersions();
+        }
+
+        // Look up the natural keys of a batch of rows with a single query?
+        //
+        if (meta.getBatchLookupSize() > 0
+            && meta.getCacheSize() >= 0
+            && !(data.cacheComplete && meta.isTrustingMissingKeys())) {
+          data.batchRows = new ArrayList<>(meta.getBatchLookupSize());
+        }
       }
 
       if (StringUtils.isNotEmpty(f.getDate().getName())) {
@@ -219,6 +243,45 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
       r[lazyFieldIndex] = valueMeta.convertToNormalStorageType(r[lazyFieldIndex]);
     }
 
+    if (data.batchRows != null) {
+      data.batchRows.add(r);
+      if (data.batchRows.size() < meta.getBatchLookupSize()) {
+        return true;
+      }
+      return lookupBatch();
+    }
+
+    return lookupRow(r);
+  }
+
+  /**
+   * Look up the natural keys of the buffered rows which aren't in the cache with a single query,
+   * then handle the buffered rows one by one.
+   *
+   * @return false if the transform can't continue
+   */
+  private boolean lookupBatch() throws HopException {
+    try {
+      prefetchBatch();
+      for (Object[] row : data.batchRows) {
+        if (!lookupRow(row)) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      data.batchRows.clear();
+      data.batchVersions = null;
+    }
+  }
+
+  /**
+   * Handle a single input row: look up or update the dimension entry and pass the row on.
+   *
+   * @param r the input row, converted to normal storage
+   * @return false if the transform can't continue
+   */
+  private boolean lookupRow(Object[] r) throws HopException {
     try {
       Object[] outputRow =
           lookupValues(data.inputRowMeta, r); // add new values to the row in rowset[0].
@@ -413,6 +476,270 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     }
   }
 
+  /**
+   * Pre-load the cache in update mode with the dimension entries. Later versions replace earlier
+   * ones so that the cache ends up with the current version of every natural key. When all keys fit
+   * in the cache, a key which isn't in there is a new one and doesn't need to be looked up in the
+   * database. Inserts and updates are applied to the cache as we go.
+   *
+   * @throws HopException in case there is a database or cache problem.
+   */
+  private void preloadCurrentVersions() throws HopException {
+    DLFields f = meta.getFields();
+
+    StringBuilder sql = new StringBuilder(getLookupSelectClause());
+    for (DLKey key : f.getKeys()) {
+      sql.append(", ").append(data.databaseMeta.quoteField(key.getLookup()));
+    }
+    sql.append(" FROM ").append(data.schemaTable);
+    sql.append(" ORDER BY ").append(data.databaseMeta.quoteField(f.getReturns().getVersionField()));
+
+    if (isDetailed()) {
+      logDetailed("Pre-loading cache by reading from database with: " + Const.CR + sql + Const.CR);
+    }
+
+    ResultSet resultSet = data.db.openQuery(sql.toString());
+    try {
+      IRowMeta resultMeta = data.db.getReturnRowMeta();
+      int nrValues = resultMeta.size() - data.keynrs.length;
+      data.returnRowMeta = getReturnRowMeta(resultMeta, nrValues);
+      data.cacheValueRowMeta = assembleCacheValueRowMeta();
+      data.keysComparable = isKeysComparable(resultMeta, nrValues);
+
+      boolean complete = true;
+      Object[] result;
+      while ((result = data.db.getRow(resultSet)) != null) {
+        byte[] keyPart =
+            RowMeta.extractData(data.cacheKeyRowMeta, getKeyValues(resultMeta, result, nrValues));
+
+        // Stay within the size of the cache
+        //
+        if (meta.getCacheSize() > 0
+            && data.cache.size() >= meta.getCacheSize()
+            && data.cache.get(keyPart) == null) {
+          complete = false;
+          break;
+        }
+        data.cache.put(
+            keyPart, RowMeta.extractData(data.cacheValueRowMeta, Arrays.copyOf(result, nrValues)));
+        incrementLinesInput();
+      }
+      data.cacheComplete = complete && data.keysComparable;
+
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "DimensionLookup.Log.CachePreloaded",
+                String.valueOf(data.cache.size()),
+                String.valueOf(data.cacheComplete)));
+      }
+    } finally {
+      data.db.closeQuery(resultSet);
+    }
+  }
+
+  /**
+   * Look up the natural keys of the rows in the current batch which aren't in the cache. This is
+   * done with one query: an IN list for a single key, a list of key combinations otherwise. All the
+   * versions found are kept for the rows of the batch.
+   *
+   * @throws HopException in case there is a database problem.
+   */
+  private void prefetchBatch() throws HopException {
+    int nrKeys = data.keynrs.length;
+
+    // The distinct natural keys which aren't in the cache
+    //
+    Map<RowMetaAndData, List<Object[]>> versions = new HashMap<>();
+    for (Object[] row : data.batchRows) {
+      Object[] keyValues = new Object[nrKeys];
+      for (int i = 0; i < nrKeys; i++) {
+        keyValues[i] = row[data.keynrs[i]];
+      }
+      if (data.cache.get(RowMeta.extractData(data.cacheKeyRowMeta, keyValues)) == null) {
+        versions.putIfAbsent(
+            new RowMetaAndData(data.cacheKeyRowMeta, keyValues), new ArrayList<>());
+      }
+    }
+    data.batchVersions = versions;
+    if (versions.isEmpty()) {
+      return;
+    }
+
+    // Stay below the maximum number of parameters of a statement
+    //
+    List<RowMetaAndData> keys = new ArrayList<>(versions.keySet());
+    int keysPerQuery = Math.max(1, MAX_BATCH_LOOKUP_PARAMETERS / nrKeys);
+    for (int from = 0; from < keys.size(); from += keysPerQuery) {
+      prefetchKeys(keys.subList(from, Math.min(keys.size(), from + keysPerQuery)), versions);
+    }
+  }
+
+  /**
+   * Look up the given natural keys with a single query and add the versions found.
+   *
+   * @param keys the natural keys to look up
+   * @param versions the versions per natural key
+   * @throws HopException in case there is a database problem.
+   */
+  private void prefetchKeys(List<RowMetaAndData> keys, Map<RowMetaAndData, List<Object[]>> versions)
+      throws HopException {
+    DLFields f = meta.getFields();
+    int nrKeys = data.keynrs.length;
+
+    StringBuilder sql = new StringBuilder(getLookupSelectClause());
+    for (DLKey key : f.getKeys()) {
+      sql.append(", ").append(data.databaseMeta.quoteField(key.getLookup()));
+    }
+    sql.append(" FROM ").append(data.schemaTable).append(CONST_WHERE);
+
+    IRowMeta paramsMeta = new RowMeta();
+    Object[] params = new Object[keys.size() * nrKeys];
+    int paramIndex = 0;
+    if (nrKeys == 1) {
+      sql.append(data.databaseMeta.quoteField(f.getKeys().get(0).getLookup())).append(" IN (");
+    }
+    for (RowMetaAndData key : keys) {
+      if (paramIndex > 0) {
+        sql.append(nrKeys == 1 ? ", " : " OR ");
+      }
+      if (nrKeys == 1) {
+        sql.append("?");
+      } else {
+        sql.append("( ");
+        for (int i = 0; i < nrKeys; i++) {
+          if (i > 0) {
+            sql.append(" AND ");
+          }
+          sql.append(data.databaseMeta.quoteField(f.getKeys().get(i).getLookup())).append(" = ?");
+        }
+        sql.append(" )");
+      }
+      for (int i = 0; i < nrKeys; i++) {
+        paramsMeta.addValueMeta(data.cacheKeyRowMeta.getValueMeta(i).clone());
+        params[paramIndex++] = key.getData()[i];
+      }
+    }
+    if (nrKeys == 1) {
+      sql.append(")");
+    }
+
+    if (isDebug()) {
+      logDebug("Looking up a batch of " + keys.size() + " natural keys with: " + sql);
+    }
+
+    List<Object[]> results =
+        data.db.getRows(
+            data.databaseMeta.stripCR(sql),
+            paramsMeta,
+            params,
+            ResultSet.FETCH_FORWARD,
+            false,
+            -1,
+            null);
+    IRowMeta resultMeta = data.db.getReturnRowMeta();
+    int nrValues = resultMeta.size() - nrKeys;
+    if (data.returnRowMeta == null) {
+      data.returnRowMeta = getReturnRowMeta(resultMeta, nrValues);
+      data.keysComparable = isKeysComparable(resultMeta, nrValues);
+    }
+
+    for (Object[] result : results) {
+      RowMetaAndData key =
+          new RowMetaAndData(data.cacheKeyRowMeta, getKeyValues(resultMeta, result, nrValues));
+      List<Object[]> keyVersions = versions.get(key);
+      if (keyVersions != null) {
+        keyVersions.add(Arrays.copyOf(result, nrValues));
+      }
+      incrementLinesInput();
+    }
+  }
+
+  /**
+   * @return the SELECT clause of the dimension lookup: the technical key, the version, the fields
+   *     to retrieve and the date range if we're caching.
+   */
+  private String getLookupSelectClause() throws HopTransformException {
+    DLFields f = meta.getFields();
+
+    StringBuilder sql = new StringBuilder();
+
+    sql.append("SELECT ")
+        .append(data.databaseMeta.quoteField(f.getReturns().getKeyField()))
+        .append(", ")
+        .append(data.databaseMeta.quoteField(f.getReturns().getVersionField()));
+
+    for (DLField field : f.getFields()) {
+      // Don't retrieve the fields without input
+      if (StringUtils.isNotEmpty(field.getLookup())
+          && isLookupOrUpdateTypeWithArgument(meta.isUpdate(), field)) {
+        sql.append(", ").append(data.databaseMeta.quoteField(field.getLookup()));
+
+        if (StringUtils.isNotEmpty(field.getName()) && !field.getLookup().equals(field.getName())) {
+          sql.append(" AS ").append(data.databaseMeta.quoteField(field.getName()));
+        }
+      }
+    }
+
+    if (meta.getCacheSize() >= 0) {
+      sql.append(", ")
+          .append(data.databaseMeta.quoteField(f.getDate().getFrom()))
+          .append(", ")
+          .append(data.databaseMeta.quoteField(f.getDate().getTo()));
+    }
+    return sql.toString();
+  }
+
+  /** The first values of a result row are the ones of the lookup, followed by the natural keys. */
+  private IRowMeta getReturnRowMeta(IRowMeta resultMeta, int nrValues) {
+    IRowMeta returnRowMeta = new RowMeta();
+    for (int i = 0; i < nrValues; i++) {
+      returnRowMeta.addValueMeta(resultMeta.getValueMeta(i));
+    }
+    return returnRowMeta;
+  }
+
+  /** Get the natural keys of a result row, converted to the data types of the input keys. */
+  private Object[] getKeyValues(IRowMeta resultMeta, Object[] result, int nrValues)
+      throws HopValueException {
+    Object[] keyValues = new Object[data.keynrs.length];
+    for (int i = 0; i < keyValues.length; i++) {
+      keyValues[i] =
+          data.cacheKeyRowMeta
+              .getValueMeta(i)
+              .convertData(resultMeta.getValueMeta(nrValues + i), result[nrValues + i]);
+    }
+    return keyValues;
+  }
+
+  private boolean isKeysComparable(IRowMeta resultMeta, int nrValues) {
+    for (int i = 0; i < data.keynrs.length; i++) {
+      if (data.cacheKeyRowMeta.getValueMeta(i).getType()
+          != resultMeta.getValueMeta(nrValues + i).getType()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Find the version of a dimension entry for the given date in the versions found by a batch
+   * lookup.
+   *
+   * @param versions the versions of the natural key found by the batch lookup
+   * @param valueDate the lookup date
+   * @return the version or null if there is none for the date
+   */
+  private Object[] getFromBatch(List<Object[]> versions, Date valueDate) {
+    for (Object[] version : versions) {
+      if (isInDateRange(version, valueDate)) {
+        return version;
+      }
+    }
+    return null;
+  }
+
   private synchronized Object[] lookupValues(IRowMeta rowMeta, Object[] row) throws HopException {
     DLFields f = meta.getFields();
 
@@ -503,9 +830,32 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
       }
 
       // Nothing found in the cache?
+      // See if the natural key was looked up in the current batch or if it's a new key.
+      //
+      boolean resolved = false;
+      if (returnRow == null && data.batchVersions != null) {
+        List<Object[]> versions =
+            data.batchVersions.get(
+                new RowMetaAndData(
+                    data.cacheKeyRowMeta, Arrays.copyOf(lookupRow, data.keynrs.length)));
+        if (versions != null) {
+          returnRow = getFromBatch(versions, valueDate);
+          resolved = returnRow != null || (meta.isTrustingMissingKeys() && data.keysComparable);
+          if (returnRow != null) {
+            addToCache(lookupRow, returnRow);
+          }
+        }
+      } else if (returnRow == null && data.cacheComplete && meta.isTrustingMissingKeys()) {
+        // All natural keys of the dimension are in the cache: a key which isn't there is a new one.
+        // The database can compare keys differently (collation, padding, scale), so this is only
+        // done when asked for.
+        //
+        resolved = data.cache.get(RowMeta.extractData(data.cacheKeyRowMeta, lookupRow)) == null;
+      }
+
       // Perform the lookup in the database...
       //
-      if (returnRow == null) {
+      if (returnRow == null && !resolved) {
         data.db.setValues(data.lookupRowMeta, lookupRow, data.prepStatementLookup);
         returnRow = data.db.getLookup(data.prepStatementLookup);
         data.returnRowMeta = data.db.getReturnRowMeta();
@@ -625,6 +975,16 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
 
         returnRow[returnIndex] = technicalKey;
 
+        // We need to capture the new entry in the cache as well...
+        if (meta.getCacheSize() >= 0 && technicalKey != null) {
+          Object[] values =
+              getCacheValues(rowMeta, row, technicalKey, valueVersion, valueDateFrom, valueDateTo);
+          if (values != null) {
+            addToCache(lookupRow, values);
+          }
+        }
+        forgetBatchVersions(lookupRow);
+
         if (isRowLevel()) {
           logRowlevel(
               BaseMessages.getString(PKG, "DimensionLookup.Log.AddedDimensionEntry")
@@ -865,6 +1225,9 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
           dimPunchThrough(rowMeta, row);
           incrementLinesUpdated();
         }
+        if (!identical) {
+          forgetBatchVersions(lookupRow);
+        }
 
         returnRow = new Object[data.returnRowMeta.size()];
         returnRow[0] = technicalKey;
@@ -938,31 +1301,7 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
      * SELECT <tk>, <version>, ... , FROM <table> WHERE key1=keys[1] AND key2=keys[2] ... AND ( <datefrom> is null OR
      * <datefrom> <= <datefield> ) AND <dateto> >= <datefield>
      */
-    StringBuilder sql = new StringBuilder();
-
-    sql.append("SELECT ")
-        .append(data.databaseMeta.quoteField(f.getReturns().getKeyField()))
-        .append(", ")
-        .append(data.databaseMeta.quoteField(f.getReturns().getVersionField()));
-
-    for (DLField field : f.getFields()) {
-      // Don't retrieve the fields without input
-      if (StringUtils.isNotEmpty(field.getLookup())
-          && isLookupOrUpdateTypeWithArgument(meta.isUpdate(), field)) {
-        sql.append(", ").append(data.databaseMeta.quoteField(field.getLookup()));
-
-        if (StringUtils.isNotEmpty(field.getName()) && !field.getLookup().equals(field.getName())) {
-          sql.append(" AS ").append(data.databaseMeta.quoteField(field.getName()));
-        }
-      }
-    }
-
-    if (meta.getCacheSize() >= 0) {
-      sql.append(", ")
-          .append(data.databaseMeta.quoteField(f.getDate().getFrom()))
-          .append(", ")
-          .append(data.databaseMeta.quoteField(f.getDate().getTo()));
-    }
+    StringBuilder sql = new StringBuilder(getLookupSelectClause());
 
     sql.append(" FROM ").append(data.schemaTable).append(CONST_WHERE);
 
@@ -1757,6 +2096,9 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
         }
       }
 
+      // Evicted natural keys are no longer known to be complete
+      data.cacheComplete = false;
+
       int sizeAfter = data.cache.size();
       if (isDetailed()) {
         logDetailed("Reduced the lookup cache from " + sizeBefore + " to " + sizeAfter + " rows.");
@@ -1772,6 +2114,20 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     }
   }
 
+  /**
+   * The versions of a natural key found by the batch lookup are outdated once the dimension entry
+   * is inserted or updated. Later rows with the same key are looked up in the cache or the
+   * database.
+   *
+   * @param keyValues the natural key values
+   */
+  private void forgetBatchVersions(Object[] keyValues) {
+    if (data.batchVersions != null) {
+      data.batchVersions.remove(
+          new RowMetaAndData(data.cacheKeyRowMeta, Arrays.copyOf(keyValues, data.keynrs.length)));
+    }
+  }
+
   /**
    * @return the cache value row metadata. The items that are cached is basically the return row
    *     metadata:<br>
@@ -1797,22 +2153,7 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     if (value != null) {
       Object[] row = RowMeta.getRow(data.cacheValueRowMeta, value);
 
-      // See if the dateValue is between the from and to date ranges...
-      // The last 2 values are from and to
-      long time = dateValue.getTime();
-      long from = 0L;
-      long to = 0L;
-
-      Date dateFrom = (Date) row[row.length - 2];
-      if (dateFrom != null) {
-        from = dateFrom.getTime();
-      }
-      Date dateTo = (Date) row[row.length - 1];
-      if (dateTo != null) {
-        to = dateTo.getTime();
-      }
-
-      if (time >= from && time < to) { // sanity check to see if we have the right version
+      if (isInDateRange(row, dateValue)) { // sanity check to see if we have the right version
         if (isRowLevel()) {
           logRowlevel(
               "Cache hit: key="
@@ -1826,6 +2167,26 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     return null;
   }
 
+  /**
+   * See if the date value is between the from and to date ranges of a dimension entry. The last 2
+   * values of the row are from and to.
+   */
+  private static boolean isInDateRange(Object[] row, Date dateValue) {
+    long time = dateValue.getTime();
+    long from = 0L;
+    long to = 0L;
+
+    Date dateFrom = (Date) row[row.length - 2];
+    if (dateFrom != null) {
+      from = dateFrom.getTime();
+    }
+    Date dateTo = (Date) row[row.length - 1];
+    if (dateTo != null) {
+      to = dateTo.getTime();
+    }
+    return time >= from && time < to;
+  }
+
   public void checkDimZero() throws HopException {
     // Manually disabled
     if (meta.isUnknownRowCheckDisabled()) {
@@ -20,6 +20,8 @@ package org.apache.hop.pipeline.transforms.dimensionlookup;
 import java.sql.PreparedStatement;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.hash.ByteArrayHashMap;
@@ -45,6 +47,21 @@ public class DimensionLookupData extends BaseTransformData implements ITransform
 
   public long smallestCacheKey;
 
+  /** True if every natural key of the dimension is in the cache, see the pre-load in update mode */
+  public boolean cacheComplete;
+
+  /** The rows waiting for a batch lookup of their natural keys */
+  public List<Object[]> batchRows;
+
+  /** The versions found in the dimension for the natural keys of the current batch */
+  public Map<RowMetaAndData, List<Object[]>> batchVersions;
+
+  /**
+   * True if the natural keys in the dimension table have the same data types as the ones in the
+   * input: only then a key not found in a batch or in a complete cache is really not there.
+   */
+  public boolean keysComparable;
+
   public IValueMeta notFoundTkMeta;
   public Object notFoundTk;
 
@@ -107,6 +107,12 @@ public class DimensionLookupDialog extends BaseTransformDialog {
   private Label wlCacheSize;
   private Text wCacheSize;
 
+  private Label wlBatchLookupSize;
+  private Text wBatchLookupSize;
+
+  private Label wlTrustMissingKeys;
+  private Button wTrustMissingKeys;
+
   private Combo wTk;
 
   private Label wlTkRename;
@@ -416,6 +422,46 @@ public class DimensionLookupDialog extends BaseTransformDialog {
     fdCacheSize.right = new FormAttachment(100, 0);
     wCacheSize.setLayoutData(fdCacheSize);
 
+    // Batch lookup size ...
+    wlBatchLookupSize = new Label(wPhysicalComp, SWT.RIGHT);
+    wlBatchLookupSize.setText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.BatchLookupSize.Label"));
+    PropsUi.setLook(wlBatchLookupSize);
+    FormData fdlBatchLookupSize = new FormData();
+    fdlBatchLookupSize.left = new FormAttachment(0, 0);
+    fdlBatchLookupSize.right = new FormAttachment(middle, -margin);
+    fdlBatchLookupSize.top = new FormAttachment(wCacheSize, margin);
+    wlBatchLookupSize.setLayoutData(fdlBatchLookupSize);
+    wBatchLookupSize = new Text(wPhysicalComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wBatchLookupSize.setToolTipText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.BatchLookupSize.Tooltip"));
+    PropsUi.setLook(wBatchLookupSize);
+    FormData fdBatchLookupSize = new FormData();
+    fdBatchLookupSize.left = new FormAttachment(middle, 0);
+    fdBatchLookupSize.top = new FormAttachment(wCacheSize, margin);
+    fdBatchLookupSize.right = new FormAttachment(100, 0);
+    wBatchLookupSize.setLayoutData(fdBatchLookupSize);
+
+    // Trust missing keys ...
+    wlTrustMissingKeys = new Label(wPhysicalComp, SWT.RIGHT);
+    wlTrustMissingKeys.setText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.TrustMissingKeys.Label"));
+    PropsUi.setLook(wlTrustMissingKeys);
+    FormData fdlTrustMissingKeys = new FormData();
+    fdlTrustMissingKeys.left = new FormAttachment(0, 0);
+    fdlTrustMissingKeys.right = new FormAttachment(middle, -margin);
+    fdlTrustMissingKeys.top = new FormAttachment(wBatchLookupSize, margin);
+    wlTrustMissingKeys.setLayoutData(fdlTrustMissingKeys);
+    wTrustMissingKeys = new Button(wPhysicalComp, SWT.CHECK);
+    wTrustMissingKeys.setToolTipText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.TrustMissingKeys.Tooltip"));
+    PropsUi.setLook(wTrustMissingKeys);
+    FormData fdTrustMissingKeys = new FormData();
+    fdTrustMissingKeys.left = new FormAttachment(middle, 0);
+    fdTrustMissingKeys.top = new FormAttachment(wlTrustMissingKeys, 0, SWT.CENTER);
+    fdTrustMissingKeys.right = new FormAttachment(100, 0);
+    wTrustMissingKeys.setLayoutData(fdTrustMissingKeys);
+
     FormData fdPhysicalComp = new FormData();
     fdPhysicalComp.left = new FormAttachment(0, 0);
     fdPhysicalComp.top = new FormAttachment(0, 0);
@@ -1171,11 +1217,18 @@ public class DimensionLookupDialog extends BaseTransformDialog {
 
     // Caching...
     //
-    wlPreloadCache.setEnabled(wUseCache.getSelection() && !wUpdate.getSelection());
-    wPreloadCache.setEnabled(wUseCache.getSelection() && !wUpdate.getSelection());
+    // In update mode the pre-loaded cache is limited by the cache size and it's kept up to date.
+    //
+    wlPreloadCache.setEnabled(wUseCache.getSelection());
+    wPreloadCache.setEnabled(wUseCache.getSelection());
 
-    wlCacheSize.setEnabled(wUseCache.getSelection() && !wPreloadCache.getSelection());
-    wCacheSize.setEnabled(wUseCache.getSelection() && !wPreloadCache.getSelection());
+    boolean sortedPreload = wPreloadCache.getSelection() && !wUpdate.getSelection();
+    wlCacheSize.setEnabled(wUseCache.getSelection() && !sortedPreload);
+    wCacheSize.setEnabled(wUseCache.getSelection() && !sortedPreload);
+    wlBatchLookupSize.setEnabled(wUseCache.getSelection() && !sortedPreload);
+    wBatchLookupSize.setEnabled(wUseCache.getSelection() && !sortedPreload);
+    wlTrustMissingKeys.setEnabled(wUseCache.getSelection() && !sortedPreload);
+    wTrustMissingKeys.setEnabled(wUseCache.getSelection() && !sortedPreload);
 
     // The unknown record
     //
@@ -1272,6 +1325,8 @@ public class DimensionLookupDialog extends BaseTransformDialog {
     wUseCache.setSelection(input.getCacheSize() >= 0);
     wPreloadCache.setSelection(input.isPreloadingCache());
     wCacheSize.setText("" + input.getCacheSize());
+    wBatchLookupSize.setText("" + input.getBatchLookupSize());
+    wTrustMissingKeys.setSelection(input.isTrustingMissingKeys());
 
     wMinYear.setText("" + input.getMinYear());
     wMaxYear.setText("" + input.getMaxYear());
@@ -1394,9 +1449,11 @@ public class DimensionLookupDialog extends BaseTransformDialog {
       in.setCacheSize(-1);
     }
     in.setPreloadingCache(wPreloadCache.getSelection());
-    if (wPreloadCache.getSelection()) {
+    if (wPreloadCache.getSelection() && !wUpdate.getSelection()) {
       in.setCacheSize(0);
     }
+    in.setBatchLookupSize(Const.toInt(wBatchLookupSize.getText(), 0));
+    in.setTrustingMissingKeys(wTrustMissingKeys.getSelection());
 
     in.setMinYear(Const.toInt(wMinYear.getText(), Const.MIN_YEAR));
     in.setMaxYear(Const.toInt(wMaxYear.getText(), Const.MAX_YEAR));
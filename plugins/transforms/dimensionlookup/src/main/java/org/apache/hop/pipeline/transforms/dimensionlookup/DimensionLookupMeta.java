@@ -154,6 +154,26 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
       injectionKeyDescription = "DimensionLookup.Injection.CACHE_SIZE")
   private int cacheSize;
 
+  /**
+   * The number of rows for which the natural keys are looked up with a single query: 0 means: look
+   * up one row at a time
+   */
+  @HopMetadataProperty(
+      key = "batch_lookup_size",
+      injectionKey = "BATCH_LOOKUP_SIZE",
+      injectionKeyDescription = "DimensionLookup.Injection.BATCH_LOOKUP_SIZE")
+  private int batchLookupSize;
+
+  /**
+   * Flag to indicate that a natural key which isn't found by a batch lookup or in a complete
+   * pre-loaded cache is new, without looking it up on its own in the database
+   */
+  @HopMetadataProperty(
+      key = "trust_missing_keys",
+      injectionKey = "TRUST_MISSING_KEYS",
+      injectionKeyDescription = "DimensionLookup.Injection.TRUST_MISSING_KEYS")
+  private boolean trustingMissingKeys;
+
   /** Flag to indicate we're going to use an alternative start date */
   @HopMetadataProperty(
       key = "use_start_date_alternative",
@@ -219,6 +239,8 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
     this.minYear = m.minYear;
     this.maxYear = m.maxYear;
     this.cacheSize = m.cacheSize;
+    this.batchLookupSize = m.batchLookupSize;
+    this.trustingMissingKeys = m.trustingMissingKeys;
     this.usingStartDateAlternative = m.usingStartDateAlternative;
     this.startDateAlternative = m.startDateAlternative;
     this.startDateFieldName = m.startDateFieldName;
@@ -248,6 +270,8 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
     fields.returns.versionField = "version";
 
     cacheSize = 5000;
+    batchLookupSize = 0;
+    trustingMissingKeys = false;
     preloadingCache = false;
     unknownRowCheckDisabled = false;
   }
@@ -53,6 +53,8 @@ class DimensionLookupMetaTest {
     assertTrue(meta.isUpdate());
     assertEquals(100, meta.getCommitSize());
     assertEquals(5000, meta.getCacheSize());
+    assertEquals(500, meta.getBatchLookupSize());
+    assertTrue(meta.isTrustingMissingKeys());
     assertEquals(1, meta.getFields().getKeys().size());
     assertEquals(2, meta.getFields().getFields().size());
 
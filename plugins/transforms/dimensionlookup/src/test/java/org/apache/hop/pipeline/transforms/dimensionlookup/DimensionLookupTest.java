@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.dimensionlookup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.IDatabase;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.DLKey;
+import org.apache.hop.pipeline.transforms.dimensionlookup.DimensionLookupMeta.TechnicalKeyCreationMethod;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class DimensionLookupTest {
+  private TransformMockHelper<DimensionLookupMeta, DimensionLookupData> mockHelper;
+
+  @BeforeEach
+  void setUp() {
+    mockHelper =
+        new TransformMockHelper<>(
+            "Dimension lookup", DimensionLookupMeta.class, DimensionLookupData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  private DimensionLookupMeta createBatchLookupMeta(boolean trustingMissingKeys) {
+    DimensionLookupMeta meta = new DimensionLookupMeta();
+    meta.setDefault();
+    meta.setUpdate(false);
+    meta.setConnection("dwh");
+    meta.setTableName("dim_customer");
+    meta.setBatchLookupSize(10);
+    meta.setTrustingMissingKeys(trustingMissingKeys);
+    DLKey key = new DLKey();
+    key.setName("id");
+    key.setLookup("customer_id");
+    meta.getFields().getKeys().add(key);
+    meta.getFields().getReturns().setKeyField("tk");
+    meta.getFields().getReturns().setCreationMethod(TechnicalKeyCreationMethod.TABLE_MAXIMUM);
+    return meta;
+  }
+
+  private Database createBatchLookupDatabase(DimensionLookupMeta meta, Date now) throws Exception {
+    Connection connection = mock(Connection.class);
+    when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+    Database db = mock(Database.class);
+    when(db.getConnection()).thenReturn(connection);
+
+    // Customer 1 has 2 versions, customer 2 has one and customer 3 is not in the dimension
+    //
+    Date minDate = meta.getMinDate();
+    Date maxDate = meta.getMaxDate();
+    IRowMeta resultMeta = new RowMeta();
+    resultMeta.addValueMeta(new ValueMetaInteger("tk"));
+    resultMeta.addValueMeta(new ValueMetaInteger("version"));
+    resultMeta.addValueMeta(new ValueMetaDate("date_from"));
+    resultMeta.addValueMeta(new ValueMetaDate("date_to"));
+    resultMeta.addValueMeta(new ValueMetaInteger("customer_id"));
+    when(db.getReturnRowMeta()).thenReturn(resultMeta);
+    when(db.getRows(
+            anyString(), any(IRowMeta.class), any(), anyInt(), anyBoolean(), anyInt(), any()))
+        .thenReturn(
+            Arrays.asList(
+                new Object[] {10L, 1L, minDate, new Date(now.getTime() - 1000L), 1L},
+                new Object[] {11L, 2L, new Date(now.getTime() - 1000L), maxDate, 1L},
+                new Object[] {20L, 1L, minDate, maxDate, 2L}));
+    return db;
+  }
+
+  private List<Object[]> runBatchLookup(DimensionLookupMeta meta, Database db, Object[]... rows)
+      throws Exception {
+    DatabaseMeta databaseMeta = mock(DatabaseMeta.class);
+    when(databaseMeta.quoteField(anyString())).thenAnswer(i -> i.getArgument(0));
+    when(databaseMeta.stripCR(any(StringBuilder.class)))
+        .thenAnswer(i -> i.getArgument(0).toString());
+    when(databaseMeta.getQuotedSchemaTableCombination(any(), any(), any()))
+        .thenReturn("dim_customer");
+    when(databaseMeta.getIDatabase()).thenReturn(mock(IDatabase.class));
+
+    IRowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("id"));
+
+    DimensionLookupData data = new DimensionLookupData();
+    data.databaseMeta = databaseMeta;
+    data.db = db;
+    data.minDate = meta.getMinDate();
+    data.maxDate = meta.getMaxDate();
+    data.startDateAlternative = DimensionLookupMeta.StartDateAlternative.NONE;
+
+    DimensionLookup transform =
+        spy(
+            new DimensionLookup(
+                mockHelper.transformMeta,
+                meta,
+                data,
+                0,
+                mockHelper.pipelineMeta,
+                mockHelper.pipeline));
+    doReturn(inputRowMeta).when(transform).getInputRowMeta();
+    Object[][] input = Arrays.copyOf(rows, rows.length + 1);
+    doReturn(input[0], Arrays.copyOfRange(input, 1, input.length)).when(transform).getRow();
+    List<Object[]> output = new ArrayList<>();
+    doAnswer(i -> output.add(i.getArgument(1))).when(transform).putRow(any(), any());
+
+    while (transform.processRow()) {
+      // Buffering rows until the end of the input
+    }
+    return output;
+  }
+
+  @Test
+  void batchLookupResolvesMissingKeysWithOneQuery() throws Exception {
+    DimensionLookupMeta meta = createBatchLookupMeta(true);
+    Date now = new Date();
+    when(mockHelper.pipeline.getExecutionStartDate()).thenReturn(now);
+    Database db = createBatchLookupDatabase(meta, now);
+
+    List<Object[]> output =
+        runBatchLookup(
+            meta, db, new Object[] {1L}, new Object[] {2L}, new Object[] {3L}, new Object[] {1L});
+
+    // One query for the 3 distinct keys, no lookups row by row
+    //
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    verify(db, times(1))
+        .getRows(
+            sql.capture(), any(IRowMeta.class), any(), anyInt(), anyBoolean(), anyInt(), any());
+    assertTrue(sql.getValue().contains("customer_id IN (?, ?, ?)"), sql.getValue());
+    verify(db, never()).getLookup(any(PreparedStatement.class));
+
+    assertEquals(4, output.size());
+    assertEquals(11L, output.get(0)[1]);
+    assertEquals(20L, output.get(1)[1]);
+    assertEquals(0L, output.get(2)[1]);
+    assertEquals(11L, output.get(3)[1]);
+  }
+
+  @Test
+  void batchLookupMissLooksUpTheRowUnlessTrusted() throws Exception {
+    DimensionLookupMeta meta = createBatchLookupMeta(false);
+    Date now = new Date();
+    when(mockHelper.pipeline.getExecutionStartDate()).thenReturn(now);
+    Database db = createBatchLookupDatabase(meta, now);
+
+    // The database matches customer 3 under a different key, think of a case-insensitive collation
+    //
+    when(db.getLookup(any(PreparedStatement.class)))
+        .thenReturn(new Object[] {30L, 1L, meta.getMinDate(), meta.getMaxDate()});
+
+    List<Object[]> output =
+        runBatchLookup(meta, db, new Object[] {1L}, new Object[] {2L}, new Object[] {3L});
+
+    // Only the key missing from the batch is looked up on its own
+    //
+    verify(db, times(1)).getLookup(any(PreparedStatement.class));
+    assertEquals(3, output.size());
+    assertEquals(11L, output.get(0)[1]);
+    assertEquals(20L, output.get(1)[1]);
+    assertEquals(30L, output.get(2)[1]);
+  }
+
+  @Test
+  void batchLookupSplitsLargeInLists() throws Exception {
+    DimensionLookupMeta meta = createBatchLookupMeta(true);
+    meta.setBatchLookupSize(2500);
+    Date now = new Date();
+    when(mockHelper.pipeline.getExecutionStartDate()).thenReturn(now);
+    Database db = createBatchLookupDatabase(meta, now);
+
+    Object[][] rows = new Object[2500][];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = new Object[] {(long) i};
+    }
+    List<Object[]> output = runBatchLookup(meta, db, rows);
+
+    // No more than 1000 parameters per query
+    //
+    ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+    verify(db, times(3))
+        .getRows(
+            anyString(),
+            any(IRowMeta.class),
+            params.capture(),
+            anyInt(),
+            anyBoolean(),
+            anyInt(),
+            any());
+    assertEquals(1000, params.getAllValues().get(0).length);
+    assertEquals(1000, params.getAllValues().get(1).length);
+    assertEquals(500, params.getAllValues().get(2).length);
+    assertEquals(2500, output.size());
+  }
+}
@@ -23,7 +23,8 @@ import static org.apache.hop.pipeline.transforms.fuzzymatch.FuzzyMatchMeta.FMLoo
 import com.wcohen.ss.Jaro;
 import com.wcohen.ss.JaroWinkler;
 import com.wcohen.ss.NeedlemanWunsch;
-import java.util.Iterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 import org.apache.commons.codec.language.DoubleMetaphone;
 import org.apache.commons.codec.language.Metaphone;
 import org.apache.commons.codec.language.RefinedSoundex;
@@ -52,6 +53,9 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
   private static final Class<?> PKG = FuzzyMatchMeta.class;
 
+  /** The number of candidates from which on they are scored in parallel. */
+  private static final int PARALLEL_SCORING_THRESHOLD = 1000;
+
   public FuzzyMatch(
       TransformMeta transformMeta,
       FuzzyMatchMeta meta,
@@ -194,6 +198,10 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
             BaseMessages.getString(
                 PKG, "FuzzyMatch.Exception.CouldnotFindMainField", meta.getMainStreamField()));
       }
+
+      // Index the lookup values so that only the plausible candidates are compared
+      //
+      data.lookupIndex = buildLookupIndex();
     }
     Object[] add;
     if (row[data.indexOfMainField] == null) {
@@ -218,6 +226,38 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
     }
   }
 
+  private FuzzyMatchIndex buildLookupIndex() {
+    Algorithm algorithm = meta.getAlgorithm();
+    return switch (algorithm) {
+      case LEVENSHTEIN, DAMERAU_LEVENSHTEIN, NEEDLEMAN_WUNSH ->
+          FuzzyMatchIndex.forDistance(
+              data.look.iterator(), algorithm, meta.isCaseSensitive(), data.maximalDistance);
+      case DOUBLE_METAPHONE, METAPHONE, SOUNDEX, REFINED_SOUNDEX ->
+          FuzzyMatchIndex.forPhonetic(
+              data.look.iterator(), value -> getEncodedMF(value, algorithm));
+      default ->
+          FuzzyMatchIndex.forSimilarity(data.look.iterator(), algorithm, data.minimalSimilarity);
+    };
+  }
+
+  /**
+   * Calculate the score of every candidate. Lots of candidates are split over the common fork-join
+   * pool, the scores are stored by position so they can be combined in the order of the lookup
+   * values afterwards.
+   *
+   * @param nrCandidates the number of candidates
+   * @param scorer calculates and stores the score of the candidate at the given position
+   */
+  private static void scoreCandidates(int nrCandidates, IntConsumer scorer) {
+    if (nrCandidates < PARALLEL_SCORING_THRESHOLD) {
+      for (int i = 0; i < nrCandidates; i++) {
+        scorer.accept(i);
+      }
+    } else {
+      IntStream.range(0, nrCandidates).parallel().forEach(scorer);
+    }
+  }
+
   private Object[] getFromCache(Object[] keyRow) throws HopValueException {
     if (isDebug()) {
       logDebug(
@@ -246,34 +286,44 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
     // Reserve room
     Object[] rowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
 
-    Iterator<Object[]> it = data.look.iterator();
-
     long distance = -1;
 
     String lookupValueString = getInputRowMeta().getString(row, data.indexOfMainField);
 
-    while (it.hasNext()) {
+    int[] candidates =
+        data.lookupIndex.getDistanceCandidates(
+            meta.isCaseSensitive() || lookupValueString == null
+                ? lookupValueString
+                : lookupValueString.toLowerCase());
+    int[] distances = new int[candidates.length];
+    scoreCandidates(
+        candidates.length,
+        c -> {
+          // Key value is the first value
+          String cacheValue = (String) data.lookupIndex.getRow(candidates[c])[0];
+
+          String useCacheValue = cacheValue;
+          String useLookupvalue = lookupValueString;
+          if (!meta.isCaseSensitive()) {
+            useCacheValue = cacheValue.toLowerCase();
+            useLookupvalue = lookupValueString.toLowerCase();
+          }
+
+          distances[c] =
+              switch (meta.getAlgorithm()) {
+                case DAMERAU_LEVENSHTEIN ->
+                    Utils.getDamerauLevenshteinDistance(useCacheValue, useLookupvalue);
+                case NEEDLEMAN_WUNSH ->
+                    Math.abs((int) new NeedlemanWunsch().score(useCacheValue, useLookupvalue));
+                default -> StringUtils.getLevenshteinDistance(useCacheValue, useLookupvalue);
+              };
+        });
+
+    for (int c = 0; c < candidates.length; c++) {
       // Get cached row data
-      Object[] cachedData = it.next();
-      // Key value is the first value
+      Object[] cachedData = data.lookupIndex.getRow(candidates[c]);
       String cacheValue = (String) cachedData[0];
-
-      int cDistance;
-      String useCacheValue = cacheValue;
-      String useLookupvalue = lookupValueString;
-      if (!meta.isCaseSensitive()) {
-        useCacheValue = cacheValue.toLowerCase();
-        useLookupvalue = lookupValueString.toLowerCase();
-      }
-
-      cDistance =
-          switch (meta.getAlgorithm()) {
-            case DAMERAU_LEVENSHTEIN ->
-                Utils.getDamerauLevenshteinDistance(useCacheValue, useLookupvalue);
-            case NEEDLEMAN_WUNSH ->
-                Math.abs((int) new NeedlemanWunsch().score(useCacheValue, useLookupvalue));
-            default -> StringUtils.getLevenshteinDistance(useCacheValue, useLookupvalue);
-          };
+      int cDistance = distances[c];
 
       if (data.minimalDistance <= cDistance && cDistance <= data.maximalDistance) {
         if (meta.isCloserValue()) {
@@ -314,16 +364,14 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
     // Reserve room
     Object[] rowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
 
-    Iterator<Object[]> it = data.look.iterator();
-
     Object o = row[data.indexOfMainField];
     String lookupvalue = (String) o;
 
     String lookupValueMF = getEncodedMF(lookupvalue, meta.getAlgorithm());
 
-    while (it.hasNext()) {
+    for (int candidate : data.lookupIndex.getPhoneticCandidates(lookupValueMF)) {
       // Get cached row data
-      Object[] cachedData = it.next();
+      Object[] cachedData = data.lookupIndex.getRow(candidate);
       // Key value is the first value
       String cacheValue = (String) cachedData[0];
 
@@ -377,8 +425,6 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
   private Object[] doSimilarity(Object[] row) {
     // Reserve room
     Object[] rowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-    // prepare to read from cache ...
-    Iterator<Object[]> it = data.look.iterator();
     double similarity = 0;
 
     // get current value from main stream
@@ -386,20 +432,30 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
 
     String lookupValueString = o == null ? "" : (String) o;
 
-    while (it.hasNext()) {
+    // prepare to read from cache ...
+    int[] candidates = data.lookupIndex.getSimilarityCandidates(lookupValueString);
+    double[] similarities = new double[candidates.length];
+    scoreCandidates(
+        candidates.length,
+        c -> {
+          // Key value is the first value
+          String cacheValue = (String) data.lookupIndex.getRow(candidates[c])[0];
+
+          similarities[c] =
+              switch (meta.getAlgorithm()) {
+                case JARO -> new Jaro().score(cacheValue, lookupValueString);
+                case JARO_WINKLER -> new JaroWinkler().score(cacheValue, lookupValueString);
+                default ->
+                    // Letters pair similarity
+                    LetterPairSimilarity.getSimiliarity(cacheValue, lookupValueString);
+              };
+        });
+
+    for (int c = 0; c < candidates.length; c++) {
       // Get cached row data
-      Object[] cachedData = it.next();
-      // Key value is the first value
+      Object[] cachedData = data.lookupIndex.getRow(candidates[c]);
       String cacheValue = (String) cachedData[0];
-
-      double cSimilarity =
-          switch (meta.getAlgorithm()) {
-            case JARO -> new Jaro().score(cacheValue, lookupValueString);
-            case JARO_WINKLER -> new JaroWinkler().score(cacheValue, lookupValueString);
-            default ->
-                // Letters pair similarity
-                LetterPairSimilarity.getSimiliarity(cacheValue, lookupValueString);
-          };
+      double cSimilarity = similarities[c];
 
       if (data.minimalSimilarity <= cSimilarity && cSimilarity <= data.maximalSimilarity) {
         if (meta.isCloserValue()) {
@@ -597,6 +653,7 @@ public class FuzzyMatch extends BaseTransform<FuzzyMatchMeta, FuzzyMatchData> {
   @Override
   public void dispose() {
     data.look.clear();
+    data.lookupIndex = null;
     super.dispose();
   }
 }
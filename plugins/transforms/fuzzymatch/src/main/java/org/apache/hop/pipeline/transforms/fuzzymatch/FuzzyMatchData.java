@@ -31,6 +31,9 @@ public class FuzzyMatchData extends BaseTransformData implements ITransformData
   /** used to store values in used to look up things */
   public HashSet<Object[]> look;
 
+  /** the lookup values in the order of the cache, with an index to find the match candidates */
+  public FuzzyMatchIndex lookupIndex;
+
   public boolean readLookupValues;
 
   /** index of main stream field */
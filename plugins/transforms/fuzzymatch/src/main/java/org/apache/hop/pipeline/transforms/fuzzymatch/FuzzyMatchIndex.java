@@ -0,0 +1,420 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fuzzymatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.util.Utils;
+
+/**
+ * The lookup values of the fuzzy match, kept in the order of the cache, with an index to find the
+ * values which can possibly match a main stream value. The candidates are returned as positions in
+ * that order so that evaluating only the candidates gives the same result as a scan of all lookup
+ * values.
+ *
+ * <ul>
+ *   <li>Levenshtein: a BK-tree on the keys. The distance is a metric so the triangle inequality
+ *       tells which branches can't hold a value within the maximal distance.
+ *   <li>Damerau-Levenshtein: a filter on the length of the keys. Every edit changes the length by
+ *       at most one so the distance is never smaller than the difference in length.
+ *   <li>Phonetic algorithms: the keys are grouped by their encoded value.
+ *   <li>Pair letters similarity: an inverted index of the letter pairs. The number of pairs a key
+ *       shares with the main stream value gives its similarity without comparing the strings, only
+ *       used when the minimal similarity is above zero.
+ * </ul>
+ *
+ * The other algorithms don't have a property to filter on, all values are candidates.
+ */
+public class FuzzyMatchIndex {
+
+  /** The lookup rows, the key is the first value. */
+  private final Object[][] rows;
+
+  /** All positions, for when the index can't narrow down the candidates. */
+  private final int[] allRows;
+
+  private BkTreeNode bkTree;
+  private int maximalDistance;
+
+  private int[] keyLengths;
+
+  private Map<String, int[]> phoneticBuckets;
+
+  private Map<String, Postings> pairPostings;
+  private int[] nrPairs;
+  private int[] emptyKeys;
+  private double minimalSimilarity;
+
+  private FuzzyMatchIndex(List<Object[]> rows) {
+    this.rows = rows.toArray(new Object[0][]);
+    this.allRows = new int[this.rows.length];
+    for (int i = 0; i < allRows.length; i++) {
+      allRows[i] = i;
+    }
+  }
+
+  /**
+   * @return the number of lookup values
+   */
+  public int size() {
+    return rows.length;
+  }
+
+  /**
+   * @param position the position of the lookup row
+   * @return the lookup row, the key is the first value
+   */
+  public Object[] getRow(int position) {
+    return rows[position];
+  }
+
+  /**
+   * Build the index for the edit distances.
+   *
+   * @param rows the lookup rows in the order of the cache
+   * @param algorithm the distance algorithm
+   * @param caseSensitive false if the keys are compared in lower case
+   * @param maximalDistance the maximal distance of a match
+   * @return the index
+   */
+  public static FuzzyMatchIndex forDistance(
+      Iterator<Object[]> rows,
+      FuzzyMatchMeta.Algorithm algorithm,
+      boolean caseSensitive,
+      int maximalDistance) {
+    FuzzyMatchIndex index = new FuzzyMatchIndex(toList(rows));
+    String[] keys = index.getKeys();
+    if (keys == null) {
+      return index;
+    }
+    if (!caseSensitive) {
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = keys[i].toLowerCase();
+      }
+    }
+    index.maximalDistance = maximalDistance;
+    switch (algorithm) {
+      case LEVENSHTEIN:
+        for (int i = 0; i < keys.length; i++) {
+          if (index.bkTree == null) {
+            index.bkTree = new BkTreeNode(keys[i], i);
+          } else {
+            index.bkTree.add(keys[i], i);
+          }
+        }
+        break;
+      case DAMERAU_LEVENSHTEIN:
+        index.keyLengths = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+          index.keyLengths[i] = keys[i].length();
+        }
+        break;
+      default:
+        break;
+    }
+    return index;
+  }
+
+  /**
+   * Build the index for the phonetic algorithms.
+   *
+   * @param rows the lookup rows in the order of the cache
+   * @param encoder calculates the phonetic code of a key
+   * @return the index
+   */
+  public static FuzzyMatchIndex forPhonetic(
+      Iterator<Object[]> rows, UnaryOperator<String> encoder) {
+    FuzzyMatchIndex index = new FuzzyMatchIndex(toList(rows));
+    String[] keys = index.getKeys();
+    if (keys == null) {
+      return index;
+    }
+    Map<String, IntList> buckets = new HashMap<>();
+    try {
+      for (int i = 0; i < keys.length; i++) {
+        buckets.computeIfAbsent(encoder.apply(keys[i]), code -> new IntList()).add(i);
+      }
+    } catch (RuntimeException e) {
+      // A key the encoder doesn't handle: leave it to the scan of all values to report it
+      //
+      return index;
+    }
+    index.phoneticBuckets = new HashMap<>();
+    buckets.forEach((code, positions) -> index.phoneticBuckets.put(code, positions.toArray()));
+    return index;
+  }
+
+  /**
+   * Build the index for the similarity algorithms.
+   *
+   * @param rows the lookup rows in the order of the cache
+   * @param algorithm the similarity algorithm
+   * @param minimalSimilarity the minimal similarity of a match
+   * @return the index
+   */
+  public static FuzzyMatchIndex forSimilarity(
+      Iterator<Object[]> rows, FuzzyMatchMeta.Algorithm algorithm, double minimalSimilarity) {
+    FuzzyMatchIndex index = new FuzzyMatchIndex(toList(rows));
+    String[] keys = index.getKeys();
+    // Without a minimal similarity, values without any pair in common match as well
+    //
+    if (keys == null
+        || algorithm != FuzzyMatchMeta.Algorithm.PAIR_SIMILARITY
+        || minimalSimilarity <= 0) {
+      return index;
+    }
+    index.minimalSimilarity = minimalSimilarity;
+    index.pairPostings = new HashMap<>();
+    index.nrPairs = new int[keys.length];
+    IntList emptyKeys = new IntList();
+    for (int i = 0; i < keys.length; i++) {
+      if (Utils.isEmpty(keys[i])) {
+        emptyKeys.add(i);
+      }
+      List<String> pairs = LetterPairSimilarity.wordLetterPairs(keys[i].toUpperCase());
+      index.nrPairs[i] = pairs.size();
+      for (Map.Entry<String, Integer> entry : countPairs(pairs).entrySet()) {
+        index
+            .pairPostings
+            .computeIfAbsent(entry.getKey(), pair -> new Postings())
+            .add(i, entry.getValue());
+      }
+    }
+    index.emptyKeys = emptyKeys.toArray();
+    return index;
+  }
+
+  /**
+   * Find the lookup values which can be within the maximal edit distance of a value.
+   *
+   * @param value the main stream value, in lower case if the match isn't case-sensitive
+   * @return the positions of the candidates in ascending order
+   */
+  public int[] getDistanceCandidates(String value) {
+    if (value == null) {
+      return allRows;
+    }
+    if (bkTree != null) {
+      IntList candidates = new IntList();
+      bkTree.find(value, maximalDistance, candidates);
+      return candidates.toSortedArray();
+    }
+    if (keyLengths != null) {
+      IntList candidates = new IntList();
+      int length = value.length();
+      for (int i = 0; i < keyLengths.length; i++) {
+        if (Math.abs(keyLengths[i] - length) <= maximalDistance) {
+          candidates.add(i);
+        }
+      }
+      return candidates.toArray();
+    }
+    return allRows;
+  }
+
+  /**
+   * Find the lookup values with the same phonetic code.
+   *
+   * @param code the phonetic code of the main stream value
+   * @return the positions of the candidates in ascending order
+   */
+  public int[] getPhoneticCandidates(String code) {
+    if (phoneticBuckets == null || code == null) {
+      return allRows;
+    }
+    return phoneticBuckets.getOrDefault(code, new int[0]);
+  }
+
+  /**
+   * Find the lookup values which can reach the minimal similarity with a value.
+   *
+   * @param value the main stream value
+   * @return the positions of the candidates in ascending order
+   */
+  public int[] getSimilarityCandidates(String value) {
+    if (pairPostings == null) {
+      return allRows;
+    }
+    // Two empty values are a perfect match
+    //
+    if (Utils.isEmpty(value)) {
+      return emptyKeys;
+    }
+
+    // Count the pairs each lookup value has in common with the value, the same way the similarity
+    // does: every pair can only be matched once.
+    //
+    List<String> pairs = LetterPairSimilarity.wordLetterPairs(value.toUpperCase());
+    int[] shared = new int[rows.length];
+    IntList touched = new IntList();
+    for (Map.Entry<String, Integer> entry : countPairs(pairs).entrySet()) {
+      Postings postings = pairPostings.get(entry.getKey());
+      if (postings == null) {
+        continue;
+      }
+      int count = entry.getValue();
+      for (int i = 0; i < postings.size; i++) {
+        int position = postings.positions[i];
+        if (shared[position] == 0) {
+          touched.add(position);
+        }
+        shared[position] += Math.min(count, postings.counts[i]);
+      }
+    }
+
+    IntList candidates = new IntList();
+    for (int i = 0; i < touched.size; i++) {
+      int position = touched.values[i];
+      int union = nrPairs[position] + pairs.size();
+      if ((2.0 * shared[position]) / union >= minimalSimilarity) {
+        candidates.add(position);
+      }
+    }
+    return candidates.toSortedArray();
+  }
+
+  /**
+   * @return the keys of the lookup rows or null if not all of them are strings
+   */
+  private String[] getKeys() {
+    String[] keys = new String[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      if (!(rows[i][0] instanceof String key)) {
+        return null;
+      }
+      keys[i] = key;
+    }
+    return keys;
+  }
+
+  private static List<Object[]> toList(Iterator<Object[]> rows) {
+    List<Object[]> list = new ArrayList<>();
+    rows.forEachRemaining(list::add);
+    return list;
+  }
+
+  private static Map<String, Integer> countPairs(List<String> pairs) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (String pair : pairs) {
+      counts.merge(pair, 1, Integer::sum);
+    }
+    return counts;
+  }
+
+  /** A node of the BK-tree with the positions of all the keys equal to it. */
+  private static final class BkTreeNode {
+    private final String key;
+    private final IntList positions = new IntList();
+    private Map<Integer, BkTreeNode> children;
+
+    private BkTreeNode(String key, int position) {
+      this.key = key;
+      this.positions.add(position);
+    }
+
+    private void add(String value, int position) {
+      BkTreeNode node = this;
+      while (true) {
+        int distance = StringUtils.getLevenshteinDistance(node.key, value);
+        if (distance == 0) {
+          node.positions.add(position);
+          return;
+        }
+        if (node.children == null) {
+          node.children = new HashMap<>();
+        }
+        BkTreeNode child = node.children.get(distance);
+        if (child == null) {
+          node.children.put(distance, new BkTreeNode(value, position));
+          return;
+        }
+        node = child;
+      }
+    }
+
+    private void find(String value, int maximalDistance, IntList found) {
+      List<BkTreeNode> nodes = new ArrayList<>();
+      nodes.add(this);
+      while (!nodes.isEmpty()) {
+        BkTreeNode node = nodes.remove(nodes.size() - 1);
+        int distance = StringUtils.getLevenshteinDistance(node.key, value);
+        if (distance <= maximalDistance) {
+          found.addAll(node.positions);
+        }
+        if (node.children != null) {
+          for (Map.Entry<Integer, BkTreeNode> child : node.children.entrySet()) {
+            if (Math.abs(child.getKey() - distance) <= maximalDistance) {
+              nodes.add(child.getValue());
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /** The lookup values containing a letter pair, with the number of times they contain it. */
+  private static final class Postings {
+    private int[] positions = new int[4];
+    private int[] counts = new int[4];
+    private int size;
+
+    private void add(int position, int count) {
+      if (size == positions.length) {
+        positions = Arrays.copyOf(positions, size * 2);
+        counts = Arrays.copyOf(counts, size * 2);
+      }
+      positions[size] = position;
+      counts[size++] = count;
+    }
+  }
+
+  /** A growing list of positions. */
+  private static final class IntList {
+    private int[] values = new int[8];
+    private int size;
+
+    private void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    private void addAll(IntList other) {
+      for (int i = 0; i < other.size; i++) {
+        add(other.values[i]);
+      }
+    }
+
+    private int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+
+    private int[] toSortedArray() {
+      int[] array = toArray();
+      Arrays.sort(array);
+      return array;
+    }
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.fuzzymatch;
 
 import java.util.ArrayList;
+import java.util.List;
 import org.apache.hop.core.util.Utils;
 
 public class LetterPairSimilarity {
@@ -56,7 +57,7 @@ public class LetterPairSimilarity {
   /**
    * @return an ArrayList of 2-character Strings.
    */
-  private static ArrayList<String> wordLetterPairs(String str) {
+  static List<String> wordLetterPairs(String str) {
     ArrayList<String> allPairs = new ArrayList<>();
     // Tokenize the string and put the tokens/words into an array
     String[] words = str.split("\\s");
@@ -78,8 +79,8 @@ public class LetterPairSimilarity {
     if (Utils.isEmpty(str1) && Utils.isEmpty(str2)) {
       return 1.0;
     }
-    ArrayList<String> pairs1 = wordLetterPairs(str1.toUpperCase());
-    ArrayList<String> pairs2 = wordLetterPairs(str2.toUpperCase());
+    List<String> pairs1 = wordLetterPairs(str1.toUpperCase());
+    List<String> pairs2 = wordLetterPairs(str2.toUpperCase());
     int intersection = 0;
     int union = pairs1.size() + pairs2.size();
 
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fuzzymatch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import org.apache.commons.codec.language.Soundex;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.pipeline.transforms.fuzzymatch.FuzzyMatchMeta.Algorithm;
+import org.junit.jupiter.api.Test;
+
+class FuzzyMatchIndexTest {
+
+  private static final String[] WORDS = {
+    "Catrine",
+    "Catriny",
+    "catherine",
+    "Kathryn",
+    "John",
+    "Jon",
+    "Joan",
+    "Jan",
+    "",
+    "a",
+    "b c",
+    "van der Berg",
+    "Vanderberg",
+    "Smith",
+    "Smyth",
+    "Schmidt",
+    "ana",
+    "anna",
+    "Anna Maria"
+  };
+
+  private static List<Object[]> lookupRows() {
+    List<Object[]> rows = new ArrayList<>();
+    for (String word : WORDS) {
+      rows.add(new Object[] {word, word.length()});
+    }
+    // Some generated values over a small alphabet, so that there are lots of near matches
+    //
+    Random random = new Random(42);
+    for (int i = 0; i < 500; i++) {
+      rows.add(new Object[] {randomString(random), i});
+    }
+    return rows;
+  }
+
+  private static String randomString(Random random) {
+    StringBuilder value = new StringBuilder();
+    int length = random.nextInt(9);
+    for (int i = 0; i < length; i++) {
+      value.append("abcdAB ".charAt(random.nextInt(7)));
+    }
+    return value.toString();
+  }
+
+  /** The candidates need to be ascending and contain every lookup value which matches. */
+  private static void assertCandidates(int[] candidates, int size, IntPredicate matches) {
+    int[] sorted = candidates.clone();
+    Arrays.sort(sorted);
+    assertArrayEquals(sorted, candidates);
+    for (int i = 0; i < size; i++) {
+      if (matches.test(i)) {
+        assertTrue(Arrays.binarySearch(candidates, i) >= 0, "Missing candidate " + i);
+      }
+    }
+  }
+
+  @Test
+  void testLevenshteinCandidates() {
+    List<Object[]> rows = lookupRows();
+    FuzzyMatchIndex index =
+        FuzzyMatchIndex.forDistance(rows.iterator(), Algorithm.LEVENSHTEIN, false, 2);
+    assertEquals(rows.size(), index.size());
+
+    Random random = new Random(1);
+    List<String> values = new ArrayList<>(Arrays.asList(WORDS));
+    for (int i = 0; i < 100; i++) {
+      values.add(randomString(random));
+    }
+    for (String value : values) {
+      String lookup = value.toLowerCase();
+      int[] candidates = index.getDistanceCandidates(lookup);
+      assertCandidates(
+          candidates,
+          index.size(),
+          i -> {
+            String key = ((String) index.getRow(i)[0]).toLowerCase();
+            return StringUtils.getLevenshteinDistance(key, lookup) <= 2;
+          });
+      assertTrue(candidates.length < index.size());
+    }
+  }
+
+  @Test
+  void testDamerauLevenshteinCandidates() {
+    List<Object[]> rows = lookupRows();
+    FuzzyMatchIndex index =
+        FuzzyMatchIndex.forDistance(rows.iterator(), Algorithm.DAMERAU_LEVENSHTEIN, true, 1);
+
+    for (String value : WORDS) {
+      assertCandidates(
+          index.getDistanceCandidates(value),
+          index.size(),
+          i -> Utils.getDamerauLevenshteinDistance((String) index.getRow(i)[0], value) <= 1);
+    }
+  }
+
+  @Test
+  void testNoIndexForNeedlemanWunsch() {
+    List<Object[]> rows = lookupRows();
+    FuzzyMatchIndex index =
+        FuzzyMatchIndex.forDistance(rows.iterator(), Algorithm.NEEDLEMAN_WUNSH, true, 1);
+
+    assertEquals(rows.size(), index.getDistanceCandidates("John").length);
+  }
+
+  @Test
+  void testPhoneticCandidates() {
+    Soundex soundex = new Soundex();
+    List<Object[]> rows = lookupRows();
+    FuzzyMatchIndex index = FuzzyMatchIndex.forPhonetic(rows.iterator(), soundex::encode);
+
+    for (String value : WORDS) {
+      String code = soundex.encode(value);
+      int[] candidates = index.getPhoneticCandidates(code);
+      assertCandidates(
+          candidates, index.size(), i -> code.equals(soundex.encode((String) index.getRow(i)[0])));
+      for (int candidate : candidates) {
+        assertEquals(code, soundex.encode((String) index.getRow(candidate)[0]));
+      }
+    }
+  }
+
+  @Test
+  void testPairSimilarityCandidates() {
+    List<Object[]> rows = lookupRows();
+    FuzzyMatchIndex index =
+        FuzzyMatchIndex.forSimilarity(rows.iterator(), Algorithm.PAIR_SIMILARITY, 0.5);
+
+    Random random = new Random(7);
+    List<String> values = new ArrayList<>(Arrays.asList(WORDS));
+    for (int i = 0; i < 100; i++) {
+      values.add(randomString(random));
+    }
+    for (String value : values) {
+      int[] candidates = index.getSimilarityCandidates(value);
+      assertCandidates(
+          candidates,
+          index.size(),
+          i -> LetterPairSimilarity.getSimiliarity((String) index.getRow(i)[0], value) >= 0.5);
+      for (int candidate : candidates) {
+        assertTrue(
+            LetterPairSimilarity.getSimiliarity((String) index.getRow(candidate)[0], value) >= 0.5);
+      }
+    }
+  }
+
+  @Test
+  void testNoPairIndexWithoutMinimalSimilarity() {
+    List<Object[]> rows = lookupRows();
+    FuzzyMatchIndex index =
+        FuzzyMatchIndex.forSimilarity(rows.iterator(), Algorithm.PAIR_SIMILARITY, 0);
+
+    assertEquals(rows.size(), index.getSimilarityCandidates("John").length);
+  }
+
+  @Test
+  void testKeepsCacheOrder() {
+    List<Object[]> rows = lookupRows();
+    FuzzyMatchIndex index = FuzzyMatchIndex.forSimilarity(rows.iterator(), Algorithm.JARO, 0.5);
+
+    int[] candidates = index.getSimilarityCandidates("John");
+    assertEquals(rows.size(), candidates.length);
+    for (int i = 0; i < candidates.length; i++) {
+      assertEquals(i, candidates[i]);
+      assertEquals(rows.get(i), index.getRow(candidates[i]));
+    }
+  }
+
+  @Test
+  void testNoIndexForNonStringKeys() {
+    List<Object[]> rows = lookupRows();
+    rows.add(new Object[] {123L, 0});
+    FuzzyMatchIndex index =
+        FuzzyMatchIndex.forDistance(rows.iterator(), Algorithm.LEVENSHTEIN, true, 1);
+
+    assertEquals(rows.size(), index.getDistanceCandidates("John").length);
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.value.ValueMetaFactory;
+import org.apache.hop.core.util.CompiledArtifactCache;
 import org.apache.hop.core.util.StringUtil;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
@@ -44,6 +45,9 @@ public class Janino extends BaseTransform<JaninoMeta, JaninoData> {
 
   private static final Class<?> PKG = JaninoMeta.class;
 
+  /** The type of the expressions in the compiled artifact cache */
+  private static final String EXPRESSION_ARTIFACT = "janino:";
+
   public Janino(
       TransformMeta transformMeta,
       JaninoMeta meta,
@@ -120,6 +124,48 @@ public class Janino extends BaseTransform<JaninoMeta, JaninoData> {
     return true;
   }
 
+  private ExpressionEvaluator getExpressionEvaluator(
+      String formula, List<String> parameterNames, List<Class<?>> parameterTypes) throws Exception {
+    PluginRegistry registry = PluginRegistry.getInstance();
+    IPlugin plugin = registry.getPlugin(TransformPluginType.class, "Janino");
+    ClassLoader loader = registry.getClassLoader(plugin);
+    int javaVersion = meta.getEffectiveJavaTargetVersion();
+
+    String type =
+        EXPRESSION_ARTIFACT
+            + javaVersion
+            + ":"
+            + CompiledArtifactCache.loaderKey(loader)
+            + ":"
+            + parameterNames
+            + ":"
+            + parameterTypes;
+    return CompiledArtifactCache.getInstance()
+        .get(
+            type,
+            CompiledArtifactCache.contentKey(formula),
+            () -> {
+              FunctionLib functionLib = new FunctionLib();
+              ExpressionEvaluator evaluator = new ExpressionEvaluator();
+              evaluator.setParameters(
+                  parameterNames.toArray(new String[0]), parameterTypes.toArray(new Class<?>[0]));
+              evaluator.setReturnType(Object.class);
+              evaluator.setThrownExceptions(new Class<?>[] {Exception.class});
+              evaluator.setParentClassLoader(loader);
+              evaluator.setDefaultImports(functionLib.getImportPackages());
+              evaluator.setTargetVersion(javaVersion);
+              // Janino default: parse up to Java 11 when source is unset, emit Java 6 bytecode
+              // when target is unset.
+              // Keep that permissive parse level for the default target (6) so existing
+              // expressions keep working.
+              if (javaVersion > JaninoMeta.JAVA_TARGET_VERSION_MIN) {
+                evaluator.setSourceVersion(javaVersion);
+              }
+              evaluator.cook(formula);
+              return evaluator;
+            });
+  }
+
   private Object[] calcFields(IRowMeta rowMeta, Object[] r) throws HopValueException {
     try {
       Object[] outputRowData = RowDataUtil.createResizedCopy(r, data.outputRowMeta.size());
@@ -159,30 +205,6 @@ public class Janino extends BaseTransform<JaninoMeta, JaninoData> {
           JaninoMetaFunction function = meta.getFunctions().get(m);
           if (!Utils.isEmpty(function.getFieldName())) {
 
-            // Create the expression evaluator: is relatively slow so we do it only for the first
-            // row...
-            //
-            PluginRegistry registry = PluginRegistry.getInstance();
-            IPlugin plugin = registry.getPlugin(TransformPluginType.class, "Janino");
-            ClassLoader loader = registry.getClassLoader(plugin);
-            FunctionLib functionLib = new FunctionLib();
-            data.expressionEvaluators[m] = new ExpressionEvaluator();
-            data.expressionEvaluators[m].setParameters(
-                parameterNames.toArray(new String[0]), parameterTypes.toArray(new Class<?>[0]));
-            data.expressionEvaluators[m].setReturnType(Object.class);
-            data.expressionEvaluators[m].setThrownExceptions(new Class<?>[] {Exception.class});
-            data.expressionEvaluators[m].setParentClassLoader(loader);
-            data.expressionEvaluators[m].setDefaultImports(functionLib.getImportPackages());
-            int javaVersion = meta.getEffectiveJavaTargetVersion();
-            data.expressionEvaluators[m].setTargetVersion(javaVersion);
-            // Janino default: parse up to Java 11 when source is unset, emit Java 6 bytecode when
-            // target is unset.
-            // Keep that permissive parse level for the default target (6) so existing expressions
-            // keep working.
-            if (javaVersion > JaninoMeta.JAVA_TARGET_VERSION_MIN) {
-              data.expressionEvaluators[m].setSourceVersion(javaVersion);
-            }
-
             // Validate Formula
             JaninoCheckerUtil janinoCheckerUtil = new JaninoCheckerUtil();
             List<String> codeCheck = janinoCheckerUtil.checkCode(function.getFormula());
@@ -190,7 +212,11 @@ public class Janino extends BaseTransform<JaninoMeta, JaninoData> {
               throw new HopException("Script contains code that is not allowed : " + codeCheck);
             }
 
-            data.expressionEvaluators[m].cook(function.getFormula());
+            // Create the expression evaluator: is relatively slow so we do it only for the first
+            // row. A cooked evaluator is shared by all transform copies and pipelines.
+            //
+            data.expressionEvaluators[m] =
+                getExpressionEvaluator(function.getFormula(), parameterNames, parameterTypes);
           } else {
             throw new HopException(
                 "Unable to find field name for formula ["
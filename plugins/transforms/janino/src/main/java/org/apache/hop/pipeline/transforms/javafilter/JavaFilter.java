@@ -24,6 +24,7 @@ import java.util.List;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.CompiledArtifactCache;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -40,6 +41,9 @@ public class JavaFilter extends BaseTransform<JavaFilterMeta, JavaFilterData> {
 
   private static final Class<?> PKG = JavaFilterMeta.class;
 
+  /** The type of the conditions in the compiled artifact cache */
+  private static final String EXPRESSION_ARTIFACT = "javafilter:";
+
   public JavaFilter(
       TransformMeta transformMeta,
       JavaFilterMeta meta,
@@ -191,14 +195,6 @@ public class JavaFilter extends BaseTransform<JavaFilterMeta, JavaFilterData> {
           }
         }
 
-        // Create the expression evaluator: is relatively slow so we do it only for the first row...
-        //
-        data.expressionEvaluator = new ExpressionEvaluator();
-        data.expressionEvaluator.setParameters(
-            parameterNames.toArray(new String[0]), parameterTypes.toArray(new Class<?>[0]));
-        data.expressionEvaluator.setReturnType(Object.class);
-        data.expressionEvaluator.setThrownExceptions(new Class<?>[] {Exception.class});
-
         // Validate Formula
         JaninoCheckerUtil janinoCheckerUtil = new JaninoCheckerUtil();
         List<String> codeCheck = janinoCheckerUtil.checkCode(realCondition);
@@ -206,7 +202,34 @@ public class JavaFilter extends BaseTransform<JavaFilterMeta, JavaFilterData> {
           throw new HopException("Script contains code that is not allowed : " + codeCheck);
         }
 
-        data.expressionEvaluator.cook(realCondition);
+        // Create the expression evaluator: is relatively slow so we do it only for the first row.
+        // A cooked evaluator is shared by all transform copies and pipelines.
+        //
+        // The evaluator loads classes with the context class loader of this thread
+        //
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        String type =
+            EXPRESSION_ARTIFACT
+                + CompiledArtifactCache.loaderKey(loader)
+                + ":"
+                + parameterNames
+                + ":"
+                + parameterTypes;
+        data.expressionEvaluator =
+            CompiledArtifactCache.getInstance()
+                .get(
+                    type,
+                    CompiledArtifactCache.contentKey(realCondition),
+                    () -> {
+                      ExpressionEvaluator evaluator = new ExpressionEvaluator();
+                      evaluator.setParameters(
+                          parameterNames.toArray(new String[0]),
+                          parameterTypes.toArray(new Class<?>[0]));
+                      evaluator.setReturnType(Object.class);
+                      evaluator.setThrownExceptions(new Class<?>[] {Exception.class});
+                      evaluator.cook(realCondition);
+                      return evaluator;
+                    });
 
         // Also create the argument data structure once...
         //
@@ -47,6 +47,7 @@ import org.apache.hop.pipeline.transforms.file.IBaseFileInputReader;
 import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.FastJsonReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.InputsReader;
+import org.apache.hop.pipeline.transforms.jsoninput.reader.JsonRecordReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.RowOutputConverter;
 
 /**
@@ -299,6 +300,51 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     }
   }
 
+  /**
+   * Start reading the records of the next input one at a time.
+   *
+   * @param input the next input
+   */
+  private void openRecords(InputStream input) throws HopException {
+    data.recordsIn = new CountingInputStream(input);
+    try {
+      data.records = new JsonRecordReader(data.recordsIn, resolve(meta.getRecordPath()));
+    } catch (HopException e) {
+      closeRecords();
+      logInputError(e);
+      throw new JsonInputException(e);
+    }
+  }
+
+  /** Evaluate the field paths on the next record of the current input, if any. */
+  private void parseNextRecordToRowSet() throws HopException {
+    InputStream record;
+    try {
+      record = data.records.next();
+    } catch (HopException e) {
+      closeRecords();
+      logInputError(e);
+      throw new JsonInputException(e);
+    }
+    if (record == null) {
+      closeRecords();
+    } else {
+      parseNextInputToRowSet(record);
+    }
+  }
+
+  private void closeRecords() {
+    if (data.recordsIn != null) {
+      dataVolumeIn = (dataVolumeIn != null ? dataVolumeIn : 0L) + data.recordsIn.getCount();
+      BaseTransform.closeQuietly(data.recordsIn);
+    }
+    if (data.records != null) {
+      BaseTransform.closeQuietly(data.records);
+    }
+    data.records = null;
+    data.recordsIn = null;
+  }
+
   private void parseNextJsonToRowSet(JsonNode node) throws HopException {
     try {
       data.readerRowSet = data.reader.parseJsonNodeValue(node);
@@ -396,8 +442,14 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       }
     } else {
       while ((rawReaderRow = data.readerRowSet.getRow()) == null) {
-        if (data.inputs.hasNext() && data.readerRowSet.isDone()) {
+        if (data.records != null && data.readerRowSet.isDone()) {
+          parseNextRecordToRowSet();
+        } else if (data.inputs.hasNext() && data.readerRowSet.isDone()) {
           InputStream nextIn = data.inputs.next();
+          if (meta.isStreaming()) {
+            openRecords(nextIn != null ? nextIn : new ByteArrayInputStream(EMPTY_JSON));
+            continue;
+          }
           if (nextIn != null) {
             CountingInputStream countingIn = new CountingInputStream(nextIn);
             try {
@@ -531,6 +583,7 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     if (data.file != null) {
       closeQuietly(data.file);
     }
+    closeRecords();
     data.inputs = null;
     data.reader = null;
     data.readerRowSet = null;
@@ -22,10 +22,12 @@ import java.io.InputStream;
 import java.util.BitSet;
 import java.util.Iterator;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.io.CountingInputStream;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.hop.pipeline.transforms.file.BaseFileInputTransformData;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.IJsonReader;
+import org.apache.hop.pipeline.transforms.jsoninput.reader.JsonRecordReader;
 
 @SuppressWarnings("java:S1104")
 public class JsonInputData extends BaseFileInputTransformData implements ITransformData {
@@ -52,6 +54,8 @@ public class JsonInputData extends BaseFileInputTransformData implements ITransf
   public Iterator<JsonNode> jsonInputs; // if incoming field is JsonNode
   public IJsonReader reader;
   public IRowSet readerRowSet;
+  public JsonRecordReader records; // the records of the current input when streaming
+  public CountingInputStream recordsIn;
   public BitSet repeatedFields;
 
   public JsonInputData() {
@@ -138,6 +138,11 @@ public class JsonInputDialog extends BaseTransformDialog {
 
   private Button wDefaultPathLeafToNull;
 
+  private Button wStreaming;
+
+  private Label wlRecordPath;
+  private TextVar wRecordPath;
+
   private Button wDoNotFailIfNoFile;
 
   private TextVar wShortFileFieldName;
@@ -310,6 +315,7 @@ public class JsonInputDialog extends BaseTransformDialog {
     activeStreamField();
     setIncludeFilename();
     setIncludeRownum();
+    enableRecordPath();
     input.setChanged(changed);
     wFields.optWidth(true);
     focusTransformName();
@@ -575,12 +581,58 @@ public class JsonInputDialog extends BaseTransformDialog {
     wDefaultPathLeafToNull.setLayoutData(fdDefaultPathLeafToNull);
     // default path leaf to null - end
 
+    // Stream records
+    //
+    Label wlStreaming = new Label(wConf, SWT.RIGHT);
+    wlStreaming.setText(BaseMessages.getString(PKG, "JsonInputDialog.Streaming.Label"));
+    PropsUi.setLook(wlStreaming);
+    FormData fdlStreaming = new FormData();
+    fdlStreaming.left = new FormAttachment(0, 0);
+    fdlStreaming.top = new FormAttachment(wlDefaultPathLeafToNull, margin);
+    fdlStreaming.right = new FormAttachment(middle, -margin);
+    wlStreaming.setLayoutData(fdlStreaming);
+    wStreaming = new Button(wConf, SWT.CHECK);
+    PropsUi.setLook(wStreaming);
+    wStreaming.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+            enableRecordPath();
+          }
+        });
+    wStreaming.setToolTipText(BaseMessages.getString(PKG, "JsonInputDialog.Streaming.Tooltip"));
+    FormData fdStreaming = new FormData();
+    fdStreaming.left = new FormAttachment(middle, 0);
+    fdStreaming.top = new FormAttachment(wlStreaming, 0, SWT.CENTER);
+    wStreaming.setLayoutData(fdStreaming);
+
+    // Record path
+    //
+    wlRecordPath = new Label(wConf, SWT.RIGHT);
+    wlRecordPath.setText(BaseMessages.getString(PKG, "JsonInputDialog.RecordPath.Label"));
+    PropsUi.setLook(wlRecordPath);
+    FormData fdlRecordPath = new FormData();
+    fdlRecordPath.left = new FormAttachment(0, 0);
+    fdlRecordPath.top = new FormAttachment(wlStreaming, margin);
+    fdlRecordPath.right = new FormAttachment(middle, -margin);
+    wlRecordPath.setLayoutData(fdlRecordPath);
+    wRecordPath = new TextVar(variables, wConf, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wRecordPath);
+    wRecordPath.setToolTipText(BaseMessages.getString(PKG, "JsonInputDialog.RecordPath.Tooltip"));
+    wRecordPath.addModifyListener(lsMod);
+    FormData fdRecordPath = new FormData();
+    fdRecordPath.left = new FormAttachment(middle, 0);
+    fdRecordPath.top = new FormAttachment(wlStreaming, margin);
+    fdRecordPath.right = new FormAttachment(100, 0);
+    wRecordPath.setLayoutData(fdRecordPath);
+
     wlLimit = new Label(wConf, SWT.RIGHT);
     wlLimit.setText(BaseMessages.getString(PKG, "JsonInputDialog.Limit.Label"));
     PropsUi.setLook(wlLimit);
     FormData fdlLimit = new FormData();
     fdlLimit.left = new FormAttachment(0, 0);
-    fdlLimit.top = new FormAttachment(wlDefaultPathLeafToNull, margin);
+    fdlLimit.top = new FormAttachment(wRecordPath, margin);
     fdlLimit.right = new FormAttachment(middle, -margin);
     wlLimit.setLayoutData(fdlLimit);
     wLimit = new Text(wConf, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
@@ -588,7 +640,7 @@ public class JsonInputDialog extends BaseTransformDialog {
     wLimit.addModifyListener(lsMod);
     FormData fdLimit = new FormData();
     fdLimit.left = new FormAttachment(middle, 0);
-    fdLimit.top = new FormAttachment(wlDefaultPathLeafToNull, margin);
+    fdLimit.top = new FormAttachment(wRecordPath, margin);
     fdLimit.right = new FormAttachment(100, 0);
     wLimit.setLayoutData(fdLimit);
 
@@ -1187,6 +1239,11 @@ public class JsonInputDialog extends BaseTransformDialog {
     wInclRownumField.setEnabled(wInclRownum.getSelection());
   }
 
+  private void enableRecordPath() {
+    wlRecordPath.setEnabled(wStreaming.getSelection());
+    wRecordPath.setEnabled(wStreaming.getSelection());
+  }
+
   /**
    * Read the data from the TextFileInputMeta object and show it in this dialog.
    *
@@ -1213,6 +1270,8 @@ public class JsonInputDialog extends BaseTransformDialog {
     wDoNotFailIfNoFile.setSelection(in.isDoNotFailIfNoFile());
     wIgnoreMissingPath.setSelection(in.isIgnoringMissingPath());
     wDefaultPathLeafToNull.setSelection(in.isDefaultPathLeafToNull());
+    wStreaming.setSelection(in.isStreaming());
+    wRecordPath.setText(Const.NVL(in.getRecordPath(), ""));
     wRemoveSourceField.setSelection(in.isRemoveSourceField());
     wSourceStreamField.setSelection(in.isInFields());
     wSourceIsAFile.setSelection(in.getIsAFile());
@@ -1301,6 +1360,8 @@ public class JsonInputDialog extends BaseTransformDialog {
     in.setDoNotFailIfNoFile(wDoNotFailIfNoFile.getSelection());
     in.setIgnoringMissingPath(wIgnoreMissingPath.getSelection());
     in.setDefaultPathLeafToNull(wDefaultPathLeafToNull.getSelection());
+    in.setStreaming(wStreaming.getSelection());
+    in.setRecordPath(wRecordPath.getText());
     in.setRemoveSourceField(wRemoveSourceField.getSelection());
     in.setInFields(wSourceStreamField.getSelection());
     in.setIsAFile(wSourceIsAFile.getSelection());
@@ -176,6 +176,20 @@ public class JsonInputMeta extends BaseFileInputMeta<JsonInput, JsonInputData, B
       injectionKeyDescription = "JsonInput.Injection.DEFAULT_PATH_LEAF_TO_NULL")
   private boolean defaultPathLeafToNull;
 
+  /** Flag : read the records of the documents one at a time with a streaming parser */
+  @HopMetadataProperty(
+      key = "streaming",
+      injectionKey = "STREAMING",
+      injectionKeyDescription = "JsonInput.Injection.STREAMING")
+  private boolean streaming;
+
+  /** The path of the records in each document when streaming, for example $.items[*] */
+  @HopMetadataProperty(
+      key = "recordPath",
+      injectionKey = "RECORD_PATH",
+      injectionKeyDescription = "JsonInput.Injection.RECORD_PATH")
+  private String recordPath;
+
   @HopMetadataProperty(inline = true)
   protected BaseFileInputAdditionalFields additionalOutputFields;
 
@@ -206,6 +220,8 @@ public class JsonInputMeta extends BaseFileInputMeta<JsonInput, JsonInputData, B
     ignoringEmptyFile = false;
     ignoringMissingPath = true;
     defaultPathLeafToNull = true;
+    streaming = false;
+    recordPath = "$";
     doNotFailIfNoFile = true;
     includeFilename = false;
     filenameField = "";
@@ -227,6 +243,8 @@ public class JsonInputMeta extends BaseFileInputMeta<JsonInput, JsonInputData, B
     this.doNotFailIfNoFile = m.doNotFailIfNoFile;
     this.filenameField = m.filenameField;
     this.ignoringMissingPath = m.ignoringMissingPath;
+    this.streaming = m.streaming;
+    this.recordPath = m.recordPath;
     this.includeFilename = m.includeFilename;
     this.includeRowNumber = m.includeRowNumber;
     this.inFields = m.inFields;
@@ -38,6 +38,7 @@ import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.SingleRowRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.CompiledArtifactCache;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
 import org.apache.hop.pipeline.transforms.jsoninput.JsonInputMeta;
@@ -46,6 +47,9 @@ import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException
 public class FastJsonReader implements IJsonReader {
   private static final Class<?> PKG = JsonInputMeta.class;
 
+  /** The type of the JSON paths in the compiled artifact cache */
+  private static final String JSON_PATH_ARTIFACT = "jsonpath";
+
   private ReadContext jsonReadContext;
 
   /** used if the incoming value is a String */
@@ -148,8 +152,16 @@ public class FastJsonReader implements IJsonReader {
     JsonPath[] paths = new JsonPath[fields.length];
     int i = 0;
     try {
+      // Compiled paths are immutable, they're shared by all transform copies and pipelines
+      //
+      CompiledArtifactCache cache = CompiledArtifactCache.getInstance();
       for (JsonInputField field : fields) {
-        paths[i++] = JsonPath.compile(field.getPath());
+        String path = field.getPath();
+        paths[i++] =
+            cache.get(
+                JSON_PATH_ARTIFACT,
+                CompiledArtifactCache.contentKey(path),
+                () -> JsonPath.compile(path));
       }
     } catch (Exception e) {
       throw new HopException(
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputMeta;
+
+/**
+ * Reads the records of a JSON document one at a time with a streaming parser, so the memory used
+ * doesn't depend on the size of the document. Only one record at a time is kept in memory: the
+ * field paths are then evaluated against that record.
+ *
+ * <p>The records are found with a record path: a simple JsonPath made of field names, {@code [*]}
+ * or {@code .*} wildcards and array indexes, for example {@code $.items[*]}. Deep scans and filters
+ * aren't supported.
+ *
+ * <p>All the documents in the input are read, one after the other, as in a JSON Lines (NDJSON)
+ * file. The record path is applied to each of them: with record path {@code $} every document is a
+ * record.
+ */
+public class JsonRecordReader implements Closeable {
+  private static final Class<?> PKG = JsonInputMeta.class;
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /** A step of the record path: a field name, an array index or a wildcard (both empty) */
+  private record Segment(String name, int index) {
+    boolean isWildcard() {
+      return name == null && index < 0;
+    }
+  }
+
+  /** An object or array of the document we're in while we look for records */
+  private static final class Frame {
+    private final int segment;
+    private final boolean object;
+    private int index;
+
+    private Frame(int segment, boolean object) {
+      this.segment = segment;
+      this.object = object;
+    }
+  }
+
+  private final JsonParser parser;
+  private final Segment[] segments;
+  private final Deque<Frame> frames = new ArrayDeque<>();
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+  /**
+   * @param in the JSON input, closed when this reader is closed
+   * @param recordPath the path of the records in each document, empty means: {@code $}
+   * @throws HopException in case the record path isn't supported or the input can't be read
+   */
+  public JsonRecordReader(InputStream in, String recordPath) throws HopException {
+    this.segments = parseRecordPath(recordPath);
+    try {
+      this.parser = JSON_FACTORY.createParser(in);
+    } catch (IOException e) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "JsonReader.Error.StreamingRecords", e.getMessage()), e);
+    }
+  }
+
+  /**
+   * Read the next record.
+   *
+   * @return the JSON of the next record or null if there are no more records
+   * @throws HopException in case the input isn't valid JSON
+   */
+  public InputStream next() throws HopException {
+    try {
+      JsonToken token;
+      while ((token = parser.nextToken()) != null) {
+        Frame frame = frames.peek();
+        if (frame == null) {
+          // The start of a document
+          //
+          if (descend(0)) {
+            return copyRecord();
+          }
+          continue;
+        }
+        if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+          frames.pop();
+          continue;
+        }
+
+        Segment segment = segments[frame.segment];
+        boolean matches;
+        if (frame.object) {
+          String name = parser.currentName();
+          parser.nextToken();
+          matches = segment.isWildcard() || (segment.name != null && segment.name.equals(name));
+        } else {
+          int index = frame.index++;
+          matches = segment.name == null && (segment.index < 0 || segment.index == index);
+        }
+        if (!matches) {
+          parser.skipChildren();
+        } else if (descend(frame.segment + 1)) {
+          return copyRecord();
+        }
+      }
+      return null;
+    } catch (IOException e) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "JsonReader.Error.StreamingRecords", e.getMessage()), e);
+    }
+  }
+
+  /**
+   * The parser is on the first token of a value which matched the previous segments of the record
+   * path.
+   *
+   * @param segment the next segment to match
+   * @return true if the value is a record
+   */
+  private boolean descend(int segment) throws IOException {
+    if (segment == segments.length) {
+      return true;
+    }
+    Segment next = segments[segment];
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.START_OBJECT && (next.name != null || next.isWildcard())) {
+      frames.push(new Frame(segment, true));
+    } else if (token == JsonToken.START_ARRAY && next.name == null) {
+      frames.push(new Frame(segment, false));
+    } else {
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  private InputStream copyRecord() throws IOException {
+    buffer.reset();
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+      generator.copyCurrentStructure(parser);
+    }
+    return new ByteArrayInputStream(buffer.toByteArray());
+  }
+
+  @Override
+  public void close() throws IOException {
+    parser.close();
+  }
+
+  /**
+   * Split a record path like {@code $.items[*]} or {@code $['data'].rows[0]} in segments.
+   *
+   * @param recordPath the record path
+   * @return the segments of the path
+   * @throws HopException if the path isn't supported
+   */
+  static Segment[] parseRecordPath(String recordPath) throws HopException {
+    String path = StringUtils.trimToEmpty(recordPath);
+    if (path.isEmpty()) {
+      return new Segment[0];
+    }
+    if (!path.startsWith("$") || path.contains("..")) {
+      throw unsupportedRecordPath(recordPath);
+    }
+
+    List<Segment> segments = new ArrayList<>();
+    int i = 1;
+    while (i < path.length()) {
+      char c = path.charAt(i);
+      if (c == '.') {
+        int end = i + 1;
+        while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+          end++;
+        }
+        String name = path.substring(i + 1, end);
+        if (name.isEmpty()) {
+          throw unsupportedRecordPath(recordPath);
+        }
+        segments.add("*".equals(name) ? new Segment(null, -1) : new Segment(name, -1));
+        i = end;
+      } else if (c == '[') {
+        int end = path.indexOf(']', i);
+        if (end < 0) {
+          throw unsupportedRecordPath(recordPath);
+        }
+        String selector = path.substring(i + 1, end).trim();
+        if ("*".equals(selector)) {
+          segments.add(new Segment(null, -1));
+        } else if (selector.length() > 1
+            && (selector.startsWith("'") && selector.endsWith("'")
+                || selector.startsWith("\"") && selector.endsWith("\""))) {
+          segments.add(new Segment(selector.substring(1, selector.length() - 1), -1));
+        } else if (StringUtils.isNumeric(selector)) {
+          segments.add(new Segment(null, Integer.parseInt(selector)));
+        } else {
+          throw unsupportedRecordPath(recordPath);
+        }
+        i = end + 1;
+      } else {
+        throw unsupportedRecordPath(recordPath);
+      }
+    }
+    return segments.toArray(new Segment[0]);
+  }
+
+  private static HopException unsupportedRecordPath(String recordPath) {
+    return new HopException(
+        BaseMessages.getString(PKG, "JsonReader.Error.UnsupportedRecordPath", recordPath));
+  }
+}
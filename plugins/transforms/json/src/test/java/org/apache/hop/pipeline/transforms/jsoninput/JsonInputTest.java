@@ -412,6 +412,52 @@ class JsonInputTest {
     assertEquals(2, jsonInput.getLinesWritten(), "lines written");
   }
 
+  @Test
+  void testStreamingRecordPath() throws Exception {
+    JsonInputField isbn = new JsonInputField("isbn");
+    isbn.setPath("$.isbn");
+    isbn.setType(IValueMeta.TYPE_STRING);
+    JsonInputField price = new JsonInputField("price");
+    price.setPath("$.price");
+    price.setType(IValueMeta.TYPE_NUMBER);
+
+    JsonInputMeta meta = createSimpleMeta("json", isbn, price);
+    meta.setStreaming(true);
+    meta.setRecordPath("$.store.book[*]");
+    JsonInput jsonInput = createJsonInput("json", meta, new Object[] {getBasicTestJson()});
+    RowComparatorListener rowComparator =
+        new RowComparatorListener(
+            new Object[] {null, null, 8.95},
+            new Object[] {null, null, 12.99},
+            new Object[] {null, "0-553-21311-3", 8.99},
+            new Object[] {null, "0-395-19395-8", 22.99});
+    rowComparator.setComparator(0, null);
+    jsonInput.addRowListener(rowComparator);
+    processRows(jsonInput, 5);
+    assertEquals(0, jsonInput.getErrors(), "error");
+    assertEquals(4, jsonInput.getLinesWritten(), "lines written");
+  }
+
+  @Test
+  void testStreamingJsonLines() throws Exception {
+    JsonInputField id = new JsonInputField("id");
+    id.setPath("$.id");
+    id.setType(IValueMeta.TYPE_INTEGER);
+
+    JsonInputMeta meta = createSimpleMeta("json", id);
+    meta.setStreaming(true);
+    JsonInput jsonInput =
+        createJsonInput("json", meta, new Object[] {"{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n"});
+    RowComparatorListener rowComparator =
+        new RowComparatorListener(
+            new Object[] {null, 1L}, new Object[] {null, 2L}, new Object[] {null, 3L});
+    rowComparator.setComparator(0, null);
+    jsonInput.addRowListener(rowComparator);
+    processRows(jsonInput, 4);
+    assertEquals(0, jsonInput.getErrors(), "error");
+    assertEquals(3, jsonInput.getLinesWritten(), "lines written");
+  }
+
   @Test
   void testSmallDoubles() throws Exception {
     // legacy parser handles these but positive exp would read null
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.junit.jupiter.api.Test;
+
+class JsonRecordReaderTest {
+
+  private static List<String> readRecords(String json, String recordPath) throws Exception {
+    List<String> records = new ArrayList<>();
+    try (JsonRecordReader reader =
+        new JsonRecordReader(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), recordPath)) {
+      InputStream record;
+      while ((record = reader.next()) != null) {
+        records.add(new String(record.readAllBytes(), StandardCharsets.UTF_8));
+      }
+    }
+    return records;
+  }
+
+  @Test
+  void testJsonLines() throws Exception {
+    String json = "{\"id\":1,\"name\":\"a\"}\n{\"id\":2,\"name\":\"b\"}\n\n{\"id\":3}\n";
+    assertEquals(
+        List.of("{\"id\":1,\"name\":\"a\"}", "{\"id\":2,\"name\":\"b\"}", "{\"id\":3}"),
+        readRecords(json, "$"));
+  }
+
+  @Test
+  void testEmptyRecordPath() throws Exception {
+    assertEquals(List.of("[1,2]", "{\"a\":1}"), readRecords("[1,2] {\"a\":1}", ""));
+  }
+
+  @Test
+  void testArrayElements() throws Exception {
+    String json =
+        "{\"total\":2,\"items\":[{\"id\":1,\"tags\":[\"x\"]},{\"id\":2}],\"next\":{\"items\":[3]}}";
+    assertEquals(
+        List.of("{\"id\":1,\"tags\":[\"x\"]}", "{\"id\":2}"), readRecords(json, "$.items[*]"));
+  }
+
+  @Test
+  void testArrayElementsOfEachDocument() throws Exception {
+    String json = "{\"items\":[1,2]}\n{\"items\":[]}\n{\"other\":[4]}\n{\"items\":[3]}";
+    assertEquals(List.of("1", "2", "3"), readRecords(json, "$.items[*]"));
+  }
+
+  @Test
+  void testNestedPath() throws Exception {
+    String json =
+        "{\"pages\":[{\"items\":[{\"id\":1},{\"id\":2}]},{\"nothing\":true},{\"items\":[{\"id\":3}]}]}";
+    assertEquals(
+        List.of("{\"id\":1}", "{\"id\":2}", "{\"id\":3}"),
+        readRecords(json, "$.pages[*].items[*]"));
+  }
+
+  @Test
+  void testIndexAndQuotedName() throws Exception {
+    String json = "{\"data set\":[{\"id\":1},{\"id\":2},{\"id\":3}]}";
+    assertEquals(List.of("{\"id\":2}"), readRecords(json, "$['data set'][1]"));
+  }
+
+  @Test
+  void testObjectWildcard() throws Exception {
+    String json = "{\"a\":{\"id\":1},\"b\":{\"id\":2}}";
+    assertEquals(List.of("{\"id\":1}", "{\"id\":2}"), readRecords(json, "$.*"));
+  }
+
+  @Test
+  void testScalarsAreSkipped() throws Exception {
+    String json = "{\"items\":{\"id\":1}}\n{\"items\":\"none\"}\n{\"items\":[[5]]}";
+    // As in JsonPath, [*] also selects the values of an object
+    assertEquals(List.of("1", "[5]"), readRecords(json, "$.items[*]"));
+    assertEquals(List.of(), readRecords(json, "$.items[*].id[*]"));
+    assertEquals(List.of("5"), readRecords(json, "$.items[0][0]"));
+  }
+
+  @Test
+  void testUnsupportedRecordPath() {
+    assertThrows(HopException.class, () -> readRecords("{}", "$..items"));
+    assertThrows(HopException.class, () -> readRecords("{}", "items[*]"));
+    assertThrows(HopException.class, () -> readRecords("{}", "$.items[?(@.id > 1)]"));
+    assertThrows(HopException.class, () -> readRecords("{}", "$.items[*"));
+  }
+
+  @Test
+  void testInvalidJson() {
+    assertThrows(HopException.class, () -> readRecords("{\"items\":[1,2", "$.items[*]"));
+  }
+}
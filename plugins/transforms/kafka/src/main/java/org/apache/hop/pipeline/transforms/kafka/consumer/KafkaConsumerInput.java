@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.kafka.consumer;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -32,6 +33,7 @@ import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
 import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.TransformWithMappingMeta;
 import org.apache.hop.pipeline.config.PipelineRunConfiguration;
@@ -49,6 +51,7 @@ import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.WakeupException;
 
 /** Consume messages from a Kafka topic */
@@ -57,6 +60,9 @@ public class KafkaConsumerInput
 
   private static final Class<?> PKG = KafkaConsumerInputMeta.class;
 
+  /** The sub-pipelines of the parallel workers */
+  private final List<PartitionBatchProcessor> processors = new ArrayList<>();
+
   public KafkaConsumerInput(
       TransformMeta transformMeta,
       KafkaConsumerInputMeta meta,
@@ -86,11 +92,16 @@ public class KafkaConsumerInput
     data.batchDuration = Const.toInt(resolve(meta.getBatchDuration()), 0);
     data.batchSize = Const.toInt(resolve(meta.getBatchSize()), 0);
 
-    data.consumer = buildKafkaConsumer(this, meta);
-
     // Subscribe to the topics...
     //
     Set<String> topics = meta.getTopics().stream().map(this::resolve).collect(Collectors.toSet());
+
+    int nrWorkers = Const.toInt(resolve(meta.getParallelWorkers()), 1);
+    if (nrWorkers > 1) {
+      return initWorkers(nrWorkers, topics);
+    }
+
+    data.consumer = buildKafkaConsumer(this, meta);
     data.consumer.subscribe(topics);
 
     // Load and start the single threader transformation
@@ -107,7 +118,51 @@ public class KafkaConsumerInput
     return true;
   }
 
+  /**
+   * Start a number of workers which each have their own consumer and sub-pipeline. Kafka spreads
+   * the partitions of the topics over the consumers.
+   */
+  private boolean initWorkers(int nrWorkers, Set<String> topics) {
+    data.workers = new ArrayList<>();
+    Duration pollDuration =
+        Duration.ofMillis(data.batchDuration > 0 ? data.batchDuration : Long.MAX_VALUE);
+    try {
+      for (int i = 0; i < nrWorkers; i++) {
+        String workerName = getTransformName() + " (worker " + (i + 1) + ")";
+        PartitionBatchProcessor processor = new PartitionBatchProcessor(workerName);
+        processor.initSubPipeline();
+
+        KafkaConsumerWorker worker =
+            new KafkaConsumerWorker(
+                workerName,
+                buildKafkaConsumer(this, meta),
+                pollDuration,
+                processor,
+                getLogChannel());
+        data.workers.add(worker);
+        worker.subscribe(topics);
+      }
+    } catch (Exception e) {
+      logError("Error initializing the Kafka consumer workers", e);
+      return false;
+    }
+    data.isKafkaConsumerClosing = false;
+    return true;
+  }
+
   private void initSubPipeline() throws HopException {
+    SubPipeline subPipeline = createSubPipeline(getTransformName());
+    data.rowProducer = subPipeline.rowProducer();
+    data.executor = subPipeline.executor();
+  }
+
+  /**
+   * @param rowProducer accepts the Kafka records
+   * @param executor executes the sub-pipeline for a batch of records
+   */
+  private record SubPipeline(RowProducer rowProducer, SingleThreadedPipelineExecutor executor) {}
+
+  private SubPipeline createSubPipeline(String activeSubPipelineName) throws HopException {
     try {
 
       String realFilename = resolve(meta.getFilename());
@@ -141,10 +196,11 @@ public class KafkaConsumerInput
 
       // Find the (first copy of the) "Get Record from Stream" transform
       //
+      RowProducer rowProducer = null;
       for (TransformMeta transformMeta : subTransMeta.getTransforms()) {
         ITransformMeta iTransform = transformMeta.getTransform();
         if (iTransform instanceof InjectorMeta) {
-          if (data.rowProducer != null) {
+          if (rowProducer != null) {
             throw new HopException(
                 "You can only have one copy of the injector transform '"
                     + transformMeta.getName()
@@ -152,11 +208,11 @@ public class KafkaConsumerInput
           }
           // Attach an injector to this transform
           //
-          data.rowProducer = kafkaPipeline.addRowProducer(transformMeta.getName(), 0);
+          rowProducer = kafkaPipeline.addRowProducer(transformMeta.getName(), 0);
         }
       }
 
-      if (data.rowProducer == null) {
+      if (rowProducer == null) {
         throw new HopException(
             "Unable to find an Injector transform in the Kafka pipeline. Such a transform is needed to accept data from this Kafka Consumer transform.");
       }
@@ -176,31 +232,36 @@ public class KafkaConsumerInput
               public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
                   throws HopTransformException {
                 // Write this row to the next transform(s)
+                // The sub-pipelines of the parallel workers share the output of this transform.
                 //
-                KafkaConsumerInput.this.putRow(rowMeta, row);
+                synchronized (KafkaConsumerInput.this) {
+                  KafkaConsumerInput.this.putRow(rowMeta, row);
+                }
               }
             });
       }
       kafkaPipeline.setLogChannel(getLogChannel());
       kafkaPipeline.startThreads();
 
+      SingleThreadedPipelineExecutor executor;
       if (errorHandlingConditionIsSatisfied()) {
-        data.executor = new SingleThreadedPipelineExecutor(kafkaPipeline, true);
+        executor = new SingleThreadedPipelineExecutor(kafkaPipeline, true);
       } else {
         // If the conditions for error handling are not met init SingleThreadedExecutor normally
-        data.executor = new SingleThreadedPipelineExecutor(kafkaPipeline);
+        executor = new SingleThreadedPipelineExecutor(kafkaPipeline);
       }
-      data.executor.setClearingMetricsPerIteration(
+      executor.setClearingMetricsPerIteration(
           StringUtils.isEmpty(meta.getExecutionInformationLocation()));
 
       // Initialize the sub-pipeline
       //
-      boolean ok = data.executor.init();
+      boolean ok = executor.init();
       if (!ok) {
         throw new HopException("Initialization of sub-pipeline failed");
       }
 
-      getPipeline().addActiveSubPipeline(getTransformName(), kafkaPipeline);
+      getPipeline().addActiveSubPipeline(activeSubPipelineName, kafkaPipeline);
+      return new SubPipeline(rowProducer, executor);
     } catch (Exception e) {
       throw new HopException("Unable to load and initialize sub pipeline", e);
     }
@@ -208,6 +269,9 @@ public class KafkaConsumerInput
 
   @Override
   public void dispose() {
+    if (data.workers != null) {
+      disposeWorkers();
+    }
     if (data.consumer != null) {
       data.consumer.unsubscribe();
       data.consumer.close();
@@ -270,12 +334,19 @@ public class KafkaConsumerInput
   @Override
   public void stopRunning() throws HopException {
     data.isKafkaConsumerClosing = true;
-    data.consumer.wakeup();
+    if (data.workers != null) {
+      data.workers.forEach(KafkaConsumerWorker::stop);
+    } else {
+      data.consumer.wakeup();
+    }
     super.stopRunning();
   }
 
   @Override
   public boolean processRow() throws HopException {
+    if (data.workers != null) {
+      return processWithWorkers();
+    }
 
     // Poll records...
     // If we get any, process them...
@@ -376,6 +447,163 @@ public class KafkaConsumerInput
     return true;
   }
 
+  /**
+   * Run the workers until they are stopped or one of them fails. The transform only waits for them.
+   */
+  private boolean processWithWorkers() {
+    data.workerThreads = new ArrayList<>();
+    for (KafkaConsumerWorker worker : data.workers) {
+      Thread thread = new Thread(worker, worker.getName());
+      thread.setDaemon(true);
+      data.workerThreads.add(thread);
+      thread.start();
+    }
+
+    // When one worker fails, we stop the others
+    //
+    while (!joinWorkerThreads(100L)) {
+      if (data.workers.stream().anyMatch(KafkaConsumerWorker::isFailed)) {
+        data.workers.forEach(KafkaConsumerWorker::stop);
+      }
+    }
+
+    for (KafkaConsumerWorker worker : data.workers) {
+      if (worker.getException() != null) {
+        logError("Error consuming Kafka records in " + worker.getName(), worker.getException());
+      }
+      if (worker.isFailed()) {
+        setErrors(getErrors() + 1);
+      }
+      if (isBasic()) {
+        worker.logStatistics();
+      }
+    }
+    synchronized (processors) {
+      for (PartitionBatchProcessor processor : processors) {
+        processor.executor.getPipeline().stopAll();
+      }
+    }
+    setOutputDone();
+    if (getErrors() > 0) {
+      stopAll();
+    }
+    return false;
+  }
+
+  /**
+   * @return true if all worker threads ended within the given time or if we were interrupted
+   */
+  private boolean joinWorkerThreads(long millis) {
+    try {
+      for (Thread thread : data.workerThreads) {
+        thread.join(millis);
+        if (thread.isAlive()) {
+          return false;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      data.workers.forEach(KafkaConsumerWorker::stop);
+    }
+    return true;
+  }
+
+  private void disposeWorkers() {
+    data.workers.forEach(KafkaConsumerWorker::stop);
+    if (data.workerThreads != null) {
+      for (Thread thread : data.workerThreads) {
+        try {
+          thread.join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+    for (KafkaConsumerWorker worker : data.workers) {
+      try {
+        worker.close();
+      } catch (Exception e) {
+        logError("Error closing the Kafka consumer of " + worker.getName(), e);
+      }
+    }
+    data.workers = null;
+  }
+
+  /** Feeds the records of a worker to its own sub-pipeline. */
+  private final class PartitionBatchProcessor implements KafkaConsumerWorker.IBatchProcessor {
+    private final String name;
+    private final List<Object[]> incomingRowsBuffer = new ArrayList<>();
+    private RowProducer rowProducer;
+    private SingleThreadedPipelineExecutor executor;
+
+    private PartitionBatchProcessor(String name) {
+      this.name = name;
+    }
+
+    private void initSubPipeline() throws HopException {
+      SubPipeline subPipeline = createSubPipeline(name);
+      rowProducer = subPipeline.rowProducer();
+      executor = subPipeline.executor();
+      synchronized (processors) {
+        processors.add(this);
+      }
+    }
+
+    @Override
+    public boolean processBatch(
+        TopicPartition partition, List<ConsumerRecord<Object, Object>> records)
+        throws HopException {
+      for (ConsumerRecord<Object, Object> record : records) {
+        Object[] outputRow = processMessageAsRow(record);
+        rowProducer.putRow(data.outputRowMeta, outputRow);
+        if (errorHandlingConditionIsSatisfied()) {
+          incomingRowsBuffer.add(outputRow);
+        }
+        incrementLinesInput();
+      }
+
+      executor.oneIteration();
+
+      if (executor.isStopped() || executor.getErrors() > 0) {
+        if (executor.getErrors() == 0 || !errorHandlingConditionIsSatisfied()) {
+          // An error occurred in the sub-pipeline, don't commit the offset
+          //
+          logError(name + " stops: the sub-pipeline failed to process the records of " + partition);
+          return false;
+        }
+
+        // Send the records in error to the error handling and commit their offset
+        //
+        synchronized (KafkaConsumerInput.this) {
+          for (Object[] row : incomingRowsBuffer) {
+            putError(
+                data.outputRowMeta,
+                row,
+                1L,
+                "An error occurred while processing the subpipeline",
+                null,
+                "KAFKA001");
+          }
+        }
+        incomingRowsBuffer.clear();
+
+        // Start over with a fresh sub-pipeline, like in the single threaded mode
+        //
+        executor.getPipeline().stopAll();
+        executor.dispose();
+        synchronized (processors) {
+          processors.remove(this);
+        }
+        initSubPipeline();
+        return true;
+      }
+
+      executor.buildExecutionSummary();
+      incomingRowsBuffer.clear();
+      return true;
+    }
+  }
+
   private boolean errorHandlingConditionIsSatisfied() {
     // Added a check to be sure that lines collecting for error handling is limited
     // to the case of batchSize = 1.
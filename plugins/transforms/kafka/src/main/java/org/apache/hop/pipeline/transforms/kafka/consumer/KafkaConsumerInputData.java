@@ -35,6 +35,8 @@ public class KafkaConsumerInputData extends BaseTransformData implements ITransf
   public SingleThreadedPipelineExecutor executor;
   public boolean isKafkaConsumerClosing;
   public List<Object[]> incomingRowsBuffer;
+  public List<KafkaConsumerWorker> workers;
+  public List<Thread> workerThreads;
 
   /** */
   public KafkaConsumerInputData() {
@@ -104,6 +104,8 @@ public class KafkaConsumerInputDialog extends BaseTransformDialog {
   protected ModifyListener lsMod;
   protected Label wlBatchSize;
   protected TextVar wBatchSize;
+  protected Label wlParallelWorkers;
+  protected TextVar wParallelWorkers;
   protected Label wlBatchDuration;
   protected TextVar wBatchDuration;
 
@@ -299,6 +301,7 @@ public class KafkaConsumerInputDialog extends BaseTransformDialog {
     m.setExecutionDataProfile(wProfile.getText());
     m.setBatchSize(wBatchSize.getText());
     m.setBatchDuration(wBatchDuration.getText());
+    m.setParallelWorkers(wParallelWorkers.getText());
     m.setSubTransform(wSubTransform.getText());
     setTopicsFromTable();
 
@@ -329,7 +332,7 @@ public class KafkaConsumerInputDialog extends BaseTransformDialog {
     wOffsetGroup.setLayout(flOffsetGroup);
 
     FormData fdOffsetGroup = new FormData();
-    fdOffsetGroup.top = new FormAttachment(wBatchSize, 15);
+    fdOffsetGroup.top = new FormAttachment(wParallelWorkers, 15);
     fdOffsetGroup.left = new FormAttachment(0, 0);
     fdOffsetGroup.right = new FormAttachment(100, 0);
     wOffsetGroup.setLayoutData(fdOffsetGroup);
@@ -614,6 +617,27 @@ public class KafkaConsumerInputDialog extends BaseTransformDialog {
     fdBatchSize.top = new FormAttachment(wlBatchSize, 0, SWT.CENTER);
     wBatchSize.setLayoutData(fdBatchSize);
 
+    wlParallelWorkers = new Label(wBatchComp, SWT.RIGHT);
+    PropsUi.setLook(wlParallelWorkers);
+    wlParallelWorkers.setText(
+        BaseMessages.getString(PKG, "KafkaConsumerInputDialog.ParallelWorkers"));
+    wlParallelWorkers.setToolTipText(
+        BaseMessages.getString(PKG, "KafkaConsumerInputDialog.ParallelWorkers.Tooltip"));
+    FormData fdlParallelWorkers = new FormData();
+    fdlParallelWorkers.left = new FormAttachment(0, 0);
+    fdlParallelWorkers.top = new FormAttachment(wBatchSize, margin);
+    fdlParallelWorkers.right = new FormAttachment(middle, -margin);
+    wlParallelWorkers.setLayoutData(fdlParallelWorkers);
+
+    wParallelWorkers = new TextVar(variables, wBatchComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wParallelWorkers);
+    wParallelWorkers.addModifyListener(lsMod);
+    FormData fdParallelWorkers = new FormData();
+    fdParallelWorkers.left = new FormAttachment(wlParallelWorkers, margin);
+    fdParallelWorkers.right = new FormAttachment(100, 0);
+    fdParallelWorkers.top = new FormAttachment(wlParallelWorkers, 0, SWT.CENTER);
+    wParallelWorkers.setLayoutData(fdParallelWorkers);
+
     wBatchComp.layout();
     wBatchTab.setControl(wBatchComp);
   }
@@ -827,6 +851,7 @@ public class KafkaConsumerInputDialog extends BaseTransformDialog {
     wConsumerGroup.setText(Const.NVL(meta.getConsumerGroup(), ""));
     wBatchSize.setText(Const.NVL(meta.getBatchSize(), ""));
     wBatchDuration.setText(Const.NVL(meta.getBatchDuration(), ""));
+    wParallelWorkers.setText(Const.NVL(meta.getParallelWorkers(), ""));
 
     wbAutoCommit.setSelection(meta.isAutoCommit());
     wbManualCommit.setSelection(!meta.isAutoCommit());
@@ -135,6 +135,12 @@ public class KafkaConsumerInputMeta
       injectionKeyDescription = "KafkaConsumerInputMeta.Injection.BATCH_DURATION")
   protected String batchDuration;
 
+  @HopMetadataProperty(
+      key = "parallelWorkers",
+      injectionKey = "PARALLEL_WORKERS",
+      injectionKeyDescription = "KafkaConsumerInputMeta.Injection.PARALLEL_WORKERS")
+  protected String parallelWorkers;
+
   @HopMetadataProperty(
       key = "subTransform",
       injectionKey = "subTransform",
@@ -194,6 +200,7 @@ public class KafkaConsumerInputMeta
     executionDataProfile = "";
     batchSize = "1000";
     batchDuration = "1000";
+    parallelWorkers = "1";
     subTransform = "";
     topics = new ArrayList<>();
     options = new ArrayList<>();
@@ -238,6 +245,7 @@ public class KafkaConsumerInputMeta
     this.executionDataProfile = m.executionDataProfile;
     this.batchSize = m.batchSize;
     this.batchDuration = m.batchDuration;
+    this.parallelWorkers = m.parallelWorkers;
     this.subTransform = m.subTransform;
     this.directBootstrapServers = m.directBootstrapServers;
     this.topics = new ArrayList<>(m.topics);
@@ -391,6 +399,19 @@ public class KafkaConsumerInputMeta
               transformMeta));
     }
 
+    if (StringUtils.isNotEmpty(getParallelWorkers())) {
+      try {
+        Long.parseLong(variables.resolve(getParallelWorkers()));
+      } catch (NumberFormatException e) {
+        remarks.add(
+            new CheckResult(
+                ICheckResult.TYPE_RESULT_ERROR,
+                BaseMessages.getString(
+                    PKG, "KafkaConsumerInputMeta.CheckResult.NaN", "Number of parallel workers"),
+                transformMeta));
+      }
+    }
+
     if (duration == 0 && size == 0) {
       remarks.add(
           new CheckResult(
@@ -431,6 +452,11 @@ public class KafkaConsumerInputMeta
     return true;
   }
 
+  @Override
+  public boolean supportsScheduledExecution() {
+    return false;
+  }
+
   @Override
   public void convertLegacyXml(Node transformNode) throws HopException {
     // Read the old options format:
@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.kafka.consumer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.metrics.MetricsSnapshotType;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+
+/**
+ * Consumes the partitions assigned to one Kafka consumer of the consumer group on a thread of its
+ * own. Used by the Kafka Consumer transform to process several partitions in parallel.
+ *
+ * <p>The records of every polled batch are handed to the batch processor partition by partition.
+ * The offset of a partition is only committed once its records are processed. When partitions are
+ * revoked during a rebalance, the processed offsets of those partitions are committed before they
+ * are handed to another consumer.
+ */
+public class KafkaConsumerWorker implements Runnable, ConsumerRebalanceListener {
+
+  /** The number of records processed per partition */
+  public static final Metrics METRIC_PARTITION_RECORDS =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_KAFKA_PARTITION_RECORDS",
+          "Kafka records processed per partition");
+
+  /** The time spent processing the records per partition */
+  public static final Metrics METRIC_PARTITION_TIME =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_KAFKA_PARTITION_TIME",
+          "Time spent processing Kafka records per partition (ms)");
+
+  /** The highest lag seen per partition */
+  public static final Metrics METRIC_PARTITION_LAG =
+      new Metrics(
+          MetricsSnapshotType.MAX,
+          "METRIC_KAFKA_PARTITION_LAG",
+          "Kafka consumer lag per partition");
+
+  /** Processes the records of one partition polled in one batch. */
+  @FunctionalInterface
+  public interface IBatchProcessor {
+    /**
+     * @param partition the partition the records were polled from
+     * @param records the records, in the order of their offsets
+     * @return true if the records were processed and the offset can be committed
+     * @throws HopException in case the records can't be processed
+     */
+    boolean processBatch(TopicPartition partition, List<ConsumerRecord<Object, Object>> records)
+        throws HopException;
+  }
+
+  /** The statistics of one partition consumed by this worker. */
+  public static final class PartitionStatistics {
+    private long records;
+    private long nanos;
+    private long lag = -1L;
+
+    /**
+     * @return the number of records processed
+     */
+    public long getRecords() {
+      return records;
+    }
+
+    /**
+     * @return the time spent processing the records in milliseconds
+     */
+    public long getTimeMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * @return the number of records processed per second
+     */
+    public double getRecordsPerSecond() {
+      return nanos == 0 ? 0.0 : records * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * @return the last known lag of the partition or -1 if unknown
+     */
+    public long getLag() {
+      return lag;
+    }
+  }
+
+  private final String name;
+  private final Consumer<Object, Object> consumer;
+  private final Duration pollDuration;
+  private final IBatchProcessor processor;
+  private final ILogChannel log;
+
+  /** The processed offsets which still need committing when a partition is revoked. */
+  private final Map<TopicPartition, OffsetAndMetadata> processedOffsets = new HashMap<>();
+
+  private final Map<TopicPartition, PartitionStatistics> statistics = new ConcurrentHashMap<>();
+
+  private volatile boolean stopped;
+  private volatile boolean failed;
+  private volatile Exception exception;
+
+  /**
+   * @param name the name of the worker, used for logging
+   * @param consumer the consumer, only used by this worker
+   * @param pollDuration the maximum time to wait for records
+   * @param processor processes the polled records
+   * @param log the log channel to log and to record the metrics on
+   */
+  public KafkaConsumerWorker(
+      String name,
+      Consumer<Object, Object> consumer,
+      Duration pollDuration,
+      IBatchProcessor processor,
+      ILogChannel log) {
+    this.name = name;
+    this.consumer = consumer;
+    this.pollDuration = pollDuration;
+    this.processor = processor;
+    this.log = log;
+  }
+
+  /**
+   * Subscribe to the given topics. Kafka spreads the partitions over the consumers of the group.
+   *
+   * @param topics the topics to subscribe to
+   */
+  public void subscribe(Collection<String> topics) {
+    consumer.subscribe(topics, this);
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (!stopped) {
+        ConsumerRecords<Object, Object> records = consumer.poll(pollDuration);
+        if (stopped) {
+          break;
+        }
+        for (TopicPartition partition : records.partitions()) {
+          if (!processPartition(partition, records.records(partition))) {
+            failed = true;
+            stopped = true;
+            break;
+          }
+        }
+      }
+    } catch (WakeupException e) {
+      // We were stopped
+    } catch (Exception e) {
+      exception = e;
+      failed = true;
+    } finally {
+      stopped = true;
+      commitProcessedOffsets(processedOffsets);
+    }
+  }
+
+  private boolean processPartition(
+      TopicPartition partition, List<ConsumerRecord<Object, Object>> records) throws HopException {
+    if (records.isEmpty()) {
+      return true;
+    }
+    long start = System.nanoTime();
+    if (!processor.processBatch(partition, records)) {
+      return false;
+    }
+    long nanos = System.nanoTime() - start;
+
+    // The whole batch of this partition is processed, its offset can move on
+    //
+    long nextOffset = records.get(records.size() - 1).offset() + 1;
+    OffsetAndMetadata offset = new OffsetAndMetadata(nextOffset);
+    processedOffsets.put(partition, offset);
+    consumer.commitAsync(
+        Map.of(partition, offset),
+        (offsets, e) -> {
+          if (e != null) {
+            log.logError("Unable to commit offset " + nextOffset + " of partition " + partition, e);
+          }
+        });
+
+    PartitionStatistics partitionStatistics =
+        statistics.computeIfAbsent(partition, p -> new PartitionStatistics());
+    partitionStatistics.records += records.size();
+    partitionStatistics.nanos += nanos;
+    OptionalLong lag = consumer.currentLag(partition);
+    if (lag.isPresent()) {
+      partitionStatistics.lag = lag.getAsLong();
+    }
+
+    String subject = partition.toString();
+    log.snap(METRIC_PARTITION_RECORDS, subject, records.size());
+    log.snap(METRIC_PARTITION_TIME, subject, TimeUnit.NANOSECONDS.toMillis(nanos));
+    if (lag.isPresent()) {
+      log.snap(METRIC_PARTITION_LAG, subject, lag.getAsLong());
+    }
+    return true;
+  }
+
+  /** Commit the given processed offsets and forget about them. */
+  private void commitProcessedOffsets(Map<TopicPartition, OffsetAndMetadata> offsets) {
+    if (offsets.isEmpty()) {
+      return;
+    }
+    try {
+      try {
+        consumer.commitSync(new HashMap<>(offsets));
+      } catch (WakeupException e) {
+        // We were stopped while committing, the wakeup is consumed now
+        //
+        consumer.commitSync(new HashMap<>(offsets));
+      }
+    } catch (Exception e) {
+      log.logError(name + " was unable to commit the offsets of partitions " + offsets.keySet(), e);
+    }
+    offsets.clear();
+  }
+
+  @Override
+  public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+    // This is called from poll() so all the records we received are processed.
+    // Make sure the next owner of these partitions continues where we left off.
+    //
+    Map<TopicPartition, OffsetAndMetadata> revoked = new HashMap<>();
+    for (TopicPartition partition : partitions) {
+      OffsetAndMetadata offset = processedOffsets.remove(partition);
+      if (offset != null) {
+        revoked.put(partition, offset);
+      }
+    }
+    commitProcessedOffsets(revoked);
+    if (log.isDetailed() && !partitions.isEmpty()) {
+      log.logDetailed(name + " gave up partitions " + partitions);
+    }
+  }
+
+  @Override
+  public void onPartitionsLost(Collection<TopicPartition> partitions) {
+    // Other consumers own these partitions already, we can't commit for them anymore
+    //
+    for (TopicPartition partition : partitions) {
+      processedOffsets.remove(partition);
+    }
+    if (log.isDetailed() && !partitions.isEmpty()) {
+      log.logDetailed(name + " lost partitions " + partitions);
+    }
+  }
+
+  @Override
+  public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+    if (log.isDetailed() && !partitions.isEmpty()) {
+      log.logDetailed(name + " was assigned partitions " + partitions);
+    }
+  }
+
+  /** Stop consuming, the worker finishes the batch it's processing. */
+  public void stop() {
+    stopped = true;
+    consumer.wakeup();
+  }
+
+  /** Close the consumer. Only call this once the worker is no longer running. */
+  public void close() {
+    consumer.close();
+  }
+
+  /** Log the statistics of the partitions consumed by this worker. */
+  public void logStatistics() {
+    List<TopicPartition> partitions = new ArrayList<>(statistics.keySet());
+    partitions.sort(
+        (p1, p2) -> {
+          int cmp = p1.topic().compareTo(p2.topic());
+          return cmp != 0 ? cmp : Integer.compare(p1.partition(), p2.partition());
+        });
+    for (TopicPartition partition : partitions) {
+      PartitionStatistics partitionStatistics = statistics.get(partition);
+      log.logBasic(
+          String.format(
+              "%s: partition %s, %d records in %d ms (%.1f records/s), lag %d",
+              name,
+              partition,
+              partitionStatistics.getRecords(),
+              partitionStatistics.getTimeMillis(),
+              partitionStatistics.getRecordsPerSecond(),
+              partitionStatistics.getLag()));
+    }
+  }
+
+  /**
+   * @return the name of the worker
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return true if the worker stopped or was stopped
+   */
+  public boolean isStopped() {
+    return stopped;
+  }
+
+  /**
+   * @return true if a batch couldn't be processed
+   */
+  public boolean isFailed() {
+    return failed;
+  }
+
+  /**
+   * @return the exception which stopped the worker or null
+   */
+  public Exception getException() {
+    return exception;
+  }
+
+  /**
+   * @return the statistics of the partitions consumed by this worker so far, by partition
+   */
+  public Map<TopicPartition, PartitionStatistics> getStatistics() {
+    return statistics;
+  }
+}
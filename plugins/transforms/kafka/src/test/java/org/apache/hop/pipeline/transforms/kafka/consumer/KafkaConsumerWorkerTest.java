@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.kafka.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KafkaConsumerWorkerTest {
+  private static final String TOPIC = "topic";
+
+  private final TopicPartition partition0 = new TopicPartition(TOPIC, 0);
+  private final TopicPartition partition1 = new TopicPartition(TOPIC, 1);
+
+  private MockConsumer<Object, Object> consumer;
+
+  @BeforeEach
+  void setUp() {
+    consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    consumer.assign(List.of(partition0, partition1));
+    consumer.updateBeginningOffsets(Map.of(partition0, 0L, partition1, 0L));
+    consumer.updateEndOffsets(Map.of(partition0, 3L, partition1, 2L));
+  }
+
+  private void addRecords() {
+    for (long offset = 0; offset < 3; offset++) {
+      consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, offset, "key" + offset, "p0-" + offset));
+    }
+    for (long offset = 0; offset < 2; offset++) {
+      consumer.addRecord(new ConsumerRecord<>(TOPIC, 1, offset, "key" + offset, "p1-" + offset));
+    }
+  }
+
+  @Test
+  void testOffsetsCommittedPerPartition() {
+    List<Object> processed = new ArrayList<>();
+    KafkaConsumerWorker worker =
+        new KafkaConsumerWorker(
+            "worker",
+            consumer,
+            Duration.ofMillis(10),
+            (partition, records) -> {
+              records.forEach(r -> processed.add(r.value()));
+              return true;
+            },
+            mock(ILogChannel.class));
+
+    consumer.schedulePollTask(this::addRecords);
+    consumer.schedulePollTask(worker::stop);
+    worker.run();
+
+    assertFalse(worker.isFailed());
+    assertEquals(5, processed.size());
+
+    // The records of a partition are processed in order
+    //
+    assertTrue(processed.indexOf("p0-0") < processed.indexOf("p0-1"));
+    assertTrue(processed.indexOf("p0-1") < processed.indexOf("p0-2"));
+    assertTrue(processed.indexOf("p1-0") < processed.indexOf("p1-1"));
+
+    Map<TopicPartition, OffsetAndMetadata> committed =
+        consumer.committed(Set.of(partition0, partition1));
+    assertEquals(3L, committed.get(partition0).offset());
+    assertEquals(2L, committed.get(partition1).offset());
+
+    assertEquals(3L, worker.getStatistics().get(partition0).getRecords());
+    assertEquals(2L, worker.getStatistics().get(partition1).getRecords());
+  }
+
+  @Test
+  void testRevokedPartitionsAreCommittedAndLostOnesAreNot() {
+    PendingAsyncCommitConsumer pendingConsumer = new PendingAsyncCommitConsumer();
+    consumer = pendingConsumer;
+    consumer.updateBeginningOffsets(Map.of(partition0, 0L, partition1, 0L));
+    consumer.updateEndOffsets(Map.of(partition0, 3L, partition1, 2L));
+    KafkaConsumerWorker worker =
+        new KafkaConsumerWorker(
+            "worker",
+            consumer,
+            Duration.ofMillis(10),
+            (partition, records) -> true,
+            mock(ILogChannel.class));
+    worker.subscribe(List.of(TOPIC));
+
+    Map<TopicPartition, OffsetAndMetadata> committedOnRevoke = new HashMap<>();
+    consumer.schedulePollTask(
+        () -> {
+          consumer.rebalance(List.of(partition0, partition1));
+          addRecords();
+        });
+    consumer.schedulePollTask(() -> consumer.rebalance(List.of(partition1)));
+    consumer.schedulePollTask(
+        () -> {
+          committedOnRevoke.putAll(pendingConsumer.syncCommitted);
+          worker.onPartitionsLost(List.of(partition1));
+        });
+    consumer.schedulePollTask(worker::stop);
+    worker.run();
+
+    // MockConsumer.rebalance() is expected to call the rebalance listener of the worker
+    //
+    assertEquals(
+        List.of(Set.of(partition0)),
+        pendingConsumer.revoked,
+        "MockConsumer didn't call the rebalance listener as expected");
+
+    assertFalse(worker.isFailed());
+    assertEquals(2L, worker.getStatistics().get(partition1).getRecords());
+
+    // The revoked partition is committed right away, the lost one never is
+    //
+    assertEquals(Map.of(partition0, new OffsetAndMetadata(3L)), committedOnRevoke);
+    assertEquals(Map.of(partition0, new OffsetAndMetadata(3L)), pendingConsumer.syncCommitted);
+  }
+
+  @Test
+  void testFailedBatchIsNotCommitted() {
+    KafkaConsumerWorker worker =
+        new KafkaConsumerWorker(
+            "worker",
+            consumer,
+            Duration.ofMillis(10),
+            (partition, records) -> partition.partition() == 0,
+            mock(ILogChannel.class));
+
+    consumer.schedulePollTask(this::addRecords);
+    worker.run();
+
+    assertTrue(worker.isFailed());
+    assertTrue(worker.isStopped());
+    assertNull(worker.getException());
+
+    Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.of(partition1));
+    assertNull(committed.get(partition1));
+  }
+
+  /**
+   * A consumer on which asynchronous commits never complete, so only the offsets committed
+   * synchronously are kept. It also records the partitions revoked from the rebalance listener.
+   */
+  private static class PendingAsyncCommitConsumer extends MockConsumer<Object, Object> {
+    private final Map<TopicPartition, OffsetAndMetadata> syncCommitted = new HashMap<>();
+    private final List<Set<TopicPartition>> revoked = new ArrayList<>();
+
+    private PendingAsyncCommitConsumer() {
+      super(OffsetResetStrategy.EARLIEST);
+    }
+
+    @Override
+    public synchronized void subscribe(
+        Collection<String> topics, ConsumerRebalanceListener listener) {
+      super.subscribe(
+          topics,
+          new ConsumerRebalanceListener() {
+            @Override
+            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+              revoked.add(Set.copyOf(partitions));
+              listener.onPartitionsRevoked(partitions);
+            }
+
+            @Override
+            public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+              listener.onPartitionsAssigned(partitions);
+            }
+
+            @Override
+            public void onPartitionsLost(Collection<TopicPartition> partitions) {
+              listener.onPartitionsLost(partitions);
+            }
+          });
+    }
+
+    @Override
+    public synchronized void commitAsync(
+        Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback) {
+      // Still in flight
+    }
+
+    @Override
+    public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+      syncCommitted.putAll(offsets);
+      super.commitAsync(offsets, null);
+    }
+  }
+}
@@ -22,16 +22,22 @@ import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.Gr
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountDistinct;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.Percentile;
 
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.StringJoiner;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
@@ -43,17 +49,41 @@ import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.IEngineComponent;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.HashEntry;
 
-/** Groups information based on aggregation rules. (sum, count, ...) */
+/**
+ * Groups information based on aggregation rules. (sum, count, ...)
+ *
+ * <p>The groups are kept in a hash map. When a memory limit is set and the groups in memory reach
+ * it, the rows of new groups are written to spill files based on the hash of the group. The rows of
+ * the groups in memory are still aggregated in memory. Afterwards every spill file is aggregated in
+ * the same way, spilling to new files based on the next bits of the hash if needed.
+ *
+ * <p>When the copies of the transform are combined, every copy aggregates the rows it receives in
+ * its own hash map. The rows don't need to be partitioned on the group fields. The last copy to
+ * finish merges the partial aggregates of all the copies and writes the groups.
+ */
 public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupByData> {
   private static final Class<?> PKG = MemoryGroupByMeta.class;
 
+  /** The number of hash bits used for every level of spill files */
+  private static final int SPILL_BITS = 4;
+
+  private static final int NR_SPILL_FILES = 1 << SPILL_BITS;
+
+  /** Beyond this level all the hash bits are used up and we keep the groups in memory */
+  private static final int MAX_SPILL_LEVEL = Integer.SIZE / SPILL_BITS - 1;
+
+  /** The estimated memory used by a group, apart from the group and aggregate values */
+  private static final long GROUP_OVERHEAD = 200L;
+
   private boolean allNullsAreZero = false;
   private boolean minNullIsValued = false;
 
@@ -73,7 +103,9 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     Object[] r = getRow(); // get row!
 
     if (first) {
-      if ((r == null) && (!meta.isAlwaysGivingBackOneRow())) {
+      // A copy without rows still needs to hand over its (empty) partial aggregates
+      //
+      if ((r == null) && (!meta.isAlwaysGivingBackOneRow()) && !data.combining) {
         setOutputDone();
         return false;
       }
@@ -105,8 +137,9 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
       data.subjectnrs = new int[meta.getAggregates().size()];
       data.groupnrs = new int[meta.getGroups().size()];
 
-      // If the transform does not receive any rows, we can not lookup field position indexes
-      if (r != null) {
+      // If the transform does not receive any rows, we can not lookup field position indexes.
+      // Unless the copies are combined: the other copies might have received rows.
+      if (r != null || data.combining) {
         for (int i = 0; i < meta.getAggregates().size(); i++) {
           GAggregate aggregate = meta.getAggregates().get(i);
           if (aggregate.getType() == CountAny) {
@@ -165,6 +198,12 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     // Here is where we start to do the real work...
     //
     if (r == null) { // no more input to be expected... (or none received in the first place)
+      if (data.combining && !combinePartialAggregates()) {
+        // Another copy writes the combined groups
+        //
+        setOutputDone();
+        return false;
+      }
       handleLastOfGroup();
 
       setOutputDone();
@@ -188,6 +227,36 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   private void handleLastOfGroup() throws HopException {
     // Dump the content of the map...
     //
+    writeGroups();
+
+    // What if we always need to give back one row?
+    // This means we give back 0 for count all, count distinct, null for everything else
+    //
+    if (data.map.isEmpty() && meta.isAlwaysGivingBackOneRow()) {
+      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
+      int index = 0;
+      for (int i = 0; i < data.groupMeta.size(); i++) {
+        outputRowData[index++] = null;
+      }
+      for (int i = 0; i < data.aggMeta.size(); i++) {
+        GAggregate aggregate = meta.getAggregates().get(i);
+        if (aggregate.getType() == CountAll
+            || aggregate.getType() == CountAny
+            || aggregate.getType() == CountDistinct) {
+          outputRowData[index++] = 0L;
+        } else {
+          outputRowData[index++] = null;
+        }
+      }
+      putRow(data.outputRowMeta, outputRowData);
+    }
+
+    // The groups which didn't fit in memory
+    //
+    aggregateSpillFiles();
+  }
+
+  private void writeGroups() throws HopException {
     for (HashEntry entry : data.map.keySet()) {
       Aggregate aggregate = data.map.get(entry);
       Object[] aggregateResult = getAggregateResult(aggregate);
@@ -204,28 +273,273 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
       }
       putRow(data.outputRowMeta, outputRowData);
     }
+  }
 
-    // What if we always need to give back one row?
-    // This means we give back 0 for count all, count distinct, null for everything else
+  /**
+   * Hand over the partial aggregates of this copy. The last copy to do so merges the partial
+   * aggregates of all the copies into its own hash map.
+   *
+   * @return true if this copy needs to write the combined groups
+   */
+  private boolean combinePartialAggregates() throws HopException {
+    MemoryGroupByData firstData = getFirstCopyData();
+    firstData.partialMaps.add(data.map);
+    data.map = new HashMap<>();
+    if (firstData.runningCopies.decrementAndGet() > 0) {
+      return false;
+    }
+
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "MemoryGroupBy.Log.CombiningCopies", firstData.partialMaps.size()));
+    }
+
+    // Merge the smaller maps into the biggest one
     //
-    if (data.map.isEmpty() && meta.isAlwaysGivingBackOneRow()) {
-      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-      int index = 0;
-      for (int i = 0; i < data.groupMeta.size(); i++) {
-        outputRowData[index++] = null;
+    HashMap<HashEntry, Aggregate> combined = null;
+    for (HashMap<HashEntry, Aggregate> partialMap : firstData.partialMaps) {
+      if (combined == null || partialMap.size() > combined.size()) {
+        combined = partialMap;
       }
-      for (int i = 0; i < data.aggMeta.size(); i++) {
-        GAggregate aggregate = meta.getAggregates().get(i);
-        if (aggregate.getType() == CountAll
-            || aggregate.getType() == CountAny
-            || aggregate.getType() == CountDistinct) {
-          outputRowData[index++] = 0L;
+    }
+    for (HashMap<HashEntry, Aggregate> partialMap : firstData.partialMaps) {
+      if (partialMap == combined) {
+        continue;
+      }
+      for (Map.Entry<HashEntry, Aggregate> entry : partialMap.entrySet()) {
+        Aggregate aggregate = combined.get(entry.getKey());
+        if (aggregate == null) {
+          combined.put(entry.getKey(), entry.getValue());
         } else {
-          outputRowData[index++] = null;
+          combineAggregate(aggregate, entry.getValue());
         }
       }
-      putRow(data.outputRowMeta, outputRowData);
+      partialMap.clear();
     }
+    firstData.partialMaps.clear();
+    data.map = combined;
+    return true;
+  }
+
+  private MemoryGroupByData getFirstCopyData() {
+    if (getCopyNr() == 0) {
+      return data;
+    }
+    IEngineComponent firstCopy = getPipeline().findComponent(getTransformName(), 0);
+    return ((MemoryGroupBy) firstCopy).getData();
+  }
+
+  /**
+   * Merge the partial aggregate of another transform copy into the given aggregate of the same
+   * group. Only aggregation types which don't depend on the order of the rows are supported.
+   *
+   * @param aggregate the aggregate to merge into
+   * @param other the partial aggregate of the other copy
+   * @throws HopException
+   */
+  void combineAggregate(Aggregate aggregate, Aggregate other) throws HopException {
+    for (int i = 0; i < data.subjectnrs.length; i++) {
+      IValueMeta valueMeta = data.aggMeta.getValueMeta(i);
+      Object value = aggregate.agg[i];
+      Object otherValue = other.agg[i];
+      GAggregate agg = meta.getAggregates().get(i);
+
+      switch (agg.getType()) {
+        case Sum:
+          aggregate.agg[i] = ValueDataUtil.sum(valueMeta, value, valueMeta, otherValue);
+          break;
+        case Average:
+          aggregate.agg[i] = ValueDataUtil.sum(valueMeta, value, valueMeta, otherValue);
+          aggregate.counts[i] += other.counts[i];
+          break;
+        case Median, Percentile:
+          ((List<Double>) aggregate.agg[i]).addAll((List<Double>) otherValue);
+          break;
+        case StandardDeviation:
+          // Combine the counts, means and sums of squared differences of both parts
+          //
+          long n1 = aggregate.counts[i];
+          long n2 = other.counts[i];
+          if (n2 == 0) {
+            break;
+          }
+          if (n1 == 0) {
+            aggregate.counts[i] = n2;
+            aggregate.mean[i] = other.mean[i];
+            aggregate.agg[i] = otherValue;
+            break;
+          }
+          double n = (double) n1 + n2;
+          double delta = other.mean[i] - aggregate.mean[i];
+          double m2 = value == null ? 0.0 : (Double) value;
+          double otherM2 = otherValue == null ? 0.0 : (Double) otherValue;
+          aggregate.agg[i] = m2 + otherM2 + delta * delta * n1 * n2 / n;
+          aggregate.mean[i] = aggregate.mean[i] + delta * n2 / n;
+          aggregate.counts[i] = n1 + n2;
+          break;
+        case CountDistinct:
+          if (other.distinctObjs != null && other.distinctObjs[i] != null) {
+            if (aggregate.distinctObjs == null) {
+              aggregate.distinctObjs = new Set[meta.getAggregates().size()];
+            }
+            if (aggregate.distinctObjs[i] == null) {
+              aggregate.distinctObjs[i] = new TreeSet<>();
+            }
+            aggregate.distinctObjs[i].addAll(other.distinctObjs[i]);
+            aggregate.counts[i] = aggregate.distinctObjs[i].size();
+          }
+          break;
+        case CountAll, CountAny:
+          aggregate.counts[i] += other.counts[i];
+          break;
+        case Minimum:
+          boolean otherIsNull = valueMeta.isNull(otherValue);
+          boolean valueIsNull = valueMeta.isNull(value);
+          if (minNullIsValued || (!otherIsNull && !valueIsNull)) {
+            aggregate.agg[i] = valueMeta.compare(otherValue, value) < 0 ? otherValue : value;
+          } else if (valueIsNull && !otherIsNull) {
+            aggregate.agg[i] = otherValue;
+          }
+          break;
+        case Maximum:
+          if (valueMeta.compare(otherValue, value) > 0) {
+            aggregate.agg[i] = otherValue;
+          }
+          break;
+        case ConcatDistinct:
+          ((SortedSet<Object>) aggregate.agg[i]).addAll((SortedSet<Object>) otherValue);
+          break;
+        default:
+          throw new HopException(
+              BaseMessages.getString(
+                  PKG,
+                  "MemoryGroupBy.Log.AggregateNotCombinable",
+                  agg.getField(),
+                  agg.getType().getDescription()));
+      }
+    }
+  }
+
+  /**
+   * Aggregate the rows in the spill files one file at a time. The groups of a spill file are
+   * written out before the next file is read.
+   */
+  private void aggregateSpillFiles() throws HopException {
+    closeSpillFiles();
+
+    while (!data.pendingSpillFiles.isEmpty() && !isStopped()) {
+      SpillFile spillFile = data.pendingSpillFiles.pop();
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "MemoryGroupBy.Log.ReadingSpillFile",
+                spillFile.getNrRows(),
+                HopVfs.getFilename(spillFile.getFile())));
+      }
+
+      data.map.clear();
+      data.memoryUsage = 0L;
+      data.spillLevel = spillFile.getLevel() + 1;
+
+      try (DataInputStream inputStream = spillFile.openInputStream()) {
+        for (long i = 0; i < spillFile.getNrRows() && !isStopped(); i++) {
+          addToAggregate(data.inputRowMeta.readData(inputStream));
+        }
+      } catch (IOException e) {
+        throw new HopException("Error reading spill file " + spillFile.getFile(), e);
+      }
+      spillFile.delete();
+
+      writeGroups();
+      closeSpillFiles();
+    }
+
+    data.map.clear();
+    data.memoryUsage = 0L;
+    data.spillLevel = 0;
+  }
+
+  /** Stop writing to the current spill files, they're aggregated later on. */
+  private void closeSpillFiles() throws HopException {
+    if (data.spillFiles != null) {
+      for (SpillFile spillFile : data.spillFiles) {
+        if (spillFile != null) {
+          spillFile.closeOutput();
+          data.pendingSpillFiles.push(spillFile);
+        }
+      }
+      data.spillFiles = null;
+    }
+  }
+
+  private void deleteSpillFiles() {
+    List<SpillFile> spillFiles = new ArrayList<>(data.pendingSpillFiles);
+    if (data.spillFiles != null) {
+      for (SpillFile spillFile : data.spillFiles) {
+        if (spillFile != null) {
+          spillFiles.add(spillFile);
+        }
+      }
+    }
+    for (SpillFile spillFile : spillFiles) {
+      try {
+        spillFile.delete();
+      } catch (HopException e) {
+        logError(e.getMessage(), e);
+      }
+    }
+    data.spillFiles = null;
+    data.pendingSpillFiles.clear();
+  }
+
+  /**
+   * The memory limit is reached: from now on the rows of new groups are written to spill files.
+   * Unless all the bits of the hash are used up, then we have no choice but to keep going in
+   * memory.
+   */
+  private void startSpilling() {
+    if (data.spillLevel > MAX_SPILL_LEVEL) {
+      return;
+    }
+    data.spillFiles = new SpillFile[NR_SPILL_FILES];
+    if (isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "MemoryGroupBy.Log.SpillingGroups", data.map.size(), NR_SPILL_FILES));
+    }
+  }
+
+  private void spillRow(HashEntry entry, Object[] r) throws HopException {
+    // Spread the bits of the hash code before we pick the bits of this level
+    //
+    int hash = entry.hashCode() * 0x9E3779B9;
+    int index = (hash >>> (SPILL_BITS * data.spillLevel)) & (NR_SPILL_FILES - 1);
+
+    SpillFile spillFile = data.spillFiles[index];
+    if (spillFile == null) {
+      try {
+        FileObject fileObject =
+            HopVfs.createTempFile("memgroupby", ".tmp", data.spillDirectory, this);
+        spillFile = new SpillFile(fileObject, data.spillLevel);
+      } catch (HopFileException e) {
+        throw new HopException("Unable to create a spill file in " + data.spillDirectory, e);
+      }
+      data.spillFiles[index] = spillFile;
+    }
+    spillFile.write(data.inputRowMeta, r);
+  }
+
+  /** A rough estimate of the memory used by a value in a group or aggregate */
+  private static long estimateSize(Object value) {
+    if (value instanceof String string) {
+      return 40L + 2L * string.length();
+    }
+    if (value instanceof byte[] bytes) {
+      return 16L + bytes.length;
+    }
+    return 24L;
   }
 
   /**
@@ -244,6 +558,13 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     Aggregate aggregate = data.map.get(entry);
     if (aggregate == null) {
+      if (data.spillFiles != null) {
+        // No more room in memory: this group is aggregated later on
+        //
+        spillRow(entry, r);
+        return;
+      }
+
       // Create a new value...
       //
       aggregate = new Aggregate();
@@ -252,6 +573,13 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
       // Store it in the map!
       //
       data.map.put(entry, aggregate);
+
+      if (data.memoryLimit > 0) {
+        data.memoryUsage += GROUP_OVERHEAD + 32L * data.subjectnrs.length;
+        for (Object value : groupData) {
+          data.memoryUsage += estimateSize(value);
+        }
+      }
     }
 
     for (int i = 0; i < data.subjectnrs.length; i++) {
@@ -274,6 +602,7 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
         case Median, Percentile:
           if (!subjMeta.isNull(subj)) {
             ((List<Double>) aggregate.agg[i]).add(subjMeta.getNumber(subj));
+            data.memoryUsage += 24L;
           }
           break;
         case StandardDeviation:
@@ -309,8 +638,8 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
             if (obj instanceof byte[] bytes) {
               obj = new String(bytes);
             }
-            if (!aggregate.distinctObjs[i].contains(obj)) {
-              aggregate.distinctObjs[i].add(obj);
+            if (aggregate.distinctObjs[i].add(obj)) {
+              data.memoryUsage += 40L + estimateSize(obj);
             }
           }
           aggregate.counts[i] = aggregate.distinctObjs[i].size();
@@ -364,7 +693,9 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
             if (!sb.isEmpty()) {
               sb.append(", ");
             }
-            sb.append(subjMeta.getString(subj));
+            String string = subjMeta.getString(subj);
+            sb.append(string);
+            data.memoryUsage += 2L * Const.NVL(string, "").length();
           }
           break;
         case ConcatString:
@@ -377,19 +708,27 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
             if (!sb.isEmpty()) {
               sb.append(separator);
             }
-            sb.append(subjMeta.getString(subj));
+            String string = subjMeta.getString(subj);
+            sb.append(string);
+            data.memoryUsage += 2L * (separator.length() + Const.NVL(string, "").length());
           }
           break;
         case ConcatDistinct:
           if (subj != null) {
             SortedSet<Object> set = (SortedSet<Object>) value;
-            set.add(subj);
+            if (set.add(subj)) {
+              data.memoryUsage += 40L + estimateSize(subj);
+            }
           }
           break;
         default:
           break;
       }
     }
+
+    if (data.memoryLimit > 0 && data.spillFiles == null && data.memoryUsage > data.memoryLimit) {
+      startSpilling();
+    }
   }
 
   /**
@@ -555,6 +894,36 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     if (super.init()) {
       data.map = new HashMap<>(5000);
+
+      long memoryLimitMb = Const.toLong(resolve(meta.getMemoryLimit()), -1L);
+      data.memoryLimit = memoryLimitMb > 0 ? memoryLimitMb * 1024L * 1024L : -1L;
+      data.spillDirectory = resolve(meta.getSpillDirectory());
+      if (Utils.isEmpty(data.spillDirectory)) {
+        data.spillDirectory = System.getProperty("java.io.tmpdir");
+      }
+
+      int nrCopies = getTransformMeta().getCopies(this);
+      data.combining = meta.isCombiningCopies() && nrCopies > 1;
+      if (data.combining) {
+        for (GAggregate aggregate : meta.getAggregates()) {
+          if (!aggregate.getType().isCombinable()) {
+            logError(
+                BaseMessages.getString(
+                    PKG,
+                    "MemoryGroupBy.Log.AggregateNotCombinable",
+                    aggregate.getField(),
+                    aggregate.getType().getDescription()));
+            return false;
+          }
+        }
+        if (data.memoryLimit > 0) {
+          logBasic(BaseMessages.getString(PKG, "MemoryGroupBy.Log.MemoryLimitIgnored"));
+          data.memoryLimit = -1L;
+        }
+        if (getCopyNr() == 0) {
+          data.runningCopies = new AtomicInteger(nrCopies);
+        }
+      }
       return true;
     }
     return false;
@@ -562,6 +931,7 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
   @Override
   public void dispose() {
+    deleteSpillFiles();
     super.dispose();
     ((MemoryGroupByData) data).clear();
   }
@@ -17,7 +17,12 @@
 
 package org.apache.hop.pipeline.transforms.memgroupby;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hop.core.exception.HopRuntimeException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
@@ -90,6 +95,32 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
 
   public boolean newBatch;
 
+  /** The maximum estimated memory in bytes used by the groups in memory, -1 for no limit */
+  public long memoryLimit;
+
+  /** The estimated memory in bytes used by the groups in memory */
+  public long memoryUsage;
+
+  public String spillDirectory;
+
+  /** The level of the hash bits used to assign the rows of new groups to the spill files */
+  public int spillLevel;
+
+  /** The spill files the rows of new groups are written to, null as long as there is room */
+  public SpillFile[] spillFiles;
+
+  /** The spill files which still need to be aggregated */
+  public Deque<SpillFile> pendingSpillFiles = new ArrayDeque<>();
+
+  /** True if the partial aggregates of the transform copies are combined at the end */
+  public boolean combining;
+
+  /** The partial aggregates handed over by the copies, only used in the data of the first copy */
+  public Queue<HashMap<HashEntry, Aggregate>> partialMaps = new ConcurrentLinkedQueue<>();
+
+  /** The copies which didn't hand over their partial aggregates yet, only used by the first copy */
+  public AtomicInteger runningCopies;
+
   public MemoryGroupByData() {
     super();
   }
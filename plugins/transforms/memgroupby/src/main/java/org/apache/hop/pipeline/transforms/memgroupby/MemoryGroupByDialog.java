@@ -33,6 +33,7 @@ import org.apache.hop.ui.core.dialog.BaseDialog;
 import org.apache.hop.ui.core.dialog.ErrorDialog;
 import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyListener;
@@ -56,6 +57,12 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
 
   private Button wAlwaysAddResult;
 
+  private Button wCombineCopies;
+
+  private TextVar wMemoryLimit;
+
+  private TextVar wSpillDirectory;
+
   private final MemoryGroupByMeta input;
 
   private ColumnInfo[] ciKey;
@@ -114,12 +121,94 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
     wAlwaysAddResult.setLayoutData(fdAlwaysAddResult);
     wAlwaysAddResult.addSelectionListener(lsSel);
 
+    // Combine the partial aggregates of the transform copies
+    //
+    Label wlCombineCopies = new Label(shell, SWT.RIGHT);
+    wlCombineCopies.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.CombineCopies.Label"));
+    wlCombineCopies.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.CombineCopies.ToolTip"));
+    PropsUi.setLook(wlCombineCopies);
+    FormData fdlCombineCopies = new FormData();
+    fdlCombineCopies.left = new FormAttachment(0, 0);
+    fdlCombineCopies.top = new FormAttachment(wAlwaysAddResult, margin);
+    fdlCombineCopies.right = new FormAttachment(middle, -margin);
+    wlCombineCopies.setLayoutData(fdlCombineCopies);
+    wCombineCopies = new Button(shell, SWT.CHECK);
+    wCombineCopies.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.CombineCopies.ToolTip"));
+    PropsUi.setLook(wCombineCopies);
+    FormData fdCombineCopies = new FormData();
+    fdCombineCopies.left = new FormAttachment(middle, 0);
+    fdCombineCopies.top = new FormAttachment(wlCombineCopies, 0, SWT.CENTER);
+    fdCombineCopies.right = new FormAttachment(100, 0);
+    wCombineCopies.setLayoutData(fdCombineCopies);
+    wCombineCopies.addSelectionListener(lsSel);
+
+    // The memory limit
+    //
+    Label wlMemoryLimit = new Label(shell, SWT.RIGHT);
+    wlMemoryLimit.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.MemoryLimit.Label"));
+    wlMemoryLimit.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.MemoryLimit.ToolTip"));
+    PropsUi.setLook(wlMemoryLimit);
+    FormData fdlMemoryLimit = new FormData();
+    fdlMemoryLimit.left = new FormAttachment(0, 0);
+    fdlMemoryLimit.top = new FormAttachment(wCombineCopies, margin);
+    fdlMemoryLimit.right = new FormAttachment(middle, -margin);
+    wlMemoryLimit.setLayoutData(fdlMemoryLimit);
+    wMemoryLimit = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMemoryLimit.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.MemoryLimit.ToolTip"));
+    PropsUi.setLook(wMemoryLimit);
+    wMemoryLimit.addModifyListener(lsMod);
+    FormData fdMemoryLimit = new FormData();
+    fdMemoryLimit.left = new FormAttachment(middle, 0);
+    fdMemoryLimit.top = new FormAttachment(wCombineCopies, margin);
+    fdMemoryLimit.right = new FormAttachment(100, 0);
+    wMemoryLimit.setLayoutData(fdMemoryLimit);
+
+    // The directory of the spill files
+    //
+    Label wlSpillDirectory = new Label(shell, SWT.RIGHT);
+    wlSpillDirectory.setText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillDirectory.Label"));
+    wlSpillDirectory.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillDirectory.ToolTip"));
+    PropsUi.setLook(wlSpillDirectory);
+    FormData fdlSpillDirectory = new FormData();
+    fdlSpillDirectory.left = new FormAttachment(0, 0);
+    fdlSpillDirectory.top = new FormAttachment(wMemoryLimit, margin);
+    fdlSpillDirectory.right = new FormAttachment(middle, -margin);
+    wlSpillDirectory.setLayoutData(fdlSpillDirectory);
+
+    Button wbSpillDirectory = new Button(shell, SWT.PUSH | SWT.CENTER);
+    PropsUi.setLook(wbSpillDirectory);
+    wbSpillDirectory.setText(BaseMessages.getString(PKG, "System.Button.Browse"));
+    FormData fdbSpillDirectory = new FormData();
+    fdbSpillDirectory.right = new FormAttachment(100, 0);
+    fdbSpillDirectory.top = new FormAttachment(wMemoryLimit, margin);
+    wbSpillDirectory.setLayoutData(fdbSpillDirectory);
+
+    wSpillDirectory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wSpillDirectory.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillDirectory.ToolTip"));
+    PropsUi.setLook(wSpillDirectory);
+    wSpillDirectory.addModifyListener(lsMod);
+    FormData fdSpillDirectory = new FormData();
+    fdSpillDirectory.left = new FormAttachment(middle, 0);
+    fdSpillDirectory.top = new FormAttachment(wMemoryLimit, margin);
+    fdSpillDirectory.right = new FormAttachment(wbSpillDirectory, -margin);
+    wSpillDirectory.setLayoutData(fdSpillDirectory);
+
+    wbSpillDirectory.addListener(
+        SWT.Selection, e -> BaseDialog.presentDirectoryDialog(shell, wSpillDirectory, variables));
+
     Label wlGroup = new Label(shell, SWT.NONE);
     wlGroup.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.Group.Label"));
     PropsUi.setLook(wlGroup);
     FormData fdlGroup = new FormData();
     fdlGroup.left = new FormAttachment(0, 0);
-    fdlGroup.top = new FormAttachment(wlAlwaysAddResult, margin);
+    fdlGroup.top = new FormAttachment(wSpillDirectory, margin);
     wlGroup.setLayoutData(fdlGroup);
 
     int groupCols = 1;
@@ -266,6 +355,9 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
     logDebug(BaseMessages.getString(PKG, "MemoryGroupByDialog.Log.GettingKeyInfo"));
 
     wAlwaysAddResult.setSelection(input.isAlwaysGivingBackOneRow());
+    wCombineCopies.setSelection(input.isCombiningCopies());
+    wMemoryLimit.setText(Const.NVL(input.getMemoryLimit(), ""));
+    wSpillDirectory.setText(Const.NVL(input.getSpillDirectory(), ""));
 
     for (int i = 0; i < input.getGroups().size(); i++) {
       TableItem item = wGroup.table.getItem(i);
@@ -299,6 +391,9 @@ public class MemoryGroupByDialog extends BaseTransformDialog {
     }
 
     input.setAlwaysGivingBackOneRow(wAlwaysAddResult.getSelection());
+    input.setCombiningCopies(wCombineCopies.getSelection());
+    input.setMemoryLimit(wMemoryLimit.getText());
+    input.setSpillDirectory(wSpillDirectory.getText());
 
     input.getGroups().clear();
     for (TableItem item : wGroup.getNonEmptyItems()) {
@@ -82,6 +82,34 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       injectionKeyDescription = "MemoryGroupBy.Injection.ALWAYSGIVINGBACKONEROW")
   private boolean alwaysGivingBackOneRow;
 
+  /**
+   * The maximum amount of memory in MB used by the groups in memory. Once it's reached, the rows of
+   * new groups are written to spill files which are aggregated afterwards. Empty means no limit.
+   */
+  @HopMetadataProperty(
+      key = "memory_limit",
+      injectionKey = "MEMORY_LIMIT",
+      injectionKeyDescription = "MemoryGroupBy.Injection.MEMORY_LIMIT")
+  private String memoryLimit;
+
+  /** The directory in which the spill files are created */
+  @HopMetadataProperty(
+      key = "spill_directory",
+      injectionKey = "SPILL_DIRECTORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILL_DIRECTORY")
+  private String spillDirectory;
+
+  /**
+   * Aggregate the rows of every copy of the transform separately and combine the partial aggregates
+   * of all copies at the end. The rows don't need to be partitioned on the group fields in that
+   * case.
+   */
+  @HopMetadataProperty(
+      key = "combine_copies",
+      injectionKey = "COMBINE_COPIES",
+      injectionKeyDescription = "MemoryGroupBy.Injection.COMBINE_COPIES")
+  private boolean combiningCopies;
+
   public MemoryGroupByMeta() {
     this.groups = new ArrayList<>();
     this.aggregates = new ArrayList<>();
@@ -96,6 +124,9 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       aggregates.add(new GAggregate(aggregate));
     }
     this.alwaysGivingBackOneRow = meta.alwaysGivingBackOneRow;
+    this.memoryLimit = meta.memoryLimit;
+    this.spillDirectory = meta.spillDirectory;
+    this.combiningCopies = meta.combiningCopies;
   }
 
   @Override
@@ -232,6 +263,23 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
               transformMeta);
       remarks.add(cr);
     }
+
+    if (combiningCopies) {
+      for (GAggregate aggregate : aggregates) {
+        if (!aggregate.getType().isCombinable()) {
+          cr =
+              new CheckResult(
+                  ICheckResult.TYPE_RESULT_ERROR,
+                  BaseMessages.getString(
+                      PKG,
+                      "MemoryGroupByMeta.CheckResult.AggregateNotCombinable",
+                      aggregate.getField(),
+                      aggregate.getType().getDescription()),
+                  transformMeta);
+          remarks.add(cr);
+        }
+      }
+    }
   }
 
   @Override
@@ -369,6 +417,30 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       this.description = description;
     }
 
+    /**
+     * The partial aggregates of several transform copies can only be combined if the result doesn't
+     * depend on the order of the rows.
+     *
+     * @return true if partial aggregates of this type can be combined
+     */
+    public boolean isCombinable() {
+      return switch (this) {
+        case Sum,
+                Average,
+                Median,
+                Percentile,
+                Minimum,
+                Maximum,
+                CountAll,
+                CountAny,
+                CountDistinct,
+                StandardDeviation,
+                ConcatDistinct ->
+            true;
+        default -> false;
+      };
+    }
+
     public static String[] getDescriptions() {
       String[] descriptions = new String[values().length];
       for (int i = 0; i < values().length; i++) {
@@ -464,8 +536,62 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
     this.alwaysGivingBackOneRow = alwaysGivingBackOneRow;
   }
 
+  /**
+   * Gets memoryLimit
+   *
+   * @return value of memoryLimit
+   */
+  public String getMemoryLimit() {
+    return memoryLimit;
+  }
+
+  /**
+   * Sets memoryLimit
+   *
+   * @param memoryLimit value of memoryLimit
+   */
+  public void setMemoryLimit(String memoryLimit) {
+    this.memoryLimit = memoryLimit;
+  }
+
+  /**
+   * Gets spillDirectory
+   *
+   * @return value of spillDirectory
+   */
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /**
+   * Sets spillDirectory
+   *
+   * @param spillDirectory value of spillDirectory
+   */
+  public void setSpillDirectory(String spillDirectory) {
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * Gets combiningCopies
+   *
+   * @return value of combiningCopies
+   */
+  public boolean isCombiningCopies() {
+    return combiningCopies;
+  }
+
+  /**
+   * Sets combiningCopies
+   *
+   * @param combiningCopies value of combiningCopies
+   */
+  public void setCombiningCopies(boolean combiningCopies) {
+    this.combiningCopies = combiningCopies;
+  }
+
   @Override
   public boolean supportsMultiCopyExecution() {
-    return false;
+    return combiningCopies;
   }
 }
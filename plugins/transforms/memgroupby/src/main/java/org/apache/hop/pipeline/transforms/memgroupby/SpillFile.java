@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.vfs.HopVfs;
+
+/**
+ * A temporary file with the input rows of groups which didn't fit in memory. All the rows of a
+ * group end up in the same spill file, in the order in which they were read.
+ */
+public class SpillFile {
+  private static final int BUFFER_SIZE = 65536;
+
+  private final FileObject file;
+  private final int level;
+  private long nrRows;
+  private DataOutputStream outputStream;
+
+  /**
+   * Create a new spill file and open it for writing.
+   *
+   * @param file the temporary file
+   * @param level the level of the hash bits used to assign the rows to this file
+   * @throws HopException in case the file can't be created
+   */
+  public SpillFile(FileObject file, int level) throws HopException {
+    this.file = file;
+    this.level = level;
+    try {
+      outputStream =
+          new DataOutputStream(
+              new BufferedOutputStream(HopVfs.getOutputStream(file, false), BUFFER_SIZE));
+    } catch (IOException e) {
+      throw new HopException("Unable to create spill file " + file, e);
+    }
+  }
+
+  public void write(IRowMeta rowMeta, Object[] row) throws HopException {
+    rowMeta.writeData(outputStream, row);
+    nrRows++;
+  }
+
+  /** Close the file after writing. */
+  public void closeOutput() throws HopException {
+    if (outputStream != null) {
+      try {
+        outputStream.close();
+      } catch (IOException e) {
+        throw new HopException("Unable to close spill file " + file, e);
+      } finally {
+        outputStream = null;
+      }
+    }
+  }
+
+  /**
+   * Open the file to read the rows back. Read {@link #getNrRows()} rows with {@link
+   * IRowMeta#readData(DataInputStream)}.
+   *
+   * @return the stream to read from
+   * @throws HopException in case the file can't be opened
+   */
+  public DataInputStream openInputStream() throws HopException {
+    try {
+      return new DataInputStream(new BufferedInputStream(HopVfs.getInputStream(file), BUFFER_SIZE));
+    } catch (IOException e) {
+      throw new HopException("Unable to open spill file " + file, e);
+    }
+  }
+
+  /** Close and remove the file. */
+  public void delete() throws HopException {
+    try {
+      closeOutput();
+    } finally {
+      try {
+        file.delete();
+      } catch (IOException e) {
+        throw new HopException("Unable to delete spill file " + file, e);
+      }
+    }
+  }
+
+  /**
+   * Gets file
+   *
+   * @return value of file
+   */
+  public FileObject getFile() {
+    return file;
+  }
+
+  /**
+   * Gets level
+   *
+   * @return value of level
+   */
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * Gets nrRows
+   *
+   * @return value of nrRows
+   */
+  public long getNrRows() {
+    return nrRows;
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
+import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.IEngineComponent;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mockito;
+
+/** The combined partial aggregates of several copies need to match the aggregates of one copy. */
+class MemoryGroupByCombineTest {
+  @RegisterExtension
+  static RestoreHopEngineEnvironmentExtension env = new RestoreHopEngineEnvironmentExtension();
+
+  private static final String TRANSFORM_NAME = "testTransform";
+
+  private static final int STD_DEV_INDEX = 8;
+
+  @BeforeAll
+  static void setUpBeforeClass() throws HopException {
+    HopClientEnvironment.init();
+  }
+
+  @Test
+  void testCombineCopies() throws Exception {
+    List<Object[]> rows = createRows(10_000);
+
+    Map<String, Object[]> expected = runCopies(rows, 1);
+    Map<String, Object[]> actual = runCopies(rows, 3);
+
+    assertEquals(expected.keySet(), actual.keySet());
+    for (Map.Entry<String, Object[]> entry : expected.entrySet()) {
+      Object[] expectedRow = entry.getValue();
+      Object[] actualRow = actual.get(entry.getKey());
+      for (int i = 0; i < expectedRow.length; i++) {
+        if (i == STD_DEV_INDEX) {
+          assertEquals((Double) expectedRow[i], (Double) actualRow[i], 1e-9);
+        } else {
+          assertEquals(expectedRow[i], actualRow[i], "Field " + i + " of " + entry.getKey());
+        }
+      }
+    }
+  }
+
+  @Test
+  void testCombineCopiesWithoutRows() throws Exception {
+    // Only one of the copies receives rows
+    //
+    List<Object[]> rows = createRows(2);
+
+    Map<String, Object[]> expected = runCopies(rows, 1);
+    Map<String, Object[]> actual = runCopies(rows, 4);
+
+    assertEquals(expected.keySet(), actual.keySet());
+  }
+
+  @Test
+  void testOrderDependentAggregatesAreNotCombinable() {
+    assertTrue(MemoryGroupByMeta.GroupType.Sum.isCombinable());
+    assertTrue(MemoryGroupByMeta.GroupType.CountDistinct.isCombinable());
+    assertTrue(MemoryGroupByMeta.GroupType.StandardDeviation.isCombinable());
+    assertFalse(MemoryGroupByMeta.GroupType.First.isCombinable());
+    assertFalse(MemoryGroupByMeta.GroupType.LastIncludingNull.isCombinable());
+    assertFalse(MemoryGroupByMeta.GroupType.ConcatComma.isCombinable());
+  }
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("value"));
+    rowMeta.addValueMeta(new ValueMetaInteger("amount"));
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows(int nrRows) {
+    Random random = new Random(11);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < nrRows; i++) {
+      Long value = random.nextInt(10) == 0 ? null : (long) random.nextInt(100);
+      rows.add(new Object[] {"key-" + random.nextInt(500), value, (long) random.nextInt(1000)});
+    }
+    return rows;
+  }
+
+  private MemoryGroupByMeta createMeta() {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.setCombiningCopies(true);
+    meta.getGroups().add(new GGroup("key"));
+    addAggregate(meta, "sum", MemoryGroupByMeta.GroupType.Sum);
+    addAggregate(meta, "average", MemoryGroupByMeta.GroupType.Average);
+    addAggregate(meta, "count", MemoryGroupByMeta.GroupType.CountAll);
+    addAggregate(meta, "count_distinct", MemoryGroupByMeta.GroupType.CountDistinct);
+    addAggregate(meta, "min", MemoryGroupByMeta.GroupType.Minimum);
+    addAggregate(meta, "max", MemoryGroupByMeta.GroupType.Maximum);
+    addAggregate(meta, "median", MemoryGroupByMeta.GroupType.Median);
+    // The standard deviation doesn't support null values
+    //
+    addAggregate(meta, "std_dev", MemoryGroupByMeta.GroupType.StandardDeviation);
+    meta.getAggregates().get(STD_DEV_INDEX - 1).setSubject("amount");
+    addAggregate(meta, "concat_distinct", MemoryGroupByMeta.GroupType.ConcatDistinct);
+    return meta;
+  }
+
+  private void addAggregate(MemoryGroupByMeta meta, String name, MemoryGroupByMeta.GroupType type) {
+    GAggregate aggregate = new GAggregate();
+    aggregate.setField(name);
+    aggregate.setSubject("value");
+    aggregate.setType(type);
+    aggregate.setValueField(",");
+    meta.getAggregates().add(aggregate);
+  }
+
+  /**
+   * Distribute the rows round-robin over the given number of copies and run the copies one after
+   * the other. Only the last one may write the groups.
+   */
+  private Map<String, Object[]> runCopies(List<Object[]> rows, int nrCopies) throws HopException {
+    MemoryGroupByMeta meta = createMeta();
+    TransformMeta transformMeta = new TransformMeta(TRANSFORM_NAME, meta);
+    PipelineMeta pipelineMeta = Mockito.mock(PipelineMeta.class);
+    Mockito.when(pipelineMeta.findTransform(TRANSFORM_NAME)).thenReturn(transformMeta);
+
+    List<MemoryGroupBy> copies = new ArrayList<>();
+    Pipeline pipeline =
+        new LocalPipelineEngine() {
+          @Override
+          public IEngineComponent findComponent(String name, int copyNr) {
+            return copies.get(copyNr);
+          }
+        };
+
+    IRowMeta rowMeta = createRowMeta();
+    Map<String, Object[]> output = new HashMap<>();
+    List<List<Object[]>> copyRows = new ArrayList<>();
+    for (int c = 0; c < nrCopies; c++) {
+      copyRows.add(new ArrayList<>());
+    }
+    for (int r = 0; r < rows.size(); r++) {
+      copyRows.get(r % nrCopies).add(rows.get(r));
+    }
+
+    for (int c = 0; c < nrCopies; c++) {
+      MemoryGroupByData data = new MemoryGroupByData();
+      data.map = new HashMap<>();
+      data.memoryLimit = -1L;
+      data.combining = nrCopies > 1;
+      if (c == 0) {
+        data.runningCopies = new AtomicInteger(nrCopies);
+      }
+      Iterator<Object[]> iterator = copyRows.get(c).iterator();
+      copies.add(
+          new MemoryGroupBy(transformMeta, meta, data, c, pipelineMeta, pipeline) {
+            @Override
+            public Object[] getRow() {
+              return iterator.hasNext() ? iterator.next().clone() : null;
+            }
+
+            @Override
+            public IRowMeta getInputRowMeta() {
+              return rowMeta;
+            }
+
+            @Override
+            public void putRow(IRowMeta outputRowMeta, Object[] row) throws HopTransformException {
+              try {
+                String key = outputRowMeta.getString(row, 0);
+                Object[] previous = output.put(key, row);
+                assertNull(previous, "Group " + key + " is written twice");
+              } catch (HopValueException e) {
+                throw new HopTransformException(e);
+              }
+            }
+
+            @Override
+            public void setOutputDone() {
+              // Nothing to do
+            }
+          });
+    }
+
+    for (int c = 0; c < nrCopies; c++) {
+      MemoryGroupBy copy = copies.get(c);
+      while (copy.processRow()) {
+        // Run transform
+      }
+      if (c < nrCopies - 1) {
+        assertTrue(output.isEmpty(), "Only the last copy writes the groups");
+      }
+    }
+    if (nrCopies > 1) {
+      assertNotNull(copies.get(0).getData().runningCopies);
+      assertEquals(0, copies.get(0).getData().runningCopies.get());
+    }
+    return output;
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
+import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+/** The groups which are spilled to disk need to be aggregated exactly like the ones in memory. */
+class MemoryGroupBySpillTest {
+  @RegisterExtension
+  static RestoreHopEngineEnvironmentExtension env = new RestoreHopEngineEnvironmentExtension();
+
+  private static final String TRANSFORM_NAME = "testTransform";
+
+  @TempDir Path spillDirectory;
+
+  @BeforeAll
+  static void setUpBeforeClass() throws HopException {
+    HopClientEnvironment.init();
+  }
+
+  @Test
+  void testSpillToDisk() throws Exception {
+    assertSameGroups(128L * 1024L);
+  }
+
+  @Test
+  void testSpillRecursively() throws Exception {
+    // Every spill file holds too many groups as well
+    //
+    assertSameGroups(8L * 1024L);
+  }
+
+  private void assertSameGroups(long memoryLimit) throws Exception {
+    List<Object[]> rows = createRows();
+
+    Map<String, String> expected = runTransform(rows, -1L);
+    Map<String, String> actual = runTransform(rows, memoryLimit);
+
+    assertEquals(expected.size(), actual.size());
+    assertEquals(expected, actual);
+    try (Stream<Path> files = Files.list(spillDirectory)) {
+      assertEquals(0, files.count(), "All spill files need to be removed");
+    }
+  }
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("value"));
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows() {
+    Random random = new Random(7);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      Long value = random.nextInt(10) == 0 ? null : (long) random.nextInt(100);
+      rows.add(new Object[] {"key-" + random.nextInt(2_000), value});
+    }
+    return rows;
+  }
+
+  private MemoryGroupByMeta createMeta() {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.getGroups().add(new GGroup("key"));
+    addAggregate(meta, "sum", MemoryGroupByMeta.GroupType.Sum);
+    addAggregate(meta, "count", MemoryGroupByMeta.GroupType.CountAll);
+    addAggregate(meta, "count_distinct", MemoryGroupByMeta.GroupType.CountDistinct);
+    addAggregate(meta, "first", MemoryGroupByMeta.GroupType.FirstIncludingNull);
+    addAggregate(meta, "last", MemoryGroupByMeta.GroupType.Last);
+    addAggregate(meta, "median", MemoryGroupByMeta.GroupType.Median);
+    addAggregate(meta, "concat", MemoryGroupByMeta.GroupType.ConcatComma);
+    return meta;
+  }
+
+  private void addAggregate(MemoryGroupByMeta meta, String name, MemoryGroupByMeta.GroupType type) {
+    GAggregate aggregate = new GAggregate();
+    aggregate.setField(name);
+    aggregate.setSubject("value");
+    aggregate.setType(type);
+    meta.getAggregates().add(aggregate);
+  }
+
+  private Map<String, String> runTransform(List<Object[]> rows, long memoryLimit)
+      throws HopException {
+    MemoryGroupByMeta meta = createMeta();
+    MemoryGroupByData data = new MemoryGroupByData();
+    data.map = new HashMap<>();
+    data.memoryLimit = memoryLimit;
+    data.spillDirectory = spillDirectory.toString();
+
+    TransformMeta transformMeta = new TransformMeta(TRANSFORM_NAME, meta);
+    PipelineMeta pipelineMeta = Mockito.mock(PipelineMeta.class);
+    Pipeline pipeline = new LocalPipelineEngine();
+    Mockito.when(pipelineMeta.findTransform(TRANSFORM_NAME)).thenReturn(transformMeta);
+
+    IRowMeta rowMeta = createRowMeta();
+    Iterator<Object[]> iterator = rows.iterator();
+    Map<String, String> output = new HashMap<>();
+    MemoryGroupBy transform =
+        new MemoryGroupBy(transformMeta, meta, data, 0, pipelineMeta, pipeline) {
+          @Override
+          public Object[] getRow() {
+            return iterator.hasNext() ? iterator.next().clone() : null;
+          }
+
+          @Override
+          public IRowMeta getInputRowMeta() {
+            return rowMeta;
+          }
+
+          @Override
+          public void putRow(IRowMeta outputRowMeta, Object[] row) throws HopTransformException {
+            try {
+              String key = outputRowMeta.getString(row, 0);
+              String previous = output.put(key, outputRowMeta.getString(row));
+              assertNull(previous, "Group " + key + " is written twice");
+            } catch (HopValueException e) {
+              throw new HopTransformException(e);
+            }
+          }
+
+          @Override
+          public void setOutputDone() {
+            // Nothing to do
+          }
+        };
+
+    while (transform.processRow()) {
+      // Run transform
+    }
+    assertTrue(data.pendingSpillFiles.isEmpty());
+    transform.dispose();
+    return output;
+  }
+}
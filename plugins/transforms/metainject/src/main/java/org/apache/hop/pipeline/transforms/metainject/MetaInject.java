@@ -65,6 +65,7 @@ import org.apache.hop.pipeline.transform.ITransform;
 import org.apache.hop.pipeline.transform.ITransformMeta;
 import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformScheduler;
 
 /** Read a simple CSV file Just output Strings found in the file... */
 public class MetaInject extends BaseTransform<MetaInjectMeta, MetaInjectData> {
@@ -184,7 +185,7 @@ public class MetaInject extends BaseTransform<MetaInjectMeta, MetaInjectData> {
 
       // Wait a little bit.
       try {
-        Thread.sleep(50);
+        TransformScheduler.sleep(50);
       } catch (Exception e) {
         // Ignore errors
       }
@@ -361,4 +361,9 @@ public class MetaInjectMeta extends BaseTransformMeta<MetaInject, MetaInjectData
   public boolean supportsDrillDown() {
     return true;
   }
+
+  @Override
+  public boolean supportsScheduledExecution() {
+    return false;
+  }
 }
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.Result;
@@ -39,11 +40,14 @@ import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.TransformWithMappingMeta;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.engine.PipelineEngineFactory;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
 
 /** Execute a pipeline for every input row, set parameters. */
 public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, PipelineExecutorData> {
@@ -75,6 +79,7 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
 
       if (row == null) {
         executePipeline(null);
+        stopReusedPipeline();
         setOutputDone();
         return false;
       }
@@ -112,6 +117,7 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
           if (isDetailed()) {
             logDetailed("Identified a new pipeline to execute: '" + filename + "'");
           }
+          stopReusedPipeline();
           pipelineExecutorData.runtimeMappingFilename = filename;
           pipelineExecutorData.prevFilename = filename;
           initPipeline(pipelineExecutorData);
@@ -234,19 +240,15 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
       discardLogLines(pipelineExecutorData);
     }
 
+    if (meta.isReusingExecutorPipeline()) {
+      executeReusedPipeline(incomingFieldValues);
+      pipelineExecutorData.groupBuffer.clear();
+      return;
+    }
+
     IPipelineEngine<PipelineMeta> executorPipeline = createInternalPipeline();
     pipelineExecutorData.setExecutorPipeline(executorPipeline);
-    if (incomingFieldValues != null) {
-      // Pass parameter values
-      passParametersToPipeline(incomingFieldValues);
-    } else {
-      List<String> lastIncomingFieldValues = getLastIncomingFieldValues();
-      // incomingFieldValues == null-  There are no more rows - Last Case - pass previous values if
-      // exists
-      // If not still pass the null parameter values
-      passParametersToPipeline(
-          !Utils.isEmpty(lastIncomingFieldValues) ? lastIncomingFieldValues : incomingFieldValues);
-    }
+    passParametersToPipeline(getParameterValues(incomingFieldValues));
 
     // keep track for drill down in HopGui...
     getPipeline().addActiveSubPipeline(getTransformName(), executorPipeline);
@@ -278,6 +280,138 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
     pipelineExecutorData.groupBuffer.clear();
   }
 
+  /**
+   * Send the rows of the group to the pipeline which is kept running for all groups, start it for
+   * the first group. Every transform gets one iteration to process the rows, after which the
+   * pipeline waits for the next group.
+   */
+  private void executeReusedPipeline(List<String> incomingFieldValues) throws HopException {
+    PipelineExecutorData pipelineExecutorData = getData();
+    if (pipelineExecutorData.getReusedExecutor() == null) {
+      startReusedPipeline(incomingFieldValues);
+    }
+    SingleThreadedPipelineExecutor executor = pipelineExecutorData.getReusedExecutor();
+    RowProducer rowProducer = pipelineExecutorData.getReusedRowProducer();
+
+    Result result;
+    try {
+      for (RowMetaAndData row : pipelineExecutorData.groupBuffer) {
+        rowProducer.putRow(row.getRowMeta(), row.getData());
+      }
+      executor.oneIteration();
+      result = getReusedPipelineResult(executor);
+    } catch (HopException e) {
+      logError("An error occurred executing the pipeline: ", e);
+      result = new Result();
+      result.setResult(false);
+      result.setNrErrors(1);
+    }
+
+    collectPipelineResults(result);
+    collectExecutionResults(result);
+    collectExecutionResultFiles(result);
+
+    // Don't send the next group to a pipeline in error, start over with a new one
+    //
+    if (result.getNrErrors() > 0) {
+      stopReusedPipeline();
+    }
+  }
+
+  /**
+   * Prepare the pipeline which is kept running for all groups. The parameters are set only once,
+   * none of them get their value from a field, see {@link #init()}.
+   */
+  private void startReusedPipeline(List<String> incomingFieldValues) throws HopException {
+    PipelineExecutorData pipelineExecutorData = getData();
+    PipelineMeta executorPipelineMeta = pipelineExecutorData.getExecutorPipelineMeta();
+    executorPipelineMeta.setPipelineType(PipelineMeta.PipelineType.SingleThreaded);
+
+    IPipelineEngine<PipelineMeta> executorPipeline = createInternalPipeline();
+    if (!(executorPipeline instanceof Pipeline pipeline)) {
+      throw new HopException(
+          BaseMessages.getString(
+              PKG,
+              "PipelineExecutor.Exception.ReusingNeedsLocalEngine",
+              resolve(meta.getRunConfigurationName())));
+    }
+    pipelineExecutorData.setExecutorPipeline(executorPipeline);
+    passParametersToPipeline(getParameterValues(incomingFieldValues));
+    getPipeline().addActiveSubPipeline(getTransformName(), executorPipeline);
+
+    // The rows of every group go to the one Injector transform
+    //
+    List<TransformMeta> injectors = new ArrayList<>();
+    for (TransformMeta transformMeta : executorPipelineMeta.getTransforms()) {
+      if (transformMeta.getTransform() instanceof InjectorMeta) {
+        injectors.add(transformMeta);
+      }
+    }
+    if (injectors.size() != 1 || injectors.get(0).getCopies(pipeline) != 1) {
+      throw new HopException(
+          BaseMessages.getString(
+              PKG,
+              "PipelineExecutor.Exception.NoInjectorTransform",
+              executorPipelineMeta.getName()));
+    }
+
+    pipeline.setPreviousResult(new Result());
+    pipeline.prepareExecution();
+
+    pipelineExecutorData.setReusedRowProducer(
+        pipeline.addRowProducer(injectors.get(0).getName(), 0));
+
+    pipeline.startThreads();
+    pipelineExecutorData.setReusedExecutor(new SingleThreadedPipelineExecutor(pipeline));
+  }
+
+  /** Get the result of the last group only, the next group starts with a clean slate. */
+  private Result getReusedPipelineResult(SingleThreadedPipelineExecutor executor) {
+    PipelineExecutorData pipelineExecutorData = getData();
+    Pipeline pipeline = executor.getPipeline();
+    Result result = pipeline.getResult();
+
+    result.setRows(new ArrayList<>(pipeline.getResultRows()));
+    pipeline.getResultRows().clear();
+
+    Set<String> reportedFiles = pipelineExecutorData.getReusedResultFiles();
+    result.getResultFiles().keySet().removeAll(reportedFiles);
+    reportedFiles.addAll(result.getResultFiles().keySet());
+
+    executor.clearMetrics();
+    return result;
+  }
+
+  /** Stop the pipeline which is kept running for all groups, if there is one. */
+  private void stopReusedPipeline() {
+    PipelineExecutorData pipelineExecutorData = getData();
+    SingleThreadedPipelineExecutor executor = pipelineExecutorData.getReusedExecutor();
+    if (executor == null) {
+      return;
+    }
+    pipelineExecutorData.setReusedExecutor(null);
+    pipelineExecutorData.setReusedRowProducer(null);
+    pipelineExecutorData.getReusedResultFiles().clear();
+
+    executor.dispose();
+    try {
+      executor.getPipeline().fireExecutionFinishedListeners();
+    } catch (HopException e) {
+      logError("An error occurred finishing the pipeline: ", e);
+    }
+  }
+
+  /**
+   * @return the values to pass as parameters: those of the last row when there are no more rows
+   */
+  private List<String> getParameterValues(List<String> incomingFieldValues) {
+    if (incomingFieldValues != null) {
+      return incomingFieldValues;
+    }
+    List<String> lastIncomingFieldValues = getLastIncomingFieldValues();
+    return !Utils.isEmpty(lastIncomingFieldValues) ? lastIncomingFieldValues : null;
+  }
+
   @VisibleForTesting
   void discardLogLines(PipelineExecutorData pipelineExecutorData) {
     // Keep the strain on the logging back-end conservative.
@@ -527,6 +661,18 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
         pipelineExecutorData.groupField = resolve(meta.getGroupField());
       }
 
+      // A pipeline which is kept running can't get new parameter values for every group
+      PipelineExecutorParameters fieldParameter = meta.findFieldParameter();
+      if (meta.isReusingExecutorPipeline() && fieldParameter != null) {
+        logError(
+            BaseMessages.getString(
+                PKG,
+                "PipelineExecutor.Log.ReusingPipelineWithFieldParameter",
+                fieldParameter.getVariable(),
+                fieldParameter.getField()));
+        return false;
+      }
+
       // First we need to load the mapping (pipeline)
       try {
         if ((!meta.isFilenameInField() && Utils.isEmpty(meta.getFilename()))
@@ -573,6 +719,7 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
 
   @Override
   public void dispose() {
+    stopReusedPipeline();
     PipelineExecutorData pipelineExecutorData = getData();
     pipelineExecutorData.groupBuffer = null;
     super.dispose();
@@ -17,7 +17,9 @@
 
 package org.apache.hop.pipeline.transforms.pipelineexecutor;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.hop.core.IRowSet;
@@ -25,6 +27,8 @@ import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -66,6 +70,15 @@ public class PipelineExecutorData extends BaseTransformData implements ITransfor
   private IRowSet resultFilesRowSet;
   private IRowSet executionResultRowSet;
 
+  /** Executes the pipeline which is kept running for all groups of rows, null if there's none */
+  private SingleThreadedPipelineExecutor reusedExecutor;
+
+  /** Sends the rows of every group to the Injector transform of the reused pipeline */
+  private RowProducer reusedRowProducer;
+
+  /** The result files of the reused pipeline which were passed on for an earlier group */
+  private final Set<String> reusedResultFiles = new HashSet<>();
+
   public PipelineExecutorData() {
     super();
   }
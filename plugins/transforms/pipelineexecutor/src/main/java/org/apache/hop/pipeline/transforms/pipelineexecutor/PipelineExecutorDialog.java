@@ -105,6 +105,8 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
   private Label wlGroupTime;
   private TextVar wGroupTime;
 
+  private Button wReusePipeline;
+
   private CCombo wExecutionResultTarget;
   private TableItem tiExecutionTimeField;
   private TableItem tiExecutionResultField;
@@ -426,6 +428,7 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     wGroupSize.setText(Const.NVL(pipelineExecutorMeta.getGroupSize(), ""));
     wGroupTime.setText(Const.NVL(pipelineExecutorMeta.getGroupTime(), ""));
     wGroupField.setText(Const.NVL(pipelineExecutorMeta.getGroupField(), ""));
+    wReusePipeline.setSelection(pipelineExecutorMeta.isReusingExecutorPipeline());
 
     wExecutionResultTarget.setText(
         pipelineExecutorMeta.getExecutionResultTargetTransformMeta() == null
@@ -783,6 +786,19 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     fdGroupTime.left = new FormAttachment(middle, 0);
     wGroupTime.setLayoutData(fdGroupTime);
 
+    // Keep the pipeline running for all groups?
+    //
+    wReusePipeline = new Button(wInputComposite, SWT.CHECK);
+    wReusePipeline.setText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ReusePipeline.Label"));
+    wReusePipeline.setToolTipText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ReusePipeline.Tooltip"));
+    PropsUi.setLook(wReusePipeline);
+    FormData fdReusePipeline = new FormData();
+    fdReusePipeline.top = new FormAttachment(wGroupTime, 15);
+    fdReusePipeline.left = new FormAttachment(middle, 0);
+    wReusePipeline.setLayoutData(fdReusePipeline);
+
     wTab.setControl(wInputComposite);
     wTabFolder.setSelection(wTab);
   }
@@ -1219,6 +1235,7 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     pipelineExecutorMeta.setGroupSize(wGroupSize.getText());
     pipelineExecutorMeta.setGroupField(wGroupField.getText());
     pipelineExecutorMeta.setGroupTime(wGroupTime.getText());
+    pipelineExecutorMeta.setReusingExecutorPipeline(wReusePipeline.getSelection());
 
     pipelineExecutorMeta.setExecutionResultTargetTransform(wExecutionResultTarget.getText());
     pipelineExecutorMeta.setExecutionResultTargetTransformMeta(
@@ -109,6 +109,14 @@ public class PipelineExecutorMeta
   @HopMetadataProperty(key = "group_time")
   private String groupTime;
 
+  /**
+   * Keep the pipeline running and send every group of rows to its Injector transform, rather than
+   * executing a new pipeline for every group. The pipeline is executed single threaded in this
+   * transform.
+   */
+  @HopMetadataProperty(key = "reuse_pipeline")
+  private boolean reusingExecutorPipeline;
+
   @HopMetadataProperty(key = "variable_mapping", groupKey = "parameters")
   private List<PipelineExecutorParameters> parameters;
 
@@ -370,6 +378,21 @@ public class PipelineExecutorMeta
     return infoTransforms.length == 0 ? null : infoTransforms;
   }
 
+  /**
+   * Parameters get their value from a field of the first row of a group. When the pipeline is kept
+   * running for all groups, they would only be set from the first group.
+   *
+   * @return the first parameter which gets its value from a field or null if there is none
+   */
+  public PipelineExecutorParameters findFieldParameter() {
+    for (PipelineExecutorParameters parameter : parameters) {
+      if (!Utils.isEmpty(parameter.getField())) {
+        return parameter;
+      }
+    }
+    return null;
+  }
+
   @Override
   public void check(
       List<ICheckResult> remarks,
@@ -419,6 +442,20 @@ public class PipelineExecutorMeta
               transforminfo);
       remarks.add(cr);
     }
+
+    PipelineExecutorParameters fieldParameter = findFieldParameter();
+    if (reusingExecutorPipeline && fieldParameter != null) {
+      cr =
+          new CheckResult(
+              ICheckResult.TYPE_RESULT_ERROR,
+              BaseMessages.getString(
+                  PKG,
+                  "PipelineExecutorMeta.CheckResult.ReusingPipelineWithFieldParameter",
+                  fieldParameter.getVariable(),
+                  fieldParameter.getField()),
+              transforminfo);
+      remarks.add(cr);
+    }
   }
 
   @Override
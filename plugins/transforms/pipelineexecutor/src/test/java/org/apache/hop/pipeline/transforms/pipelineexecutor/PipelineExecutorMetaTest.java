@@ -21,11 +21,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.ICheckResult;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopXmlException;
+import org.apache.hop.core.variables.Variables;
 import org.apache.hop.core.xml.XmlHandler;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transform.TransformSerializationTestUtil;
 import org.junit.jupiter.api.Test;
 import org.w3c.dom.Document;
@@ -113,6 +120,45 @@ class PipelineExecutorMetaTest {
     assertTrue(meta.getResultRows().isEmpty());
   }
 
+  @Test
+  void checkRejectsParametersFromFieldsWhenReusingPipeline() {
+    PipelineExecutorMeta meta = new PipelineExecutorMeta();
+    meta.setDefault();
+    PipelineExecutorParameters staticParam = new PipelineExecutorParameters();
+    staticParam.setVariable("STATIC");
+    staticParam.setInput("value");
+    PipelineExecutorParameters fieldParam = new PipelineExecutorParameters();
+    fieldParam.setVariable("MYPARAM");
+    fieldParam.setField("myField");
+    meta.setParameters(new ArrayList<>(List.of(staticParam)));
+    meta.setReusingExecutorPipeline(true);
+
+    assertNull(meta.findFieldParameter());
+    assertEquals(0, countErrors(meta));
+
+    meta.getParameters().add(fieldParam);
+    assertSame(fieldParam, meta.findFieldParameter());
+    assertEquals(1, countErrors(meta));
+
+    meta.setReusingExecutorPipeline(false);
+    assertEquals(0, countErrors(meta));
+  }
+
+  private static long countErrors(PipelineExecutorMeta meta) {
+    List<ICheckResult> remarks = new ArrayList<>();
+    meta.check(
+        remarks,
+        new PipelineMeta(),
+        new TransformMeta("executor", meta),
+        null,
+        new String[] {"input"},
+        new String[0],
+        null,
+        new Variables(),
+        null);
+    return remarks.stream().filter(r -> r.getType() == ICheckResult.TYPE_RESULT_ERROR).count();
+  }
+
   @Test
   void convertLegacyXmlReadsInheritAllVarsFromOldParametersNode()
       throws HopException, HopXmlException {
@@ -24,11 +24,14 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,8 +53,10 @@ import org.apache.hop.junit.rules.RestoreHopEngineEnvironmentExtension;
 import org.apache.hop.metadata.serializer.memory.MemoryMetadataProvider;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.TransformWithMappingMeta;
+import org.apache.hop.pipeline.config.PipelineRunConfiguration;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -352,4 +357,72 @@ class PipelineExecutorTest {
     assertNotNull(loaded);
     assertFalse(loaded.getTransforms().isEmpty());
   }
+
+  @Test
+  void reusedPipelineRejectsParametersFromFields() throws Exception {
+    PipelineExecutorMeta meta = new PipelineExecutorMeta();
+    meta.setDefault();
+    meta.setFilename("child.hpl");
+    meta.setReusingExecutorPipeline(true);
+    PipelineExecutorParameters param = new PipelineExecutorParameters();
+    param.setVariable("MYPARAM");
+    param.setField("myField");
+    meta.setParameters(new ArrayList<>(Collections.singletonList(param)));
+
+    PipelineExecutor executor = spy(newExecutor(meta, new PipelineExecutorData()));
+
+    assertFalse(executor.init());
+    verify(executor, never()).loadExecutorPipelineMeta();
+  }
+
+  @Test
+  void reusedPipelineIsPreparedOnceForAllGroups() throws Exception {
+    String path =
+        Paths.get(
+                Objects.requireNonNull(
+                        PipelineExecutorTest.class.getResource(
+                            "/org/apache/hop/pipeline/transforms/pipelineexecutor/injector-child.hpl"))
+                    .toURI())
+            .toAbsolutePath()
+            .toString();
+
+    PipelineExecutorMeta meta = new PipelineExecutorMeta();
+    meta.setDefault();
+    meta.setFilename(path);
+    meta.setRunConfigurationName("local");
+    meta.setReusingExecutorPipeline(true);
+
+    LocalPipelineRunConfiguration localConfiguration = new LocalPipelineRunConfiguration();
+    localConfiguration.setEnginePluginId("Local");
+    MemoryMetadataProvider metadataProvider = new MemoryMetadataProvider();
+    metadataProvider
+        .getSerializer(PipelineRunConfiguration.class)
+        .save(
+            new PipelineRunConfiguration(
+                "local", "", "", new ArrayList<>(), localConfiguration, "", false));
+
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaString("id"));
+
+    PipelineExecutorData data = new PipelineExecutorData();
+    PipelineExecutor executor = spy(newExecutor(meta, data));
+    executor.setMetadataProvider(metadataProvider);
+    executor.setInputRowMeta(inputRowMeta);
+    doReturn(new Object[] {"1"}, new Object[] {"2"}, new Object[] {"3"}, null)
+        .when(executor)
+        .getRow();
+
+    assertTrue(executor.init());
+    while (executor.processRow()) {
+      // One execution per row
+    }
+
+    // The counters only cover the row of the group
+    //
+    verify(executor, times(1)).createInternalPipeline();
+    verify(executor, times(3))
+        .collectExecutionResults(
+            argThat(result -> result.getNrErrors() == 0 && result.getNrLinesWritten() == 1));
+    assertNull(data.getReusedExecutor());
+  }
 }
@@ -23,6 +23,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.util.CompiledArtifactCache;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -33,6 +34,9 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 public class RegexEval extends BaseTransform<RegexEvalMeta, RegexEvalData> {
   private static final Class<?> PKG = RegexEvalMeta.class;
 
+  /** The type of the patterns in the compiled artifact cache, followed by the flags */
+  private static final String REGEX_ARTIFACT = "regex:";
+
   public RegexEval(
       TransformMeta transformMeta,
       RegexEvalMeta meta,
@@ -240,11 +244,16 @@ public class RegexEval extends BaseTransform<RegexEvalMeta, RegexEvalData> {
                 + regularexpression);
       }
 
-      if (meta.isCanonicalEqualityEnabled()) {
-        data.pattern = Pattern.compile(options + regularexpression, Pattern.CANON_EQ);
-      } else {
-        data.pattern = Pattern.compile(options + regularexpression);
-      }
+      // Patterns are immutable: all transform copies and pipelines share the compiled pattern
+      //
+      String regex = options + regularexpression;
+      int flags = meta.isCanonicalEqualityEnabled() ? Pattern.CANON_EQ : 0;
+      data.pattern =
+          CompiledArtifactCache.getInstance()
+              .get(
+                  REGEX_ARTIFACT + flags,
+                  CompiledArtifactCache.contentKey(regex),
+                  () -> Pattern.compile(regex, flags));
       return true;
     }
     return false;
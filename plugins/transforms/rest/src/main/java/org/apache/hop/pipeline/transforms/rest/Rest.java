@@ -59,6 +59,7 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformScheduler;
 import org.apache.hop.pipeline.transforms.rest.common.RestConst;
 import org.glassfish.jersey.apache5.connector.Apache5ConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
@@ -438,7 +439,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
    */
   private void sleepBeforeRetry(int attempt, long delay) {
     try {
-      Thread.sleep(computeRetryDelay(attempt, delay));
+      TransformScheduler.sleep(computeRetryDelay(attempt, delay));
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
     }
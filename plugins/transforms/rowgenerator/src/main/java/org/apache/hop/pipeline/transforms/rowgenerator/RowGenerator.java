@@ -41,6 +41,7 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformScheduler;
 
 /** Generates a number of (empty or the same) rows */
 public class RowGenerator extends BaseTransform<RowGeneratorMeta, RowGeneratorData> {
@@ -210,7 +211,7 @@ public class RowGenerator extends BaseTransform<RowGeneratorMeta, RowGeneratorDa
     } else {
       if (meta.isNeverEnding() && data.delay > 0) {
         try {
-          Thread.sleep(data.delay);
+          TransformScheduler.sleep(data.delay);
         } catch (InterruptedException e) {
           throw new HopException(e);
         }
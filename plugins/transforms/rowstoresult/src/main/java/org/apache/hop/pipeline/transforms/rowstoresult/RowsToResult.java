@@ -66,6 +66,18 @@ public class RowsToResult extends BaseTransform<RowsToResultMeta, RowsToResultDa
     return true;
   }
 
+  /**
+   * When executed single threaded, for example by a Pipeline Executor which keeps its pipeline
+   * running, the rows of every batch are handed over as soon as the batch is complete.
+   */
+  @Override
+  public void batchComplete() throws HopException {
+    if (!data.rows.isEmpty()) {
+      ((Pipeline) getPipeline()).getResultRows().addAll(data.rows);
+      data.rows.clear();
+    }
+  }
+
   @Override
   public boolean init() {
 
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import org.apache.hop.core.exception.HopException;
+
+/**
+ * A tournament tree (loser tree) to merge a number of sorted sources. Finding the next smallest
+ * element takes log2(k) comparisons for k sources, regardless of the size of the sources.
+ *
+ * <p>Every inner node of the tree keeps the source which lost the match played there, the winner
+ * moves up. After taking the overall winner only the matches on the path from its leaf to the root
+ * are replayed.
+ *
+ * @param <T> the type of the elements to merge
+ */
+public class LoserTree<T> {
+
+  /** A sorted source of elements. */
+  public interface ISource<T> {
+    /**
+     * @return the next element or null if there are no more elements
+     * @throws HopException in case the next element can't be read
+     */
+    T next() throws HopException;
+  }
+
+  private final ISource<T>[] sources;
+  private final Comparator<T> comparator;
+
+  /** The current element of each source, null once a source is exhausted. */
+  private final T[] heads;
+
+  /** The losers on the inner nodes, the overall winner is in tree[0]. */
+  private final int[] tree;
+
+  @SuppressWarnings("unchecked")
+  public LoserTree(ISource<T>[] sources, Comparator<T> comparator) throws HopException {
+    this.sources = sources;
+    this.comparator = comparator;
+    this.heads = (T[]) new Object[sources.length];
+    this.tree = new int[Math.max(1, sources.length)];
+
+    for (int i = 0; i < sources.length; i++) {
+      heads[i] = sources[i].next();
+    }
+
+    // Play the initial tournament: -1 marks a node without a player yet.
+    //
+    Arrays.fill(tree, -1);
+    for (int i = sources.length - 1; i >= 0; i--) {
+      adjust(i);
+    }
+  }
+
+  /**
+   * Take the smallest element of all sources.
+   *
+   * @return the smallest element or null if all sources are exhausted
+   * @throws HopException in case the next element of a source can't be read
+   */
+  public T next() throws HopException {
+    if (sources.length == 0) {
+      return null;
+    }
+    int winner = tree[0];
+    T element = heads[winner];
+    if (element == null) {
+      return null;
+    }
+    heads[winner] = sources[winner].next();
+    adjust(winner);
+    return element;
+  }
+
+  /** Replay the matches from the leaf of the given source up to the root. */
+  private void adjust(int source) {
+    int winner = source;
+    int node = (source + sources.length) / 2;
+    while (node > 0) {
+      int opponent = tree[node];
+      if (opponent < 0) {
+        // Nobody played here yet: wait for the opponent.
+        //
+        tree[node] = winner;
+        return;
+      }
+      if (beats(opponent, winner)) {
+        tree[node] = winner;
+        winner = opponent;
+      }
+      node /= 2;
+    }
+    tree[0] = winner;
+  }
+
+  /** An exhausted source loses from everybody, ties are won by the lowest source number. */
+  private boolean beats(int a, int b) {
+    T elementA = heads[a];
+    T elementB = heads[b];
+    if (elementA == null) {
+      return false;
+    }
+    if (elementB == null) {
+      return true;
+    }
+    int cmp = comparator.compare(elementA, elementB);
+    return cmp < 0 || (cmp == 0 && a < b);
+  }
+}
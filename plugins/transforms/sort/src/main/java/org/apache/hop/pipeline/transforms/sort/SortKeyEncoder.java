@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+
+/**
+ * Encodes the sort keys of a row into a normalized byte array. Comparing two of these arrays byte
+ * per byte (unsigned) gives the same result as {@link IRowMeta#compare(Object[], Object[], int[])}
+ * on the sort fields, without looking at the value metadata again.
+ *
+ * <p>Every value is encoded so that no encoding is a prefix of another one: a null flag followed by
+ * a fixed length value or by a terminated string. Descending fields are encoded inverted, which
+ * reverses their order.
+ *
+ * <p>Not every sort field can be normalized, for example strings compared with a collator. Use
+ * {@link #create(IRowMeta, int[])} to find out.
+ */
+public class SortKeyEncoder {
+
+  private static final int NULL_VALUE = 0x00;
+  private static final int NOT_NULL_VALUE = 0x01;
+
+  private static final int NEGATIVE = 0x00;
+  private static final int ZERO = 0x01;
+  private static final int POSITIVE = 0x02;
+
+  private final IValueMeta[] valueMetas;
+  private final int[] fieldNrs;
+  private final KeyOutputStream out;
+
+  private SortKeyEncoder(IValueMeta[] valueMetas, int[] fieldNrs) {
+    this.valueMetas = valueMetas;
+    this.fieldNrs = fieldNrs;
+    this.out = new KeyOutputStream();
+  }
+
+  /**
+   * Create an encoder for the given sort fields.
+   *
+   * @param rowMeta the layout of the rows to sort
+   * @param fieldNrs the indexes of the sort fields
+   * @return the encoder or null if one of the sort fields can't be normalized
+   */
+  public static SortKeyEncoder create(IRowMeta rowMeta, int[] fieldNrs) {
+    IValueMeta[] valueMetas = new IValueMeta[fieldNrs.length];
+    for (int i = 0; i < fieldNrs.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(fieldNrs[i]);
+      if (!isNormalizable(valueMeta)) {
+        return null;
+      }
+      valueMetas[i] = valueMeta;
+    }
+    return new SortKeyEncoder(valueMetas, fieldNrs);
+  }
+
+  /**
+   * We only normalize the standard data types: subclasses and plugins can compare their values in
+   * any way they like.
+   */
+  private static boolean isNormalizable(IValueMeta valueMeta) {
+    if (valueMeta.isStorageIndexed()) {
+      return false;
+    }
+    Class<?> valueMetaClass = valueMeta.getClass();
+    if (valueMetaClass == ValueMetaString.class) {
+      return valueMeta.isCollatorDisabled();
+    }
+    return valueMetaClass == ValueMetaInteger.class
+        || valueMetaClass == ValueMetaNumber.class
+        || valueMetaClass == ValueMetaDate.class
+        || valueMetaClass == ValueMetaTimestamp.class
+        || valueMetaClass == ValueMetaBoolean.class
+        || valueMetaClass == ValueMetaBigNumber.class;
+  }
+
+  /**
+   * Encode the sort keys of a row. This method is not thread safe.
+   *
+   * @param row the row to encode
+   * @return the normalized key
+   * @throws HopValueException in case a value can't be converted
+   */
+  public byte[] encode(Object[] row) throws HopValueException {
+    out.reset();
+    for (int i = 0; i < valueMetas.length; i++) {
+      IValueMeta valueMeta = valueMetas[i];
+      int start = out.size();
+      encodeValue(valueMeta, row[fieldNrs[i]]);
+      if (valueMeta.isSortedDescending()) {
+        out.invert(start);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private void encodeValue(IValueMeta valueMeta, Object data) throws HopValueException {
+    if (valueMeta.isNull(data)) {
+      out.write(NULL_VALUE);
+      return;
+    }
+    out.write(NOT_NULL_VALUE);
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_STRING:
+        String string = valueMeta.getString(data);
+        if (valueMeta.isIgnoreWhitespace()) {
+          string = string.trim();
+        }
+        writeString(string, valueMeta.isCaseInsensitive());
+        break;
+      case IValueMeta.TYPE_INTEGER:
+        writeLong(valueMeta.getInteger(data));
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        writeDouble(valueMeta.getNumber(data));
+        break;
+      case IValueMeta.TYPE_DATE:
+        writeLong(valueMeta.getDate(data).getTime());
+        break;
+      case IValueMeta.TYPE_TIMESTAMP:
+        Timestamp timestamp = ((ValueMetaTimestamp) valueMeta).getTimestamp(data);
+        writeLong(timestamp.getTime());
+        writeInt(timestamp.getNanos());
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        out.write(Boolean.TRUE.equals(valueMeta.getBoolean(data)) ? 1 : 0);
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        writeBigNumber(valueMeta.getBigNumber(data));
+        break;
+      default:
+        throw new HopValueException(
+            "Unable to create a sort key for data type " + valueMeta.getTypeDesc());
+    }
+  }
+
+  /** Big endian with the sign bit flipped: negative numbers come first. */
+  private void writeLong(long value) {
+    long bits = value ^ Long.MIN_VALUE;
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      out.write((int) (bits >>> shift));
+    }
+  }
+
+  private void writeInt(int value) {
+    int bits = value ^ Integer.MIN_VALUE;
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      out.write(bits >>> shift);
+    }
+  }
+
+  /** The same order as {@link Double#compare(double, double)}. */
+  private void writeDouble(double value) {
+    long bits = Double.doubleToLongBits(value);
+    if (bits < 0) {
+      bits = ~bits;
+    } else {
+      bits ^= Long.MIN_VALUE;
+    }
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      out.write((int) (bits >>> shift));
+    }
+  }
+
+  /**
+   * The characters in big endian order, like {@link String#compareTo(String)}. A 0 byte is written
+   * as 0x00 0xFF so that we can end the string with 0x00 0x00.
+   */
+  private void writeString(String string, boolean caseInsensitive) {
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (caseInsensitive) {
+        c = Character.toLowerCase(Character.toUpperCase(c));
+      }
+      writeEscaped(c >>> 8);
+      writeEscaped(c & 0xFF);
+    }
+    out.write(0x00);
+    out.write(0x00);
+  }
+
+  private void writeEscaped(int b) {
+    out.write(b);
+    if (b == 0x00) {
+      out.write(0xFF);
+    }
+  }
+
+  /**
+   * The sign, the adjusted exponent and the digits of the unscaled value without trailing zeros.
+   * Negative numbers are written as the inverted encoding of their absolute value.
+   */
+  private void writeBigNumber(BigDecimal value) {
+    int signum = value.signum();
+    if (signum == 0) {
+      out.write(ZERO);
+      return;
+    }
+    out.write(signum < 0 ? NEGATIVE : POSITIVE);
+    int start = out.size();
+    BigDecimal normalized = value.abs().stripTrailingZeros();
+    writeInt(normalized.precision() - normalized.scale());
+    String digits = normalized.unscaledValue().toString();
+    for (int i = 0; i < digits.length(); i++) {
+      out.write(digits.charAt(i));
+    }
+    out.write(0x00);
+    if (signum < 0) {
+      out.invert(start);
+    }
+  }
+
+  /** Allows inverting the bytes written since a certain position. */
+  private static final class KeyOutputStream extends ByteArrayOutputStream {
+    private KeyOutputStream() {
+      super(64);
+    }
+
+    private void invert(int start) {
+      for (int i = start; i < count; i++) {
+        buf[i] = (byte) ~buf[i];
+      }
+    }
+  }
+}
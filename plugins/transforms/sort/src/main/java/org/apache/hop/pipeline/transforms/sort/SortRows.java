@@ -17,29 +17,19 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.SocketTimeoutException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.vfs2.FileObject;
-import org.apache.commons.vfs2.FileSystemException;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
-import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
-import org.apache.hop.core.io.CountingInputStream;
-import org.apache.hop.core.io.CountingOutputStream;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.vfs.HopVfs;
@@ -48,11 +38,26 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformScheduler;
 
-/** Sort the rows in the input-streams based on certain criteria */
+/**
+ * Sort the rows in the input-streams based on certain criteria.
+ *
+ * <p>Rows are kept in memory until the sort size, the memory limit or the free memory threshold is
+ * reached. The rows in memory are then sorted and written to a temporary file, a run. While a run
+ * is sorted and written in the background, the next rows are read. At the end all runs are merged
+ * with a tournament tree. When there are too many runs to open at once they are merged in multiple
+ * passes.
+ *
+ * <p>When possible the sort keys are normalized into byte arrays which compare byte per byte, see
+ * {@link SortKeyEncoder}. The keys are stored in the temporary files as well.
+ */
 public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
   private static final Class<?> PKG = SortRows.class;
 
+  private static final int DEFAULT_PARALLEL_RUNS = 2;
+  private static final int DEFAULT_MAX_MERGE_FILES = 128;
+
   public SortRows(
       TransformMeta transformMeta,
       SortRowsMeta meta,
@@ -73,7 +78,12 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
 
     // Save row
-    data.buffer.add(r);
+    byte[] key = data.keyEncoder == null ? null : data.keyEncoder.encode(r);
+    SortRowsRecord sortRowsRecord = new SortRowsRecord(key, r);
+    data.buffer.add(sortRowsRecord);
+    if (data.memoryLimit > 0) {
+      data.bufferBytes += sortRowsRecord.estimateSize();
+    }
 
     // Check the free memory every 1000 rows...
     //
@@ -95,8 +105,14 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       }
     }
 
-    // Buffer is full: sort & dump to disk
-    boolean doSort = data.buffer.size() == data.sortSize;
+    // Buffer is full: sort & dump to disk.
+    // Once the first run is on disk, we keep room for the runs sorted in the background.
+    //
+    boolean firstRun = data.sortRuns.isEmpty();
+    int sortSize = firstRun ? data.sortSize : data.runSortSize;
+    long memoryLimit = firstRun ? data.memoryLimit : data.runMemoryLimit;
+    boolean doSort = data.buffer.size() == sortSize;
+    doSort |= memoryLimit > 0 && data.bufferBytes >= memoryLimit;
     doSort |=
         data.freeMemoryPctLimit > 0
             && data.freeMemoryPct < data.freeMemoryPctLimit
@@ -112,271 +128,227 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
   }
 
-  // dump sorted rows from in-memory buffer to fs file
-  // clean current buffer
+  // sort the rows in the in-memory buffer and dump them to a temporary file
+  // start a new buffer
   void sortExternalRows() throws HopException {
     // we just recently dump buffer - but there is no new rows came.
     if (data.buffer.isEmpty()) {
       return;
     }
 
-    // First sort the rows in buffer[]
-    quickSort(data.buffer);
-
-    // Then write them to disk...
-    DataOutputStream dos;
-    GZIPOutputStream gzos;
-    int p;
+    List<SortRowsRecord> records = data.buffer;
+    data.buffer = new ArrayList<>(records.size());
+    data.bufferBytes = 0L;
 
+    SortRun sortRun;
     try {
       FileObject fileObject =
           HopVfs.createTempFile(meta.getPrefix(), ".tmp", resolve(meta.getDirectory()), variables);
+      sortRun = new SortRun(fileObject, data.compressFiles, data.keyEncoder != null);
+    } catch (Exception e) {
+      throw new HopException("Error processing temp-file!", e);
+    }
 
-      data.files.add(fileObject); // Remember the files!
-      OutputStream outputStream = HopVfs.getOutputStream(fileObject, false);
-      CountingOutputStream counting = new CountingOutputStream(outputStream);
-      if (data.compressFiles) {
-        gzos = new GZIPOutputStream(new BufferedOutputStream(counting));
-        dos = new DataOutputStream(gzos);
-      } else {
-        dos = new DataOutputStream(new BufferedOutputStream(counting, 500000));
-        gzos = null;
-      }
-
-      // Just write the data, nothing else
-      List<Integer> duplicates = new ArrayList<>();
-      Object[] previousRow = null;
-      if (meta.isOnlyPassingUniqueRows()) {
-        int index = 0;
-        while (index < data.buffer.size()) {
-          Object[] row = data.buffer.get(index);
-          if (previousRow != null) {
-            int result = data.outputRowMeta.compare(row, previousRow, data.fieldnrs);
-            if (result == 0) {
-              duplicates.add(index);
-              if (isRowLevel()) {
-                logRowlevel(
-                    BaseMessages.getString(
-                        PKG,
-                        "SortRows.RowLevel.DuplicateRowRemoved",
-                        data.outputRowMeta.getString(row)));
-              }
-            }
-          }
-          index++;
-          previousRow = row;
-        }
-      }
-
-      // How many records do we have left?
-      data.bufferSizes.add(data.buffer.size() - duplicates.size());
-
-      int duplicatesIndex = 0;
-      for (p = 0; p < data.buffer.size(); p++) {
-        boolean skip = false;
-        if (duplicatesIndex < duplicates.size() && p == duplicates.get(duplicatesIndex)) {
-          skip = true;
-          duplicatesIndex++;
-        }
-        if (!skip) {
-          data.outputRowMeta.writeData(dos, data.buffer.get(p));
-        }
+    // The first run is written right away, it holds all the memory we can use.
+    //
+    if (data.parallelRuns <= 0 || data.sortRuns.isEmpty()) {
+      data.sortRuns.add(sortRun); // Remember the files!
+      writeRun(sortRun, records);
+      dataVolumeOut = (dataVolumeOut != null ? dataVolumeOut : 0L) + sortRun.getBytesWritten();
+    } else {
+      if (data.runExecutor == null) {
+        data.runExecutor =
+            Executors.newFixedThreadPool(
+                data.parallelRuns,
+                runnable -> {
+                  Thread thread = new Thread(runnable, getTransformName() + " - sort runs");
+                  thread.setDaemon(true);
+                  return thread;
+                });
       }
+      data.sortRuns.add(sortRun); // Remember the files!
+      data.pendingRuns.add(data.runExecutor.submit(() -> writeRun(sortRun, records)));
 
-      if (data.sortSize < 0 && data.buffer.size() > data.minSortSize) {
-        data.minSortSize = data.buffer.size(); // if we did it once, we can do
-        // it again.
-
-        // Memory usage goes up over time, even with garbage collection
-        // We need pointers, file handles, etc.
-        // As such, we're going to lower the min sort size a bit
-        //
-        data.minSortSize = (int) Math.round(data.minSortSize * 0.90);
+      // Don't keep more runs in memory than we're allowed to sort in parallel
+      //
+      while (!data.pendingRuns.isEmpty()
+          && (data.pendingRuns.size() > data.parallelRuns
+              || data.pendingRuns.getFirst().isDone())) {
+        waitForRun(data.pendingRuns.removeFirst());
       }
+    }
 
-      // Clear the list
-      data.buffer.clear();
-
-      // Close temp-file
-      dos.close(); // close data stream
-      if (gzos != null) {
-        gzos.close(); // close gzip stream
-      }
-      counting.close(); // close counting (and underlying file stream)
-      dataVolumeOut = (dataVolumeOut != null ? dataVolumeOut : 0L) + counting.getCount();
+    if (data.sortSize < 0 && records.size() > data.minSortSize) {
+      data.minSortSize = records.size(); // if we did it once, we can do
+      // it again.
 
-      // How much memory do we have left?
+      // Memory usage goes up over time, even with garbage collection
+      // We need pointers, file handles, etc.
+      // As such, we're going to lower the min sort size a bit
       //
-      data.freeMemoryPct = Const.getPercentageFreeMemory();
-      data.freeCounter = 0;
-      if (data.sortSize <= 0 && isDetailed()) {
-        logDetailed(
-            BaseMessages.getString(PKG, "SortRows.Detailed.AvailableMemory", data.freeMemoryPct));
-      }
+      data.minSortSize = (int) Math.round(data.minSortSize * 0.90);
+    }
 
-    } catch (Exception e) {
-      throw new HopException("Error processing temp-file!", e);
+    // How much memory do we have left?
+    //
+    data.freeMemoryPct = Const.getPercentageFreeMemory();
+    data.freeCounter = 0;
+    if (data.sortSize <= 0 && isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(PKG, "SortRows.Detailed.AvailableMemory", data.freeMemoryPct));
     }
 
     data.getBufferIndex = 0;
   }
 
-  private DataInputStream getDataInputStream(GZIPInputStream gzipInputStream) {
-    DataInputStream result = new DataInputStream(gzipInputStream);
-    data.gzis.add(gzipInputStream);
-    return result;
-  }
-
-  // get sorted rows from available files in iterative manner.
-  // that means call to this method will continue to return rows
-  // till all temp files will not be read to the end.
-  Object[] getBuffer() throws HopValueException {
-    Object[] retval;
-
-    // Open all files at once and read one row from each file...
-    if (CollectionUtils.isNotEmpty(data.files) && (data.dis.isEmpty() || data.fis.isEmpty())) {
-      if (isBasic()) {
-        logBasic(BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.files.size()));
-      }
-
-      try {
-        for (int f = 0; f < data.files.size() && !isStopped(); f++) {
-          FileObject fileObject = data.files.get(f);
-          String filename = HopVfs.getFilename(fileObject);
-          if (isDetailed()) {
-            logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
-          }
-          InputStream fi = HopVfs.getInputStream(fileObject);
-          CountingInputStream countingFi = new CountingInputStream(fi);
-          data.countingInputStreams.add(countingFi);
-          data.fis.add(countingFi);
-          DataInputStream di;
-          if (data.compressFiles) {
-            di =
-                getDataInputStream(
-                    new GZIPInputStream(new BufferedInputStream(data.fis.getLast())));
-          } else {
-            di = new DataInputStream(new BufferedInputStream(data.fis.getLast(), 50000));
-          }
-          data.dis.add(di);
-
-          // How long is the buffer?
-          int buffersize = data.bufferSizes.get(f);
-
-          if (isDetailed()) {
-            logDetailed(
+  /**
+   * Sort the given records and write them to the file of the run. This can be called from a
+   * background thread.
+   */
+  private SortRun writeRun(SortRun sortRun, List<SortRowsRecord> records) throws HopException {
+    sortRecords(records);
+
+    try (SortRun.Writer writer = sortRun.createWriter(data.outputRowMeta)) {
+      SortRowsRecord previous = null;
+      for (SortRowsRecord sortRowsRecord : records) {
+        if (meta.isOnlyPassingUniqueRows()
+            && previous != null
+            && data.comparator.compare(sortRowsRecord, previous) == 0) {
+          if (isRowLevel()) {
+            logRowlevel(
                 BaseMessages.getString(
-                    PKG, "SortRows.Detailed.FromFileExpectingRows", filename, buffersize));
-          }
-
-          if (buffersize > 0) {
-            Object[] row = data.outputRowMeta.readData(di);
-            data.rowbuffer.add(row); // new row from input stream
-            data.tempRows.add(new RowTempFile(row, f));
+                    PKG,
+                    "SortRows.RowLevel.DuplicateRowRemoved",
+                    data.outputRowMeta.getString(sortRowsRecord.row)));
           }
+          continue;
         }
-
-        // Sort the data row buffer
-        data.tempRows.sort(data.comparator);
-      } catch (Exception e) {
-        logError(BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
+        writer.write(sortRowsRecord);
+        previous = sortRowsRecord;
       }
+    } catch (IOException e) {
+      throw new HopException("Error processing temp-file!", e);
     }
+    return sortRun;
+  }
 
-    if (data.files.isEmpty()) {
-      // read from in-memory processing
-
-      if (data.getBufferIndex < data.buffer.size()) {
-        retval = data.buffer.get(data.getBufferIndex);
-        data.getBufferIndex++;
-      } else {
-        retval = null;
-      }
-    } else {
-      // read from disk processing
-
-      if (data.rowbuffer.isEmpty()) {
-        retval = null;
-      } else {
-        // We now have "filenr" rows waiting: which one is the smallest?
-        //
-        if (isRowLevel()) {
-          for (int i = 0; i < data.rowbuffer.size() && !isStopped(); i++) {
-            Object[] b = data.rowbuffer.get(i);
-            logRowlevel(
-                BaseMessages.getString(
-                    PKG, "SortRows.RowLevel.PrintRow", i, data.outputRowMeta.getString(b)));
+  /** Wait until a run is written by a background thread. */
+  private void waitForRun(Future<SortRun> future) throws HopException {
+    // Let the transform scheduler know that we might be waiting for a while
+    //
+    TransformScheduler.runBlocking(
+        () -> {
+          try {
+            future.get();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } catch (ExecutionException e) {
+            // Reported below
           }
-        }
+        });
+    try {
+      SortRun sortRun = future.get();
+      dataVolumeOut = (dataVolumeOut != null ? dataVolumeOut : 0L) + sortRun.getBytesWritten();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while writing a temp-file", e);
+    } catch (ExecutionException e) {
+      throw new HopException("Error processing temp-file!", e.getCause());
+    }
+  }
 
-        RowTempFile rowTempFile = data.tempRows.removeFirst();
-        retval = rowTempFile.row;
-        int smallest = rowTempFile.fileNumber;
+  /**
+   * Wait for all runs to be written and start merging them. If there are more runs than we can open
+   * at once, we first merge the oldest runs into bigger ones.
+   */
+  private void startMerge() throws HopException {
+    while (!data.pendingRuns.isEmpty()) {
+      waitForRun(data.pendingRuns.removeFirst());
+    }
 
-        // now get another Row for position smallest
+    while (data.sortRuns.size() > data.maxMergeFiles && !isStopped()) {
+      List<SortRun> group = new ArrayList<>(data.sortRuns.subList(0, data.maxMergeFiles));
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(PKG, "SortRows.Detailed.IntermediateMerge", group.size()));
+      }
+      SortRun merged = mergeRuns(group);
+      data.sortRuns.subList(0, group.size()).clear();
+      data.sortRuns.add(merged);
+    }
 
-        FileObject file = data.files.get(smallest);
-        DataInputStream di = data.dis.get(smallest);
-        InputStream fi = data.fis.get(smallest);
+    if (isBasic()) {
+      logBasic(
+          BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.sortRuns.size()));
+    }
+    for (SortRun sortRun : data.sortRuns) {
+      if (isDetailed()) {
+        String filename = HopVfs.getFilename(sortRun.getFile());
+        logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
+        logDetailed(
+            BaseMessages.getString(
+                PKG, "SortRows.Detailed.FromFileExpectingRows", filename, sortRun.getNrRows()));
+      }
+      data.readers.add(sortRun.createReader(data.outputRowMeta));
+    }
+    data.merger = createMerger(data.readers);
+  }
 
-        try {
-          Object[] row2 = data.outputRowMeta.readData(di);
-          RowTempFile extra = new RowTempFile(row2, smallest);
+  /** Merge a number of runs into a new one. */
+  private SortRun mergeRuns(List<SortRun> group) throws HopException {
+    SortRun merged;
+    try {
+      FileObject fileObject =
+          HopVfs.createTempFile(meta.getPrefix(), ".tmp", resolve(meta.getDirectory()), variables);
+      merged = new SortRun(fileObject, data.compressFiles, data.keyEncoder != null);
+    } catch (Exception e) {
+      throw new HopException("Error processing temp-file!", e);
+    }
+    data.sortRuns.add(merged); // Remember the file in case we need to clean up
 
-          int index = Collections.binarySearch(data.tempRows, extra, data.comparator);
-          if (index < 0) {
-            data.tempRows.add(index * (-1) - 1, extra);
-          } else {
-            data.tempRows.add(index, extra);
-          }
-        } catch (HopFileException fe) { // empty file or EOF mostly
-          GZIPInputStream gzfi = (data.compressFiles) ? data.gzis.get(smallest) : null;
-          try {
-            if (smallest < data.countingInputStreams.size()) {
-              dataVolumeIn =
-                  (dataVolumeIn != null ? dataVolumeIn : 0L)
-                      + data.countingInputStreams.get(smallest).getCount();
-            }
-            di.close();
-            fi.close();
-            if (gzfi != null) {
-              gzfi.close();
-            }
-            file.delete();
-          } catch (IOException e) {
-            logError(
-                BaseMessages.getString(
-                    PKG, "SortRows.Error.UnableToCloseFile", smallest, file.toString()));
-            setErrors(1);
-            stopAll();
-            return null;
-          }
+    List<SortRun.Reader> groupReaders = new ArrayList<>();
+    try (SortRun.Writer writer = merged.createWriter(data.outputRowMeta)) {
+      for (SortRun sortRun : group) {
+        groupReaders.add(sortRun.createReader(data.outputRowMeta));
+      }
+      LoserTree<SortRowsRecord> groupMerger = createMerger(groupReaders);
+      SortRowsRecord sortRowsRecord = groupMerger.next();
+      while (sortRowsRecord != null && !isStopped()) {
+        writer.write(sortRowsRecord);
+        sortRowsRecord = groupMerger.next();
+      }
+    } catch (IOException e) {
+      throw new HopException("Error processing temp-file!", e);
+    } finally {
+      for (SortRun.Reader reader : groupReaders) {
+        dataVolumeIn = (dataVolumeIn != null ? dataVolumeIn : 0L) + reader.getBytesRead();
+        BaseTransform.closeQuietly(reader);
+      }
+    }
+    data.sortRuns.remove(merged);
+    dataVolumeOut = (dataVolumeOut != null ? dataVolumeOut : 0L) + merged.getBytesWritten();
+    return merged;
+  }
 
-          data.files.remove(smallest);
-          data.dis.remove(smallest);
-          data.fis.remove(smallest);
-          if (smallest < data.countingInputStreams.size()) {
-            data.countingInputStreams.remove(smallest);
-          }
+  @SuppressWarnings("unchecked")
+  private LoserTree<SortRowsRecord> createMerger(List<SortRun.Reader> readers) throws HopException {
+    return new LoserTree<>(readers.toArray(new LoserTree.ISource[0]), data.comparator);
+  }
 
-          if (gzfi != null) {
-            data.gzis.remove(smallest);
-          }
+  // get sorted rows from memory or from the temporary files in iterative manner.
+  // that means call to this method will continue to return rows
+  // till all temp files will not be read to the end.
+  SortRowsRecord getBuffer() throws HopException {
+    if (data.merger != null) {
+      // read from disk processing
+      return data.merger.next();
+    }
 
-          // Also update all file numbers in in data.tempRows if they are larger
-          // than smallest.
-          //
-          for (RowTempFile rtf : data.tempRows) {
-            if (rtf.fileNumber > smallest) {
-              rtf.fileNumber--;
-            }
-          }
-        } catch (SocketTimeoutException e) {
-          throw new HopValueException(e); // should never happen on local files
-        }
-      }
+    // read from in-memory processing
+    if (data.getBufferIndex < data.buffer.size()) {
+      return data.buffer.get(data.getBufferIndex++);
     }
-    return retval;
+    return null;
   }
 
   @Override
@@ -428,7 +400,6 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     // Metadata
     data.outputRowMeta = inputRowMeta.clone();
     meta.getFields(data.outputRowMeta, getTransformName(), null, null, this, metadataProvider);
-    data.comparator = new RowTemapFileComparator(data.outputRowMeta, data.fieldnrs);
 
     for (int i = 0; i < meta.getSortFields().size(); i++) {
       data.fieldnrs[i] = inputRowMeta.indexOfValue(meta.getSortFields().get(i).getFieldName());
@@ -452,7 +423,18 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       data.convertKeysToNative[i] = in;
       i++;
     }
-    data.rowComparator = new RowObjectArrayComparator(data.outputRowMeta, data.fieldnrs);
+
+    // Compare normalized keys if we can, field by field otherwise
+    //
+    data.keyEncoder = SortKeyEncoder.create(data.outputRowMeta, data.fieldnrs);
+    if (data.keyEncoder != null) {
+      data.comparator = (o1, o2) -> Arrays.compareUnsigned(o1.key, o2.key);
+    } else {
+      data.comparator = new SortRowsRecordComparator(data.outputRowMeta, data.fieldnrs);
+      if (isDetailed()) {
+        logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.KeysNotNormalized"));
+      }
+    }
     return false;
   }
 
@@ -463,46 +445,38 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
   void passBuffer() throws HopException {
     // Now we can start the output!
     //
-    Object[] r = getBuffer();
-    Object[] previousRow = null;
+    SortRowsRecord sortRowsRecord = getBuffer();
+    SortRowsRecord previous = null;
 
     // log time spent for external merge (expected time consuming operation)
-    if (isDebug() && !data.files.isEmpty()) {
+    if (isDebug() && data.merger != null) {
       this.logDebug(BaseMessages.getString(PKG, "SortRows.Debug.ExternalMergeStarted"));
     }
 
-    while (r != null && !isStopped()) {
+    while (sortRowsRecord != null && !isStopped()) {
       if (isRowLevel()) {
         logRowlevel(
             BaseMessages.getString(
-                PKG, "SortRows.RowLevel.ReadRow", data.outputRowMeta.getString(r)));
+                PKG,
+                "SortRows.RowLevel.ReadRow",
+                data.outputRowMeta.getString(sortRowsRecord.row)));
       }
 
       // Do another verification pass for unique rows...
+      // If the row has the same keys as the previous one, we don't put forward this row.
       //
-      if (meta.isOnlyPassingUniqueRows()) {
-        if (previousRow != null) {
-          // See if this row is the same as the previous one as far as the keys
-          // are concerned.
-          // If so, we don't put forward this row.
-          int result = data.outputRowMeta.compare(r, previousRow, data.fieldnrs);
-          if (result != 0) {
-            putRow(data.outputRowMeta, r); // copy row to possible alternate
-            // rowset(s).
-          }
-        } else {
-          putRow(data.outputRowMeta, r); // copy row to next transforms
-        }
-        previousRow = r;
-      } else {
-        putRow(data.outputRowMeta, r); // copy row to possible alternate
+      if (!meta.isOnlyPassingUniqueRows()
+          || previous == null
+          || data.comparator.compare(sortRowsRecord, previous) != 0) {
+        putRow(data.outputRowMeta, sortRowsRecord.row); // copy row to possible alternate
         // rowset(s).
       }
+      previous = sortRowsRecord;
 
-      r = getBuffer();
+      sortRowsRecord = getBuffer();
     }
 
-    if (isDebug() && !data.files.isEmpty()) {
+    if (isDebug() && data.merger != null) {
       this.logDebug(BaseMessages.getString(PKG, "SortRows.Debug.ExternalMergeFinished"));
     }
 
@@ -518,27 +492,37 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       return false;
     }
 
+    data.parallelRuns =
+        Math.max(
+            0, Const.toInt(getVariable(Const.HOP_SORT_ROWS_PARALLEL_RUNS), DEFAULT_PARALLEL_RUNS));
+    data.maxMergeFiles =
+        Math.max(
+            2, Const.toInt(getVariable(Const.HOP_SORT_ROWS_MERGE_FILES), DEFAULT_MAX_MERGE_FILES));
+
     data.sortSize = Const.toInt(resolve(meta.getSortSize()), -1);
     data.freeMemoryPctLimit = Const.toInt(meta.getFreeMemoryLimit(), -1);
-    if (data.sortSize <= 0 && data.freeMemoryPctLimit <= 0) {
+    long memoryLimitMb = Const.toLong(resolve(meta.getMemoryLimit()), -1L);
+    data.memoryLimit = memoryLimitMb > 0 ? memoryLimitMb * 1024L * 1024L : -1L;
+    if (data.sortSize <= 0 && data.freeMemoryPctLimit <= 0 && data.memoryLimit <= 0) {
       // Prefer the memory limit as it should never fail
       //
       data.freeMemoryPctLimit = 25;
     }
 
-    // In memory buffer
+    // After the first run the rows in memory are shared with the runs sorted in the background
     //
-    data.buffer = new ArrayList<>(5000);
+    data.runSortSize =
+        data.sortSize > 0 ? Math.max(1, data.sortSize / (data.parallelRuns + 1)) : data.sortSize;
+    data.runMemoryLimit =
+        data.memoryLimit > 0 ? data.memoryLimit / (data.parallelRuns + 1) : data.memoryLimit;
 
-    // Buffer for reading from disk
+    // In memory buffer
     //
-    data.rowbuffer = new ArrayList<>(5000);
+    data.buffer = new ArrayList<>(5000);
 
     data.compressFiles =
         getVariableBoolean(meta.getCompressFilesVariable(), meta.isCompressFiles());
 
-    data.tempRows = new ArrayList<>();
-
     data.minSortSize = 5000;
 
     return true;
@@ -547,6 +531,10 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
   @Override
   public void dispose() {
     clearBuffers();
+    if (data.runExecutor != null) {
+      data.runExecutor.shutdownNow();
+      data.runExecutor = null;
+    }
     super.dispose();
   }
 
@@ -554,38 +542,44 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     // Clean out the sort buffer
     data.buffer.clear();
+    data.bufferBytes = 0L;
     data.getBufferIndex = 0;
-    data.rowbuffer.clear();
+    data.merger = null;
 
-    // close any open DataInputStream objects
-    if (CollectionUtils.isNotEmpty(data.dis)) {
-      for (DataInputStream dis : data.dis) {
-        BaseTransform.closeQuietly(dis);
-      }
+    // close any open temp files
+    for (SortRun.Reader reader : data.readers) {
+      dataVolumeIn = (dataVolumeIn != null ? dataVolumeIn : 0L) + reader.getBytesRead();
+      BaseTransform.closeQuietly(reader);
     }
-    // close any open InputStream objects
-    if (CollectionUtils.isNotEmpty(data.fis)) {
-      for (InputStream is : data.fis) {
-        BaseTransform.closeQuietly(is);
+    data.readers.clear();
+
+    // wait for the runs which are still being written
+    for (Future<SortRun> future : data.pendingRuns) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        // Already reported or not relevant anymore
       }
     }
+    data.pendingRuns.clear();
+
     // remove temp files
-    for (int f = 0; f < data.files.size(); f++) {
-      FileObject fileToDelete = data.files.get(f);
+    for (SortRun sortRun : data.sortRuns) {
       try {
-        if (fileToDelete != null && fileToDelete.exists()) {
-          fileToDelete.delete();
-        }
-      } catch (FileSystemException e) {
+        sortRun.delete();
+      } catch (IOException e) {
         logError(e.getLocalizedMessage(), e);
       }
     }
+    data.sortRuns.clear();
   }
 
-  /** Sort the entire vector, if it is not empty. */
-  void quickSort(List<Object[]> elements) {
-    if (CollectionUtils.isNotEmpty(elements)) {
-      elements.sort(data.rowComparator);
+  /** Sort the records, if there are any. */
+  void sortRecords(List<SortRowsRecord> records) {
+    if (CollectionUtils.isNotEmpty(records)) {
+      records.sort(data.comparator);
 
       long nrConversions = 0L;
       for (IValueMeta valueMeta : data.outputRowMeta.getValueMetaList()) {
@@ -623,33 +617,28 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
   }
 
   private void preSortBeforeFlush() throws HopException {
-    if (!data.files.isEmpty()) {
-      // dump to dist and then read from disk
+    if (!data.sortRuns.isEmpty()) {
+      // dump to disk and then merge from disk
       sortExternalRows();
+      startMerge();
     } else {
       // sort in memory
-      quickSort(data.buffer);
+      sortRecords(data.buffer);
     }
   }
 
-  private static class SortRowsComparator {
-    protected IRowMeta rowMeta;
-    protected int[] fieldNrs;
+  /** Compares records field by field, for sort keys which can't be normalized. */
+  private class SortRowsRecordComparator implements Comparator<SortRowsRecord> {
+    private final IRowMeta rowMeta;
+    private final int[] fieldNrs;
 
-    SortRowsComparator(IRowMeta rowMeta, int[] fieldNrs) {
+    SortRowsRecordComparator(IRowMeta rowMeta, int[] fieldNrs) {
       this.rowMeta = rowMeta;
       this.fieldNrs = fieldNrs;
     }
-  }
-
-  private class RowTemapFileComparator extends SortRowsComparator
-      implements Comparator<RowTempFile> {
-    RowTemapFileComparator(IRowMeta rowMeta, int[] fieldNrs) {
-      super(rowMeta, fieldNrs);
-    }
 
     @Override
-    public int compare(RowTempFile o1, RowTempFile o2) {
+    public int compare(SortRowsRecord o1, SortRowsRecord o2) {
       try {
         return rowMeta.compare(o1.row, o2.row, fieldNrs);
       } catch (HopValueException e) {
@@ -658,21 +647,4 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       }
     }
   }
-
-  private class RowObjectArrayComparator extends SortRowsComparator
-      implements Comparator<Object[]> {
-    RowObjectArrayComparator(IRowMeta rowMeta, int[] fieldNrs) {
-      super(rowMeta, fieldNrs);
-    }
-
-    @Override
-    public int compare(Object[] o1, Object[] o2) {
-      try {
-        return rowMeta.compare(o1, o2, fieldNrs);
-      } catch (HopValueException e) {
-        logError("Error comparing rows: " + e.toString());
-        return 0;
-      }
-    }
-  }
 }
@@ -17,44 +17,60 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-import java.io.DataInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import org.apache.commons.vfs2.FileObject;
-import org.apache.hop.core.io.CountingInputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
 @SuppressWarnings("java:S1104")
 public class SortRowsData extends BaseTransformData implements ITransformData {
-  public List<FileObject> files;
-  public List<Object[]> buffer;
+  /** The rows kept in memory */
+  public List<SortRowsRecord> buffer;
+
+  /** The estimated number of bytes taken by the rows in memory */
+  public long bufferBytes;
+
   public int getBufferIndex;
 
-  public List<InputStream> fis;
-  public List<CountingInputStream> countingInputStreams;
-  public List<GZIPInputStream> gzis;
-  public List<DataInputStream> dis;
-  public List<Object[]> rowbuffer;
-  public List<Integer> bufferSizes;
+  /** The runs written to temporary files, in the order in which they were started */
+  public List<SortRun> sortRuns;
+
+  /** The runs which are being sorted and written in the background */
+  public List<Future<SortRun>> pendingRuns;
+
+  /** The readers of the runs which are merged into the output */
+  public List<SortRun.Reader> readers;
+
+  /** Merges the runs into the output */
+  public LoserTree<SortRowsRecord> merger;
 
-  // To store rows and file references
-  public List<RowTempFile> tempRows;
+  /** Sorts and writes runs while we keep on reading rows */
+  public ExecutorService runExecutor;
+
+  public int parallelRuns;
+  public int maxMergeFiles;
 
   public int[] fieldnrs; // the corresponding field numbers
-  public FileObject fil;
   public IRowMeta outputRowMeta;
   public int sortSize;
+  public long memoryLimit;
+
+  /** The sort size and memory limit of the runs after the first one */
+  public int runSortSize;
+
+  public long runMemoryLimit;
   public boolean compressFiles;
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
-  Comparator<RowTempFile> comparator;
-  Comparator<Object[]> rowComparator;
+  /** Creates the normalized sort keys, null if the keys can't be normalized */
+  public SortKeyEncoder keyEncoder;
+
+  Comparator<SortRowsRecord> comparator;
 
   public int freeCounter;
   public int freeMemoryPct;
@@ -65,11 +81,9 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public SortRowsData() {
     super();
 
-    files = new ArrayList<>();
-    fis = new ArrayList<>();
-    countingInputStreams = new ArrayList<>();
-    gzis = new ArrayList<>();
-    dis = new ArrayList<>();
-    bufferSizes = new ArrayList<>();
+    buffer = new ArrayList<>();
+    sortRuns = new ArrayList<>();
+    pendingRuns = new ArrayList<>();
+    readers = new ArrayList<>();
   }
 }
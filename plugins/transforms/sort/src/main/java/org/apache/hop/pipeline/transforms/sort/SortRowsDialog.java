@@ -66,6 +66,8 @@ public class SortRowsDialog extends BaseTransformDialog {
 
   private TextVar wFreeMemory;
 
+  private TextVar wMemoryLimit;
+
   private CheckBoxVar wCompress;
 
   private Button wUniqueRows;
@@ -181,6 +183,26 @@ public class SortRowsDialog extends BaseTransformDialog {
     fdFreeMemory.right = new FormAttachment(100, 0);
     wFreeMemory.setLayoutData(fdFreeMemory);
 
+    // Memory limit
+    Label wlMemoryLimit = new Label(shell, SWT.RIGHT);
+    wlMemoryLimit.setText(BaseMessages.getString(PKG, "SortRowsDialog.MemoryLimit.Label"));
+    wlMemoryLimit.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.MemoryLimit.ToolTip"));
+    PropsUi.setLook(wlMemoryLimit);
+    FormData fdlMemoryLimit = new FormData();
+    fdlMemoryLimit.left = new FormAttachment(0, 0);
+    fdlMemoryLimit.right = new FormAttachment(middle, -margin);
+    fdlMemoryLimit.top = new FormAttachment(wFreeMemory, margin);
+    wlMemoryLimit.setLayoutData(fdlMemoryLimit);
+    wMemoryLimit = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMemoryLimit.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.MemoryLimit.ToolTip"));
+    PropsUi.setLook(wMemoryLimit);
+    wMemoryLimit.addModifyListener(lsMod);
+    FormData fdMemoryLimit = new FormData();
+    fdMemoryLimit.left = new FormAttachment(middle, 0);
+    fdMemoryLimit.top = new FormAttachment(wFreeMemory, margin);
+    fdMemoryLimit.right = new FormAttachment(100, 0);
+    wMemoryLimit.setLayoutData(fdMemoryLimit);
+
     // Using compression for temporary files?
     Label wlCompress = new Label(shell, SWT.RIGHT);
     wlCompress.setText(BaseMessages.getString(PKG, "SortRowsDialog.Compress.Label"));
@@ -188,7 +210,7 @@ public class SortRowsDialog extends BaseTransformDialog {
     FormData fdlCompress = new FormData();
     fdlCompress.left = new FormAttachment(0, 0);
     fdlCompress.right = new FormAttachment(middle, -margin);
-    fdlCompress.top = new FormAttachment(wFreeMemory, margin);
+    fdlCompress.top = new FormAttachment(wMemoryLimit, margin);
     wlCompress.setLayoutData(fdlCompress);
     wCompress = new CheckBoxVar(variables, shell, SWT.CHECK, "");
     PropsUi.setLook(wCompress);
@@ -357,6 +379,7 @@ public class SortRowsDialog extends BaseTransformDialog {
     }
     wSortSize.setText(Const.NVL(input.getSortSize(), ""));
     wFreeMemory.setText(Const.NVL(input.getFreeMemoryLimit(), ""));
+    wMemoryLimit.setText(Const.NVL(input.getMemoryLimit(), ""));
     wCompress.setSelection(input.isCompressFiles());
     wCompress.setVariableName(input.getCompressFilesVariable());
     wUniqueRows.setSelection(input.isOnlyPassingUniqueRows());
@@ -419,6 +442,7 @@ public class SortRowsDialog extends BaseTransformDialog {
     input.setDirectory(wSortDir.getText());
     input.setSortSize(wSortSize.getText());
     input.setFreeMemoryLimit(wFreeMemory.getText());
+    input.setMemoryLimit(wMemoryLimit.getText());
     log.logDetailed("Sort rows", "Compression is set to " + wCompress.getSelection());
     input.setCompressFiles(wCompress.getSelection());
     input.setCompressFilesVariable(wCompress.getVariableName());
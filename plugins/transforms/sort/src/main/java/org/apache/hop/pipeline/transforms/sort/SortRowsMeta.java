@@ -81,6 +81,10 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
   @HopMetadataProperty(key = "free_memory", injectionKey = "FREE_MEMORY_TRESHOLD")
   private String freeMemoryLimit;
 
+  /** The maximum amount of memory in MB used to keep rows in memory before they go to disk */
+  @HopMetadataProperty(key = "memory_limit", injectionKey = "SORT_MEMORY_LIMIT")
+  private String memoryLimit;
+
   /** only pass unique rows to the output stream(s) */
   @HopMetadataProperty(key = "unique_rows", injectionKey = "ONLY_PASS_UNIQUE_ROWS")
   private boolean onlyPassingUniqueRows;
@@ -103,6 +107,7 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
     prefix = "out";
     sortSize = "1000000";
     freeMemoryLimit = null;
+    memoryLimit = null;
     compressFiles = false;
     compressFilesVariable = null;
     onlyPassingUniqueRows = false;
@@ -114,6 +119,7 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData>
     this.prefix = m.prefix;
     this.sortSize = m.sortSize;
     this.freeMemoryLimit = m.freeMemoryLimit;
+    this.memoryLimit = m.memoryLimit;
     this.onlyPassingUniqueRows = m.onlyPassingUniqueRows;
     this.compressFiles = m.compressFiles;
     this.compressFilesVariable = m.compressFilesVariable;
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+/** A row to sort together with its normalized sort key, if any. */
+public class SortRowsRecord {
+  /** The per-record overhead on top of the row: the object itself and the key array header. */
+  private static final long OVERHEAD = 40L;
+
+  public final byte[] key;
+  public final Object[] row;
+
+  public SortRowsRecord(byte[] key, Object[] row) {
+    this.key = key;
+    this.row = row;
+  }
+
+  /**
+   * Estimate the number of bytes this record takes on the heap. It's a rough estimate based on the
+   * Java types of the values, good enough to decide when to write rows to disk.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimateSize() {
+    long size = OVERHEAD + (key == null ? 0 : key.length);
+    size += 16L + 8L * row.length;
+    for (Object value : row) {
+      size += estimateValueSize(value);
+    }
+    return size;
+  }
+
+  private static long estimateValueSize(Object value) {
+    if (value == null) {
+      return 0L;
+    }
+    if (value instanceof String string) {
+      return 40L + 2L * string.length();
+    }
+    if (value instanceof byte[] bytes) {
+      return 16L + bytes.length;
+    }
+    if (value instanceof Long || value instanceof Double || value instanceof Boolean) {
+      return 16L;
+    }
+    if (value instanceof Timestamp) {
+      return 32L;
+    }
+    if (value instanceof Date) {
+      return 24L;
+    }
+    return 64L;
+  }
+}
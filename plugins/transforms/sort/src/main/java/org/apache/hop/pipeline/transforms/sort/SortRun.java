@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import lombok.Getter;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.io.CountingInputStream;
+import org.apache.hop.core.io.CountingOutputStream;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.vfs.HopVfs;
+import org.xerial.snappy.SnappyFramedInputStream;
+import org.xerial.snappy.SnappyFramedOutputStream;
+
+/**
+ * A run of sorted rows in a temporary file. Every record is written as the length of its normalized
+ * key and the key itself (if keys are used) followed by the row in the binary Hop format.
+ * Compressed files use the Snappy frame format which is a lot faster than GZip.
+ */
+public class SortRun {
+  private static final int BUFFER_SIZE = 500000;
+
+  @Getter private final FileObject file;
+  @Getter private final boolean compressed;
+  @Getter private final boolean withKeys;
+  @Getter private long nrRows;
+  @Getter private long bytesWritten;
+
+  public SortRun(FileObject file, boolean compressed, boolean withKeys) {
+    this.file = file;
+    this.compressed = compressed;
+    this.withKeys = withKeys;
+  }
+
+  /**
+   * Open the file of this run for writing.
+   *
+   * @param rowMeta the layout of the rows
+   * @return the writer, close it to complete the run
+   * @throws HopException in case the file can't be created
+   */
+  public Writer createWriter(IRowMeta rowMeta) throws HopException {
+    return new Writer(rowMeta);
+  }
+
+  /**
+   * Open the file of this run for reading. The file is deleted once all rows are read.
+   *
+   * @param rowMeta the layout of the rows
+   * @return the reader
+   * @throws HopException in case the file can't be opened
+   */
+  public Reader createReader(IRowMeta rowMeta) throws HopException {
+    return new Reader(rowMeta);
+  }
+
+  /** Delete the file of this run, if it still exists. */
+  public void delete() throws IOException {
+    if (file.exists()) {
+      file.delete();
+    }
+  }
+
+  /** Writes the sorted records of a run to its file. */
+  public class Writer implements Closeable {
+    private final IRowMeta rowMeta;
+    private final CountingOutputStream countingOutputStream;
+    private final DataOutputStream outputStream;
+
+    private Writer(IRowMeta rowMeta) throws HopException {
+      this.rowMeta = rowMeta;
+      try {
+        countingOutputStream = new CountingOutputStream(HopVfs.getOutputStream(file, false));
+        OutputStream stream = new BufferedOutputStream(countingOutputStream, BUFFER_SIZE);
+        if (compressed) {
+          stream = new SnappyFramedOutputStream(stream);
+        }
+        outputStream = new DataOutputStream(stream);
+      } catch (IOException e) {
+        throw new HopException("Error creating temporary file " + file, e);
+      }
+    }
+
+    public void write(SortRowsRecord sortRowsRecord) throws HopException {
+      try {
+        if (withKeys) {
+          outputStream.writeInt(sortRowsRecord.key.length);
+          outputStream.write(sortRowsRecord.key);
+        }
+        rowMeta.writeData(outputStream, sortRowsRecord.row);
+        nrRows++;
+      } catch (IOException e) {
+        throw new HopException("Error writing to temporary file " + file, e);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      outputStream.close();
+      bytesWritten = countingOutputStream.getCount();
+    }
+  }
+
+  /** Reads the records of a run back in order. */
+  public class Reader implements LoserTree.ISource<SortRowsRecord>, Closeable {
+    private final IRowMeta rowMeta;
+    private final CountingInputStream countingInputStream;
+    private final DataInputStream inputStream;
+    private long nrRead;
+    private boolean closed;
+
+    private Reader(IRowMeta rowMeta) throws HopException {
+      this.rowMeta = rowMeta;
+      try {
+        countingInputStream = new CountingInputStream(HopVfs.getInputStream(file));
+        InputStream stream = new BufferedInputStream(countingInputStream, BUFFER_SIZE);
+        if (compressed) {
+          stream = new SnappyFramedInputStream(stream);
+        }
+        inputStream = new DataInputStream(stream);
+      } catch (IOException e) {
+        throw new HopException("Error opening temporary file " + file, e);
+      }
+    }
+
+    @Override
+    public SortRowsRecord next() throws HopException {
+      if (nrRead >= nrRows) {
+        if (!closed) {
+          try {
+            close();
+            delete();
+          } catch (IOException e) {
+            throw new HopException("Error closing temporary file " + file, e);
+          }
+        }
+        return null;
+      }
+      try {
+        byte[] key = null;
+        if (withKeys) {
+          key = new byte[inputStream.readInt()];
+          inputStream.readFully(key);
+        }
+        Object[] row = rowMeta.readData(inputStream);
+        nrRead++;
+        return new SortRowsRecord(key, row);
+      } catch (IOException e) {
+        throw new HopException("Error reading from temporary file " + file, e);
+      }
+    }
+
+    /**
+     * @return the number of bytes read from the file so far
+     */
+    public long getBytesRead() {
+      return countingInputStream.getCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        inputStream.close();
+      }
+    }
+  }
+}
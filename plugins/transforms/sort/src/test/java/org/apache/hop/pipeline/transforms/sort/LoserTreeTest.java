@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.exception.HopException;
+import org.junit.jupiter.api.Test;
+
+class LoserTreeTest {
+
+  @SuppressWarnings("unchecked")
+  private LoserTree<Integer> createTree(List<List<Integer>> lists) throws HopException {
+    LoserTree.ISource<Integer>[] sources = new LoserTree.ISource[lists.size()];
+    for (int i = 0; i < lists.size(); i++) {
+      Iterator<Integer> iterator = lists.get(i).iterator();
+      sources[i] = () -> iterator.hasNext() ? iterator.next() : null;
+    }
+    return new LoserTree<>(sources, Comparator.naturalOrder());
+  }
+
+  @Test
+  void testMerge() throws Exception {
+    Random random = new Random(42);
+    for (int nrSources = 1; nrSources <= 17; nrSources++) {
+      List<List<Integer>> lists = new ArrayList<>();
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < nrSources; i++) {
+        List<Integer> list = new ArrayList<>();
+        int size = random.nextInt(50); // some sources are empty
+        for (int j = 0; j < size; j++) {
+          list.add(random.nextInt(100));
+        }
+        list.sort(Comparator.naturalOrder());
+        lists.add(list);
+        expected.addAll(list);
+      }
+      expected.sort(Comparator.naturalOrder());
+
+      LoserTree<Integer> tree = createTree(lists);
+      List<Integer> merged = new ArrayList<>();
+      Integer value = tree.next();
+      while (value != null) {
+        merged.add(value);
+        value = tree.next();
+      }
+      assertEquals(expected, merged, "Merging " + nrSources + " sources");
+      assertNull(tree.next());
+    }
+  }
+
+  @Test
+  void testNoSources() throws Exception {
+    assertNull(createTree(new ArrayList<>()).next());
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.jupiter.api.Test;
+
+/** The normalized keys need to sort exactly like the rows are compared field by field. */
+class SortKeyEncoderTest {
+
+  private static final int[] ALL_FIELDS = {0, 1, 2, 3, 4, 5, 6};
+
+  private IRowMeta createRowMeta(boolean ascending, boolean caseSensitive) {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    for (IValueMeta valueMeta : rowMeta.getValueMetaList()) {
+      valueMeta.setSortedDescending(!ascending);
+      valueMeta.setCaseInsensitive(!caseSensitive);
+    }
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows() {
+    Object[] strings = {null, "", "a", "A", "ab", "a\u0000b", "b", "é", "a b"};
+    Object[] integers = {null, Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE};
+    Object[] numbers = {null, Double.NEGATIVE_INFINITY, -1.5, 0.0, 0.25, 1e300};
+    Object[] dates = {null, new Date(-1000L), new Date(0L), new Date(1000L)};
+    Timestamp nanos = new Timestamp(1000L);
+    nanos.setNanos(5);
+    Object[] timestamps = {null, new Timestamp(-1000L), new Timestamp(1000L), nanos};
+    Object[] booleans = {null, false, true};
+    Object[] bigNumbers = {
+      null,
+      new BigDecimal("-123.45"),
+      new BigDecimal("-0.001"),
+      BigDecimal.ZERO,
+      new BigDecimal("0.001"),
+      new BigDecimal("1.0"),
+      new BigDecimal("1.00"),
+      new BigDecimal("9.99"),
+      new BigDecimal("10"),
+      new BigDecimal("123.45")
+    };
+
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      rows.add(
+          new Object[] {
+            strings[i % strings.length],
+            integers[(i / 3) % integers.length],
+            numbers[(i / 7) % numbers.length],
+            dates[(i / 11) % dates.length],
+            timestamps[(i / 13) % timestamps.length],
+            booleans[(i / 17) % booleans.length],
+            bigNumbers[(i / 19) % bigNumbers.length]
+          });
+    }
+    return rows;
+  }
+
+  private void assertSameOrder(IRowMeta rowMeta, int[] fieldNrs) throws Exception {
+    SortKeyEncoder encoder = SortKeyEncoder.create(rowMeta, fieldNrs);
+    assertNotNull(encoder);
+
+    List<Object[]> rows = createRows();
+    List<byte[]> keys = new ArrayList<>();
+    for (Object[] row : rows) {
+      keys.add(encoder.encode(row));
+    }
+    for (int i = 0; i < rows.size(); i++) {
+      for (int j = i; j < rows.size(); j += 7) {
+        Object[] row1 = rows.get(i);
+        Object[] row2 = rows.get(j);
+        int expected = Integer.signum(rowMeta.compare(row1, row2, fieldNrs));
+        int actual = Integer.signum(Arrays.compareUnsigned(keys.get(i), keys.get(j)));
+        assertEquals(
+            expected,
+            actual,
+            () -> "Comparing " + Arrays.toString(row1) + " with " + Arrays.toString(row2));
+      }
+    }
+  }
+
+  @Test
+  void testAscending() throws Exception {
+    assertSameOrder(createRowMeta(true, true), ALL_FIELDS);
+  }
+
+  @Test
+  void testDescending() throws Exception {
+    assertSameOrder(createRowMeta(false, true), ALL_FIELDS);
+  }
+
+  @Test
+  void testCaseInsensitive() throws Exception {
+    assertSameOrder(createRowMeta(true, false), ALL_FIELDS);
+  }
+
+  @Test
+  void testFieldOrder() throws Exception {
+    assertSameOrder(createRowMeta(true, true), new int[] {6, 0, 3});
+  }
+
+  @Test
+  void testIgnoreWhitespace() throws Exception {
+    IRowMeta rowMeta = createRowMeta(true, true);
+    rowMeta.getValueMeta(0).setIgnoreWhitespace(true);
+    assertSameOrder(rowMeta, ALL_FIELDS);
+  }
+
+  @Test
+  void testNotNormalizable() {
+    IRowMeta rowMeta = createRowMeta(true, true);
+    rowMeta.getValueMeta(0).setCollatorDisabled(false);
+    assertNull(SortKeyEncoder.create(rowMeta, ALL_FIELDS));
+
+    rowMeta = createRowMeta(true, true);
+    rowMeta.getValueMeta(1).setStorageType(IValueMeta.STORAGE_TYPE_INDEXED);
+    assertNull(SortKeyEncoder.create(rowMeta, ALL_FIELDS));
+  }
+}
@@ -44,6 +44,7 @@ class SortRowsMetaInjectionTest extends BaseMetadataInjectionTestJunit5<SortRows
     check("SORT_FILE_PREFIX", () -> meta.getPrefix());
     check("SORT_SIZE_ROWS", () -> meta.getSortSize());
     check("FREE_MEMORY_TRESHOLD", () -> meta.getFreeMemoryLimit());
+    check("SORT_MEMORY_LIMIT", () -> meta.getMemoryLimit());
     check("ONLY_PASS_UNIQUE_ROWS", () -> meta.isOnlyPassingUniqueRows());
     check("COMPRESS_TEMP_FILES", () -> meta.isCompressFiles());
     check("NAME", () -> meta.getSortFields().get(0).getFieldName());
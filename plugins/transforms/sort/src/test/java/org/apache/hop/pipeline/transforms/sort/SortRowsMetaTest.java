@@ -55,6 +55,7 @@ class SortRowsMetaTest {
             "Prefix",
             "SortSize",
             "FreeMemoryLimit",
+            "MemoryLimit",
             "CompressFiles",
             "CompressFilesVariable",
             "OnlyPassingUniqueRows",
@@ -72,6 +73,7 @@ class SortRowsMetaTest {
     fieldLoadSaveValidatorAttributeMap.put("Prefix", stringFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("SortSize", stringFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("FreeMemoryLimit", stringFieldLoadSaveValidator);
+    fieldLoadSaveValidatorAttributeMap.put("MemoryLimit", stringFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("CompressFiles", booleanFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("CompressFilesVariable", stringFieldLoadSaveValidator);
     fieldLoadSaveValidatorAttributeMap.put("OnlyPassingUniqueRows", booleanFieldLoadSaveValidator);
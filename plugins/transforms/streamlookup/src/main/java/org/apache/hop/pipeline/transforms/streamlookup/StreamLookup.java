@@ -26,7 +26,9 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopRuntimeException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
-import org.apache.hop.core.hash.ByteArrayHashIndex;
+import org.apache.hop.core.hash.CompactRowHashIndex;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.metrics.MetricsSnapshotType;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -48,6 +50,13 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupData> {
   private static final Class<?> PKG = StreamLookupMeta.class;
 
+  /** The number of bytes used by the lookup table when memory preservation is active */
+  public static final Metrics METRIC_LOOKUP_TABLE_MEMORY =
+      new Metrics(
+          MetricsSnapshotType.MAX,
+          "METRIC_STREAM_LOOKUP_TABLE_MEMORY",
+          "Memory used by the stream lookup table (bytes)");
+
   public StreamLookup(
       TransformMeta transformMeta,
       StreamLookupMeta meta,
@@ -216,6 +225,19 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
       rowData = getRowFrom(rowSet);
     }
 
+    if (data.index != null) {
+      long memoryUsage = data.index.getMemoryUsage();
+      getLogChannel().snap(METRIC_LOOKUP_TABLE_MEMORY, memoryUsage);
+      if (isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG,
+                "StreamLookup.Log.LookupTableMemory",
+                Integer.toString(data.index.getCount()),
+                Long.toString(memoryUsage)));
+      }
+    }
+
     return true;
   }
 
@@ -297,7 +319,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
 
   private void addToCache(
       IRowMeta keyMeta, Object[] keyData, IRowMeta valueMeta, Object[] valueData)
-      throws HopValueException {
+      throws HopException {
     if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, valueData);
@@ -309,30 +331,22 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
           data.list.set(idx, keyValue); // Overwrite to simulate Hashtable behaviour
         }
       } else {
-        if (meta.isUsingIntegerPair()) {
-          if (!data.metadataVerifiedIntegerPair) {
-            data.metadataVerifiedIntegerPair = true;
-            if (keyMeta.size() != 1
-                || valueMeta.size() != 1
-                || !keyMeta.getValueMeta(0).isInteger()
-                || !valueMeta.getValueMeta(0).isInteger()) {
-
-              throw new HopValueException(
-                  BaseMessages.getString(
-                      PKG, "StreamLookup.Exception.CanNotUseIntegerPairAlgorithm"));
-            }
-          }
-
-          Long key = keyMeta.getInteger(keyData, 0);
-          Long value = valueMeta.getInteger(valueData, 0);
-          data.longIndex.put(key, value);
-        } else {
-          if (data.hashIndex == null) {
-            data.hashIndex = new ByteArrayHashIndex(keyMeta);
+        if (meta.isUsingIntegerPair() && !data.metadataVerifiedIntegerPair) {
+          data.metadataVerifiedIntegerPair = true;
+          if (keyMeta.size() != 1
+              || valueMeta.size() != 1
+              || !keyMeta.getValueMeta(0).isInteger()
+              || !valueMeta.getValueMeta(0).isInteger()) {
+
+            throw new HopValueException(
+                BaseMessages.getString(
+                    PKG, "StreamLookup.Exception.CanNotUseIntegerPairAlgorithm"));
           }
-          data.hashIndex.put(
-              RowMeta.extractData(keyMeta, keyData), RowMeta.extractData(valueMeta, valueData));
         }
+        if (data.index == null) {
+          data.index = new CompactRowHashIndex(keyMeta, valueMeta);
+        }
+        data.index.put(keyData, valueData);
       }
     } else {
       // We can't just put Object[] in the map The compare function is not in it.
@@ -341,7 +355,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     }
   }
 
-  private Object[] getFromCache(IRowMeta keyMeta, Object[] keyData) throws HopValueException {
+  private Object[] getFromCache(IRowMeta keyMeta, Object[] keyData) throws HopException {
     if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, null);
@@ -353,26 +367,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
         keyValue = data.list.get(idx);
         return keyValue.getValue();
       } else {
-        if (meta.isUsingIntegerPair()) {
-          Long value = data.longIndex.get(keyMeta.getInteger(keyData, 0));
-          if (value == null) {
-            return null;
-          }
-          return new Object[] {
-            value,
-          };
-        } else {
-          try {
-            byte[] value = data.hashIndex.get(RowMeta.extractData(keyMeta, keyData));
-            if (value == null) {
-              return null;
-            }
-            return RowMeta.getRow(data.cacheValueMeta, value);
-          } catch (Exception e) {
-            logError("Oops", e);
-            throw new HopRuntimeException(e);
-          }
-        }
+        return data.index.get(keyData);
       }
     } else {
       return data.look.get(new RowMetaAndData(keyMeta, keyData));
@@ -505,8 +500,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     //
     data.look = null;
     data.list = null;
-    data.hashIndex = null;
-    data.longIndex = null;
+    data.index = null;
 
     super.dispose();
   }
@@ -25,8 +25,7 @@ import java.util.Map;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopRuntimeException;
 import org.apache.hop.core.exception.HopValueException;
-import org.apache.hop.core.hash.ByteArrayHashIndex;
-import org.apache.hop.core.hash.LongHashIndex;
+import org.apache.hop.core.hash.CompactRowHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -63,8 +62,8 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
 
   public Comparator<KeyValue> comparator;
 
-  public ByteArrayHashIndex hashIndex;
-  public LongHashIndex longIndex;
+  /** The lookup table when memory preservation is active and no sorted list is used */
+  public CompactRowHashIndex index;
 
   public IRowMeta lookupMeta;
 
@@ -87,8 +86,7 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
   public StreamLookupData() {
     super();
     look = new HashMap<>();
-    hashIndex = null;
-    longIndex = new LongHashIndex();
+    index = null;
     list = new ArrayList<>();
     metadataVerifiedIntegerPair = false;
     hasLookupRows = false;
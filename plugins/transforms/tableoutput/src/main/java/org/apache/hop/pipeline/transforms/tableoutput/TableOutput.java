@@ -22,8 +22,13 @@ import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
@@ -32,6 +37,7 @@ import org.apache.hop.core.exception.HopDatabaseBatchException;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -42,8 +48,17 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformScheduler;
+import org.apache.hop.pipeline.transform.cache.SharedLookupCache;
 
-/** Writes rows to a database table. */
+/**
+ * Writes rows to a database table.
+ *
+ * <p>With writer connections, the batches are handed to a bounded queue. A number of writers, each
+ * with a connection of its own, insert and commit them in the background while the transform fills
+ * the next batches. The written rows are passed on, or sent to the error handling, by the transform
+ * itself.
+ */
 public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData> {
 
   private static final Class<?> PKG = TableOutputMeta.class;
@@ -72,6 +87,15 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       if (first && meta.isTruncateTable() && !meta.isOnlyWhenHaveRows()) {
         truncateTable();
       }
+      if (data.writers != null) {
+        try {
+          flushWriteBatches();
+        } catch (HopException e) {
+          logError("Because of an error, this transform can't continue: ", e);
+          setErrors(1);
+          stopAll();
+        }
+      }
       return false;
     }
 
@@ -133,13 +157,26 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
           }
         }
       }
+
+      if (data.nrWriters > 0) {
+        // The writers get a copy of the insert layout, without the table name field if needed
+        //
+        if (meta.isTableNameInField()) {
+          findTableNameField(getInputRowMeta());
+        }
+        startWriters();
+      }
     }
 
     try {
-      Object[] outputRowData = writeToTable(getInputRowMeta(), r);
-      if (outputRowData != null) {
-        putRow(data.outputRowMeta, outputRowData); // in case we want it go further...
-        incrementLinesOutput();
+      if (data.writers != null) {
+        addToWriteBatch(getInputRowMeta(), r);
+      } else {
+        Object[] outputRowData = writeToTable(getInputRowMeta(), r);
+        if (outputRowData != null) {
+          putRow(data.outputRowMeta, outputRowData); // in case we want it go further...
+          incrementLinesOutput();
+        }
       }
 
       if (checkFeedback(getLinesRead()) && isBasic()) {
@@ -166,11 +203,8 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     }
 
     PreparedStatement insertStatement = null;
-    Object[] insertRowData;
     Object[] outputRowData = r;
 
-    String tableName = null;
-
     boolean sendToErrorRow = false;
     String errorMessage = null;
     boolean rowIsSafe = false;
@@ -179,77 +213,8 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     boolean batchProblem = false;
     Object generatedKey = null;
 
-    if (meta.isTableNameInField()) {
-      // Cache the position of the table name field
-      if (data.indexOfTableNameField < 0) {
-        String realTablename = resolve(meta.getTableNameField());
-        data.indexOfTableNameField = rowMeta.indexOfValue(realTablename);
-        if (data.indexOfTableNameField < 0) {
-          String message = "Unable to find table name field [" + realTablename + "] in input row";
-          logError(message);
-          throw new HopTransformException(message);
-        }
-        if (!meta.isTableNameInTable() && !meta.isSpecifyFields()) {
-          data.insertRowMeta.removeValueMeta(data.indexOfTableNameField);
-        }
-      }
-      tableName = rowMeta.getString(r, data.indexOfTableNameField);
-      if (!meta.isTableNameInTable() && !meta.isSpecifyFields()) {
-        // If the name of the table should not be inserted itself, remove the table name
-        // from the input row data as well. This forcibly creates a copy of r
-        //
-        insertRowData = RowDataUtil.removeItem(rowMeta.cloneRow(r), data.indexOfTableNameField);
-      } else {
-        insertRowData = r;
-      }
-    } else if (meta.isPartitioningEnabled()
-        && (meta.isPartitioningDaily() || meta.isPartitioningMonthly())
-        && (!Utils.isEmpty(meta.getPartitioningField()))) {
-      // Initialize some stuff!
-      if (data.indexOfPartitioningField < 0) {
-        data.indexOfPartitioningField = rowMeta.indexOfValue(resolve(meta.getPartitioningField()));
-        if (data.indexOfPartitioningField < 0) {
-          throw new HopTransformException(
-              "Unable to find field [" + meta.getPartitioningField() + "] in the input row!");
-        }
-
-        if (meta.isPartitioningDaily()) {
-          data.dateFormater = new SimpleDateFormat("yyyyMMdd");
-        } else {
-          data.dateFormater = new SimpleDateFormat("yyyyMM");
-        }
-      }
-
-      IValueMeta partitioningValue = rowMeta.getValueMeta(data.indexOfPartitioningField);
-      if (!partitioningValue.isDate() || r[data.indexOfPartitioningField] == null) {
-        throw new HopTransformException(
-            "Sorry, the partitioning field needs to contain a data value and can't be empty!");
-      }
-
-      Object partitioningValueData = rowMeta.getDate(r, data.indexOfPartitioningField);
-      tableName =
-          resolve(meta.getTableName())
-              + "_"
-              + data.dateFormater.format((Date) partitioningValueData);
-      insertRowData = r;
-    } else {
-      tableName = data.tableName;
-      insertRowData = r;
-    }
-
-    if (meta.isSpecifyFields()) {
-      //
-      // The values to insert are those in the fields sections
-      //
-      insertRowData = new Object[data.valuenrs.length];
-      for (int idx = 0; idx < data.valuenrs.length; idx++) {
-        insertRowData[idx] = r[data.valuenrs[idx]];
-      }
-    }
-
-    if (Utils.isEmpty(tableName)) {
-      throw new HopTransformException("The tablename is not defined (empty)");
-    }
+    String tableName = getTableName(rowMeta, r);
+    Object[] insertRowData = getInsertRowData(rowMeta, r);
 
     insertStatement = data.preparedStatements.get(tableName);
     if (insertStatement == null) {
@@ -349,17 +314,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       } else {
         data.db.clearBatch(insertStatement);
         data.db.rollback();
-        StringBuilder msg =
-            new StringBuilder("Error batch inserting rows into table [" + tableName + "].");
-        msg.append(Const.CR);
-        msg.append("Errors encountered (first 10):").append(Const.CR);
-        for (int x = 0; x < be.getExceptionsList().size() && x < 10; x++) {
-          Exception exception = be.getExceptionsList().get(x);
-          if (exception.getMessage() != null) {
-            msg.append(exception.getMessage()).append(Const.CR);
-          }
-        }
-        throw new HopException(msg.toString(), be);
+        throw new HopException(getBatchErrorMessage(tableName, be), be);
       }
     } catch (HopDatabaseException dbe) {
       if (getTransformMeta().isDoingErrorHandling()) {
@@ -449,6 +404,246 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     return outputRowData;
   }
 
+  /**
+   * Figure out the table to write the row to.
+   *
+   * @param rowMeta the layout of the input row
+   * @param r the input row
+   * @return the name of the table
+   * @throws HopException in case the table can't be determined
+   */
+  private String getTableName(IRowMeta rowMeta, Object[] r) throws HopException {
+    String tableName;
+    if (meta.isTableNameInField()) {
+      if (data.indexOfTableNameField < 0) {
+        findTableNameField(rowMeta);
+      }
+      tableName = rowMeta.getString(r, data.indexOfTableNameField);
+    } else if (meta.isPartitioningEnabled()
+        && (meta.isPartitioningDaily() || meta.isPartitioningMonthly())
+        && (!Utils.isEmpty(meta.getPartitioningField()))) {
+      // Initialize some stuff!
+      if (data.indexOfPartitioningField < 0) {
+        data.indexOfPartitioningField = rowMeta.indexOfValue(resolve(meta.getPartitioningField()));
+        if (data.indexOfPartitioningField < 0) {
+          throw new HopTransformException(
+              "Unable to find field [" + meta.getPartitioningField() + "] in the input row!");
+        }
+
+        if (meta.isPartitioningDaily()) {
+          data.dateFormater = new SimpleDateFormat("yyyyMMdd");
+        } else {
+          data.dateFormater = new SimpleDateFormat("yyyyMM");
+        }
+      }
+
+      IValueMeta partitioningValue = rowMeta.getValueMeta(data.indexOfPartitioningField);
+      if (!partitioningValue.isDate() || r[data.indexOfPartitioningField] == null) {
+        throw new HopTransformException(
+            "Sorry, the partitioning field needs to contain a data value and can't be empty!");
+      }
+
+      Object partitioningValueData = rowMeta.getDate(r, data.indexOfPartitioningField);
+      tableName =
+          resolve(meta.getTableName())
+              + "_"
+              + data.dateFormater.format((Date) partitioningValueData);
+    } else {
+      tableName = data.tableName;
+    }
+
+    if (Utils.isEmpty(tableName)) {
+      throw new HopTransformException("The tablename is not defined (empty)");
+    }
+    return tableName;
+  }
+
+  /**
+   * Cache the position of the table name field and remove it from the insert layout if the table
+   * name isn't inserted itself.
+   *
+   * @param rowMeta the layout of the input row
+   * @throws HopTransformException in case the field can't be found
+   */
+  private void findTableNameField(IRowMeta rowMeta) throws HopTransformException {
+    String realTablename = resolve(meta.getTableNameField());
+    data.indexOfTableNameField = rowMeta.indexOfValue(realTablename);
+    if (data.indexOfTableNameField < 0) {
+      String message = "Unable to find table name field [" + realTablename + "] in input row";
+      logError(message);
+      throw new HopTransformException(message);
+    }
+    if (!meta.isTableNameInTable() && !meta.isSpecifyFields()) {
+      data.insertRowMeta.removeValueMeta(data.indexOfTableNameField);
+    }
+  }
+
+  /**
+   * Get the values to insert from the input row.
+   *
+   * @param rowMeta the layout of the input row
+   * @param r the input row
+   * @return the values to insert
+   * @throws HopValueException in case the input row can't be copied
+   */
+  private Object[] getInsertRowData(IRowMeta rowMeta, Object[] r) throws HopValueException {
+    if (meta.isSpecifyFields()) {
+      //
+      // The values to insert are those in the fields sections
+      //
+      Object[] insertRowData = new Object[data.valuenrs.length];
+      for (int idx = 0; idx < data.valuenrs.length; idx++) {
+        insertRowData[idx] = r[data.valuenrs[idx]];
+      }
+      return insertRowData;
+    }
+    if (meta.isTableNameInField() && !meta.isTableNameInTable()) {
+      // If the name of the table should not be inserted itself, remove the table name
+      // from the input row data as well. This forcibly creates a copy of r
+      //
+      return RowDataUtil.removeItem(rowMeta.cloneRow(r), data.indexOfTableNameField);
+    }
+    return r;
+  }
+
+  static String getBatchErrorMessage(String tableName, HopDatabaseBatchException be) {
+    StringBuilder msg =
+        new StringBuilder("Error batch inserting rows into table [" + tableName + "].");
+    msg.append(Const.CR);
+    msg.append("Errors encountered (first 10):").append(Const.CR);
+    for (int x = 0; x < be.getExceptionsList().size() && x < 10; x++) {
+      Exception exception = be.getExceptionsList().get(x);
+      if (exception.getMessage() != null) {
+        msg.append(exception.getMessage()).append(Const.CR);
+      }
+    }
+    return msg.toString();
+  }
+
+  /** Start the writers now that we know the layout of the values to insert. */
+  private void startWriters() throws HopException {
+    // The writers can't see uncommitted table changes of our own connection, like a truncate
+    //
+    data.db.commit();
+
+    data.writerExecutor =
+        Executors.newFixedThreadPool(
+            data.writers.size(),
+            runnable -> {
+              Thread thread = new Thread(runnable, getTransformName() + " - table writer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    for (TableOutputWriter writer : data.writers) {
+      writer.setInsertRowMeta(data.insertRowMeta);
+      data.writerExecutor.execute(writer);
+    }
+  }
+
+  /**
+   * Add the row to the batch of its table. A full batch is handed over to the writers.
+   *
+   * @param rowMeta the layout of the input row
+   * @param r the input row
+   * @throws HopException in case a written batch failed
+   */
+  private void addToWriteBatch(IRowMeta rowMeta, Object[] r) throws HopException {
+    String tableName = getTableName(rowMeta, r);
+    Object[] insertRowData = getInsertRowData(rowMeta, r);
+
+    TableOutputBatch batch = data.writeBatches.computeIfAbsent(tableName, TableOutputBatch::new);
+    batch.addRow(insertRowData, r);
+    if (batch.size() >= data.commitSize) {
+      data.writeBatches.remove(tableName);
+      submitWriteBatch(batch);
+    }
+  }
+
+  /**
+   * Hand a batch over to the writers. This waits while all writers are busy and the queue is full.
+   */
+  private void submitWriteBatch(TableOutputBatch batch) throws HopException {
+    putWrittenBatches();
+
+    TransformScheduler.block(() -> isStopped() || data.batchQueue.offer(batch));
+    if (!isStopped()) {
+      data.pendingBatches++;
+    }
+  }
+
+  /** Hand over the partial batches and wait until all batches are written. */
+  private void flushWriteBatches() throws HopException {
+    for (TableOutputBatch batch : data.writeBatches.values()) {
+      submitWriteBatch(batch);
+    }
+    data.writeBatches.clear();
+
+    while (data.pendingBatches > 0 && !isStopped()) {
+      TransformScheduler.block(() -> isStopped() || !data.writtenBatches.isEmpty());
+      putWrittenBatches();
+    }
+  }
+
+  /** Pass on the rows of the written batches and send the rows which failed to error handling. */
+  private void putWrittenBatches() throws HopException {
+    TableOutputBatch batch;
+    while ((batch = data.writtenBatches.poll()) != null) {
+      data.pendingBatches--;
+      if (batch.getFailure() != null) {
+        throw batch.getFailure();
+      }
+      List<Object[]> outputRows = batch.getOutputRows();
+      for (int i = 0; i < outputRows.size(); i++) {
+        Object[] row = outputRows.get(i);
+        if (batch.isError(i)) {
+          putError(
+              data.outputRowMeta,
+              row,
+              1L,
+              batch.getErrorDescriptions()[i],
+              null,
+              batch.getErrorCodes()[i]);
+        } else {
+          putRow(data.outputRowMeta, row);
+          incrementLinesOutput();
+        }
+      }
+    }
+  }
+
+  /**
+   * Stop the writers and close their connections. When the transform ended normally the writers
+   * finish the batches on the queue first, otherwise they are interrupted.
+   */
+  private void stopWriters() {
+    if (data.writerExecutor != null) {
+      for (int i = 0; i < data.writers.size() && !isStopped(); i++) {
+        TransformScheduler.block(
+            () -> isStopped() || data.batchQueue.offer(TableOutputWriter.STOP));
+      }
+      if (isStopped()) {
+        data.writerExecutor.shutdownNow();
+      } else {
+        data.writerExecutor.shutdown();
+      }
+      TransformScheduler.runBlocking(
+          () -> {
+            try {
+              data.writerExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      data.writerExecutor = null;
+    }
+    if (data.writers != null) {
+      for (TableOutputWriter writer : data.writers) {
+        writer.getDb().disconnect();
+      }
+      data.writers = null;
+    }
+  }
+
   private void processBatchException(
       String errorMessage, int[] updateCounts, List<Exception> exceptionsList) throws HopException {
     // There was an error with the commit
@@ -563,6 +758,18 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
           data.tableName = resolve(meta.getTableName());
         }
 
+        data.nrWriters = Const.toInt(resolve(meta.getWriterConnections()), 0);
+        if (data.nrWriters > 0) {
+          // The writers need batches and a connection of their own
+          //
+          if (!data.batchMode || !Utils.isEmpty(data.db.getConnectionGroup())) {
+            logBasic(BaseMessages.getString(PKG, "TableOutput.Log.WriterConnectionsNotUsed"));
+            data.nrWriters = 0;
+          } else {
+            connectWriters();
+          }
+        }
+
         return true;
       } catch (HopException e) {
         logError("An error occurred initializing this transform: " + e.getMessage());
@@ -573,6 +780,30 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     return false;
   }
 
+  private void connectWriters() throws HopException {
+    data.batchQueue = new ArrayBlockingQueue<>(data.nrWriters);
+    data.writtenBatches = new ConcurrentLinkedQueue<>();
+    data.writeBatches = new LinkedHashMap<>();
+    data.writers = new ArrayList<>();
+    for (int i = 0; i < data.nrWriters; i++) {
+      Database db = new Database(this, this, data.databaseMeta);
+      data.writers.add(
+          new TableOutputWriter(
+              getLogChannel(),
+              db,
+              resolve(meta.getSchemaName()),
+              getTransformMeta().isDoingErrorHandling(),
+              meta.isIgnoreErrors(),
+              data.batchQueue,
+              data.writtenBatches));
+      db.connect();
+      db.setCommit(data.commitSize);
+    }
+    if (isBasic()) {
+      logBasic(BaseMessages.getString(PKG, "TableOutput.Log.WriterConnections", data.nrWriters));
+    }
+  }
+
   void truncateTable() throws HopDatabaseException {
     if (!meta.isPartitioningEnabled()
         && !meta.isTableNameInField()
@@ -1150,10 +1381,12 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
 
   @Override
   public void dispose() {
+    stopWriters();
 
     if (data.db != null) {
       try {
         emptyAndCommitBatchBuffers(true);
+        invalidateSharedLookups();
       } finally {
         try {
           // close prepared statements
@@ -1178,11 +1411,27 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     super.dispose();
   }
 
+  /** Lookups which share their cached rows no longer see the rows we wrote to the connection. */
+  private void invalidateSharedLookups() {
+    if (getLinesOutput() == 0) {
+      return;
+    }
+    try {
+      SharedLookupCache.getInstance()
+          .invalidate(SharedLookupCache.getConnectionKey(data.databaseMeta, this));
+    } catch (HopDatabaseException e) {
+      logError("Unable to invalidate the shared lookup cache of the connection", e);
+    }
+  }
+
   // Force the batched up rows to the database in a single-threaded scenario
   // (Beam as well)
   //
   @Override
   public void batchComplete() throws HopException {
+    if (data.writers != null) {
+      flushWriteBatches();
+    }
     emptyAndCommitBatchBuffers(false);
   }
 
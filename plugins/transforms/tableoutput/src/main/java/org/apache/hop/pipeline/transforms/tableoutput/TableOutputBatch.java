@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.hop.core.exception.HopException;
+
+/**
+ * A batch of rows for one table which is written by a {@link TableOutputWriter}. After writing, it
+ * tells the transform which rows can be passed on and which rows failed.
+ */
+@Getter
+public class TableOutputBatch {
+  private final String tableName;
+
+  /** The values to insert */
+  private final List<Object[]> insertRows = new ArrayList<>();
+
+  /** The rows to pass on once they're written, in the same order as the values to insert */
+  private final List<Object[]> outputRows = new ArrayList<>();
+
+  /** The error description of every row which couldn't be written, null for the other rows */
+  private String[] errorDescriptions;
+
+  /** The error code of every row which couldn't be written, null for the other rows */
+  private String[] errorCodes;
+
+  /** The error which failed the complete batch, the transform needs to stop */
+  @Setter private HopException failure;
+
+  public TableOutputBatch(String tableName) {
+    this.tableName = tableName;
+  }
+
+  /**
+   * Add a row to the batch.
+   *
+   * @param insertRow the values to insert
+   * @param outputRow the row to pass on once it's written
+   */
+  public void addRow(Object[] insertRow, Object[] outputRow) {
+    insertRows.add(insertRow);
+    outputRows.add(outputRow);
+  }
+
+  public int size() {
+    return insertRows.size();
+  }
+
+  /**
+   * Flag a row of the batch as an error row.
+   *
+   * @param index the index of the row in the batch
+   * @param description the error description
+   * @param code the error code
+   */
+  public void setError(int index, String description, String code) {
+    if (errorDescriptions == null) {
+      errorDescriptions = new String[size()];
+      errorCodes = new String[size()];
+    }
+    errorDescriptions[index] = description;
+    errorCodes[index] = code;
+  }
+
+  /**
+   * @param index the index of the row in the batch
+   * @return true if the row couldn't be written
+   */
+  public boolean isError(int index) {
+    return errorDescriptions != null && errorDescriptions[index] != null;
+  }
+}
@@ -25,6 +25,9 @@ import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.row.IRowMeta;
@@ -69,6 +72,24 @@ public class TableOutputData extends BaseTransformData implements ITransformData
 
   public int commitSize;
 
+  /** The number of writer connections, 0 if the rows are written on the transform thread */
+  public int nrWriters;
+
+  public List<TableOutputWriter> writers;
+  public ExecutorService writerExecutor;
+
+  /** The batches being filled, per table */
+  public Map<String, TableOutputBatch> writeBatches;
+
+  /** The full batches waiting for a writer */
+  public BlockingQueue<TableOutputBatch> batchQueue;
+
+  /** The batches the writers are done with */
+  public Queue<TableOutputBatch> writtenBatches;
+
+  /** The number of batches handed to the writers which weren't picked up again */
+  public int pendingBatches;
+
   public TableOutputData() {
     super();
 
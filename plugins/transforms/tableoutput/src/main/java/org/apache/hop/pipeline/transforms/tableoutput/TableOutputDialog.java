@@ -124,6 +124,9 @@ public class TableOutputDialog extends BaseTransformDialog {
   private Label wlBatch;
   private Button wBatch;
 
+  private Label wlWriterConnections;
+  private TextVar wWriterConnections;
+
   private Button wUsePart;
 
   private Label wlPartField;
@@ -707,13 +710,35 @@ public class TableOutputDialog extends BaseTransformDialog {
           }
         });
 
+    // Writer connections
+    wlWriterConnections = new Label(wMainComp, SWT.RIGHT);
+    wlWriterConnections.setText(
+        BaseMessages.getString(PKG, "TableOutputDialog.WriterConnections.Label"));
+    wlWriterConnections.setToolTipText(
+        BaseMessages.getString(PKG, "TableOutputDialog.WriterConnections.Tooltip"));
+    PropsUi.setLook(wlWriterConnections);
+    FormData fdlWriterConnections = new FormData();
+    fdlWriterConnections.left = new FormAttachment(0, 0);
+    fdlWriterConnections.top = new FormAttachment(wBatch, margin);
+    fdlWriterConnections.right = new FormAttachment(middle, -margin);
+    wlWriterConnections.setLayoutData(fdlWriterConnections);
+    wWriterConnections = new TextVar(variables, wMainComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wWriterConnections.setToolTipText(
+        BaseMessages.getString(PKG, "TableOutputDialog.WriterConnections.Tooltip"));
+    PropsUi.setLook(wWriterConnections);
+    FormData fdWriterConnections = new FormData();
+    fdWriterConnections.left = new FormAttachment(middle, 0);
+    fdWriterConnections.top = new FormAttachment(wlWriterConnections, 0, SWT.CENTER);
+    fdWriterConnections.right = new FormAttachment(100, 0);
+    wWriterConnections.setLayoutData(fdWriterConnections);
+
     // NameInField
     Label wlNameInField = new Label(wMainComp, SWT.RIGHT);
     wlNameInField.setText(BaseMessages.getString(PKG, "TableOutputDialog.NameInField.Label"));
     PropsUi.setLook(wlNameInField);
     FormData fdlNameInField = new FormData();
     fdlNameInField.left = new FormAttachment(0, 0);
-    fdlNameInField.top = new FormAttachment(wBatch, margin * 5);
+    fdlNameInField.top = new FormAttachment(wWriterConnections, margin * 5);
     fdlNameInField.right = new FormAttachment(middle, -margin);
     wlNameInField.setLayoutData(fdlNameInField);
     wNameInField = new Button(wMainComp, SWT.CHECK);
@@ -1367,6 +1392,10 @@ public class TableOutputDialog extends BaseTransformDialog {
     wlBatch.setEnabled(enableBatch);
     wBatch.setEnabled(enableBatch);
 
+    // The writer connections write batches
+    wlWriterConnections.setEnabled(useBatch);
+    wWriterConnections.setEnabled(useBatch);
+
     boolean specifyFields = wSpecifyFields.getSelection();
     wFields.setEnabled(specifyFields);
     wGetFields.setEnabled(specifyFields);
@@ -1479,6 +1508,7 @@ public class TableOutputDialog extends BaseTransformDialog {
     wBatch.setSelection(input.isUseBatchUpdate());
 
     wCommit.setText(input.getCommitSize());
+    wWriterConnections.setText(Const.NVL(input.getWriterConnections(), ""));
 
     wUsePart.setSelection(input.isPartitioningEnabled());
     wPartDaily.setSelection(input.isPartitioningDaily());
@@ -1557,6 +1587,7 @@ public class TableOutputDialog extends BaseTransformDialog {
     info.setOnlyWhenHaveRows(wOnlyWhenHaveRows.getSelection());
     info.setIgnoreErrors(wIgnore.getSelection());
     info.setUseBatchUpdate(wBatch.getSelection());
+    info.setWriterConnections(wWriterConnections.getText());
     info.setPartitioningEnabled(wUsePart.getSelection());
     info.setPartitioningField(wPartField.getText());
     info.setPartitioningDaily(wPartDaily.getSelection());
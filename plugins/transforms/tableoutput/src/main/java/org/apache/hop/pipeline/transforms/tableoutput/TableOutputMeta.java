@@ -115,6 +115,16 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
       injectionKeyDescription = "TableOutputMeta.Injection.UseBatch.Field")
   private boolean useBatchUpdate;
 
+  /**
+   * The number of extra connections which write the batches in the background. Empty or 0 writes
+   * the batches on the transform thread, in a single transaction.
+   */
+  @HopMetadataProperty(
+      key = "writer_connections",
+      injectionKey = "WRITER_CONNECTIONS",
+      injectionKeyDescription = "TableOutputMeta.Injection.WriterConnections.Field")
+  private String writerConnections;
+
   @HopMetadataProperty(
       key = "partitioning_enabled",
       injectionKey = "PARTITION_OVER_TABLES",
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import lombok.Getter;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseBatchException;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * Writes batches of rows to the database on a connection of its own. The batches are taken from a
+ * queue which is filled by the transform and every batch is committed separately. The written
+ * batches are handed back to the transform which passes the rows on, or sends them to the error
+ * handling.
+ */
+public class TableOutputWriter implements Runnable {
+
+  /** Put this on the queue to stop a writer */
+  public static final TableOutputBatch STOP = new TableOutputBatch(null);
+
+  private final ILogChannel log;
+  @Getter private final Database db;
+  private final String schemaName;
+  private final boolean errorHandling;
+  private final boolean ignoreErrors;
+  private final BlockingQueue<TableOutputBatch> batchQueue;
+  private final Queue<TableOutputBatch> writtenBatches;
+
+  /** The insert row layout, every writer has its own copy as value metadata isn't thread-safe */
+  private IRowMeta insertRowMeta;
+
+  private final Map<String, PreparedStatement> preparedStatements = new HashMap<>();
+  private int warnings;
+
+  /**
+   * @param log the log channel to use
+   * @param db the connected database to write to
+   * @param schemaName the schema of the table(s)
+   * @param errorHandling true if the rows which fail are sent to the error handling
+   * @param ignoreErrors true if the rows which fail are ignored
+   * @param batchQueue the queue to take the batches to write from
+   * @param writtenBatches the queue to hand back the written batches
+   */
+  public TableOutputWriter(
+      ILogChannel log,
+      Database db,
+      String schemaName,
+      boolean errorHandling,
+      boolean ignoreErrors,
+      BlockingQueue<TableOutputBatch> batchQueue,
+      Queue<TableOutputBatch> writtenBatches) {
+    this.log = log;
+    this.db = db;
+    this.schemaName = schemaName;
+    this.errorHandling = errorHandling;
+    this.ignoreErrors = ignoreErrors;
+    this.batchQueue = batchQueue;
+    this.writtenBatches = writtenBatches;
+  }
+
+  /**
+   * Set the layout of the values to insert, before the writer is started.
+   *
+   * @param insertRowMeta the layout of the values to insert
+   */
+  public void setInsertRowMeta(IRowMeta insertRowMeta) {
+    this.insertRowMeta = insertRowMeta.clone();
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (true) {
+        TableOutputBatch batch = batchQueue.take();
+        if (batch == STOP) {
+          break;
+        }
+        try {
+          write(batch);
+        } catch (HopException e) {
+          batch.setFailure(e);
+        } catch (Exception e) {
+          batch.setFailure(new HopException("Unexpected error writing a batch of rows", e));
+        }
+        writtenBatches.add(batch);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      closePreparedStatements();
+    }
+  }
+
+  /**
+   * Insert the rows of the batch and commit them.
+   *
+   * @param batch the batch to write
+   * @throws HopException in case the batch failed and there is no error handling
+   */
+  void write(TableOutputBatch batch) throws HopException {
+    String tableName = batch.getTableName();
+    PreparedStatement insertStatement = getInsertStatement(tableName);
+
+    // The indexes of the rows in the batch of the statement, the others failed already
+    //
+    int[] batchIndexes = new int[batch.size()];
+    int nrBatched = 0;
+
+    try {
+      List<Object[]> insertRows = batch.getInsertRows();
+      for (int i = 0; i < insertRows.size(); i++) {
+        Object[] insertRow = insertRows.get(i);
+        try {
+          db.setValues(insertRowMeta, insertRow, insertStatement);
+          db.insertRow(insertStatement, true, false);
+          batchIndexes[nrBatched++] = i;
+        } catch (HopDatabaseBatchException be) {
+          throw be;
+        } catch (HopDatabaseException dbe) {
+          // Without batch updates, the row is inserted right away
+          //
+          if (errorHandling) {
+            batch.setError(i, dbe.toString(), "TOP001");
+          } else if (ignoreErrors) {
+            if (warnings < 20 && log.isBasic()) {
+              log.logBasic(
+                  "WARNING: Couldn't insert row into table: "
+                      + insertRowMeta.getString(insertRow)
+                      + Const.CR
+                      + dbe.getMessage());
+            }
+            warnings++;
+          } else {
+            throw new HopException(
+                "Error inserting row into table ["
+                    + tableName
+                    + "] with values: "
+                    + insertRowMeta.getString(insertRow),
+                dbe);
+          }
+        }
+      }
+
+      if (db.getUseBatchInsert(true)) {
+        try {
+          insertStatement.executeBatch();
+          insertStatement.clearBatch();
+        } catch (SQLException ex) {
+          throw Database.createHopDatabaseBatchException("Error updating batch", ex);
+        }
+      }
+      db.commit();
+    } catch (HopDatabaseBatchException be) {
+      db.clearBatch(insertStatement);
+      if (!errorHandling) {
+        db.rollback();
+        throw new HopException(TableOutput.getBatchErrorMessage(tableName, be), be);
+      }
+      db.commit(true);
+
+      // Flag the rows which failed, like the transform does for a batch on its own connection
+      //
+      int[] updateCounts = be.getUpdateCounts();
+      List<Exception> exceptionsList = be.getExceptionsList();
+      int errNr = 0;
+      for (int b = 0; b < nrBatched; b++) {
+        if (updateCounts == null) {
+          batch.setError(batchIndexes[b], be.toString(), "TOP0003");
+        } else if (b >= updateCounts.length || updateCounts[b] <= 0) {
+          String message = be.toString();
+          if (errNr < exceptionsList.size()) {
+            message = exceptionsList.get(errNr++).toString();
+          }
+          batch.setError(batchIndexes[b], message, "TOP0002");
+        }
+      }
+    } catch (HopException e) {
+      try {
+        db.clearBatch(insertStatement);
+        db.rollback();
+      } catch (HopDatabaseException rollbackException) {
+        log.logError("Unable to roll back a failed batch", rollbackException);
+      }
+      throw e;
+    }
+  }
+
+  private PreparedStatement getInsertStatement(String tableName) throws HopException {
+    PreparedStatement insertStatement = preparedStatements.get(tableName);
+    if (insertStatement == null) {
+      String sql = db.getInsertStatement(schemaName, tableName, insertRowMeta);
+      insertStatement = db.prepareSql(sql);
+      preparedStatements.put(tableName, insertStatement);
+    }
+    return insertStatement;
+  }
+
+  private void closePreparedStatements() {
+    for (PreparedStatement preparedStatement : preparedStatements.values()) {
+      try {
+        preparedStatement.close();
+      } catch (SQLException e) {
+        log.logError("An error occurred closing a prepared statement: " + e.getMessage());
+      }
+    }
+    preparedStatements.clear();
+  }
+}
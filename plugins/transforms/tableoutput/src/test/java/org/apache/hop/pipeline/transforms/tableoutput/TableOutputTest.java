@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.tableoutput;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -32,6 +33,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
@@ -39,6 +42,7 @@ import org.apache.hop.core.database.IDatabase;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
@@ -49,6 +53,7 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transform.TransformPartitioningMeta;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 class TableOutputTest {
   private DatabaseMeta databaseMeta;
@@ -192,6 +197,37 @@ class TableOutputTest {
     verify(tableOutputSpy, never()).truncateTable();
   }
 
+  @Test
+  void testProcessRow_writersDoNotInsertTableNameField() throws Exception {
+    IRowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("id"));
+    inputRowMeta.addValueMeta(new ValueMetaString("table"));
+    inputRowMeta.addValueMeta(new ValueMetaString("name"));
+    doReturn(inputRowMeta).when(tableOutputSpy).getInputRowMeta();
+    doReturn(new Object[] {1L, "target", "one"}).when(tableOutputSpy).getRow();
+
+    when(tableOutputMeta.isTableNameInField()).thenReturn(true);
+    when(tableOutputMeta.getTableNameField()).thenReturn("table");
+    when(tableOutputMeta.isTableNameInTable()).thenReturn(false);
+    when(tableOutputMeta.isSpecifyFields()).thenReturn(false);
+
+    TableOutputWriter writer = mock(TableOutputWriter.class);
+    tableOutputData.nrWriters = 1;
+    tableOutputData.writers = List.of(writer);
+    tableOutputData.writeBatches = new LinkedHashMap<>();
+    tableOutputData.commitSize = 100;
+    tableOutputData.indexOfTableNameField = -1;
+
+    assertTrue(tableOutputSpy.processRow());
+
+    ArgumentCaptor<IRowMeta> insertRowMeta = ArgumentCaptor.forClass(IRowMeta.class);
+    verify(writer).setInsertRowMeta(insertRowMeta.capture());
+    assertArrayEquals(new String[] {"id", "name"}, insertRowMeta.getValue().getFieldNames());
+    assertArrayEquals(
+        new Object[] {1L, "one"},
+        tableOutputData.writeBatches.get("target").getInsertRows().get(0));
+  }
+
   @Test
   void testInit_unsupportedConnection() {
 
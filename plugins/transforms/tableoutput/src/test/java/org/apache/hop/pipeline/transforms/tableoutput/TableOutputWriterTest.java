@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TableOutputWriterTest {
+  private Database db;
+  private PreparedStatement insertStatement;
+  private BlockingQueue<TableOutputBatch> batchQueue;
+  private Queue<TableOutputBatch> writtenBatches;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    db = mock(Database.class);
+    insertStatement = mock(PreparedStatement.class);
+    doReturn("INSERT").when(db).getInsertStatement(any(), anyString(), any(IRowMeta.class));
+    doReturn(insertStatement).when(db).prepareSql(anyString());
+    doReturn(true).when(db).getUseBatchInsert(anyBoolean());
+
+    batchQueue = new ArrayBlockingQueue<>(2);
+    writtenBatches = new ConcurrentLinkedQueue<>();
+  }
+
+  private TableOutputWriter createWriter(boolean errorHandling) {
+    TableOutputWriter writer =
+        new TableOutputWriter(
+            mock(ILogChannel.class), db, null, errorHandling, false, batchQueue, writtenBatches);
+    IRowMeta insertRowMeta = new RowMeta();
+    insertRowMeta.addValueMeta(new ValueMetaInteger("id"));
+    writer.setInsertRowMeta(insertRowMeta);
+    return writer;
+  }
+
+  private TableOutputBatch createBatch(int nrRows) {
+    TableOutputBatch batch = new TableOutputBatch("target");
+    for (long i = 0; i < nrRows; i++) {
+      batch.addRow(new Object[] {i}, new Object[] {i, "row " + i});
+    }
+    return batch;
+  }
+
+  @Test
+  void testWrittenBatchesAreCommitted() throws Exception {
+    TableOutputWriter writer = createWriter(false);
+    TableOutputBatch first = createBatch(3);
+    TableOutputBatch second = createBatch(2);
+    batchQueue.put(first);
+    batchQueue.put(second);
+
+    Thread thread = new Thread(writer);
+    thread.start();
+    batchQueue.put(TableOutputWriter.STOP);
+    thread.join();
+
+    assertSame(first, writtenBatches.poll());
+    assertSame(second, writtenBatches.poll());
+    assertNull(first.getFailure());
+    assertFalse(first.isError(0));
+    verify(db, times(5)).insertRow(insertStatement, true, false);
+    verify(insertStatement, times(2)).executeBatch();
+    verify(db, times(2)).commit();
+    verify(db, never()).rollback();
+    verify(db, times(1)).prepareSql(anyString());
+    verify(insertStatement).close();
+  }
+
+  @Test
+  void testFailedRowsAreFlaggedWithErrorHandling() throws Exception {
+    doThrow(new BatchUpdateException("duplicate key", new int[] {1, Statement.EXECUTE_FAILED, 1}))
+        .when(insertStatement)
+        .executeBatch();
+
+    TableOutputBatch batch = createBatch(3);
+    createWriter(true).write(batch);
+
+    assertFalse(batch.isError(0));
+    assertTrue(batch.isError(1));
+    assertFalse(batch.isError(2));
+    assertEquals("TOP0002", batch.getErrorCodes()[1]);
+    verify(db).commit(true);
+    verify(db, never()).rollback();
+  }
+
+  @Test
+  void testFailedBatchIsRolledBackWithoutErrorHandling() throws Exception {
+    doThrow(new BatchUpdateException()).when(insertStatement).executeBatch();
+
+    TableOutputBatch batch = createBatch(2);
+    HopException e = assertThrows(HopException.class, () -> createWriter(false).write(batch));
+
+    assertNotNull(e.getCause());
+    verify(db).rollback();
+    verify(db, never()).commit();
+  }
+}
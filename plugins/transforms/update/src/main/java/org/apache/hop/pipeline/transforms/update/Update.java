@@ -35,6 +35,7 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.cache.SharedLookupCache;
 
 /** Update data in a database table, does NOT ever perform an insert. */
 public class Update extends BaseTransform<UpdateMeta, UpdateData> {
@@ -554,11 +555,25 @@ public class Update extends BaseTransform<UpdateMeta, UpdateData> {
 
   @Override
   public void dispose() {
+    DatabaseMeta databaseMeta = data.db != null ? data.db.getDatabaseMeta() : null;
     // This is needed to properly handle transactions when we are using SingleThreadedExecutor
     commitBatch(true);
+    if (databaseMeta != null && (getLinesUpdated() > 0 || getLinesOutput() > 0)) {
+      invalidateSharedLookups(databaseMeta);
+    }
     super.dispose();
   }
 
+  /** Lookups which share their cached rows no longer see the rows we changed. */
+  private void invalidateSharedLookups(DatabaseMeta databaseMeta) {
+    try {
+      SharedLookupCache.getInstance()
+          .invalidate(SharedLookupCache.getConnectionKey(databaseMeta, this));
+    } catch (HopDatabaseException e) {
+      logError("Unable to invalidate the shared lookup cache of the connection", e);
+    }
+  }
+
   private void commitBatch(boolean dispose) {
     if (data.db != null) {
       try {
@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.xml.xsdvalidator;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import javax.xml.XMLConstants;
 import javax.xml.transform.Source;
@@ -29,10 +30,12 @@ import javax.xml.validation.Validator;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.util.CompiledArtifactCache;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -54,6 +57,9 @@ public class XsdValidator extends BaseTransform<XsdValidatorMeta, XsdValidatorDa
 
   static final String JAXP_SCHEMA_SOURCE = "http://java.sun.com/xml/jaxp/properties/schemaSource";
 
+  /** The type of the schemas in the compiled artifact cache */
+  private static final String XSD_ARTIFACT = "xsd";
+
   public XsdValidator(
       TransformMeta transformMeta,
       XsdValidatorMeta meta,
@@ -126,23 +132,13 @@ public class XsdValidator extends BaseTransform<XsdValidatorMeta, XsdValidatorDa
         xsdfilename = getInputRowMeta().getString(row, data.xsdindex);
       }
 
-      // Get XSD file
-      FileObject xsdfile =
-          StringUtils.isNotEmpty(xsdfilename) ? HopVfs.getFileObject(xsdfilename, variables) : null;
-
       try {
 
-        SchemaFactory factoryXSDValidator =
-            SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-
         // Get XML stream
         Source sourceXML = getSourceXML(getInputRowMeta().getString(row, data.xmlindex));
 
-        // create the schema
-        Schema schematXSD =
-            xsdfile != null
-                ? getXsdSchemaFromFile(xsdfile, factoryXSDValidator)
-                : getXsdSchema(xsdfilename, factoryXSDValidator);
+        // Get the schema, it's resolved once per XSD file by this transform copy
+        Schema schematXSD = getSchema(xsdfilename);
 
         // Create XSDValidator
         Validator xsdValidator = schematXSD.newValidator();
@@ -172,14 +168,6 @@ public class XsdValidator extends BaseTransform<XsdValidatorMeta, XsdValidatorDa
         validationmsg = ex.getMessage();
       } catch (IOException ex) {
         validationmsg = ex.getMessage();
-      } finally {
-        try {
-          if (xsdfile != null) {
-            xsdfile.close();
-          }
-        } catch (IOException e) {
-          // Ignore errors
-        }
       }
 
       Object[] outputRowData = null;
@@ -239,13 +227,39 @@ public class XsdValidator extends BaseTransform<XsdValidatorMeta, XsdValidatorDa
     return true;
   }
 
-  private Schema getXsdSchema(String xsdfilename, SchemaFactory factoryXSDValidator)
-      throws SAXException, HopTransformException {
+  private Schema getSchema(String xsdfilename) throws SAXException, IOException, HopException {
+    String key = Const.NVL(xsdfilename, "");
+    Schema schema = data.schemas.get(key);
+    if (schema != null) {
+      return schema;
+    }
+
+    if (StringUtils.isEmpty(xsdfilename)) {
+      schema = getXsdSchema(xsdfilename);
+    } else {
+      FileObject xsdfile = HopVfs.getFileObject(xsdfilename, variables);
+      try {
+        schema = getXsdSchemaFromFile(xsdfile);
+      } finally {
+        try {
+          xsdfile.close();
+        } catch (IOException e) {
+          // Ignore errors
+        }
+      }
+    }
+    data.schemas.put(key, schema);
+    return schema;
+  }
+
+  private Schema getXsdSchema(String xsdfilename) throws SAXException, HopTransformException {
     Schema schematXSD;
     if (meta.getXsdSource().equals(meta.NO_NEED)) {
       // ---Some documents specify the schema they expect to be validated against,
       // ---typically using xsi:noNamespaceSchemaLocation and/or xsi:schemaLocation attributes
-      schematXSD = factoryXSDValidator.newSchema();
+      schematXSD =
+          CompiledArtifactCache.getInstance()
+              .get(XSD_ARTIFACT, "", () -> newSchemaFactory().newSchema());
     } else {
       // we should not get here as anything entered in that does not look like
       // a url should be made a FileObject.
@@ -255,16 +269,26 @@ public class XsdValidator extends BaseTransform<XsdValidatorMeta, XsdValidatorDa
     return schematXSD;
   }
 
-  private Schema getXsdSchemaFromFile(FileObject xsdfile, SchemaFactory factoryXSDValidator)
-      throws SAXException, FileSystemException {
-    Schema schematXSD;
+  private Schema getXsdSchemaFromFile(FileObject xsdfile) throws SAXException, FileSystemException {
+    return CompiledArtifactCache.getInstance()
+        .get(XSD_ARTIFACT, CompiledArtifactCache.fileKey(xsdfile), () -> compileXsdSchema(xsdfile));
+  }
+
+  private static Schema compileXsdSchema(FileObject xsdfile) throws SAXException {
+    SchemaFactory factoryXSDValidator = newSchemaFactory();
     if (xsdfile.getName().getURI().contains("ram:///")) {
-      schematXSD =
-          factoryXSDValidator.newSchema(new StreamSource(xsdfile.getContent().getInputStream()));
+      try (InputStream inputStream = xsdfile.getContent().getInputStream()) {
+        return factoryXSDValidator.newSchema(new StreamSource(inputStream));
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
     } else {
-      schematXSD = factoryXSDValidator.newSchema(new File(HopVfs.getFilename(xsdfile)));
+      return factoryXSDValidator.newSchema(new File(HopVfs.getFilename(xsdfile)));
     }
-    return schematXSD;
+  }
+
+  private static SchemaFactory newSchemaFactory() {
+    return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
   }
 
   private void validXmlStreamField() throws HopTransformException {
@@ -17,6 +17,9 @@
 
 package org.apache.hop.pipeline.transforms.xml.xsdvalidator;
 
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.validation.Schema;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -27,9 +30,13 @@ public class XsdValidatorData extends BaseTransformData implements ITransformDat
   public int xsdindex;
   public IRowMeta outputRowMeta;
 
+  /** The schemas of this copy by XSD filename, in front of the shared cache */
+  public Map<String, Schema> schemas;
+
   public XsdValidatorData() {
     super();
     xmlindex = -1;
     xsdindex = -1;
+    schemas = new HashMap<>();
   }
 }
@@ -22,11 +22,13 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Properties;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamSource;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.CompiledArtifactCache;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -35,6 +37,9 @@ import org.apache.hop.pipeline.transform.ITransformData;
 @SuppressWarnings("java:S1104")
 public class XsltData extends BaseTransformData implements ITransformData {
 
+  /** The type of the XSL templates in the compiled artifact cache, followed by the factory */
+  private static final String XSLT_ARTIFACT = "xslt:";
+
   public IRowMeta outputRowMeta;
   public int fieldposition;
   public int fielxslfiledposition;
@@ -43,6 +48,8 @@ public class XsltData extends BaseTransformData implements ITransformData {
   public int[] fieldsUsed;
 
   public TransformerFactory factory;
+
+  /** The transformers of this copy by XSL filename or stylesheet, in front of the shared cache */
   public HashMap<String, Transformer> transformers;
 
   public int nrParams;
@@ -73,36 +80,45 @@ public class XsltData extends BaseTransformData implements ITransformData {
       return template;
     }
 
-    return createNewTemplate(xslFilename, isAfile, variables);
+    // A transformer isn't thread-safe: every transform copy uses its own.
+    // Only ask the shared cache on a local miss, a key costs a file stat or a stylesheet hash.
+    //
+    template = getTemplates(xslFilename, isAfile, variables).newTransformer();
+    transformers.put(xslFilename, template);
+    return template;
   }
 
-  private Transformer createNewTemplate(String xslSource, boolean isAfile, IVariables variables)
+  /**
+   * Get the compiled XSL templates from the cache which is shared by all transform copies and
+   * pipelines. A file is only compiled again when it changes.
+   */
+  private Templates getTemplates(String xslSource, boolean isAfile, IVariables variables)
       throws Exception {
-    FileObject file = null;
-    InputStream xslInputStream = null;
-    Transformer transformer = null;
-    try {
-      if (isAfile) {
-        file = HopVfs.getFileObject(xslSource, variables);
-        xslInputStream = HopVfs.getInputStream(file);
-      } else {
-        xslInputStream = new ByteArrayInputStream(xslSource.getBytes(StandardCharsets.UTF_8));
-      }
-
-      // Use the factory to create a template containing the xsl source
-      transformer = factory.newTransformer(new StreamSource(xslInputStream));
-      // Add transformer to cache
-      transformers.put(xslSource, transformer);
+    String type = XSLT_ARTIFACT + factory.getClass().getName();
+    CompiledArtifactCache cache = CompiledArtifactCache.getInstance();
+    if (!isAfile) {
+      return cache.get(
+          type,
+          CompiledArtifactCache.contentKey(xslSource),
+          () ->
+              factory.newTemplates(
+                  new StreamSource(
+                      new ByteArrayInputStream(xslSource.getBytes(StandardCharsets.UTF_8)))));
+    }
 
-      return transformer;
+    FileObject file = HopVfs.getFileObject(xslSource, variables);
+    try {
+      return cache.get(
+          type,
+          CompiledArtifactCache.fileKey(file),
+          () -> {
+            try (InputStream xslInputStream = HopVfs.getInputStream(file)) {
+              return factory.newTemplates(new StreamSource(xslInputStream));
+            }
+          });
     } finally {
       try {
-        if (file != null) {
-          file.close();
-        }
-        if (xslInputStream != null) {
-          xslInputStream.close();
-        }
+        file.close();
       } catch (Exception e) {
         /* Ignore */
       }
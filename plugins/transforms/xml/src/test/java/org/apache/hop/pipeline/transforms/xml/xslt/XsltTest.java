@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transforms.xml.xslt;
 
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
@@ -25,6 +27,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
 import org.apache.hop.core.HopClientEnvironment;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.RowMetaAndData;
@@ -36,6 +40,8 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
 import org.apache.hop.junit.rules.RestoreHopEnvironmentExtension;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineHopMeta;
@@ -264,6 +270,30 @@ class XsltTest {
     runTestWithParams("XML", "result", false, false, "filename", fileName, "SAXON");
   }
 
+  /**
+   * A transform copy keeps its transformers by XSL file, the shared cache is only asked for a file
+   * the copy didn't use before.
+   *
+   * @throws Exception Upon any exception
+   */
+  @Test
+  void testTemplateIsKeptPerCopy() throws Exception {
+    String fileName = writeInputFile();
+    String otherFileName = writeInputFile();
+    XsltData data = new XsltData();
+    data.factory = TransformerFactory.newInstance();
+    IVariables variables = new Variables();
+
+    Transformer transformer = data.getTemplate(fileName, true, variables);
+    Transformer other = data.getTemplate(otherFileName, true, variables);
+    assertNotSame(transformer, other);
+
+    // Without a factory the shared cache can't be asked anymore
+    data.factory = null;
+    assertSame(transformer, data.getTemplate(fileName, true, variables));
+    assertSame(other, data.getTemplate(otherFileName, true, variables));
+  }
+
   public void runTestWithParams(
       String xmlFieldname,
       String resultFieldname,